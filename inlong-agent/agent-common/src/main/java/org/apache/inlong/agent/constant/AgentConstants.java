@@ -90,6 +90,9 @@ public class AgentConstants {
     public static final int DEFAULT_CHANNEL_MEMORY_CAPACITY = 2000;
     public static final String TRIGGER_CHECK_INTERVAL = "trigger.check.interval";
     public static final int DEFAULT_TRIGGER_CHECK_INTERVAL = 2;
+    // full walk of the watched dirs, events are applied as deltas between two reconciliations
+    public static final String TRIGGER_RECONCILE_INTERVAL = "trigger.reconcile.interval";
+    public static final long DEFAULT_TRIGGER_RECONCILE_INTERVAL = 30 * 60;
     public static final String JOB_DB_CACHE_TIME = "job.db.cache.time";
     // cache for 3 days.
     public static final long DEFAULT_JOB_DB_CACHE_TIME = 3 * 24 * 60 * 60 * 1000;
@@ -70,6 +70,14 @@ public class CommonConstants {
     public static final String PROXY_PACKAGE_MAX_TIMEOUT_MS = "proxy.package.maxTimeout.ms";
     public static final int DEFAULT_PROXY_PACKAGE_MAX_TIMEOUT_MS = 4 * 1000;
 
+    // tune pack size and timeout from arrival rate and ack latency, within max size and max timeout
+    public static final String PROXY_PACKAGE_ADAPTIVE_ENABLE = "proxy.package.adaptive.enable";
+    public static final boolean DEFAULT_PROXY_PACKAGE_ADAPTIVE_ENABLE = true;
+    public static final String PROXY_PACKAGE_MIN_SIZE = "proxy.package.minSize";
+    public static final int DEFAULT_PROXY_PACKAGE_MIN_SIZE = 16 * 1024;
+    public static final String PROXY_PACKAGE_MIN_TIMEOUT_MS = "proxy.package.minTimeout.ms";
+    public static final int DEFAULT_PROXY_PACKAGE_MIN_TIMEOUT_MS = 100;
+
     public static final String PROXY_BATCH_FLUSH_INTERVAL = "proxy.batch.flush.interval";
     public static final int DEFAULT_PROXY_BATCH_FLUSH_INTERVAL = 100;
 
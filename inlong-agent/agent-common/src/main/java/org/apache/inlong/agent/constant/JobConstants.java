@@ -84,6 +84,8 @@ public class JobConstants extends CommonConstants {
     public static final String JOB_DATABASE_STORE_HISTORY_FILENAME = "job.binlogJob.history.filename";
     public static final String JOB_DATABASE_INCLUDE_SCHEMA_CHANGES = "job.binlogJob.schema";
     public static final String JOB_DATABASE_SNAPSHOT_MODE = "job.binlogJob.snapshot.mode";
+    // default threads of debezium to read the tables of a snapshot
+    public static final int DEFAULT_SNAPSHOT_MAX_THREADS = 1;
     public static final String JOB_DATABASE_HISTORY_MONITOR_DDL = "job.binlogJob.ddl";
     public static final String JOB_DATABASE_PORT = "job.binlogJob.port";
 
@@ -59,6 +59,14 @@ public interface Db extends Closeable {
      */
     KeyValueEntity put(KeyValueEntity entity);
 
+    /**
+     * store keyValues in one batch, if key has exists, overwrite it.
+     *
+     * @param entities key/value list
+     * @throws NullPointerException key should not be null.
+     */
+    void putAll(List<KeyValueEntity> entities);
+
     /**
      * remove keyValue by key.
      *
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.db;
+
+import org.apache.inlong.common.db.CommandEntity;
+
+import com.google.gson.Gson;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary codec of the entities stored in {@link RocksDbImp}.
+ * <p>
+ * Layout of key value entity: version(1) | state code(1) | key | fileName | jsonValue<br>
+ * Layout of command entity: version(1) | id | commandResult(4) | isAcked(1) | taskId | version | deliveryTime<br>
+ * where string is length(4) + utf8 bytes, length -1 means null, and nullable integer is flag(1) + value(4).
+ * <p>
+ * Values written by the older version are json strings, which always start with '{',
+ * they are still decoded by Gson so that the db can be upgraded in place.
+ */
+public class DbEntityCodec {
+
+    private static final Gson GSON = new Gson();
+
+    private static final byte VERSION = 1;
+    private static final byte JSON_START = '{';
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * encode key value entity
+     */
+    public static byte[] encode(KeyValueEntity entity) {
+        byte[] key = toBytes(entity.getKey());
+        byte[] fileName = toBytes(entity.getFileName());
+        byte[] jsonValue = toBytes(entity.getJsonValue());
+        ByteBuffer buffer = ByteBuffer.allocate(2 + sizeOf(key) + sizeOf(fileName) + sizeOf(jsonValue));
+        buffer.put(VERSION);
+        buffer.put(entity.getStateSearchKey().getCode());
+        putBytes(buffer, key);
+        putBytes(buffer, fileName);
+        putBytes(buffer, jsonValue);
+        return buffer.array();
+    }
+
+    /**
+     * decode key value entity
+     */
+    public static KeyValueEntity decodeKeyValue(byte[] bytes) {
+        if (bytes[0] == JSON_START) {
+            return GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), KeyValueEntity.class);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        checkVersion(buffer.get());
+        StateSearchKey state = StateSearchKey.valueOf(buffer.get());
+        String key = getString(buffer);
+        String fileName = getString(buffer);
+        String jsonValue = getString(buffer);
+        return new KeyValueEntity(key, jsonValue, fileName).setStateSearchKey(state);
+    }
+
+    /**
+     * encode command entity
+     */
+    public static byte[] encode(CommandEntity entity) {
+        byte[] id = toBytes(entity.getId());
+        byte[] deliveryTime = toBytes(entity.getDeliveryTime());
+        ByteBuffer buffer = ByteBuffer.allocate(1 + sizeOf(id) + 4 + 1 + 5 + 5 + sizeOf(deliveryTime));
+        buffer.put(VERSION);
+        putBytes(buffer, id);
+        buffer.putInt(entity.getCommandResult());
+        buffer.put((byte) (entity.isAcked() ? 1 : 0));
+        putInteger(buffer, entity.getTaskId());
+        putInteger(buffer, entity.getVersion());
+        putBytes(buffer, deliveryTime);
+        return buffer.array();
+    }
+
+    /**
+     * decode command entity
+     */
+    public static CommandEntity decodeCommand(byte[] bytes) {
+        if (bytes[0] == JSON_START) {
+            return GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), CommandEntity.class);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        checkVersion(buffer.get());
+        CommandEntity entity = new CommandEntity();
+        entity.setId(getString(buffer));
+        entity.setCommandResult(buffer.getInt());
+        entity.setAcked(buffer.get() == 1);
+        entity.setTaskId(getInteger(buffer));
+        entity.setVersion(getInteger(buffer));
+        entity.setDeliveryTime(getString(buffer));
+        return entity;
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported db entity version " + version);
+        }
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void putInteger(ByteBuffer buffer, Integer value) {
+        buffer.put((byte) (value == null ? 0 : 1));
+        buffer.putInt(value == null ? 0 : value);
+    }
+
+    private static Integer getInteger(ByteBuffer buffer) {
+        boolean present = buffer.get() == 1;
+        int value = buffer.getInt();
+        return present ? value : null;
+    }
+}
@@ -26,10 +26,12 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,10 +43,16 @@ import static org.apache.inlong.agent.constant.JobConstants.JOB_ID;
 public class JobProfileDb {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JobProfileDb.class);
+    // read-modify-write of a job is done under the lock of the job, jobs are striped to a fixed number of locks
+    private static final int JOB_LOCK_STRIPES = 64;
     private final Db db;
+    private final ReentrantLock[] jobLocks = new ReentrantLock[JOB_LOCK_STRIPES];
 
     public JobProfileDb(Db db) {
         this.db = db;
+        for (int i = 0; i < JOB_LOCK_STRIPES; i++) {
+            jobLocks[i] = new ReentrantLock();
+        }
     }
 
     /**
@@ -67,10 +75,16 @@ public class JobProfileDb {
      * @param stateSearchKey job state
      */
     public void updateJobState(String jobInstanceId, StateSearchKey stateSearchKey) {
-        KeyValueEntity entity = db.get(jobInstanceId);
-        if (entity != null) {
-            entity.setStateSearchKey(stateSearchKey);
-            db.put(entity);
+        ReentrantLock lock = jobLock(jobInstanceId);
+        lock.lock();
+        try {
+            KeyValueEntity entity = db.get(jobInstanceId);
+            if (entity != null) {
+                entity.setStateSearchKey(stateSearchKey);
+                db.put(entity);
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -87,7 +101,13 @@ public class JobProfileDb {
                     jobProfile.toJsonStr(), jobProfile.get(JobConstants.JOB_DIR_FILTER_PATTERNS, ""));
             entity.setStateSearchKey(StateSearchKey.ACCEPTED);
             LOGGER.info("store job {} to db", jobProfile.toJsonStr());
-            db.put(entity);
+            ReentrantLock lock = jobLock(keyName);
+            lock.lock();
+            try {
+                db.put(entity);
+            } finally {
+                lock.unlock();
+            }
         }
     }
 
@@ -98,13 +118,63 @@ public class JobProfileDb {
      */
     public void updateJobProfile(JobProfile jobProfile) {
         String instanceId = jobProfile.getInstanceId();
-        KeyValueEntity entity = db.get(instanceId);
-        if (entity == null) {
-            LOGGER.warn("job profile {} doesn't exist, update job profile fail {}", instanceId, jobProfile.toJsonStr());
-            return;
+        ReentrantLock lock = jobLock(instanceId);
+        lock.lock();
+        try {
+            KeyValueEntity entity = db.get(instanceId);
+            if (entity == null) {
+                LOGGER.warn("job profile {} doesn't exist, update job profile fail {}",
+                        instanceId, jobProfile.toJsonStr());
+                return;
+            }
+            entity.setJsonValue(jobProfile.toJsonStr());
+            db.put(entity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * update positions of jobs in one batch, each job is read only once.
+     * The locks of the jobs are held from the read to the batch write, so that the positions are merged into
+     * the latest entity and a concurrent update of state or profile, or a deletion, is not overwritten.
+     *
+     * @param jobPositions key is job instance id, value is position of each file, the key of position
+     *         is the property name in job profile
+     * @return instance ids of the jobs which are finished or not exist, their positions are not updated
+     */
+    public Set<String> updateJobPositions(Map<String, Map<String, Long>> jobPositions) {
+        // lock in ascending stripe order, single job updates only hold one lock, so there is no deadlock
+        boolean[] stripes = new boolean[JOB_LOCK_STRIPES];
+        jobPositions.keySet().forEach(instanceId -> stripes[jobStripe(instanceId)] = true);
+        for (int i = 0; i < JOB_LOCK_STRIPES; i++) {
+            if (stripes[i]) {
+                jobLocks[i].lock();
+            }
+        }
+        try {
+            Set<String> finishedJobs = new HashSet<>();
+            List<KeyValueEntity> entities = new ArrayList<>(jobPositions.size());
+            jobPositions.forEach((instanceId, positions) -> {
+                KeyValueEntity entity = db.get(instanceId);
+                if (entity == null || entity.checkFinished()) {
+                    finishedJobs.add(instanceId);
+                    return;
+                }
+                JobProfile jobProfile = entity.getAsJobProfile();
+                positions.forEach(jobProfile::setLong);
+                entity.setJsonValue(jobProfile.toJsonStr());
+                entities.add(entity);
+            });
+            db.putAll(entities);
+            return finishedJobs;
+        } finally {
+            for (int i = JOB_LOCK_STRIPES - 1; i >= 0; i--) {
+                if (stripes[i]) {
+                    jobLocks[i].unlock();
+                }
+            }
         }
-        entity.setJsonValue(jobProfile.toJsonStr());
-        db.put(entity);
     }
 
     /**
@@ -123,7 +193,13 @@ public class JobProfileDb {
      * delete job by keyName
      */
     public void deleteJob(String keyName) {
-        db.remove(keyName);
+        ReentrantLock lock = jobLock(keyName);
+        lock.lock();
+        try {
+            db.remove(keyName);
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -250,4 +326,12 @@ public class JobProfileDb {
         }
         return jobStateMap;
     }
+
+    private int jobStripe(String instanceId) {
+        return (instanceId.hashCode() & Integer.MAX_VALUE) % JOB_LOCK_STRIPES;
+    }
+
+    private ReentrantLock jobLock(String instanceId) {
+        return jobLocks[jobStripe(instanceId)];
+    }
 }
@@ -21,7 +21,6 @@ import org.apache.inlong.agent.conf.AgentConfiguration;
 import org.apache.inlong.agent.constant.AgentConstants;
 import org.apache.inlong.common.db.CommandEntity;
 
-import com.google.gson.Gson;
 import org.rocksdb.AbstractImmutableNativeReference;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
@@ -32,15 +31,18 @@ import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -52,12 +54,15 @@ import static java.util.Objects.requireNonNull;
 public class RocksDbImp implements Db {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RocksDbImp.class);
-    private static final Gson GSON = new Gson();
+    private static final byte[] EMPTY_VALUE = new byte[0];
 
     private final AgentConfiguration conf;
     private final RocksDB db;
     private final String commandFamilyName = "command";
     private final String defaultFamilyName = "default";
+    // index of key value entities, key is state code + entity key, value is empty
+    private final String stateIndexFamilyName = "state_index";
+    private final WriteOptions writeOptions = new WriteOptions();
     private ConcurrentHashMap<String, ColumnFamilyHandle> columnHandlesMap;
     private ConcurrentHashMap<String, ColumnFamilyDescriptor> columnDescriptorMap;
     private String storePath;
@@ -68,6 +73,11 @@ public class RocksDbImp implements Db {
         this.db = initEnv();
         // add a command column family
         addColumnFamily(commandFamilyName);
+        boolean indexExists = columnHandlesMap.containsKey(stateIndexFamilyName);
+        addColumnFamily(stateIndexFamilyName);
+        if (!indexExists) {
+            rebuildStateIndex();
+        }
     }
 
     private static ColumnFamilyDescriptor getColumnFamilyDescriptor(byte[] columnFamilyName) {
@@ -151,8 +161,8 @@ public class RocksDbImp implements Db {
     public KeyValueEntity get(String key) {
         requireNonNull(key);
         try {
-            byte[] bytes = db.get(columnHandlesMap.get(defaultFamilyName), key.getBytes());
-            return bytes == null ? null : GSON.fromJson(new String(bytes), KeyValueEntity.class);
+            byte[] bytes = db.get(columnHandlesMap.get(defaultFamilyName), toBytes(key));
+            return bytes == null ? null : DbEntityCodec.decodeKeyValue(bytes);
         } catch (Exception e) {
             throw new RuntimeException("get key value entity error", e);
         }
@@ -161,8 +171,8 @@ public class RocksDbImp implements Db {
     @Override
     public CommandEntity getCommand(String commandId) {
         try {
-            byte[] bytes = db.get(columnHandlesMap.get(commandFamilyName), commandId.getBytes());
-            return bytes == null ? null : GSON.fromJson(new String(bytes), CommandEntity.class);
+            byte[] bytes = db.get(columnHandlesMap.get(commandFamilyName), toBytes(commandId));
+            return bytes == null ? null : DbEntityCodec.decodeCommand(bytes);
         } catch (Exception e) {
             throw new RuntimeException("get command value error", e);
         }
@@ -172,7 +182,7 @@ public class RocksDbImp implements Db {
     public CommandEntity putCommand(CommandEntity entity) {
         requireNonNull(entity);
         try {
-            db.put(columnHandlesMap.get(commandFamilyName), entity.getId().getBytes(), GSON.toJson(entity).getBytes());
+            db.put(columnHandlesMap.get(commandFamilyName), toBytes(entity.getId()), DbEntityCodec.encode(entity));
         } catch (Exception e) {
             throw new RuntimeException("put value to rocks db error", e);
         }
@@ -188,14 +198,30 @@ public class RocksDbImp implements Db {
     @Override
     public KeyValueEntity put(KeyValueEntity entity) {
         requireNonNull(entity);
-        try {
-            db.put(columnHandlesMap.get(defaultFamilyName), entity.getKey().getBytes(), GSON.toJson(entity).getBytes());
+        try (WriteBatch batch = new WriteBatch()) {
+            addToBatch(batch, entity);
+            db.write(writeOptions, batch);
         } catch (Exception e) {
             throw new RuntimeException("put value to rocks db error", e);
         }
         return entity;
     }
 
+    @Override
+    public void putAll(List<KeyValueEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        try (WriteBatch batch = new WriteBatch()) {
+            for (KeyValueEntity entity : entities) {
+                addToBatch(batch, requireNonNull(entity));
+            }
+            db.write(writeOptions, batch);
+        } catch (Exception e) {
+            throw new RuntimeException("put values to rocks db error", e);
+        }
+    }
+
     @Override
     public KeyValueEntity remove(String key) {
         requireNonNull(key);
@@ -204,8 +230,13 @@ public class RocksDbImp implements Db {
             LOGGER.warn("no key {} exist in rocksdb", key);
             return null;
         }
-        try {
-            db.delete(columnHandlesMap.get(defaultFamilyName), key.getBytes());
+        try (WriteBatch batch = new WriteBatch()) {
+            byte[] keyBytes = toBytes(key);
+            batch.delete(columnHandlesMap.get(defaultFamilyName), keyBytes);
+            for (StateSearchKey state : StateSearchKey.values()) {
+                batch.delete(columnHandlesMap.get(stateIndexFamilyName), stateIndexKey(state, keyBytes));
+            }
+            db.write(writeOptions, batch);
             return keyValueEntity;
         } catch (Exception e) {
             throw new RuntimeException("remove value from rocks db error", e);
@@ -215,48 +246,22 @@ public class RocksDbImp implements Db {
     @Override
     public List<KeyValueEntity> searchWithKeyPrefix(StateSearchKey searchKey, String keyPrefix) {
         List<KeyValueEntity> results = new LinkedList<>();
-        try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
-            it.seekToFirst();
-            while (it.isValid()) {
-                KeyValueEntity keyValue = GSON.fromJson(new String(it.value()), KeyValueEntity.class);
-                if (keyValue.getStateSearchKey().equals(searchKey) && keyValue.getKey().startsWith(keyPrefix)) {
-                    results.add(keyValue);
-                }
-                it.next();
-            }
-        }
+        searchByStateIndex(searchKey, keyPrefix, results, Integer.MAX_VALUE);
         return results;
     }
 
     @Override
     public List<KeyValueEntity> search(StateSearchKey searchKey) {
         List<KeyValueEntity> results = new LinkedList<>();
-        try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
-            it.seekToFirst();
-            while (it.isValid()) {
-                KeyValueEntity keyValue = GSON.fromJson(new String(it.value()), KeyValueEntity.class);
-                if (keyValue.getStateSearchKey().equals(searchKey)) {
-                    results.add(keyValue);
-                }
-                it.next();
-            }
-        }
+        searchByStateIndex(searchKey, "", results, Integer.MAX_VALUE);
         return results;
     }
 
     @Override
     public List<KeyValueEntity> search(List<StateSearchKey> searchKeys) {
         List<KeyValueEntity> results = new LinkedList<>();
-        try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
-            it.seekToFirst();
-            while (it.isValid()) {
-                KeyValueEntity keyValue = GSON.fromJson(new String(it.value()), KeyValueEntity.class);
-                if (Objects.nonNull(keyValue) && searchKeys.contains(keyValue.getStateSearchKey())) {
-                    results.add(keyValue);
-                }
-                it.next();
-            }
-        }
+        searchKeys.stream().distinct()
+                .forEach(searchKey -> searchByStateIndex(searchKey, "", results, Integer.MAX_VALUE));
         return results;
     }
 
@@ -266,7 +271,7 @@ public class RocksDbImp implements Db {
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(commandFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
-                CommandEntity commandEntity = GSON.fromJson(new String(it.value()), CommandEntity.class);
+                CommandEntity commandEntity = DbEntityCodec.decodeCommand(it.value());
                 if (commandEntity.isAcked() == isAcked) {
                     results.add(commandEntity);
                 }
@@ -278,17 +283,9 @@ public class RocksDbImp implements Db {
 
     @Override
     public KeyValueEntity searchOne(StateSearchKey searchKey) {
-        try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
-            it.seekToFirst();
-            while (it.isValid()) {
-                KeyValueEntity keyValue = GSON.fromJson(new String(it.value()), KeyValueEntity.class);
-                if (keyValue.getStateSearchKey().equals(searchKey)) {
-                    return keyValue;
-                }
-                it.next();
-            }
-        }
-        return null;
+        List<KeyValueEntity> results = new ArrayList<>(1);
+        searchByStateIndex(searchKey, "", results, 1);
+        return results.isEmpty() ? null : results.get(0);
     }
 
     @Override
@@ -296,7 +293,7 @@ public class RocksDbImp implements Db {
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
-                KeyValueEntity keyValue = GSON.fromJson(new String(it.value()), KeyValueEntity.class);
+                KeyValueEntity keyValue = DbEntityCodec.decodeKeyValue(it.value());
                 if (keyValue.getFileName().equals(fileName)) {
                     return keyValue;
                 }
@@ -309,22 +306,109 @@ public class RocksDbImp implements Db {
     @Override
     public List<KeyValueEntity> findAll(String prefix) {
         List<KeyValueEntity> results = new LinkedList<>();
+        byte[] prefixBytes = toBytes(prefix);
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
+            // keys are sorted, so seek to the prefix and stop at the first key not matched
+            it.seek(prefixBytes);
+            while (it.isValid() && startsWith(it.key(), prefixBytes)) {
+                results.add(DbEntityCodec.decodeKeyValue(it.value()));
+                it.next();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * write the entity and its state index in the same batch, index of other states are deleted,
+     * so that the index is always consistent with the entity without reading the old value.
+     */
+    private void addToBatch(WriteBatch batch, KeyValueEntity entity) throws RocksDBException {
+        byte[] keyBytes = toBytes(entity.getKey());
+        batch.put(columnHandlesMap.get(defaultFamilyName), keyBytes, DbEntityCodec.encode(entity));
+        ColumnFamilyHandle indexHandle = columnHandlesMap.get(stateIndexFamilyName);
+        for (StateSearchKey state : StateSearchKey.values()) {
+            if (state == entity.getStateSearchKey()) {
+                batch.put(indexHandle, stateIndexKey(state, keyBytes), EMPTY_VALUE);
+            } else {
+                batch.delete(indexHandle, stateIndexKey(state, keyBytes));
+            }
+        }
+    }
+
+    private void searchByStateIndex(StateSearchKey searchKey, String keyPrefix,
+            List<KeyValueEntity> results, int maxNum) {
+        requireNonNull(searchKey);
+        byte[] indexPrefix = stateIndexKey(searchKey, toBytes(keyPrefix));
+        ColumnFamilyHandle defaultHandle = columnHandlesMap.get(defaultFamilyName);
+        int found = 0;
+        try (final RocksIterator it = db.newIterator(columnHandlesMap.get(stateIndexFamilyName))) {
+            it.seek(indexPrefix);
+            while (found < maxNum && it.isValid() && startsWith(it.key(), indexPrefix)) {
+                byte[] indexKey = it.key();
+                byte[] bytes = db.get(defaultHandle, Arrays.copyOfRange(indexKey, 1, indexKey.length));
+                if (bytes != null) {
+                    KeyValueEntity keyValue = DbEntityCodec.decodeKeyValue(bytes);
+                    if (keyValue.getStateSearchKey() == searchKey) {
+                        results.add(keyValue);
+                        found++;
+                    }
+                }
+                it.next();
+            }
+        } catch (RocksDBException e) {
+            throw new RuntimeException("search by state index error", e);
+        }
+    }
+
+    /**
+     * build the state index from all the entities, used when upgrading from the db without index.
+     */
+    private void rebuildStateIndex() {
+        int count = 0;
+        try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName));
+                WriteBatch batch = new WriteBatch()) {
             it.seekToFirst();
             while (it.isValid()) {
-                KeyValueEntity keyValue = GSON.fromJson(new String(it.value()), KeyValueEntity.class);
-                if (keyValue.getKey().startsWith(prefix)) {
-                    results.add(keyValue);
-                }
+                KeyValueEntity keyValue = DbEntityCodec.decodeKeyValue(it.value());
+                batch.put(columnHandlesMap.get(stateIndexFamilyName),
+                        stateIndexKey(keyValue.getStateSearchKey(), it.key()), EMPTY_VALUE);
+                count++;
                 it.next();
             }
+            db.write(writeOptions, batch);
+        } catch (RocksDBException e) {
+            throw new RuntimeException("rebuild state index error", e);
         }
-        return results;
+        LOGGER.info("rebuild state index for {} entities", count);
+    }
+
+    private static byte[] stateIndexKey(StateSearchKey state, byte[] keyBytes) {
+        byte[] indexKey = new byte[keyBytes.length + 1];
+        indexKey[0] = state.getCode();
+        System.arraycopy(keyBytes, 0, indexKey, 1, keyBytes.length);
+        return indexKey;
+    }
+
+    private static byte[] toBytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public void close() throws IOException {
         db.close();
+        writeOptions.close();
         columnHandlesMap.values().forEach(AbstractImmutableNativeReference::close);
         columnHandlesMap.clear();
         columnDescriptorMap.clear();
@@ -19,14 +19,46 @@ package org.apache.inlong.agent.db;
 
 /**
  * search key for state.
+ * <p>
+ * The code is persisted by {@link DbEntityCodec} and the state index of {@link RocksDbImp},
+ * so the code of an existing state must never change, and a new state takes a new code.
  */
 public enum StateSearchKey {
     // success state
-    SUCCESS,
+    SUCCESS(0),
     // fail state
-    FAILED,
+    FAILED(1),
     // accepted state
-    ACCEPTED,
+    ACCEPTED(2),
     // running state
-    RUNNING
+    RUNNING(3);
+
+    private static final StateSearchKey[] STATES_BY_CODE = new StateSearchKey[Byte.MAX_VALUE + 1];
+
+    static {
+        for (StateSearchKey state : values()) {
+            STATES_BY_CODE[state.code] = state;
+        }
+    }
+
+    private final byte code;
+
+    StateSearchKey(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * get state by the persisted code
+     */
+    public static StateSearchKey valueOf(byte code) {
+        StateSearchKey state = code >= 0 ? STATES_BY_CODE[code] : null;
+        if (state == null) {
+            throw new IllegalArgumentException("unknown state code " + code);
+        }
+        return state;
+    }
+
+    public byte getCode() {
+        return code;
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.message;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tune the pack size and linger time of a stream from the observed arrival rate and ack latency.
+ * <p>
+ * The linger time follows the ack latency: waiting about one round trip costs little extra latency, so a stream
+ * with few data is flushed soon instead of waiting for the fixed timeout, while a slow proxy leads to longer
+ * linger and fewer requests. The pack size is the bytes expected to arrive during the linger time, so a busy
+ * stream sends full packs. Both stay within [min, max] configured for the job.
+ */
+public class AdaptivePackController {
+
+    // weight of the new sample of the moving averages
+    private static final double ALPHA = 0.2;
+    // linger time is a multiple of the ack latency
+    private static final int LINGER_LATENCY_RATIO = 2;
+
+    private final boolean enable;
+    private final int minPackSize;
+    private final int maxPackSize;
+    private final int minLingerMs;
+    private final int maxLingerMs;
+
+    private final AtomicLong arrivedBytes = new AtomicLong(0);
+    // updated by the flush thread only
+    private long lastUpdateTime;
+    // bytes per ms, -1 until the first sample
+    private volatile double arrivalRate = -1;
+    // ms, updated by sender callbacks, -1 until the first ack
+    private volatile double ackLatency = -1;
+    private volatile int packSize;
+    private volatile int lingerMs;
+
+    public AdaptivePackController(boolean enable, int minPackSize, int maxPackSize, int minLingerMs,
+            int maxLingerMs, long currentTime) {
+        this.enable = enable;
+        this.maxPackSize = maxPackSize;
+        this.minPackSize = Math.min(minPackSize, maxPackSize);
+        this.maxLingerMs = maxLingerMs;
+        this.minLingerMs = Math.min(minLingerMs, maxLingerMs);
+        this.lastUpdateTime = currentTime;
+        // start with the configured upper bounds, the same as the fixed policy
+        this.packSize = maxPackSize;
+        this.lingerMs = maxLingerMs;
+    }
+
+    /**
+     * Record the bytes of a message added to the pack.
+     */
+    public void onArrive(long bytes) {
+        arrivedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Record the latency between sending a pack and receiving its ack.
+     */
+    public synchronized void onAck(long latencyMs) {
+        ackLatency = ackLatency < 0 ? latencyMs : ALPHA * latencyMs + (1 - ALPHA) * ackLatency;
+    }
+
+    /**
+     * Update the arrival rate and recompute the pack size and linger time, called by the flush thread.
+     * The rate is sampled at most once per min linger time so that it's not too noisy.
+     */
+    public void update(long currentTime) {
+        long elapsed = currentTime - lastUpdateTime;
+        if (!enable || elapsed < Math.max(1, minLingerMs)) {
+            return;
+        }
+        double rate = (double) arrivedBytes.getAndSet(0) / elapsed;
+        arrivalRate = arrivalRate < 0 ? rate : ALPHA * rate + (1 - ALPHA) * arrivalRate;
+        lastUpdateTime = currentTime;
+
+        double latency = ackLatency;
+        int linger = latency < 0 ? maxLingerMs : (int) clamp(latency * LINGER_LATENCY_RATIO, minLingerMs,
+                maxLingerMs);
+        lingerMs = linger;
+        packSize = (int) clamp(arrivalRate * linger, minPackSize, maxPackSize);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public int getPackSize() {
+        return packSize;
+    }
+
+    public int getLingerMs() {
+        return lingerMs;
+    }
+
+    public int getMaxPackSize() {
+        return maxPackSize;
+    }
+
+    /**
+     * @return arrival rate in bytes per second
+     */
+    public long getArrivalRate() {
+        return Math.max(0, Math.round(arrivalRate * 1000));
+    }
+
+    /**
+     * @return ack latency in ms
+     */
+    public long getAckLatency() {
+        return Math.max(0, Math.round(ackLatency));
+    }
+}
@@ -42,6 +42,8 @@ public class BatchProxyMessage {
     private List<byte[]> dataList;
     private long dataTime;
     private Map<String, String> extraMap;
+    // controller of the pack this batch comes from, fed with the ack latency
+    private AdaptivePackController packController;
 
     public InLongMsg getInLongMsg() {
         InLongMsg message = InLongMsg.newInLongMsg(true);
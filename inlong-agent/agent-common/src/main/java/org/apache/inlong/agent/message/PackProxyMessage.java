@@ -32,11 +32,17 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_INLONG_STREAM_ID_QUEUE_MAX_NUMBER;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_PACKAGE_ADAPTIVE_ENABLE;
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_PACKAGE_MAX_SIZE;
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_PACKAGE_MAX_TIMEOUT_MS;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_PACKAGE_MIN_SIZE;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_PACKAGE_MIN_TIMEOUT_MS;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_INLONG_STREAM_ID_QUEUE_MAX_NUMBER;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_PACKAGE_ADAPTIVE_ENABLE;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_PACKAGE_MAX_SIZE;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_PACKAGE_MAX_TIMEOUT_MS;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_PACKAGE_MIN_SIZE;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_PACKAGE_MIN_TIMEOUT_MS;
 import static org.apache.inlong.common.msg.AttributeConstants.DATA_TIME;
 import static org.apache.inlong.common.msg.AttributeConstants.MESSAGE_TOPIC;
 import static org.apache.inlong.common.msg.AttributeConstants.STREAM_ID;
@@ -58,7 +64,8 @@ public class PackProxyMessage {
     // streamId -> list of proxyMessage
     private final LinkedBlockingQueue<ProxyMessage> messageQueue;
     private final AtomicLong queueSize = new AtomicLong(0);
-    private int currentSize;
+    // pack size and cache timeout used to flush, within maxPackSize and cacheTimeout
+    private final AdaptivePackController packController;
     /**
      * extra map used when sending to dataproxy
      */
@@ -78,6 +85,11 @@ public class PackProxyMessage {
         this.messageQueue = new LinkedBlockingQueue<>(maxQueueNumber);
         this.groupId = groupId;
         this.streamId = streamId;
+        this.packController = new AdaptivePackController(
+                jobConf.getBoolean(PROXY_PACKAGE_ADAPTIVE_ENABLE, DEFAULT_PROXY_PACKAGE_ADAPTIVE_ENABLE),
+                jobConf.getInt(PROXY_PACKAGE_MIN_SIZE, DEFAULT_PROXY_PACKAGE_MIN_SIZE), maxPackSize,
+                jobConf.getInt(PROXY_PACKAGE_MIN_TIMEOUT_MS, DEFAULT_PROXY_PACKAGE_MIN_TIMEOUT_MS), cacheTimeout,
+                System.currentTimeMillis());
         extraMap.put(AttributeConstants.MESSAGE_SYNC_SEND, "false");
     }
 
@@ -113,6 +125,7 @@ public class PackProxyMessage {
             }
             messageQueue.put(message);
             queueSize.addAndGet(message.getBody().length);
+            packController.onArrive(message.getBody().length);
             return true;
         } catch (Exception ex) {
             LOGGER.error("exception caught", ex);
@@ -135,8 +148,10 @@ public class PackProxyMessage {
     public BatchProxyMessage fetchBatch() {
         // if queue is nearly full or package size is satisfied or timeout
         long currentTime = System.currentTimeMillis();
-        if (queueSize.get() > maxPackSize || queueIsFull()
-                || currentTime - currentCacheTime > cacheTimeout) {
+        packController.update(currentTime);
+        int packSize = packController.getPackSize();
+        if (queueSize.get() >= packSize || queueIsFull()
+                || currentTime - currentCacheTime > packController.getLingerMs()) {
             // refresh cache time.
             currentCacheTime = currentTime;
             long resultBatchSize = 0;
@@ -145,18 +160,19 @@ public class PackProxyMessage {
                 // pre check message size
                 ProxyMessage peekMessage = messageQueue.peek();
                 int peekMessageLength = peekMessage.getBody().length;
-                if (resultBatchSize + peekMessageLength > maxPackSize) {
-                    break;
-                }
-                ProxyMessage message = messageQueue.remove();
-                int bodySize = message.getBody().length;
                 if (peekMessageLength > maxPackSize) {
                     LOGGER.warn("message size is {}, greater than max pack size {}, drop it!",
-                            peekMessage.getBody().length, maxPackSize);
-                    queueSize.addAndGet(-bodySize);
+                            peekMessageLength, maxPackSize);
+                    queueSize.addAndGet(-peekMessageLength);
                     messageQueue.remove();
+                    continue;
+                }
+                // a message larger than the adaptive pack size is sent alone
+                if (!result.isEmpty() && resultBatchSize + peekMessageLength > packSize) {
                     break;
                 }
+                ProxyMessage message = messageQueue.remove();
+                int bodySize = message.getBody().length;
                 resultBatchSize += bodySize;
                 // decrease queue size.
                 queueSize.addAndGet(-bodySize);
@@ -164,12 +180,17 @@ public class PackProxyMessage {
             }
             // make sure result is not empty.
             if (!result.isEmpty()) {
-                return new BatchProxyMessage(jobId, groupId, streamId, result, AgentUtils.getCurrentTime(), extraMap);
+                return new BatchProxyMessage(jobId, groupId, streamId, result, AgentUtils.getCurrentTime(), extraMap,
+                        packController);
             }
         }
         return null;
     }
 
+    public AdaptivePackController getPackController() {
+        return packController;
+    }
+
     public Map<String, String> getExtraMap() {
         return extraMap;
     }
@@ -54,6 +54,11 @@ public class AgentMetricItem extends MetricItem {
     public static final String M_PLUGIN_SEND_FAIL_COUNT = "pluginSendFailCount";
     public static final String M_PLUGIN_READ_SUCCESS_COUNT = "pluginReadSuccessCount";
     public static final String M_PLUGIN_SEND_SUCCESS_COUNT = "pluginSendSuccessCount";
+    // adaptive pack
+    public static final String M_PLUGIN_PACK_SIZE = "pluginPackSize";
+    public static final String M_PLUGIN_PACK_TIMEOUT = "pluginPackTimeout";
+    public static final String M_PLUGIN_ARRIVAL_RATE = "pluginArrivalRate";
+    public static final String M_PLUGIN_SEND_LATENCY = "pluginSendLatency";
 
     @Dimension
     public String pluginId;
@@ -92,4 +97,12 @@ public class AgentMetricItem extends MetricItem {
     public AtomicLong pluginReadSuccessCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong pluginSendSuccessCount = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong pluginPackSize = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong pluginPackTimeout = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong pluginArrivalRate = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong pluginSendLatency = new AtomicLong(0);
 }
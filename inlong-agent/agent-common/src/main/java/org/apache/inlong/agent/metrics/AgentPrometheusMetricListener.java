@@ -24,6 +24,7 @@ import org.apache.inlong.common.metric.MetricValue;
 
 import io.prometheus.client.Collector;
 import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
 import io.prometheus.client.exporter.HTTPServer;
 import io.prometheus.client.hotspot.DefaultExports;
 import org.slf4j.Logger;
@@ -36,9 +37,11 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -48,11 +51,15 @@ import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_COMPONENT_NAME
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_PLUGIN_ID;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_JOB_FATAL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_JOB_RUNNING_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_ARRIVAL_RATE;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_SIZE;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_TIMEOUT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_FAIL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_SUCCESS_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_FAIL_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_LATENCY;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_SUCCESS_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_SINK_FAIL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_SINK_SUCCESS_COUNT;
@@ -72,6 +79,9 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
     public static final String DEFAULT_DIMENSION_LABEL = "dimension";
     public static final String HYPHEN_SYMBOL = "-";
     private static final Logger LOGGER = LoggerFactory.getLogger(AgentPrometheusMetricListener.class);
+    // gauge metrics are replaced by the latest value instead of accumulated
+    private static final Set<String> GAUGE_METRICS = new HashSet<>(Arrays.asList(M_PLUGIN_PACK_SIZE,
+            M_PLUGIN_PACK_TIMEOUT, M_PLUGIN_ARRIVAL_RATE, M_PLUGIN_SEND_LATENCY));
     protected HTTPServer httpServer;
     private AgentMetricItem metricItem;
     private Map<String, AtomicLong> metricValueMap = new ConcurrentHashMap<>();
@@ -179,6 +189,14 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
             addCounterMetricFamily(M_PLUGIN_READ_SUCCESS_COUNT, itemValue, idCounter);
             addCounterMetricFamily(M_PLUGIN_SEND_SUCCESS_COUNT, itemValue, idCounter);
             mfs.add(idCounter);
+
+            // decisions of adaptive pack, only meaningful per dimension
+            GaugeMetricFamily idGauge = new GaugeMetricFamily(counterName + "_gauge",
+                    "gauge_metrics_of_agent_dimensions_" + counterName, dimensionIdKeys);
+            for (String gaugeName : GAUGE_METRICS) {
+                idGauge.addMetric(getLabelValues(gaugeName, itemValue), getMetricValue(gaugeName, itemValue));
+            }
+            mfs.add(idGauge);
         }
         return mfs;
     }
@@ -220,7 +238,11 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
                     dimensionMetricValue.getMetrics().put(metricValue.name, metricValue);
                     continue;
                 }
-                metricValue.value += entry.getValue().value;
+                if (GAUGE_METRICS.contains(fieldName)) {
+                    metricValue.value = entry.getValue().value;
+                } else {
+                    metricValue.value += entry.getValue().value;
+                }
             }
         }
 
@@ -228,6 +250,10 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
 
     private void addCounterMetricFamily(String defaultDimension, MetricItemValue itemValue,
             CounterMetricFamily idCounter) {
+        idCounter.addMetric(getLabelValues(defaultDimension, itemValue), getMetricValue(defaultDimension, itemValue));
+    }
+
+    private List<String> getLabelValues(String defaultDimension, MetricItemValue itemValue) {
         Map<String, String> dimensionMap = itemValue.getDimensions();
         List<String> labelValues = new ArrayList<>(dimensionMap.size() + 1);
         labelValues.add(defaultDimension);
@@ -235,12 +261,11 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
             String labelValue = dimensionMap.getOrDefault(key, HYPHEN_SYMBOL);
             labelValues.add(labelValue);
         }
-        long value = 0L;
-        Map<String, MetricValue> metricValueMap = itemValue.getMetrics();
-        MetricValue metricValue = metricValueMap.get(defaultDimension);
-        if (metricValue != null) {
-            value = metricValue.value;
-        }
-        idCounter.addMetric(labelValues, value);
+        return labelValues;
+    }
+
+    private long getMetricValue(String defaultDimension, MetricItemValue itemValue) {
+        MetricValue metricValue = itemValue.getMetrics().get(defaultDimension);
+        return metricValue == null ? 0L : metricValue.value;
     }
 }
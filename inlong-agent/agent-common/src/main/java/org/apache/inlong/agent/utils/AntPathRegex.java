@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.utils;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Pre-compiled form of an ant path pattern.<br>
+ * Same semantic as {@link PathUtils#antPathMatch} and {@link PathUtils#antPathIncluded}, but the pattern
+ * is tokenized only once, so it is cheap enough to be checked against every path found by the watcher.
+ */
+public class AntPathRegex {
+
+    private static final String EVERYTHING = "**";
+
+    private final String separator;
+    private final String patternStr;
+    private final Pattern fullPattern;
+    // prefixPatterns[i] is the regex of the first i segments of the pattern
+    private final Pattern[] prefixPatterns;
+    // index of the first "**" segment, -1 if not exists
+    private final int everythingIndex;
+
+    private AntPathRegex(String patternStr, String separator) {
+        this.separator = separator;
+        this.patternStr = patternStr;
+        String[] segments = patternStr.split(Pattern.quote(separator));
+        this.fullPattern = Pattern.compile(toRegex(segments, segments.length, patternStr.endsWith(separator)));
+        this.prefixPatterns = new Pattern[segments.length + 1];
+        for (int i = 0; i <= segments.length; i++) {
+            prefixPatterns[i] = Pattern.compile(toRegex(segments, i, false));
+        }
+        this.everythingIndex = Arrays.asList(segments).indexOf(EVERYTHING);
+    }
+
+    public static AntPathRegex compile(String patternStr) {
+        return new AntPathRegex(patternStr, File.separator);
+    }
+
+    public static AntPathRegex compile(String patternStr, String separator) {
+        return new AntPathRegex(patternStr, separator);
+    }
+
+    /**
+     * Check whether the path matches the whole pattern
+     */
+    public boolean match(String pathStr) {
+        return fullPattern.matcher(pathStr).matches();
+    }
+
+    /**
+     * Check whether the directory is a possible prefix of the pattern,
+     * that is, files matching the pattern may exist under this directory.
+     */
+    public boolean included(String dirStr) {
+        int dirSegmentNum = countSegments(dirStr);
+        if (everythingIndex != -1) {
+            if (dirSegmentNum < everythingIndex) {
+                return prefixPatterns[dirSegmentNum].matcher(dirStr).matches();
+            }
+            return prefixPatterns[everythingIndex].matcher(prefixOf(dirStr, everythingIndex)).matches();
+        }
+        if (dirSegmentNum >= prefixPatterns.length) {
+            return false;
+        }
+        return prefixPatterns[dirSegmentNum].matcher(dirStr).matches();
+    }
+
+    public String getPatternStr() {
+        return patternStr;
+    }
+
+    @Override
+    public String toString() {
+        return patternStr;
+    }
+
+    private int countSegments(String pathStr) {
+        // keep the same semantic as String#split, which removes the trailing empty segments
+        int end = pathStr.length();
+        while (end >= separator.length() && pathStr.startsWith(separator, end - separator.length())) {
+            end -= separator.length();
+        }
+        if (end == 0) {
+            return pathStr.isEmpty() ? 1 : 0;
+        }
+        int count = 1;
+        int index = pathStr.indexOf(separator);
+        while (index != -1 && index < end) {
+            count++;
+            index = pathStr.indexOf(separator, index + separator.length());
+        }
+        return count;
+    }
+
+    private String prefixOf(String pathStr, int segmentNum) {
+        if (segmentNum == 0) {
+            return "";
+        }
+        int index = -1;
+        for (int i = 0; i < segmentNum; i++) {
+            index = pathStr.indexOf(separator, index + separator.length());
+            if (index == -1) {
+                return pathStr;
+            }
+        }
+        return pathStr.substring(0, index);
+    }
+
+    private String toRegex(String[] segments, int segmentNum, boolean endsWithSeparator) {
+        String quotedSeparator = Pattern.quote(separator);
+        String notSeparator = "[^" + ("\\".equals(separator) ? "\\\\" : separator) + "]";
+        StringBuilder regex = new StringBuilder();
+        boolean separatorConsumed = false;
+        for (int i = 0; i < segmentNum; i++) {
+            String segment = segments[i];
+            boolean last = i == segmentNum - 1;
+            if (EVERYTHING.equals(segment)) {
+                if (last) {
+                    // trailing "**" also matches the parent directory itself
+                    regex.append(i == 0 || separatorConsumed ? ".*" : "(?:" + quotedSeparator + ".*)?");
+                } else {
+                    if (i > 0 && !separatorConsumed) {
+                        regex.append(quotedSeparator);
+                    }
+                    regex.append("(?:").append(notSeparator).append("*").append(quotedSeparator).append(")*");
+                    separatorConsumed = true;
+                }
+                continue;
+            }
+            if (i > 0 && !separatorConsumed) {
+                regex.append(quotedSeparator);
+            }
+            separatorConsumed = false;
+            appendSegment(regex, segment, notSeparator);
+        }
+        if (endsWithSeparator) {
+            regex.append(quotedSeparator);
+        }
+        return regex.toString();
+    }
+
+    private void appendSegment(StringBuilder regex, String segment, String notSeparator) {
+        int literalStart = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c != '*' && c != '?') {
+                continue;
+            }
+            if (i > literalStart) {
+                regex.append(Pattern.quote(segment.substring(literalStart, i)));
+            }
+            regex.append(notSeparator).append(c == '*' ? "*" : "");
+            literalStart = i + 1;
+        }
+        if (literalStart < segment.length()) {
+            regex.append(Pattern.quote(segment.substring(literalStart)));
+        }
+    }
+}
@@ -22,13 +22,17 @@ import org.apache.inlong.agent.conf.JobProfile;
 import org.apache.inlong.agent.utils.AgentUtils;
 import org.apache.inlong.common.db.CommandEntity;
 
+import com.google.gson.Gson;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.apache.inlong.agent.constant.JobConstants.JOB_ID;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_ID_PREFIX;
@@ -127,4 +131,71 @@ public class TestRocksDbImp {
         Assert.assertEquals(1, restarts.size());
     }
 
+    @Test
+    public void testStateIndexAndBatchPut() {
+        KeyValueEntity entity1 = new KeyValueEntity("index_1", "valueA", "file1");
+        KeyValueEntity entity2 = new KeyValueEntity("index_2", "valueB", "file2");
+        db.putAll(Arrays.asList(entity1, entity2));
+        Assert.assertEquals(2, db.searchWithKeyPrefix(StateSearchKey.ACCEPTED, "index_").size());
+
+        // state changed, index of the old state should be removed
+        db.put(entity1.setStateSearchKey(StateSearchKey.RUNNING));
+        Assert.assertEquals(1, db.searchWithKeyPrefix(StateSearchKey.ACCEPTED, "index_").size());
+        List<KeyValueEntity> running = db.searchWithKeyPrefix(StateSearchKey.RUNNING, "index_");
+        Assert.assertEquals(1, running.size());
+        Assert.assertEquals("file1", running.get(0).getFileName());
+        Assert.assertEquals(2, db.findAll("index_").size());
+
+        db.remove("index_1");
+        db.remove("index_2");
+        Assert.assertTrue(db.searchWithKeyPrefix(StateSearchKey.RUNNING, "index_").isEmpty());
+        Assert.assertTrue(db.findAll("index_").isEmpty());
+    }
+
+    @Test
+    public void testEntityCodec() {
+        KeyValueEntity entity = new KeyValueEntity("codec", "{\"a\":1}", null)
+                .setStateSearchKey(StateSearchKey.FAILED);
+        KeyValueEntity decoded = DbEntityCodec.decodeKeyValue(DbEntityCodec.encode(entity));
+        Assert.assertEquals("codec", decoded.getKey());
+        Assert.assertEquals("{\"a\":1}", decoded.getJsonValue());
+        Assert.assertNull(decoded.getFileName());
+        Assert.assertEquals(StateSearchKey.FAILED, decoded.getStateSearchKey());
+        // the persisted state is the explicit code, not the ordinal
+        Assert.assertEquals(StateSearchKey.FAILED.getCode(), DbEntityCodec.encode(entity)[1]);
+        Assert.assertEquals(StateSearchKey.RUNNING, StateSearchKey.valueOf((byte) 3));
+        Assert.assertThrows(IllegalArgumentException.class, () -> StateSearchKey.valueOf((byte) 100));
+
+        // value written by older version is json
+        KeyValueEntity legacy = DbEntityCodec.decodeKeyValue(new Gson().toJson(entity).getBytes());
+        Assert.assertEquals("codec", legacy.getKey());
+        Assert.assertEquals(StateSearchKey.FAILED, legacy.getStateSearchKey());
+
+        CommandEntity command = new CommandEntity("2", 1, true, null, 3, "2023-01-01 00:00:00");
+        Assert.assertEquals(command, DbEntityCodec.decodeCommand(DbEntityCodec.encode(command)));
+    }
+
+    @Test
+    public void testUpdateJobPositions() {
+        JobProfile jobProfile = JobProfile.parseJsonFile("binlogJob.json");
+        JobProfileDb jobDb = new JobProfileDb(db);
+        String instanceId = AgentUtils.getSingleJobId(JOB_ID_PREFIX, "position");
+        jobProfile.set(JOB_INSTANCE_ID, instanceId);
+        jobDb.storeJobFirstTime(jobProfile);
+        jobDb.updateJobState(instanceId, StateSearchKey.RUNNING);
+
+        // positions are merged into the latest entity, the state is kept
+        Set<String> finishedJobs = jobDb.updateJobPositions(
+                Collections.singletonMap(instanceId, Collections.singletonMap("file.position", 10L)));
+        Assert.assertTrue(finishedJobs.isEmpty());
+        KeyValueEntity entity = db.get(instanceId);
+        Assert.assertEquals(StateSearchKey.RUNNING, entity.getStateSearchKey());
+        Assert.assertEquals(10L, entity.getAsJobProfile().getLong("file.position", 0));
+
+        jobDb.deleteJob(instanceId);
+        finishedJobs = jobDb.updateJobPositions(
+                Collections.singletonMap(instanceId, Collections.singletonMap("file.position", 20L)));
+        Assert.assertTrue(finishedJobs.contains(instanceId));
+        Assert.assertNull(db.get(instanceId));
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.message;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAdaptivePackController {
+
+    @Test
+    public void testLowVolume() {
+        AdaptivePackController controller = new AdaptivePackController(true, 1000, 100000, 100, 4000, 0);
+        Assert.assertEquals(100000, controller.getPackSize());
+        Assert.assertEquals(4000, controller.getLingerMs());
+
+        // 10 bytes per ms and fast ack, flush soon with small packs
+        long time = 0;
+        for (int i = 0; i < 20; i++) {
+            controller.onArrive(1000);
+            controller.onAck(20);
+            time += 100;
+            controller.update(time);
+        }
+        Assert.assertEquals(100, controller.getLingerMs());
+        Assert.assertEquals(1000, controller.getPackSize());
+        Assert.assertEquals(10000, controller.getArrivalRate());
+        Assert.assertEquals(20, controller.getAckLatency());
+    }
+
+    @Test
+    public void testHighVolumeAndSlowAck() {
+        AdaptivePackController controller = new AdaptivePackController(true, 1000, 100000, 100, 4000, 0);
+        long time = 0;
+        for (int i = 0; i < 50; i++) {
+            controller.onArrive(500_000);
+            controller.onAck(10_000);
+            time += 100;
+            controller.update(time);
+        }
+        // never exceed the configured upper bounds
+        Assert.assertEquals(4000, controller.getLingerMs());
+        Assert.assertEquals(100000, controller.getPackSize());
+    }
+
+    @Test
+    public void testDisabled() {
+        AdaptivePackController controller = new AdaptivePackController(false, 1000, 100000, 100, 4000, 0);
+        controller.onArrive(10);
+        controller.onAck(1);
+        controller.update(1000);
+        Assert.assertEquals(100000, controller.getPackSize());
+        Assert.assertEquals(4000, controller.getLingerMs());
+    }
+}
@@ -23,6 +23,9 @@ import org.apache.inlong.common.metric.MetricListenerRunnable;
 import org.apache.inlong.common.metric.MetricRegister;
 import org.apache.inlong.common.metric.MetricValue;
 
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.Collector.MetricFamilySamples.Sample;
+import io.prometheus.client.Collector.Type;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -30,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +46,7 @@ import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_INLONG_STREAM_
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_PLUGIN_ID;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_JOB_FATAL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_JOB_RUNNING_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_SIZE;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_FAIL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_SUCCESS_COUNT;
@@ -214,4 +219,26 @@ public class TestPrometheusListener {
         }
         LOGGER.debug("labelValues is " + labelValues + " and value is " + value);
     }
+
+    @Test
+    public void testGauge() {
+        AgentPrometheusMetricListener listener = new AgentPrometheusMetricListener();
+        for (long packSize : new long[]{10, 20}) {
+            Map<String, MetricValue> metrics = new HashMap<>();
+            metrics.put(M_PLUGIN_PACK_SIZE, MetricValue.of(M_PLUGIN_PACK_SIZE, packSize));
+            listener.snapshot("Agent", Collections.singletonList(new MetricItemValue("gaugeKey",
+                    Collections.singletonMap(KEY_PLUGIN_ID, "gaugePlugin"), metrics)));
+        }
+        // the latest pack size is exported as a gauge
+        long packSize = -1;
+        for (MetricFamilySamples samples : listener.collect()) {
+            for (Sample sample : samples.samples) {
+                if (sample.labelValues.contains(M_PLUGIN_PACK_SIZE)) {
+                    Assert.assertEquals(Type.GAUGE, samples.type);
+                    packSize = (long) sample.value;
+                }
+            }
+        }
+        Assert.assertEquals(20, packSize);
+    }
 }
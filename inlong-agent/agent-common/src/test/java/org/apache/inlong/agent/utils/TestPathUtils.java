@@ -23,6 +23,7 @@ import org.junit.Test;
 import java.io.File;
 
 import static org.apache.inlong.agent.utils.PathUtils.antPathIncluded;
+import static org.apache.inlong.agent.utils.PathUtils.antPathMatch;
 
 public class TestPathUtils {
 
@@ -47,4 +48,30 @@ public class TestPathUtils {
             Assert.assertFalse(antPathIncluded("/a/b/1/3/4/5", "/a/*/2/3/4/5/6/1.log"));
         }
     }
+
+    @Test
+    public void testAntPathRegex() {
+        if (File.separator.equals("/")) {
+            String[] patterns = {"/a/*/1/3/**/1.log", "/a/*/1/3/4/5/1.log", "/a/?/1/3/4/5/1.log", "/a/**", "/a/*.log"};
+            String[] paths = {"/a/b/1/3/4/5", "/a/b/1/3/4/5/1.log", "/a/b/1/3/1.log", "/a", "/a/2.log", "/b/2.log"};
+            for (String pattern : patterns) {
+                AntPathRegex regex = AntPathRegex.compile(pattern);
+                for (String path : paths) {
+                    Assert.assertEquals(pattern + " " + path, antPathMatch(path, pattern), regex.match(path));
+                }
+            }
+        }
+
+        AntPathRegex regex = AntPathRegex.compile("/a/*/1/3/**/1.log", "/");
+        Assert.assertTrue(regex.included("/a/b/1/3/4/5"));
+        Assert.assertTrue(regex.included("/a/b"));
+        Assert.assertFalse(regex.included("/a/b/2/3/4/5"));
+        Assert.assertTrue(regex.match("/a/b/1/3/1.log"));
+        Assert.assertTrue(regex.match("/a/b/1/3/4/5/1.log"));
+        Assert.assertFalse(regex.match("/a/b/1/3/4/5/2.log"));
+
+        regex = AntPathRegex.compile("/a/*/1/3/4/5/6/1.log", "/");
+        Assert.assertTrue(regex.included("/a/b/1/3/4/5"));
+        Assert.assertFalse(regex.included("/a/c/1/3/4/5/6/1.log/7/8"));
+    }
 }
@@ -28,6 +28,9 @@ import org.apache.inlong.agent.utils.ThreadUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static org.apache.inlong.agent.constant.CommonConstants.POSITION_SUFFIX;
@@ -89,22 +92,18 @@ public class PositionManager extends AbstractDaemon {
             while (isRunnable()) {
                 doFlush();
             }
+            // positions updated after the last flush are lost if not flushed before exit
+            try {
+                flushJobPositions();
+            } catch (Throwable ex) {
+                LOGGER.error("error caught while flushing positions on exit", ex);
+            }
         };
     }
 
     private void doFlush() {
         try {
-            // check pending jobs and try to submit again.
-            for (String jobId : jobTaskPositionMap.keySet()) {
-                JobProfile jobProfile = jobConfDb.getJobById(jobId);
-                if (jobProfile == null) {
-                    LOGGER.warn("jobProfile {} cannot be found in db, "
-                            + "might be deleted by standalone mode, now delete job position in memory", jobId);
-                    deleteJobPosition(jobId);
-                    continue;
-                }
-                flushJobProfile(jobId, jobProfile);
-            }
+            flushJobPositions();
         } catch (Throwable ex) {
             LOGGER.error("error caught", ex);
             ThreadUtils.threadThrowableHandler(Thread.currentThread(), ex);
@@ -115,14 +114,24 @@ public class PositionManager extends AbstractDaemon {
         }
     }
 
-    private void flushJobProfile(String jobId, JobProfile jobProfile) {
-        jobTaskPositionMap.get(jobId).forEach(
-                (fileName, position) -> jobProfile.setLong(fileName + POSITION_SUFFIX, position));
-        if (jobConfDb.checkJobfinished(jobProfile)) {
+    /**
+     * positions of all jobs are coalesced in memory and written to db in one batch per flush interval,
+     * so that at most one interval of positions is lost on crash.
+     */
+    private void flushJobPositions() {
+        Map<String, Map<String, Long>> jobPositions = new HashMap<>();
+        jobTaskPositionMap.forEach((jobId, taskPositions) -> {
+            Map<String, Long> positions = new HashMap<>();
+            taskPositions.forEach((fileName, position) -> positions.put(fileName + POSITION_SUFFIX, position));
+            jobPositions.put(jobId, positions);
+        });
+        if (jobPositions.isEmpty()) {
+            return;
+        }
+        Set<String> finishedJobs = jobConfDb.updateJobPositions(jobPositions);
+        for (String jobId : finishedJobs) {
             LOGGER.info("Cannot update job profile {}, delete memory job in jobTaskPosition", jobId);
             deleteJobPosition(jobId);
-        } else {
-            jobConfDb.updateJobProfile(jobProfile);
         }
     }
 
@@ -141,17 +150,17 @@ public class PositionManager extends AbstractDaemon {
      * @param size add this size to beforePosition
      */
     public void updateSinkPosition(String jobInstanceId, String sourcePath, long size, boolean reset) {
-        ConcurrentHashMap<String, Long> positionTemp = new ConcurrentHashMap<>();
-        ConcurrentHashMap<String, Long> position = jobTaskPositionMap.putIfAbsent(jobInstanceId, positionTemp);
-        if (position == null) {
+        ConcurrentHashMap<String, Long> position = jobTaskPositionMap.computeIfAbsent(jobInstanceId,
+                k -> new ConcurrentHashMap<>());
+        if (!reset && !position.containsKey(sourcePath)) {
+            // each source path of the job starts from its saved position when it is first updated
             JobProfile jobProfile = jobConfDb.getJobById(jobInstanceId);
-            positionTemp.put(sourcePath, jobProfile.getLong(sourcePath + POSITION_SUFFIX, 0));
-            position = positionTemp;
+            long savedPosition = jobProfile == null ? 0 : jobProfile.getLong(sourcePath + POSITION_SUFFIX, 0);
+            position.putIfAbsent(sourcePath, savedPosition);
         }
 
         if (!reset) {
-            Long beforePosition = position.getOrDefault(sourcePath, 0L);
-            position.put(sourcePath, beforePosition + size);
+            position.merge(sourcePath, size, Long::sum);
         } else {
             position.put(sourcePath, size);
         }
@@ -18,7 +18,7 @@
 package org.apache.inlong.agent.plugin.filter;
 
 import org.apache.inlong.agent.utils.AgentUtils;
-import org.apache.inlong.agent.utils.PathUtils;
+import org.apache.inlong.agent.utils.AntPathRegex;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -56,6 +56,7 @@ public class DateFormatRegex {
     private String originRegex;
     private String formattedTime = "";
     private String formattedRegex;
+    private volatile AntPathRegex compiledRegex;
 
     /**
      * set regex with current time
@@ -73,13 +74,21 @@ public class DateFormatRegex {
     public boolean match(File file) {
         // TODO: check with more regex
         if (file.isFile()) {
-            return PathUtils.antPathMatch(file.getAbsolutePath(), formattedRegex);
+            return match(file.getAbsolutePath(), false);
         } else if (file.isDirectory()) {
-            return PathUtils.antPathIncluded(file.getAbsolutePath(), formattedRegex);
+            return match(file.getAbsolutePath(), true);
         }
         return false;
     }
 
+    /**
+     * match with the pre-compiled regex, the file type is given by caller to avoid stat the file again
+     */
+    public boolean match(String absolutePath, boolean isDirectory) {
+        AntPathRegex regex = compiledRegex;
+        return isDirectory ? regex.included(absolutePath) : regex.match(absolutePath);
+    }
+
     /**
      * set timeOffset
      */
@@ -126,6 +135,7 @@ public class DateFormatRegex {
             }
         }
         this.formattedRegex = StringUtils.join(formattedList, File.separatorChar);
+        this.compiledRegex = AntPathRegex.compile(formattedRegex);
         LOGGER.info("updated formatted regex is {}", this.formattedRegex);
     }
 
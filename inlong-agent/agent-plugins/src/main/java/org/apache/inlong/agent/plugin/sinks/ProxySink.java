@@ -155,8 +155,9 @@ public class ProxySink extends AbstractSink {
             while (!shutdown) {
                 try {
                     cache.forEach((batchKey, packProxyMessage) -> {
-                        BatchProxyMessage batchProxyMessage = packProxyMessage.fetchBatch();
-                        if (batchProxyMessage != null) {
+                        // a busy stream may have several full packs ready
+                        BatchProxyMessage batchProxyMessage;
+                        while ((batchProxyMessage = packProxyMessage.fetchBatch()) != null) {
                             senderManager.sendBatch(batchProxyMessage);
                             LOGGER.info("send group id {}, message key {},with message size {}, the job id is {}, "
                                     + "read source is {} sendTime is {}", inlongGroupId, batchKey,
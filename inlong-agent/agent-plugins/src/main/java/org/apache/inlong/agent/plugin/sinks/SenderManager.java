@@ -23,6 +23,7 @@ import org.apache.inlong.agent.conf.JobProfile;
 import org.apache.inlong.agent.constant.CommonConstants;
 import org.apache.inlong.agent.core.task.MemoryManager;
 import org.apache.inlong.agent.core.task.PositionManager;
+import org.apache.inlong.agent.message.AdaptivePackController;
 import org.apache.inlong.agent.message.BatchProxyMessage;
 import org.apache.inlong.agent.metrics.AgentMetricItem;
 import org.apache.inlong.agent.metrics.AgentMetricItemSet;
@@ -245,8 +246,9 @@ public class SenderManager {
                         batchMessage.getDataList(), batchMessage.getGroupId(), batchMessage.getStreamId(),
                         batchMessage.getDataTime(), SEQUENTIAL_ID.getNextUuid(), maxSenderTimeout, TimeUnit.SECONDS,
                         batchMessage.getExtraMap(), proxySend);
-                getMetricItem(batchMessage.getGroupId(), batchMessage.getStreamId()).pluginSendCount.addAndGet(
-                        batchMessage.getMsgCnt());
+                AgentMetricItem metricItem = getMetricItem(batchMessage.getGroupId(), batchMessage.getStreamId());
+                metricItem.pluginSendCount.addAndGet(batchMessage.getMsgCnt());
+                updatePackMetric(metricItem, batchMessage.getPackController());
                 suc = true;
             } catch (Exception exception) {
                 suc = false;
@@ -263,6 +265,19 @@ public class SenderManager {
         }
     }
 
+    /**
+     * expose current decisions of the adaptive pack
+     */
+    private void updatePackMetric(AgentMetricItem metricItem, AdaptivePackController packController) {
+        if (packController == null) {
+            return;
+        }
+        metricItem.pluginPackSize.set(packController.getPackSize());
+        metricItem.pluginPackTimeout.set(packController.getLingerMs());
+        metricItem.pluginArrivalRate.set(packController.getArrivalRate());
+        metricItem.pluginSendLatency.set(packController.getAckLatency());
+    }
+
     /**
      * flushResendQueue
      *
@@ -310,11 +325,13 @@ public class SenderManager {
         private final int retry;
         private final BatchProxyMessage batchMessage;
         private final int msgCnt;
+        private final long sendTime;
 
         AgentSenderCallback(BatchProxyMessage batchMessage, int retry) {
             this.batchMessage = batchMessage;
             this.retry = retry;
             this.msgCnt = batchMessage.getDataList().size();
+            this.sendTime = System.currentTimeMillis();
         }
 
         @Override
@@ -330,6 +347,9 @@ public class SenderManager {
                 getMetricItem(groupId, streamId).pluginSendSuccessCount.addAndGet(msgCnt);
                 PositionManager.getInstance()
                         .updateSinkPosition(batchMessage.getJobId(), sourcePath, msgCnt, false);
+                if (batchMessage.getPackController() != null) {
+                    batchMessage.getPackController().onAck(System.currentTimeMillis() - sendTime);
+                }
             } else {
                 LOGGER.warn("send groupId {}, streamId {}, jobId {}, dataTime {} fail with times {}, "
                         + "error {}", groupId, streamId, jobId, dataTime, retry, result);
@@ -18,17 +18,27 @@
 package org.apache.inlong.agent.plugin.sources;
 
 import org.apache.inlong.agent.conf.JobProfile;
+import org.apache.inlong.agent.core.task.PositionManager;
 import org.apache.inlong.agent.plugin.Reader;
+import org.apache.inlong.agent.plugin.sources.reader.SqlChunk;
 import org.apache.inlong.agent.plugin.sources.reader.SqlReader;
 import org.apache.inlong.agent.utils.AgentDbUtils;
+import org.apache.inlong.agent.utils.AgentUtils;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.apache.inlong.agent.constant.CommonConstants.POSITION_SUFFIX;
+
 /**
  * Make database as Source
  */
@@ -38,6 +48,16 @@ public class DatabaseSqlSource extends AbstractSource {
 
     private static final String JOB_DATABASE_SQL = "job.sql.command";
 
+    // unique numeric key to split the sql into chunks, the chunks are read in parallel if it's set
+    private static final String JOB_DATABASE_CHUNK_KEY = "job.sql.chunk.key";
+    private static final String JOB_DATABASE_CHUNK_SIZE = "job.sql.chunk.size";
+    private static final long DEFAULT_JOB_DATABASE_CHUNK_SIZE = 100000L;
+    private static final String JOB_DATABASE_CHUNK_PARALLELISM = "job.sql.chunk.parallelism";
+    private static final int DEFAULT_JOB_DATABASE_CHUNK_PARALLELISM = 4;
+
+    private static final String CHUNK_LOWER_BOUND_TAG = "#lowerBound";
+    private static final String CHUNK_UPPER_BOUND_TAG = "#upperBound";
+
     private static final String DATABASE_SOURCE_TAG_NAME = "AgentDatabaseSourceMetric";
 
     private static AtomicLong metricsIndex = new AtomicLong(0);
@@ -48,21 +68,94 @@ public class DatabaseSqlSource extends AbstractSource {
     /**
      * Use SQL to read data.
      *
+     * @param conf job conf
      * @param sqlPattern sql pattern
      * @return list of readers or null if sql is not correct.
      */
-    private List<Reader> splitSqlJob(String sqlPattern) {
+    private List<Reader> splitSqlJob(JobProfile conf, String sqlPattern) {
         String[] sqlList = AgentDbUtils.replaceDynamicSeq(sqlPattern);
         if (sqlList != null) {
+            String chunkKey = conf.get(JOB_DATABASE_CHUNK_KEY, "").toLowerCase();
             List<Reader> result = new ArrayList<>();
             for (String sql : sqlList) {
-                result.add(new SqlReader(sql));
+                if (StringUtils.isEmpty(chunkKey)) {
+                    result.add(new SqlReader(sql));
+                    continue;
+                }
+                try {
+                    result.addAll(splitSqlChunks(conf, sql, chunkKey));
+                } catch (Exception e) {
+                    LOGGER.error("split sql {} into chunks by {} error", sql, chunkKey, e);
+                    return null;
+                }
             }
             return result;
         }
         return null;
     }
 
+    /**
+     * Split the sql into chunks by key range, the chunks are assigned to several readers read in parallel.
+     * The key range is saved with the job positions, so that the chunks stay the same after restart.
+     */
+    private List<Reader> splitSqlChunks(JobProfile conf, String sql, String chunkKey) throws Exception {
+        long[] bounds = getChunkBounds(conf, sql, chunkKey);
+        if (bounds == null) {
+            // no data to split
+            return Collections.singletonList(new SqlReader(sql));
+        }
+        long chunkSize = conf.getLong(JOB_DATABASE_CHUNK_SIZE, DEFAULT_JOB_DATABASE_CHUNK_SIZE);
+        int parallelism = conf.getInt(JOB_DATABASE_CHUNK_PARALLELISM, DEFAULT_JOB_DATABASE_CHUNK_PARALLELISM);
+        List<List<SqlChunk>> assignment = SqlChunk.assign(SqlChunk.split(bounds[0], bounds[1], chunkSize),
+                parallelism);
+        List<Reader> result = new ArrayList<>(assignment.size());
+        for (int i = 0; i < assignment.size(); i++) {
+            String readSource = sql + "#reader" + i + "/" + assignment.size();
+            result.add(new SqlReader(sql, chunkKey, assignment.get(i), readSource));
+        }
+        LOGGER.info("split sql {} by {} in [{}, {}] to {} readers, chunk size {}", sql, chunkKey, bounds[0],
+                bounds[1], result.size(), chunkSize);
+        return result;
+    }
+
+    /**
+     * Get the min and max chunk key, the saved ones are used if the job is restarted.
+     * The chunk key must be unique, since a chunk is resumed by skipping the acked rows in chunk key order.
+     *
+     * @return null if the sql returns no data
+     */
+    private long[] getChunkBounds(JobProfile conf, String sql, String chunkKey) throws Exception {
+        String lowerKey = sql + CHUNK_LOWER_BOUND_TAG;
+        String upperKey = sql + CHUNK_UPPER_BOUND_TAG;
+        if (conf.hasKey(lowerKey + POSITION_SUFFIX) && conf.hasKey(upperKey + POSITION_SUFFIX)) {
+            return new long[]{conf.getLong(lowerKey + POSITION_SUFFIX, 0),
+                    conf.getLong(upperKey + POSITION_SUFFIX, 0)};
+        }
+        Connection conn = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            conn = SqlReader.createConnection(conf);
+            statement = conn.createStatement();
+            resultSet = statement.executeQuery("SELECT MIN(" + chunkKey + "), MAX(" + chunkKey + "), COUNT(*), "
+                    + "COUNT(DISTINCT " + chunkKey + ") FROM (" + sql + ") inlong_bound");
+            if (!resultSet.next() || resultSet.getObject(1) == null) {
+                return null;
+            }
+            if (resultSet.getLong(3) != resultSet.getLong(4)) {
+                throw new IllegalArgumentException("chunk key " + chunkKey + " is not unique or has null value");
+            }
+            long[] bounds = new long[]{resultSet.getLong(1), resultSet.getLong(2)};
+            PositionManager.getInstance().updateSinkPosition(conf.getInstanceId(), lowerKey, bounds[0], true);
+            PositionManager.getInstance().updateSinkPosition(conf.getInstanceId(), upperKey, bounds[1], true);
+            return bounds;
+        } finally {
+            AgentUtils.finallyClose(resultSet);
+            AgentUtils.finallyClose(statement);
+            AgentUtils.finallyClose(conn);
+        }
+    }
+
     /**
      * Use SQL or binlog to read data.
      *
@@ -74,7 +167,7 @@ public class DatabaseSqlSource extends AbstractSource {
         String sqlPattern = conf.get(JOB_DATABASE_SQL, "").toLowerCase();
         List<Reader> readerList = null;
         if (!sqlPattern.isEmpty()) {
-            readerList = splitSqlJob(sqlPattern);
+            readerList = splitSqlJob(conf, sqlPattern);
         }
         if (readerList != null) {
             // increment the count of successful sources
@@ -55,6 +55,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_MAP_CAPACITY;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_KEY_DATA;
+import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_SNAPSHOT_MAX_THREADS;
 
 /**
  * Read data from Oracle database by Debezium
@@ -67,6 +68,8 @@ public class OracleReader extends AbstractReader {
     public static final String JOB_DATABASE_HOSTNAME = "job.oracleJob.hostname";
     public static final String JOB_DATABASE_PORT = "job.oracleJob.port";
     public static final String JOB_DATABASE_SNAPSHOT_MODE = "job.oracleJob.snapshot.mode";
+    public static final String JOB_DATABASE_SNAPSHOT_MAX_THREADS = "job.oracleJob.snapshot.maxThreads";
+    public static final String JOB_DATABASE_SNAPSHOT_FETCH_SIZE = "job.oracleJob.snapshot.fetchSize";
     public static final String JOB_DATABASE_SERVER_NAME = "job.oracleJob.serverName";
     public static final String JOB_DATABASE_QUEUE_SIZE = "job.oracleJob.queueSize";
     public static final String JOB_DATABASE_OFFSETS = "job.oracleJob.offsets";
@@ -269,6 +272,12 @@ public class OracleReader extends AbstractReader {
         props.setProperty("key.converter.schemas.enable", "false");
         props.setProperty("value.converter.schemas.enable", "false");
         props.setProperty("snapshot.mode", snapshotMode);
+        // tables of the snapshot are read in parallel by several threads
+        props.setProperty("snapshot.max.threads",
+                String.valueOf(jobProfile.getInt(JOB_DATABASE_SNAPSHOT_MAX_THREADS, DEFAULT_SNAPSHOT_MAX_THREADS)));
+        if (jobProfile.hasKey(JOB_DATABASE_SNAPSHOT_FETCH_SIZE)) {
+            props.setProperty("snapshot.fetch.size", jobProfile.get(JOB_DATABASE_SNAPSHOT_FETCH_SIZE));
+        }
         props.setProperty("offset.storage.file.filename", offsetStoreFileName);
         props.setProperty("database.history.file.filename", databaseStoreHistoryName);
         if (SnapshotModeConstants.SPECIFIC_OFFSETS.equals(snapshotMode)) {
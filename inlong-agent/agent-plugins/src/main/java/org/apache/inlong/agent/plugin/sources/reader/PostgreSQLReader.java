@@ -49,6 +49,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_MAP_CAPACITY;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_KEY_DATA;
+import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_SNAPSHOT_MAX_THREADS;
 
 /**
  * Read postgreSQL data
@@ -63,6 +64,8 @@ public class PostgreSQLReader extends AbstractReader {
     public static final String JOB_DATABASE_STORE_OFFSET_INTERVAL_MS = "job.postgreSQLJob.offset.intervalMs";
     public static final String JOB_DATABASE_STORE_HISTORY_FILENAME = "job.postgreSQLJob.history.filename";
     public static final String JOB_DATABASE_SNAPSHOT_MODE = "job.postgreSQLJob.snapshot.mode";
+    public static final String JOB_DATABASE_SNAPSHOT_MAX_THREADS = "job.postgreSQLJob.snapshot.maxThreads";
+    public static final String JOB_DATABASE_SNAPSHOT_FETCH_SIZE = "job.postgreSQLJob.snapshot.fetchSize";
     public static final String JOB_DATABASE_QUEUE_SIZE = "job.postgreSQLJob.queueSize";
     public static final String JOB_DATABASE_OFFSETS = "job.postgreSQLJob.offsets";
     public static final String JOB_DATABASE_OFFSET_SPECIFIC_OFFSET_FILE = "job.postgreSQLJob.offset.specificOffsetFile";
@@ -207,6 +210,12 @@ public class PostgreSQLReader extends AbstractReader {
         props.setProperty("key.converter.schemas.enable", "false");
         props.setProperty("value.converter.schemas.enable", "false");
         props.setProperty("snapshot.mode", snapshotMode);
+        // tables of the snapshot are read in parallel by several threads
+        props.setProperty("snapshot.max.threads",
+                String.valueOf(jobProfile.getInt(JOB_DATABASE_SNAPSHOT_MAX_THREADS, DEFAULT_SNAPSHOT_MAX_THREADS)));
+        if (jobProfile.hasKey(JOB_DATABASE_SNAPSHOT_FETCH_SIZE)) {
+            props.setProperty("snapshot.fetch.size", jobProfile.get(JOB_DATABASE_SNAPSHOT_FETCH_SIZE));
+        }
         props.setProperty("offset.storage.file.filename", offsetStoreFileName);
         if (PostgreSQLConstants.CUSTOM.equals(snapshotMode)) {
             Preconditions.checkNotNull(JOB_DATABASE_OFFSET_SPECIFIC_OFFSET_FILE,
@@ -55,6 +55,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_MAP_CAPACITY;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_KEY_DATA;
+import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_SNAPSHOT_MAX_THREADS;
 
 /**
  * Read data from SQLServer database by Debezium
@@ -68,6 +69,8 @@ public class SQLServerReader extends AbstractReader {
     public static final String JOB_DATABASE_PASSWORD = "job.sqlserverJob.password";
     public static final String JOB_DATABASE_DBNAME = "job.sqlserverJob.dbname";
     public static final String JOB_DATABASE_SNAPSHOT_MODE = "job.sqlserverJob.snapshot.mode";
+    public static final String JOB_DATABASE_SNAPSHOT_MAX_THREADS = "job.sqlserverJob.snapshot.maxThreads";
+    public static final String JOB_DATABASE_SNAPSHOT_FETCH_SIZE = "job.sqlserverJob.snapshot.fetchSize";
     public static final String JOB_DATABASE_QUEUE_SIZE = "job.sqlserverJob.queueSize";
     public static final String JOB_DATABASE_OFFSETS = "job.sqlserverJob.offsets";
     public static final String JOB_DATABASE_OFFSET_SPECIFIC_OFFSET_FILE = "job.sqlserverJob.offset.specificOffsetFile";
@@ -271,6 +274,12 @@ public class SQLServerReader extends AbstractReader {
         props.setProperty("key.converter.schemas.enable", "false");
         props.setProperty("value.converter.schemas.enable", "false");
         props.setProperty("snapshot.mode", snapshotMode);
+        // tables of the snapshot are read in parallel by several threads
+        props.setProperty("snapshot.max.threads",
+                String.valueOf(jobProfile.getInt(JOB_DATABASE_SNAPSHOT_MAX_THREADS, DEFAULT_SNAPSHOT_MAX_THREADS)));
+        if (jobProfile.hasKey(JOB_DATABASE_SNAPSHOT_FETCH_SIZE)) {
+            props.setProperty("snapshot.fetch.size", jobProfile.get(JOB_DATABASE_SNAPSHOT_FETCH_SIZE));
+        }
         props.setProperty("offset.storage.file.filename", offsetStoreFileName);
         props.setProperty("database.history.file.filename", databaseStoreHistoryName);
         if (SnapshotModeConstants.SPECIFIC_OFFSETS.equals(snapshotMode)) {
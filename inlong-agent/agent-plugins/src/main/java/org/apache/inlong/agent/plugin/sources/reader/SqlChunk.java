@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.sources.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Key range [lower, upper) of a numeric chunk key, the upper bound of the last chunk is inclusive.
+ * <p>
+ * A snapshot sql is split into chunks so that it can be read by several readers in parallel,
+ * and each chunk is read in key order so that a restarted reader can skip the finished chunks.
+ */
+public class SqlChunk {
+
+    private final int index;
+    private final long lower;
+    private final long upper;
+    private final boolean last;
+
+    public SqlChunk(int index, long lower, long upper, boolean last) {
+        this.index = index;
+        this.lower = lower;
+        this.upper = upper;
+        this.last = last;
+    }
+
+    /**
+     * Split [min, max] into chunks of chunkSize keys.
+     */
+    public static List<SqlChunk> split(long min, long max, long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size should be positive, but is " + chunkSize);
+        }
+        List<SqlChunk> chunks = new ArrayList<>();
+        long lower = min;
+        int index = 0;
+        // compare with the remaining size to avoid overflow near Long.MAX_VALUE
+        while (max - lower >= chunkSize) {
+            chunks.add(new SqlChunk(index++, lower, lower + chunkSize, false));
+            lower += chunkSize;
+        }
+        chunks.add(new SqlChunk(index, lower, max, true));
+        return chunks;
+    }
+
+    /**
+     * Assign the chunks to readers round-robin, so that each reader gets chunks across the whole key range.
+     */
+    public static List<List<SqlChunk>> assign(List<SqlChunk> chunks, int parallelism) {
+        int readerNum = Math.max(1, Math.min(parallelism, chunks.size()));
+        List<List<SqlChunk>> result = new ArrayList<>(readerNum);
+        for (int i = 0; i < readerNum; i++) {
+            result.add(new ArrayList<>());
+        }
+        for (SqlChunk chunk : chunks) {
+            result.get(chunk.index % readerNum).add(chunk);
+        }
+        return result;
+    }
+
+    /**
+     * Wrap the sql to read only this chunk, the two parameters are the lower and upper bound.
+     */
+    public String wrapSql(String sql, String chunkKey) {
+        return "SELECT * FROM (" + sql + ") inlong_chunk WHERE " + chunkKey + " >= ? AND " + chunkKey
+                + (last ? " <= ?" : " < ?") + " ORDER BY " + chunkKey;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getLower() {
+        return lower;
+    }
+
+    public long getUpper() {
+        return upper;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlChunk{index=" + index + ", lower=" + lower + ", upper=" + upper + ", last=" + last + "}";
+    }
+}
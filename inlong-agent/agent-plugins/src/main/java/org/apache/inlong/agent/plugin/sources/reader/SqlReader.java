@@ -18,6 +18,7 @@
 package org.apache.inlong.agent.plugin.sources.reader;
 
 import org.apache.inlong.agent.conf.JobProfile;
+import org.apache.inlong.agent.core.task.PositionManager;
 import org.apache.inlong.agent.message.DefaultMessage;
 import org.apache.inlong.agent.metrics.audit.AuditUtils;
 import org.apache.inlong.agent.plugin.Message;
@@ -42,9 +43,15 @@ import static java.sql.Types.BINARY;
 import static java.sql.Types.BLOB;
 import static java.sql.Types.LONGVARBINARY;
 import static java.sql.Types.VARBINARY;
+import static org.apache.inlong.agent.constant.CommonConstants.POSITION_SUFFIX;
 
 /**
  * Read data from database by SQL
+ * <p>
+ * If chunks are given, the reader executes the sql once per chunk in chunk key order, and records the row count
+ * at the end of each chunk, so that the chunks already acked by the sink are skipped after restart.
+ * The rows acked in the unfinished chunk are skipped by count, so the chunk key must be unique to keep the row
+ * order stable between runs, which is checked by {@link org.apache.inlong.agent.plugin.sources.DatabaseSqlSource}.
  */
 public class SqlReader extends AbstractReader {
 
@@ -74,7 +81,12 @@ public class SqlReader extends AbstractReader {
             String.valueOf(CharUtils.LF)};
     private static final String[] EMPTY_CHARS = new String[]{StringUtils.EMPTY, StringUtils.EMPTY};
 
+    private static final String CHUNK_POSITION_TAG = "#chunk";
+
     private final String sql;
+    private final String chunkKey;
+    private final List<SqlChunk> chunks;
+    private final String readSource;
 
     // use statement for mysql due to compatibility
     private Statement statement;
@@ -89,14 +101,42 @@ public class SqlReader extends AbstractReader {
     private boolean finished = false;
     private String separator;
 
+    // chunk mode
+    private String instanceId;
+    private String databaseType;
+    private int batchSize;
+    private int chunkCursor;
+    // rows read from the first chunk of this reader, including the rows skipped on resume
+    private long readRows;
+
     public SqlReader(String sql) {
+        this(sql, null, null, sql);
+    }
+
+    /**
+     * @param sql sql to read
+     * @param chunkKey unique numeric key the chunks are split by and ordered by
+     * @param chunks chunks assigned to this reader
+     * @param readSource unique name of this reader, used as the key of the sink position
+     */
+    public SqlReader(String sql, String chunkKey, List<SqlChunk> chunks, String readSource) {
         this.sql = sql;
+        this.chunkKey = chunkKey;
+        this.chunks = chunks;
+        this.readSource = readSource;
     }
 
     @Override
     public Message read() {
         try {
-            if (resultSet.next()) {
+            while (!finished) {
+                if (!resultSet.next()) {
+                    if (!nextChunk()) {
+                        finished = true;
+                    }
+                    continue;
+                }
+                readRows++;
                 List<String> lineColumns = new ArrayList<>();
                 for (int i = 1; i <= columnCount; i++) {
                     String dataValue = null;
@@ -122,8 +162,6 @@ public class SqlReader extends AbstractReader {
                 readerMetric.pluginReadSuccessCount.incrementAndGet();
                 readerMetric.pluginReadCount.incrementAndGet();
                 return generateMessage(lineColumns);
-            } else {
-                finished = true;
             }
         } catch (Exception ex) {
             LOGGER.error("error while reading data", ex);
@@ -145,7 +183,7 @@ public class SqlReader extends AbstractReader {
 
     @Override
     public String getReadSource() {
-        return sql;
+        return readSource;
     }
 
     @Override
@@ -191,24 +229,41 @@ public class SqlReader extends AbstractReader {
         }
     }
 
-    @Override
-    public void init(JobProfile jobConf) {
-        super.init(jobConf);
-        int batchSize = jobConf.getInt(JOB_DATABASE_BATCH_SIZE, DEFAULT_JOB_DATABASE_BATCH_SIZE);
+    /**
+     * Create connection to the database configured in the job.
+     */
+    public static Connection createConnection(JobProfile jobConf) throws Exception {
         String userName = jobConf.get(JOB_DATABASE_USER);
         String password = jobConf.get(JOB_DATABASE_PASSWORD);
         String hostName = jobConf.get(JOB_DATABASE_HOSTNAME);
         int port = jobConf.getInt(JOB_DATABASE_PORT);
-
         String driverClass = jobConf.get(JOB_DATABASE_DRIVER_CLASS,
                 DEFAULT_JOB_DATABASE_DRIVER_CLASS);
+        String databaseType = jobConf.get(JOB_DATABASE_TYPE, MYSQL);
+        String url = String.format("jdbc:%s://%s:%d", databaseType, hostName, port);
+        return AgentDbUtils.getConnectionFailover(driverClass, url, userName, password);
+    }
+
+    @Override
+    public void init(JobProfile jobConf) {
+        super.init(jobConf);
+        batchSize = jobConf.getInt(JOB_DATABASE_BATCH_SIZE, DEFAULT_JOB_DATABASE_BATCH_SIZE);
+        databaseType = jobConf.get(JOB_DATABASE_TYPE, MYSQL);
         separator = jobConf.get(JOB_DATABASE_SEPARATOR, STD_FIELD_SEPARATOR_SHORT);
         finished = false;
         try {
-            String databaseType = jobConf.get(JOB_DATABASE_TYPE, MYSQL);
-            String url = String.format("jdbc:%s://%s:%d", databaseType, hostName, port);
-            conn = AgentDbUtils.getConnectionFailover(
-                    driverClass, url, userName, password);
+            conn = createConnection(jobConf);
+            if (chunks != null) {
+                instanceId = jobConf.getInstanceId();
+                long skipRows = resumeChunk(jobConf);
+                if (chunkCursor < chunks.size()) {
+                    openChunk(skipRows);
+                } else {
+                    LOGGER.info("all chunks of {} have been read", readSource);
+                    finished = true;
+                }
+                return;
+            }
             if (databaseType.equals(MYSQL)) {
                 statement = conn.createStatement(
                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
@@ -229,6 +284,77 @@ public class SqlReader extends AbstractReader {
 
     }
 
+    /**
+     * Skip the chunks whose rows are all acked by the sink.
+     *
+     * @return the acked rows of the first unfinished chunk
+     */
+    private long resumeChunk(JobProfile jobConf) {
+        long ackedRows = jobConf.getLong(readSource + POSITION_SUFFIX, 0);
+        long chunkStart = 0;
+        while (chunkCursor < chunks.size()) {
+            String endKey = getChunkPositionKey(chunks.get(chunkCursor)) + POSITION_SUFFIX;
+            if (!jobConf.hasKey(endKey) || jobConf.getLong(endKey, 0) > ackedRows) {
+                break;
+            }
+            chunkStart = jobConf.getLong(endKey, 0);
+            chunkCursor++;
+        }
+        readRows = ackedRows;
+        LOGGER.info("resume {} from chunk {} of {}, acked rows {}", readSource, chunkCursor, chunks.size(),
+                ackedRows);
+        return ackedRows - chunkStart;
+    }
+
+    private void openChunk(long skipRows) throws Exception {
+        SqlChunk chunk = chunks.get(chunkCursor);
+        preparedStatement = conn.prepareStatement(chunk.wrapSql(sql, chunkKey),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // stream the rows of mysql, so that a large chunk isn't loaded into memory
+        preparedStatement.setFetchSize(MYSQL.equals(databaseType) ? Integer.MIN_VALUE : batchSize);
+        preparedStatement.setLong(1, chunk.getLower());
+        preparedStatement.setLong(2, chunk.getUpper());
+        resultSet = preparedStatement.executeQuery();
+        initColumnMeta();
+        // rows before the acked position are sent already
+        long skipped = 0;
+        while (skipped < skipRows && resultSet.next()) {
+            skipped++;
+        }
+        LOGGER.info("{} start to read {}, skip rows {}", readSource, chunk, skipRows);
+    }
+
+    /**
+     * Record the end of current chunk and open the next one.
+     *
+     * @return false if there is no more chunk
+     */
+    private boolean nextChunk() throws Exception {
+        if (chunks == null) {
+            return false;
+        }
+        PositionManager.getInstance().updateSinkPosition(instanceId,
+                getChunkPositionKey(chunks.get(chunkCursor)), readRows, true);
+        closeChunk();
+        chunkCursor++;
+        if (chunkCursor >= chunks.size()) {
+            return false;
+        }
+        openChunk(0);
+        return true;
+    }
+
+    private void closeChunk() {
+        AgentUtils.finallyClose(resultSet);
+        AgentUtils.finallyClose(preparedStatement);
+        resultSet = null;
+        preparedStatement = null;
+    }
+
+    private String getChunkPositionKey(SqlChunk chunk) {
+        return readSource + CHUNK_POSITION_TAG + chunk.getIndex();
+    }
+
     @Override
     public void destroy() {
         finished = true;
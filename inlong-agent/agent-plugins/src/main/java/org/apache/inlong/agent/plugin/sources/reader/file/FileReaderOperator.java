@@ -29,10 +29,8 @@ import org.apache.inlong.agent.message.DefaultMessage;
 import org.apache.inlong.agent.metrics.audit.AuditUtils;
 import org.apache.inlong.agent.plugin.Message;
 import org.apache.inlong.agent.plugin.sources.reader.AbstractReader;
-import org.apache.inlong.agent.plugin.utils.FileDataUtils;
 import org.apache.inlong.agent.utils.AgentUtils;
 
-import com.google.gson.Gson;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -46,10 +44,8 @@ import java.io.LineNumberReader;
 import java.io.RandomAccessFile;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -71,8 +67,6 @@ import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_META_ENV_LI
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_MONITOR_DEFAULT_STATUS;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_MONITOR_STATUS;
 import static org.apache.inlong.agent.constant.KubernetesConstants.KUBERNETES;
-import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT;
-import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT_TIME;
 import static org.apache.inlong.agent.constant.MetadataConstants.ENV_CVM;
 import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_FILE_NAME;
 import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_HOST_NAME;
@@ -90,8 +84,6 @@ public class FileReaderOperator extends AbstractReader {
     public static final int BATCH_READ_LINE_TOTAL_LEN = 1024 * 1024;
     public static final int CACHE_QUEUE_SIZE = 10 * BATCH_READ_LINE_COUNT;
     public static int DEFAULT_BUFFER_SIZE = 64 * 1024;
-    private final SimpleDateFormat RECORD_TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
-    private final Gson GSON = new Gson();
 
     public File file;
     public long position = 0;
@@ -114,6 +106,8 @@ public class FileReaderOperator extends AbstractReader {
     private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(CACHE_QUEUE_SIZE);
     private final StringBuffer sb = new StringBuffer();
     private boolean needMetadata = false;
+    private MetadataTemplate metadataTemplate;
+    private String proxyPartitionKey;
 
     public FileReaderOperator(File file, int position) {
         this(file, position, "");
@@ -157,15 +151,14 @@ public class FileReaderOperator extends AbstractReader {
     }
 
     private Message createMessage(String data) {
-        String msgWithMetaData = fillMetaData(data);
+        byte[] msgWithMetaData = fillMetaData(data);
         AuditUtils.add(AuditUtils.AUDIT_ID_AGENT_READ_SUCCESS, inlongGroupId, inlongStreamId,
-                System.currentTimeMillis(), 1, msgWithMetaData.length());
+                System.currentTimeMillis(), 1, msgWithMetaData.length);
         readerMetric.pluginReadSuccessCount.incrementAndGet();
         readerMetric.pluginReadCount.incrementAndGet();
-        String proxyPartitionKey = jobConf.get(PROXY_SEND_PARTITION_KEY, DigestUtils.md5Hex(inlongGroupId));
         Map<String, String> header = new HashMap<>();
         header.put(PROXY_KEY_DATA, proxyPartitionKey);
-        Message finalMsg = new DefaultMessage(msgWithMetaData.getBytes(StandardCharsets.UTF_8), header);
+        Message finalMsg = new DefaultMessage(msgWithMetaData, header);
         // if the message size is greater than max pack size,should drop it.
         if (finalMsg.getBody().length > maxPackSize) {
             LOGGER.warn("message size is {}, greater than max pack size {}, drop it!",
@@ -254,6 +247,7 @@ public class FileReaderOperator extends AbstractReader {
             super.init(jobConf);
             this.instanceId = jobConf.getInstanceId();
             this.maxPackSize = jobConf.getInt(PROXY_PACKAGE_MAX_SIZE, DEFAULT_PROXY_PACKAGE_MAX_SIZE);
+            this.proxyPartitionKey = jobConf.get(PROXY_SEND_PARTITION_KEY, DigestUtils.md5Hex(inlongGroupId));
             initReadTimeout(jobConf);
             String md5 = AgentUtils.getFileMd5(file);
             if (StringUtils.isNotBlank(this.md5) && !this.md5.equals(md5)) {
@@ -371,16 +365,18 @@ public class FileReaderOperator extends AbstractReader {
                 metricName, readerMetric == null ? 0 : readerMetric.pluginReadCount.get());
     }
 
-    public String fillMetaData(String message) {
+    /**
+     * splice the message into the metadata template, which is rendered once in {@link #registerMeta}
+     */
+    public byte[] fillMetaData(String message) {
         if (!needMetadata) {
-            return message;
+            return message.getBytes(StandardCharsets.UTF_8);
+        }
+        if (metadataTemplate == null) {
+            // the metadata is not registered yet, send the line with the metadata collected so far
+            metadataTemplate = new MetadataTemplate(metadata);
         }
-        long timestamp = System.currentTimeMillis();
-        boolean isJson = FileDataUtils.isJSON(message);
-        Map<String, String> mergeData = new HashMap<>(metadata);
-        mergeData.put(DATA_CONTENT, FileDataUtils.getK8sJsonLog(message, isJson));
-        mergeData.put(DATA_CONTENT_TIME, RECORD_TIME_FORMAT.format(new Date(timestamp)));
-        return GSON.toJson(mergeData);
+        return metadataTemplate.render(message, System.currentTimeMillis());
     }
 
     public boolean hasDataRemaining() {
@@ -395,7 +391,12 @@ public class FileReaderOperator extends AbstractReader {
         Arrays.stream(env).forEach(data -> {
             if (data.equalsIgnoreCase(KUBERNETES)) {
                 needMetadata = true;
-                new KubernetesMetadataProvider(this).getData();
+                try {
+                    new KubernetesMetadataProvider(this).getData();
+                } catch (Exception e) {
+                    LOGGER.error("failed to get k8s metadata of {}, send the lines with the other metadata",
+                            file.getName(), e);
+                }
             } else if (data.equalsIgnoreCase(ENV_CVM)) {
                 needMetadata = true;
                 metadata.put(METADATA_HOST_NAME, AgentUtils.getLocalHost());
@@ -403,6 +404,9 @@ public class FileReaderOperator extends AbstractReader {
                 metadata.put(METADATA_FILE_NAME, file.getName());
             }
         });
+        if (needMetadata) {
+            metadataTemplate = new MetadataTemplate(metadata);
+        }
     }
 
     public void fetchData() throws IOException {
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.sources.reader.file;
+
+import org.apache.inlong.agent.plugin.utils.FileDataUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+
+import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT;
+import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT_TIME;
+
+/**
+ * Immutable json template of the file metadata.
+ * <p>
+ * The metadata of a file doesn't change after the reader is inited, so it is rendered to json bytes only once.
+ * For each line only the content and the record time are spliced into the template, and the record time is
+ * formatted once per second, instead of copying the metadata map and serializing it with Gson per line.
+ */
+public class MetadataTemplate {
+
+    private static final String RECORD_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // {"k1":"v1",...,"__content__":"
+    private final byte[] prefix;
+    // ","__LogTime__":"
+    private final byte[] timeField;
+    private final SimpleDateFormat secondFormat = new SimpleDateFormat(RECORD_TIME_PATTERN);
+    private volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, null);
+
+    public MetadataTemplate(Map<String, String> metadata) {
+        StringBuilder builder = new StringBuilder("{");
+        metadata.forEach((key, value) -> {
+            // null values are skipped, same as Gson does
+            if (value == null || DATA_CONTENT.equals(key) || DATA_CONTENT_TIME.equals(key)) {
+                return;
+            }
+            appendString(builder, key);
+            builder.append(':');
+            appendString(builder, value);
+            builder.append(',');
+        });
+        builder.append('"').append(DATA_CONTENT).append("\":\"");
+        this.prefix = builder.toString().getBytes(StandardCharsets.UTF_8);
+        this.timeField = ("\",\"" + DATA_CONTENT_TIME + "\":\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * render the line with metadata to json bytes
+     */
+    public byte[] render(String line, long timestamp) {
+        byte[] content = escape(getContent(line)).getBytes(StandardCharsets.UTF_8);
+        CachedSecond cached = getCachedSecond(timestamp);
+        byte[] result = new byte[prefix.length + content.length + timeField.length + cached.prefix.length + 5];
+        int pos = copy(prefix, result, 0);
+        pos = copy(content, result, pos);
+        pos = copy(timeField, result, pos);
+        pos = writeTime(cached, timestamp, result, pos);
+        result[pos++] = '"';
+        result[pos] = '}';
+        return result;
+    }
+
+    /**
+     * format timestamp as "yyyy-MM-dd HH:mm:ss.SSS", the part before millis is cached per second
+     */
+    public String formatTime(long timestamp) {
+        CachedSecond cached = getCachedSecond(timestamp);
+        byte[] result = new byte[cached.prefix.length + 3];
+        writeTime(cached, timestamp, result, 0);
+        return new String(result, StandardCharsets.UTF_8);
+    }
+
+    private CachedSecond getCachedSecond(long timestamp) {
+        long second = Math.floorDiv(timestamp, 1000L);
+        CachedSecond cached = cachedSecond;
+        if (cached.second != second) {
+            String formatted;
+            synchronized (secondFormat) {
+                formatted = secondFormat.format(new Date(second * 1000L));
+            }
+            cached = new CachedSecond(second, (formatted + ".").getBytes(StandardCharsets.UTF_8));
+            cachedSecond = cached;
+        }
+        return cached;
+    }
+
+    private static int writeTime(CachedSecond cached, long timestamp, byte[] target, int pos) {
+        pos = copy(cached.prefix, target, pos);
+        int millis = (int) Math.floorMod(timestamp, 1000L);
+        target[pos++] = (byte) ('0' + millis / 100);
+        target[pos++] = (byte) ('0' + millis / 10 % 10);
+        target[pos++] = (byte) ('0' + millis % 10);
+        return pos;
+    }
+
+    private static int copy(byte[] source, byte[] target, int pos) {
+        System.arraycopy(source, 0, target, pos, source.length);
+        return pos + source.length;
+    }
+
+    private String getContent(String line) {
+        // only a line starting with '{' can be a json log, skip parsing for others
+        int start = 0;
+        while (start < line.length() && Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        if (start == line.length()) {
+            // a blank line has empty content
+            return "";
+        }
+        if (line.charAt(start) != '{') {
+            return line;
+        }
+        return FileDataUtils.getK8sJsonLog(line, FileDataUtils.isJSON(line));
+    }
+
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append('"').append(escape(value)).append('"');
+    }
+
+    private static boolean needEscape(char c) {
+        return c < 0x20 || c == '"' || c == '\\' || c == 0x2028 || c == 0x2029;
+    }
+
+    /**
+     * escape the value as the content of a json string, the value is returned as is if nothing to escape
+     */
+    private static String escape(String value) {
+        int first = 0;
+        while (first < value.length() && !needEscape(value.charAt(first))) {
+            first++;
+        }
+        if (first == value.length()) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 16);
+        builder.append(value, 0, first);
+        for (int i = first; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        builder.append("\\u")
+                                .append(HEX_DIGITS[(c >> 12) & 0xF])
+                                .append(HEX_DIGITS[(c >> 8) & 0xF])
+                                .append(HEX_DIGITS[(c >> 4) & 0xF])
+                                .append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * formatted second, replaced as a whole so that readers never see a torn value
+     */
+    private static class CachedSecond {
+
+        private final long second;
+        private final byte[] prefix;
+
+        private CachedSecond(long second, byte[] prefix) {
+            this.second = second;
+            this.prefix = prefix;
+        }
+    }
+}
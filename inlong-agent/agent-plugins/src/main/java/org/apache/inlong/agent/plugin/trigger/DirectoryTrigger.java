@@ -35,7 +35,6 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
@@ -65,11 +64,15 @@ public class DirectoryTrigger implements Trigger {
     private static WatchKeyProviderThread resourceProviderThread = new WatchKeyProviderThread();
     private static ConcurrentHashMap<WatchKey, Set<DirectoryTrigger>> allTriggerWatches =
             new ConcurrentHashMap<>();
+    private static Set<DirectoryTrigger> allTriggers = ConcurrentHashMap.newKeySet();
 
     private final LinkedBlockingQueue<Map<String, String>> queue = new LinkedBlockingQueue<>();
     private Set<PathPattern> pathPatterns = new HashSet<>();
+    private FileIndex fileIndex = new FileIndex(pathPatterns);
     private TriggerProfile profile;
     private int interval;
+    private long reconcileInterval;
+    private volatile long lastReconcileTime;
 
     private static void initWatchService() {
         try {
@@ -106,6 +109,7 @@ public class DirectoryTrigger implements Trigger {
      */
     public Set<String> register(Set<String> whiteList, String offset, Set<String> blackList) throws IOException {
         this.pathPatterns = PathPattern.buildPathPattern(whiteList, offset, blackList);
+        this.fileIndex = new FileIndex(pathPatterns);
         LOGGER.info("Watch root path is {}", pathPatterns);
 
         resourceProviderThread.initTrigger(this);
@@ -117,6 +121,8 @@ public class DirectoryTrigger implements Trigger {
         initWatchService();
         interval = profile.getInt(
                 AgentConstants.TRIGGER_CHECK_INTERVAL, AgentConstants.DEFAULT_TRIGGER_CHECK_INTERVAL);
+        reconcileInterval = TimeUnit.SECONDS.toMillis(profile.getLong(
+                AgentConstants.TRIGGER_RECONCILE_INTERVAL, AgentConstants.DEFAULT_TRIGGER_RECONCILE_INTERVAL));
         this.profile = profile;
         if (this.profile.hasKey(JOB_DIR_FILTER_PATTERNS)) {
             Set<String> pathPatterns = Stream.of(
@@ -166,8 +172,16 @@ public class DirectoryTrigger implements Trigger {
                     synchronized (lock) {
                         Map<WatchKey, Set<DirectoryTrigger>> addWatches = new HashMap<>();
                         Set<WatchKey> delWatches = new HashSet<>();
-                        allTriggerWatches.forEach(
-                                (watchKey, triggers) -> checkNewDir(triggers, watchKey, addWatches, delWatches));
+                        Set<DirectoryTrigger> overflowTriggers = new HashSet<>();
+                        allTriggerWatches.forEach((watchKey, triggers) -> checkNewDir(triggers, watchKey,
+                                addWatches, delWatches, overflowTriggers));
+
+                        // full walk is only a rare reconciliation, for lost events or missed directories
+                        long currentTime = System.currentTimeMillis();
+                        allTriggers.stream()
+                                .filter(trigger -> overflowTriggers.contains(trigger)
+                                        || currentTime - trigger.lastReconcileTime >= trigger.reconcileInterval)
+                                .forEach(trigger -> reconcile(trigger, true, addWatches));
 
                         addWatches.forEach(((watchKey, triggers) -> allTriggerWatches.compute(watchKey,
                                 (existWatchKey, existsTriggers) -> {
@@ -193,6 +207,7 @@ public class DirectoryTrigger implements Trigger {
             synchronized (lock) {
                 LOGGER.info("Init trigger_{} add watchKey.", trigger.getTriggerProfile().getTriggerId());
                 checkInitDir(trigger);
+                allTriggers.add(trigger);
                 LOGGER.info("Init trigger_{} add watchKey end.", trigger.getTriggerProfile().getTriggerId());
             }
         }
@@ -200,6 +215,7 @@ public class DirectoryTrigger implements Trigger {
         public void destroyTrigger(DirectoryTrigger trigger) {
             synchronized (lock) {
                 LOGGER.info("Destroy trigger_{}.", trigger.getTriggerProfile().getTriggerId());
+                allTriggers.remove(trigger);
                 for (Entry<WatchKey, Set<DirectoryTrigger>> entry : allTriggerWatches.entrySet()) {
                     entry.getValue().remove(trigger);
                 }
@@ -217,93 +233,86 @@ public class DirectoryTrigger implements Trigger {
         private void checkInitDir(DirectoryTrigger trigger) {
             boolean registerSubFile = FileTriggerType.FULL.equals(
                     trigger.getTriggerProfile().get(JobConstants.JOB_FILE_TRIGGER_TYPE, FileTriggerType.FULL));
-            trigger.pathPatterns.forEach(pathPattern -> {
-                Set<WatchKey> tmpWatchers = new HashSet<>();
-                registerAllSubDir(trigger, Paths.get(pathPattern.getRootDir()), tmpWatchers, registerSubFile);
-                tmpWatchers.forEach(tmpWatch -> allTriggerWatches.compute(tmpWatch, (k, v) -> {
-                    if (v == null) {
-                        return Sets.newHashSet(trigger);
-                    }
-                    v.add(trigger);
-                    return v;
-                }));
-            });
+            Map<WatchKey, Set<DirectoryTrigger>> tmpWatchers = new HashMap<>();
+            reconcile(trigger, registerSubFile, tmpWatchers);
+            tmpWatchers.forEach((tmpWatch, triggers) -> allTriggerWatches.compute(tmpWatch, (k, v) -> {
+                if (v == null) {
+                    return Sets.newHashSet(trigger);
+                }
+                v.add(trigger);
+                return v;
+            }));
         }
 
         private void checkNewDir(
                 Set<DirectoryTrigger> triggers,
                 WatchKey watchKey,
                 Map<WatchKey, Set<DirectoryTrigger>> addWatches,
-                Set<WatchKey> delWatches) {
+                Set<WatchKey> delWatches,
+                Set<DirectoryTrigger> overflowTriggers) {
             Path parentPath = (Path) watchKey.watchable();
             if (!Files.exists(parentPath)) {
                 LOGGER.warn("{} not exist, add watcher to pending delete list", parentPath);
                 delWatches.add(watchKey);
+                triggers.forEach(trigger -> trigger.fileIndex.onDelete(parentPath));
                 return;
             }
 
-            Path appliedPath = parentPath;
             for (WatchEvent<?> event : watchKey.pollEvents()) {
                 // if watch event is too much, then event would be overflow.
-                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
-                    // only watch create event, so else is create-event.
-                    // entity.updateDateFormatRegex();
-                    Path createdPath = (Path) event.context();
-                    if (createdPath != null) {
-                        appliedPath = parentPath.resolve(createdPath);
-                    }
-                } else if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
                     // https://stackoverflow.com/questions/39076626/how-to-handle-the-java-watchservice-overflow-event
-                    LOGGER.info("overflow got {}", parentPath);
+                    LOGGER.info("overflow got {}, reconcile the file index", parentPath);
+                    overflowTriggers.addAll(triggers);
+                    continue;
+                }
+                Path eventPath = (Path) event.context();
+                if (eventPath == null) {
+                    continue;
+                }
+                Path appliedPath = parentPath.resolve(eventPath);
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    triggers.forEach(trigger -> trigger.fileIndex.onDelete(appliedPath));
+                } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    triggers.forEach(trigger -> applyDelta(trigger, trigger.fileIndex.onCreate(appliedPath),
+                            true, addWatches));
                 }
-
-                final Path finalAppliedPath = appliedPath;
-                triggers.forEach(trigger -> {
-                    Set<WatchKey> tmpWatchers = new HashSet<>();
-                    registerAllSubDir(trigger, finalAppliedPath, tmpWatchers, true);
-                    tmpWatchers.forEach(tmpWatch -> addWatches.compute(tmpWatch, (k, v) -> {
-                        if (v == null) {
-                            return Sets.newHashSet(trigger);
-                        }
-                        v.add(trigger);
-                        return v;
-                    }));
-                });
             }
         }
 
-        private void registerAllSubDir(
+        private void reconcile(DirectoryTrigger trigger, boolean registerSubFile,
+                Map<WatchKey, Set<DirectoryTrigger>> tobeAddedWatchers) {
+            LOGGER.info("Reconcile file index for trigger_{}", trigger.getTriggerProfile().getTriggerId());
+            trigger.lastReconcileTime = System.currentTimeMillis();
+            applyDelta(trigger, trigger.fileIndex.reconcile(), registerSubFile, tobeAddedWatchers);
+        }
+
+        private void applyDelta(
                 DirectoryTrigger trigger,
-                Path path,
-                Set<WatchKey> tobeAddedWatchers,
-                boolean registerSubFile) {
-            // check regex
-            LOGGER.info("Check whether path {} is suitable for trigger_{}",
-                    path, trigger.getTriggerProfile().getTriggerId());
-            try {
-                boolean isSuitable = trigger.pathPatterns.stream()
-                        .filter(pathPattern -> pathPattern.suitable(path.toString())).findAny().isPresent();
-                if (isSuitable) {
-                    LOGGER.info("path {} is suitable for trigger_{}.",
-                            path, trigger.getTriggerProfile().getTriggerId());
-                    if (path.toFile().isDirectory()) {
-                        WatchKey watchKey = path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
-                        tobeAddedWatchers.add(watchKey);
-                        Files.list(path).forEach(subPath -> registerAllSubDir(trigger, subPath.toAbsolutePath(),
-                                tobeAddedWatchers, registerSubFile));
-                    } else if (registerSubFile) {
-                        Map<String, String> taskProfile = new HashMap<>();
-                        String md5 = AgentUtils.getFileMd5(path.toFile());
-                        taskProfile.put(path.toFile().getAbsolutePath() + ".md5", md5);
-                        taskProfile.put(JobConstants.JOB_TRIGGER, null); // del trigger id
-                        taskProfile.put(JobConstants.JOB_DIR_FILTER_PATTERNS, path.toFile().getAbsolutePath());
-                        LOGGER.info("trigger_{} generate job profile to read file {}",
-                                trigger.getTriggerProfile().getTriggerId(), path);
-                        trigger.queue.offer(taskProfile);
-                    }
+                FileIndex.Delta delta,
+                boolean registerSubFile,
+                Map<WatchKey, Set<DirectoryTrigger>> tobeAddedWatchers) {
+            for (Path dir : delta.getNewDirs()) {
+                try {
+                    WatchKey watchKey = dir.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+                    tobeAddedWatchers.computeIfAbsent(watchKey, k -> new HashSet<>()).add(trigger);
+                } catch (IOException e) {
+                    LOGGER.error("register watch key for dir {} error", dir, e);
                 }
-            } catch (IOException e) {
-                LOGGER.error("Error happend", e);
+            }
+            if (!registerSubFile) {
+                return;
+            }
+            for (Path path : delta.getNewFiles()) {
+                Map<String, String> taskProfile = new HashMap<>();
+                String md5 = AgentUtils.getFileMd5(path.toFile());
+                taskProfile.put(path.toFile().getAbsolutePath() + ".md5", md5);
+                taskProfile.put(JobConstants.JOB_TRIGGER, null); // del trigger id
+                taskProfile.put(JobConstants.JOB_DIR_FILTER_PATTERNS, path.toFile().getAbsolutePath());
+                LOGGER.info("trigger_{} generate job profile to read file {}",
+                        trigger.getTriggerProfile().getTriggerId(), path);
+                trigger.queue.offer(taskProfile);
             }
         }
     }
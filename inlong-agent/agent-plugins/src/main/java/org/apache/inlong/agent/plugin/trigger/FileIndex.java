@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.trigger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory tree of the directories and files matched by a group of {@link PathPattern}.
+ * <p>
+ * The tree is built by one full walk of the root directories, then kept up to date by applying
+ * watch events as deltas with {@link #onCreate} and {@link #onDelete}, so that a new file is found
+ * by checking only the new path against the pre-compiled patterns. The full walk ({@link #reconcile})
+ * is only needed rarely, e.g. when the watch service overflows and events are lost.
+ */
+public class FileIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileIndex.class);
+
+    private final Collection<PathPattern> pathPatterns;
+    // suitable directory -> suitable files and sub directories directly under it
+    private final Map<Path, DirNode> tree = new HashMap<>();
+
+    public FileIndex(Collection<PathPattern> pathPatterns) {
+        this.pathPatterns = pathPatterns;
+    }
+
+    /**
+     * Walk all the root directories, rebuild the tree and return the paths which are not indexed before.
+     * Directories and files which no longer exist are removed from the tree.
+     */
+    public synchronized Delta reconcile() {
+        Delta delta = new Delta();
+        Set<Path> visited = new HashSet<>();
+        for (PathPattern pathPattern : pathPatterns) {
+            Path rootDir = Paths.get(pathPattern.getRootDir()).toAbsolutePath();
+            if (Files.isDirectory(rootDir) && suitable(rootDir, true)) {
+                walk(rootDir, delta, visited);
+            }
+        }
+        int removed = tree.size();
+        tree.keySet().retainAll(visited);
+        removed -= tree.size();
+        LOGGER.info("reconcile file index of {}, dirs {}, new dirs {}, new files {}, removed dirs {}",
+                pathPatterns, tree.size(), delta.newDirs.size(), delta.newFiles.size(), removed);
+        return delta;
+    }
+
+    /**
+     * Apply a created path, only the new path (and its children if it's a directory) is visited.
+     */
+    public synchronized Delta onCreate(Path path) {
+        Delta delta = new Delta();
+        DirNode parent = tree.get(path.getParent());
+        if (parent == null) {
+            // parent is not watched, it will be picked up by reconciliation if it's suitable
+            return delta;
+        }
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            return delta;
+        }
+        if (attributes.isDirectory()) {
+            if (suitable(path, true)) {
+                parent.subDirs.add(path);
+                walk(path, delta, new HashSet<>());
+            }
+        } else if (attributes.isRegularFile() && suitable(path, false) && parent.files.add(path)) {
+            delta.newFiles.add(path);
+        }
+        return delta;
+    }
+
+    /**
+     * Apply a deleted path, the whole sub tree is removed if it's a directory.
+     */
+    public synchronized void onDelete(Path path) {
+        DirNode parent = tree.get(path.getParent());
+        if (parent != null) {
+            parent.files.remove(path);
+            parent.subDirs.remove(path);
+        }
+        removeDir(path);
+    }
+
+    public synchronized boolean containsDir(Path dir) {
+        return tree.containsKey(dir);
+    }
+
+    public synchronized int getDirNum() {
+        return tree.size();
+    }
+
+    public synchronized int getFileNum() {
+        return tree.values().stream().mapToInt(node -> node.files.size()).sum();
+    }
+
+    private void walk(Path dir, Delta delta, Set<Path> visited) {
+        if (!visited.add(dir)) {
+            return;
+        }
+        DirNode node = tree.get(dir);
+        if (node == null) {
+            node = new DirNode();
+            tree.put(dir, node);
+            delta.newDirs.add(dir);
+        }
+        Set<Path> files = new HashSet<>();
+        Set<Path> subDirs = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                BasicFileAttributes attributes = readAttributes(child);
+                if (attributes == null) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    if (suitable(child, true)) {
+                        subDirs.add(child);
+                    }
+                } else if (attributes.isRegularFile() && suitable(child, false)) {
+                    files.add(child);
+                    if (!node.files.contains(child)) {
+                        delta.newFiles.add(child);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("list dir {} error", dir, e);
+            return;
+        }
+        node.files = files;
+        node.subDirs = subDirs;
+        for (Path subDir : subDirs) {
+            walk(subDir, delta, visited);
+        }
+    }
+
+    private void removeDir(Path dir) {
+        DirNode node = tree.remove(dir);
+        if (node != null) {
+            node.subDirs.forEach(this::removeDir);
+        }
+    }
+
+    private boolean suitable(Path path, boolean isDirectory) {
+        for (PathPattern pathPattern : pathPatterns) {
+            if (pathPattern.matches(path, isDirectory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            // the path may be deleted just now
+            LOGGER.debug("read attributes of {} error", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Directory node of the tree
+     */
+    private static class DirNode {
+
+        private Set<Path> files = new HashSet<>();
+        private Set<Path> subDirs = new HashSet<>();
+    }
+
+    /**
+     * Paths newly added to the index
+     */
+    public static class Delta {
+
+        private final List<Path> newDirs = new ArrayList<>();
+        private final List<Path> newFiles = new ArrayList<>();
+
+        public List<Path> getNewDirs() {
+            return newDirs;
+        }
+
+        public List<Path> getNewFiles() {
+            return newFiles;
+        }
+    }
+}
@@ -26,12 +26,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Path pattern for file filter.
@@ -105,15 +105,45 @@ public class PathPattern {
             return;
         }
 
-        if (suitable(file.getAbsolutePath())) {
-            if (file.isFile()) {
-                suitableFiles.add(file);
-            } else if (file.isDirectory()) {
-                Stream.of(file.listFiles()).forEach(subFile -> walkSuitableFiles(suitableFiles, subFile, maxNum));
+        boolean isDirectory = file.isDirectory();
+        if (matches(file.toPath().toAbsolutePath(), isDirectory)) {
+            if (!isDirectory) {
+                if (file.isFile()) {
+                    suitableFiles.add(file);
+                }
+            } else {
+                File[] subFiles = file.listFiles();
+                if (subFiles != null) {
+                    for (File subFile : subFiles) {
+                        walkSuitableFiles(suitableFiles, subFile, maxNum);
+                    }
+                }
             }
         }
     }
 
+    /**
+     * Check whether path matches whiteList and is not filtered by blackList.<br>
+     * Different from {@link PathPattern#suitable}, the watched sub dirs are not recorded, and the
+     * white list is matched by pre-compiled regex, so it's cheap to be called for every new path.
+     *
+     * @param path absolute path
+     * @param isDirectory whether the path is a directory
+     * @return true if suit else false.
+     */
+    public boolean matches(Path path, boolean isDirectory) {
+        String pathStr = path.toString();
+        if (blackList.contains(pathStr)) {
+            return false;
+        }
+        for (DateFormatRegex whiteRegex : whiteList) {
+            if (whiteRegex.match(pathStr, isDirectory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Check whether path is suitable for match whiteList and filtered by blackList
      *
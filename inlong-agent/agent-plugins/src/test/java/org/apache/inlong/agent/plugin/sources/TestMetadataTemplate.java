@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.sources;
+
+import org.apache.inlong.agent.plugin.sources.reader.file.MetadataTemplate;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT;
+import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT_TIME;
+import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_FILE_NAME;
+import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_HOST_NAME;
+
+public class TestMetadataTemplate {
+
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void testRender() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(METADATA_HOST_NAME, "host\"1");
+        metadata.put(METADATA_FILE_NAME, "test.log");
+        MetadataTemplate template = new MetadataTemplate(metadata);
+
+        long timestamp = System.currentTimeMillis();
+        String line = "line with \"quote\", \\ and \t tab";
+        Map<String, String> result = GSON.fromJson(
+                new String(template.render(line, timestamp), StandardCharsets.UTF_8),
+                new TypeToken<Map<String, String>>() {
+                }.getType());
+        Assert.assertEquals(4, result.size());
+        Assert.assertEquals("host\"1", result.get(METADATA_HOST_NAME));
+        Assert.assertEquals("test.log", result.get(METADATA_FILE_NAME));
+        Assert.assertEquals(line, result.get(DATA_CONTENT));
+        Assert.assertEquals(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(timestamp)),
+                result.get(DATA_CONTENT_TIME));
+    }
+
+    @Test
+    public void testFormatTime() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        MetadataTemplate template = new MetadataTemplate(new HashMap<>());
+        long timestamp = 1700000000000L;
+        for (long offset : new long[]{0, 7, 99, 999, 1000, 1001, 60_000}) {
+            Assert.assertEquals(format.format(new Date(timestamp + offset)), template.formatTime(timestamp + offset));
+        }
+    }
+
+    @Test
+    public void testBlankLine() {
+        MetadataTemplate template = new MetadataTemplate(new HashMap<>());
+        for (String line : new String[]{"", "  ", "\t"}) {
+            Map<String, String> result = GSON.fromJson(
+                    new String(template.render(line, System.currentTimeMillis()), StandardCharsets.UTF_8),
+                    new TypeToken<Map<String, String>>() {
+                    }.getType());
+            Assert.assertEquals("", result.get(DATA_CONTENT));
+        }
+    }
+}
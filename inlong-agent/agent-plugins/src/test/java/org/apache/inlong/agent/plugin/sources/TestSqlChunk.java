@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.sources;
+
+import org.apache.inlong.agent.plugin.sources.reader.SqlChunk;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TestSqlChunk {
+
+    @Test
+    public void testSplit() {
+        List<SqlChunk> chunks = SqlChunk.split(1, 25, 10);
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertEquals(1, chunks.get(0).getLower());
+        Assert.assertEquals(11, chunks.get(0).getUpper());
+        Assert.assertFalse(chunks.get(1).isLast());
+        Assert.assertEquals(21, chunks.get(2).getLower());
+        Assert.assertEquals(25, chunks.get(2).getUpper());
+        Assert.assertTrue(chunks.get(2).isLast());
+
+        // single key and the largest key don't overflow
+        Assert.assertEquals(1, SqlChunk.split(5, 5, 10).size());
+        chunks = SqlChunk.split(Long.MAX_VALUE - 15, Long.MAX_VALUE, 10);
+        Assert.assertEquals(2, chunks.size());
+        Assert.assertEquals(Long.MAX_VALUE, chunks.get(1).getUpper());
+    }
+
+    @Test
+    public void testAssign() {
+        List<List<SqlChunk>> assignment = SqlChunk.assign(SqlChunk.split(0, 99, 10), 4);
+        Assert.assertEquals(4, assignment.size());
+        Assert.assertEquals(3, assignment.get(0).size());
+        Assert.assertEquals(2, assignment.get(3).size());
+        Assert.assertEquals(4, assignment.get(0).get(1).getIndex());
+
+        // no more readers than chunks
+        Assert.assertEquals(1, SqlChunk.assign(SqlChunk.split(0, 5, 10), 4).size());
+    }
+
+    @Test
+    public void testWrapSql() {
+        List<SqlChunk> chunks = SqlChunk.split(0, 15, 10);
+        Assert.assertEquals("SELECT * FROM (select * from t) inlong_chunk WHERE id >= ? AND id < ? ORDER BY id",
+                chunks.get(0).wrapSql("select * from t", "id"));
+        Assert.assertEquals("SELECT * FROM (select * from t) inlong_chunk WHERE id >= ? AND id <= ? ORDER BY id",
+                chunks.get(1).wrapSql("select * from t", "id"));
+    }
+}
@@ -47,6 +47,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -264,6 +265,23 @@ public class TestTextFileReader {
                 new String(fileReaderOperator.read().getBody(), StandardCharsets.UTF_8)));
     }
 
+    @Test
+    public void testMetadataProviderFailure() throws Exception {
+        Path localPath = Paths.get(testDir.toString(), "test_meta.txt");
+        Files.write(localPath, Collections.singletonList("world"), StandardOpenOption.CREATE);
+        final FileReaderOperator fileReaderOperator = new FileReaderOperator(localPath.toFile(), 0);
+        JobProfile jobProfile = new JobProfile();
+        jobProfile.set(PROXY_INLONG_GROUP_ID, "groupid");
+        jobProfile.set(PROXY_INLONG_STREAM_ID, "streamid");
+        jobProfile.set(JOB_INSTANCE_ID, "1");
+        // no kubernetes client is available here, so the provider fails and the cvm metadata is still sent
+        jobProfile.set(JOB_FILE_META_ENV_LIST, KUBERNETES + "," + ENV_CVM);
+        fileReaderOperator.init(jobProfile);
+        fileReaderOperator.fetchData();
+        Assert.assertEquals("world", getContent(
+                new String(fileReaderOperator.read().getBody(), StandardCharsets.UTF_8)));
+    }
+
     @Test
     public void testTextTailTimeout() throws Exception {
         JobProfile jobProfile = new JobProfile();
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.trigger;
+
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class TestFileIndex {
+
+    @Rule
+    public final TemporaryFolder watchFolder = new TemporaryFolder();
+
+    @Test
+    public void testIncrementalIndex() throws Exception {
+        if (System.getProperty("os.name").toLowerCase().startsWith("windows")) {
+            return;
+        }
+        String root = watchFolder.getRoot().getAbsolutePath();
+        File file1 = watchFolder.newFile("1.log");
+        watchFolder.newFile("1.txt");
+        FileIndex fileIndex = new FileIndex(PathPattern.buildPathPattern(
+                Sets.newHashSet(root + File.separator + "**" + File.separator + "*.log"), null,
+                Collections.emptySet()));
+
+        FileIndex.Delta delta = fileIndex.reconcile();
+        Assert.assertEquals(Collections.singletonList(file1.toPath()), delta.getNewFiles());
+        Assert.assertEquals(1, fileIndex.getDirNum());
+
+        // new dir with files created before watched
+        File subDir = watchFolder.newFolder("sub");
+        File file2 = new File(subDir, "2.log");
+        Assert.assertTrue(file2.createNewFile());
+        delta = fileIndex.onCreate(subDir.toPath());
+        Assert.assertEquals(Collections.singletonList(subDir.toPath()), delta.getNewDirs());
+        Assert.assertEquals(Collections.singletonList(file2.toPath()), delta.getNewFiles());
+
+        // duplicated event and reconciliation should not produce files again
+        Assert.assertTrue(fileIndex.onCreate(file2.toPath()).getNewFiles().isEmpty());
+        Assert.assertTrue(fileIndex.reconcile().getNewFiles().isEmpty());
+        Assert.assertEquals(2, fileIndex.getFileNum());
+
+        Path subPath = subDir.toPath();
+        Assert.assertTrue(file2.delete());
+        Assert.assertTrue(subDir.delete());
+        fileIndex.onDelete(subPath);
+        Assert.assertFalse(fileIndex.containsDir(subPath));
+        Assert.assertEquals(1, fileIndex.getFileNum());
+    }
+}
@@ -177,6 +177,10 @@ public class FailoverChannelProcessor
             }
         }
 
+        if (!success && optChannelQueue.isEmpty()) {
+            // nothing to fail over to, let the caller know the batch is not written
+            throw new ChannelException("Unable to put batch on required channels");
+        }
         if (!success) {
             // Process file channels
             for (Map.Entry<Channel, List<Event>> entry : optChannelQueue.entrySet()) {
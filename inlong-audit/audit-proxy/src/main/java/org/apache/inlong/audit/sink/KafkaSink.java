@@ -43,6 +43,7 @@ import org.apache.pulsar.client.api.PulsarClientException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,7 +69,7 @@ public class KafkaSink extends AbstractSink implements Configurable {
     private static final String BUFFER_MEMORY = "buffer_memory";
     private static final String defaultRetries = "0";
     private static final String defaultBatchSize = "16384";
-    private static final String defaultLingerMs = "0";
+    private static final String defaultLingerMs = "5";
     private static final String defaultBufferMemory = "33554432";
     private static final String defaultAcks = "all";
 
@@ -89,6 +90,7 @@ public class KafkaSink extends AbstractSink implements Configurable {
     private static final int BAD_EVENT_QUEUE_SIZE = 10000;
     private static final int EVENT_QUEUE_SIZE = 1000;
     private static final int DEFAULT_LOG_EVERY_N_EVENTS = 100000;
+    private static final int DEFAULT_TAKE_BATCH_SIZE = 100;
     private LinkedBlockingQueue<EventStat> resendQueue;
     private LinkedBlockingQueue<Event> eventQueue;
 
@@ -96,11 +98,14 @@ public class KafkaSink extends AbstractSink implements Configurable {
     private Integer logEveryNEvents;
     private long diskIORatePerSec;
     private RateLimiter diskRateLimiter;
+    // max events taken from the channel in one transaction
+    private int takeBatchSize;
 
     // properties for stat
     private static final String LOG_EVERY_N_EVENTS = "log_every_n_events";
     private static final String DISK_IO_RATE_PER_SEC = "disk_io_rate_per_sec";
     private static final String SINK_THREAD_NUM = "thread-num";
+    private static final String TAKE_BATCH_SIZE = "take_batch_size";
 
     // for stas
     private AtomicLong currentSuccessSendCnt = new AtomicLong(0);
@@ -180,7 +185,7 @@ public class KafkaSink extends AbstractSink implements Configurable {
 
     @Override
     public Status process() {
-        logger.info("kafka sink processing");
+        logger.debug("kafka sink processing");
         if (!this.canTake) {
             return Status.BACKOFF;
         }
@@ -190,17 +195,30 @@ public class KafkaSink extends AbstractSink implements Configurable {
         Transaction tx = channel.getTransaction();
         tx.begin();
         try {
-            Event event = channel.take();
-            if (event != null) {
+            // take a batch of events in one transaction, only this thread puts events into the queue,
+            // so all the taken events can be put into the queue once the first one is accepted
+            List<Event> events = new ArrayList<>();
+            int batchSize = Math.min(takeBatchSize, Math.max(1, eventQueue.remainingCapacity()));
+            while (events.size() < batchSize) {
+                Event event = channel.take();
+                if (event == null) {
+                    break;
+                }
                 if (diskRateLimiter != null) {
                     diskRateLimiter.acquire(event.getBody().length);
                 }
-                if (!eventQueue.offer(event, 3 * 1000, TimeUnit.MILLISECONDS)) {
+                events.add(event);
+            }
+            if (!events.isEmpty()) {
+                if (!eventQueue.offer(events.get(0), 3 * 1000, TimeUnit.MILLISECONDS)) {
                     logger.info("[{}] Channel --> Queue(not enough space, current code point) "
                             + "--> Kafka, check if Kafka server or network is ok. (If this situation "
                             + "last long time it will cause memoryChannel full and fileChannel write.)", getName());
                     tx.rollback();
                 } else {
+                    for (int i = 1; i < events.size(); i++) {
+                        eventQueue.put(events.get(i));
+                    }
                     tx.commit();
                 }
             } else {
@@ -233,6 +251,9 @@ public class KafkaSink extends AbstractSink implements Configurable {
         logger.debug(this.getName() + " " + LOG_EVERY_N_EVENTS + " " + logEveryNEvents);
         Preconditions.checkArgument(logEveryNEvents > 0, "logEveryNEvents must be > 0");
 
+        takeBatchSize = context.getInteger(TAKE_BATCH_SIZE, DEFAULT_TAKE_BATCH_SIZE);
+        Preconditions.checkArgument(takeBatchSize > 0, "takeBatchSize must be > 0");
+
         resendQueue = new LinkedBlockingQueue<>(BAD_EVENT_QUEUE_SIZE);
 
         String sinkThreadNum = context.getString(SINK_THREAD_NUM, "4");
@@ -42,6 +42,8 @@ import org.apache.pulsar.client.api.PulsarClientException.TopicTerminatedExcepti
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -72,6 +74,7 @@ public class PulsarSink extends AbstractSink
     private static int BAD_EVENT_QUEUE_SIZE = 10000;
     private static int BATCH_SIZE = 10000;
     private static final int DEFAULT_LOG_EVERY_N_EVENTS = 100000;
+    private static final int DEFAULT_TAKE_BATCH_SIZE = 100;
 
     /*
      * properties for stat
@@ -82,6 +85,8 @@ public class PulsarSink extends AbstractSink
 
     private static final String SINK_THREAD_NUM = "thread_num";
 
+    private static final String TAKE_BATCH_SIZE = "take_batch_size";
+
     /*
      * for log
      */
@@ -91,6 +96,11 @@ public class PulsarSink extends AbstractSink
 
     private RateLimiter diskRateLimiter;
 
+    /*
+     * max events taken from the channel in one transaction
+     */
+    private int takeBatchSize;
+
     /*
      * for stat
      */
@@ -180,6 +190,9 @@ public class PulsarSink extends AbstractSink
         logger.debug(this.getName() + " " + LOG_EVERY_N_EVENTS + " " + logEveryNEvents);
         Preconditions.checkArgument(logEveryNEvents > 0, "logEveryNEvents must be > 0");
 
+        takeBatchSize = context.getInteger(TAKE_BATCH_SIZE, DEFAULT_TAKE_BATCH_SIZE);
+        Preconditions.checkArgument(takeBatchSize > 0, "takeBatchSize must be > 0");
+
         resendQueue = new LinkedBlockingQueue<EventStat>(BAD_EVENT_QUEUE_SIZE);
 
         String sinkThreadNum = context.getString(SINK_THREAD_NUM, "4");
@@ -266,7 +279,7 @@ public class PulsarSink extends AbstractSink
 
     @Override
     public Status process() throws EventDeliveryException {
-        logger.info("pulsar sink processing");
+        logger.debug("pulsar sink processing");
         if (!this.canTake) {
             return Status.BACKOFF;
         }
@@ -276,17 +289,30 @@ public class PulsarSink extends AbstractSink
         Transaction tx = channel.getTransaction();
         tx.begin();
         try {
-            Event event = channel.take();
-            if (event != null) {
+            // take a batch of events in one transaction, only this thread puts events into the queue,
+            // so all the taken events can be put into the queue once the first one is accepted
+            List<Event> events = new ArrayList<>();
+            int batchSize = Math.min(takeBatchSize, Math.max(1, eventQueue.remainingCapacity()));
+            while (events.size() < batchSize) {
+                Event event = channel.take();
+                if (event == null) {
+                    break;
+                }
                 if (diskRateLimiter != null) {
                     diskRateLimiter.acquire(event.getBody().length);
                 }
-                if (!eventQueue.offer(event, 3 * 1000, TimeUnit.MILLISECONDS)) {
+                events.add(event);
+            }
+            if (!events.isEmpty()) {
+                if (!eventQueue.offer(events.get(0), 3 * 1000, TimeUnit.MILLISECONDS)) {
                     logger.info("[{}] Channel --> Queue(has no enough space,current code point) "
                             + "--> pulsar,Check if pulsar server or network is ok.(if this situation "
                             + "last long time it will cause memoryChannel full and fileChannel write.)", getName());
                     tx.rollback();
                 } else {
+                    for (int i = 1; i < events.size(); i++) {
+                        eventQueue.put(events.get(i));
+                    }
                     tx.commit();
                 }
             } else {
@@ -49,6 +49,7 @@ import org.apache.flume.sink.AbstractSink;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +80,8 @@ public class TubeSink extends AbstractSink implements Configurable {
 
     private static final int EVENT_QUEUE_SIZE = 1000;
 
+    private static final int DEFAULT_TAKE_BATCH_SIZE = 100;
+
     private static final String MASTER_HOST_PORT_LIST = "master-host-port-list";
 
     private static final String TOPIC = "topic";
@@ -89,6 +92,8 @@ public class TubeSink extends AbstractSink implements Configurable {
 
     private static final String RETRY_CNT = "retry-currentSuccSendedCnt";
 
+    private static final String TAKE_BATCH_SIZE = "take_batch_size";
+
     private static int retryCnt = defaultRetryCnt;
 
     private static AtomicLong totalTubeSuccSendCnt = new AtomicLong(0);
@@ -121,6 +126,8 @@ public class TubeSink extends AbstractSink implements Configurable {
     private LinkedBlockingQueue<Event> eventQueue;
     private long diskIORatePerSec;
     private RateLimiter diskRateLimiter;
+    // max events taken from the channel in one transaction
+    private int takeBatchSize;
     private String masterHostAndPortList;
     private Integer logEveryNEvents;
     private Integer sendTimeout;
@@ -214,7 +221,7 @@ public class TubeSink extends AbstractSink implements Configurable {
 
     @Override
     public Status process() throws EventDeliveryException {
-        logger.info("tube sink processing");
+        logger.debug("tube sink processing");
         if (!this.canTake) {
             return Status.BACKOFF;
         }
@@ -223,17 +230,30 @@ public class TubeSink extends AbstractSink implements Configurable {
         Transaction tx = channel.getTransaction();
         tx.begin();
         try {
-            Event event = channel.take();
-            if (event != null) {
+            // take a batch of events in one transaction, only this thread puts events into the queue,
+            // so all the taken events can be put into the queue once the first one is accepted
+            List<Event> events = new ArrayList<>();
+            int batchSize = Math.min(takeBatchSize, Math.max(1, eventQueue.remainingCapacity()));
+            while (events.size() < batchSize) {
+                Event event = channel.take();
+                if (event == null) {
+                    break;
+                }
                 if (diskRateLimiter != null) {
                     diskRateLimiter.acquire(event.getBody().length);
                 }
-                if (!eventQueue.offer(event, 3 * 1000, TimeUnit.MILLISECONDS)) {
+                events.add(event);
+            }
+            if (!events.isEmpty()) {
+                if (!eventQueue.offer(events.get(0), 3 * 1000, TimeUnit.MILLISECONDS)) {
                     logger.info("[{}] Channel --> Queue(has no enough space,current code point) "
                             + "--> Tube,Check if Tube server or network is ok.(if this situation last long time "
                             + "it will cause memoryChannel full and fileChannel write.)", getName());
                     tx.rollback();
                 } else {
+                    for (int i = 1; i < events.size(); i++) {
+                        eventQueue.put(events.get(i));
+                    }
                     tx.commit();
                 }
             } else {
@@ -283,6 +303,9 @@ public class TubeSink extends AbstractSink implements Configurable {
             sinkCounter = new SinkCounter(getName());
         }
 
+        takeBatchSize = context.getInteger(TAKE_BATCH_SIZE, DEFAULT_TAKE_BATCH_SIZE);
+        Preconditions.checkArgument(takeBatchSize > 0, "takeBatchSize must be > 0");
+
         resendQueue = new LinkedBlockingQueue<>(BAD_EVENT_QUEUE_SIZE);
 
         String sinkThreadNum = context.getString(SINK_THREAD_NUM, "4");
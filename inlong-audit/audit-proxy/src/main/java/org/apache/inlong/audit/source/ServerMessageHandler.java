@@ -40,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -140,7 +141,7 @@ public class ServerMessageHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
-    private AuditReply handleRequest(AuditRequest auditRequest) throws Exception {
+    AuditReply handleRequest(AuditRequest auditRequest) throws Exception {
         if (auditRequest == null) {
             throw new Exception("audit request cannot be null");
         }
@@ -149,7 +150,7 @@ public class ServerMessageHandler extends ChannelInboundHandlerAdapter {
                 .setRspCode(RSP_CODE.SUCCESS)
                 .build();
         List<AuditMessageBody> bodyList = auditRequest.getMsgBodyList();
-        int errorMsgBody = 0;
+        List<Event> events = new ArrayList<>(bodyList.size());
         for (AuditMessageBody auditMessageBody : bodyList) {
             long msgDays = messageDays(auditMessageBody.getLogTs());
             if (msgDays >= this.msgValidThresholdDays) {
@@ -172,13 +173,19 @@ public class ServerMessageHandler extends ChannelInboundHandlerAdapter {
             auditData.setInlongStreamId(auditMessageBody.getInlongStreamId());
             auditData.setSize(auditMessageBody.getSize());
 
+            byte[] body = GSON.toJson(auditData).getBytes(StandardCharsets.UTF_8);
+            events.add(EventBuilder.withBody(body, null));
+        }
+
+        // put the whole request into the channel in one transaction, so it is written entirely or not at all,
+        // the transaction capacity of the channels should be larger than the bodies of a request
+        int errorMsgBody = 0;
+        if (!events.isEmpty()) {
             try {
-                byte[] body = GSON.toJson(auditData).getBytes(StandardCharsets.UTF_8);
-                Event event = EventBuilder.withBody(body, null);
-                processor.processEvent(event);
+                processor.processEventBatch(events);
             } catch (Throwable ex) {
                 LOGGER.error("writing data error, discard it: ", ex);
-                errorMsgBody++;
+                errorMsgBody = events.size();
             }
         }
 
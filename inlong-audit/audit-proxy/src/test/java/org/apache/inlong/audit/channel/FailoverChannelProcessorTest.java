@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.channel;
+
+import com.google.common.base.Charsets;
+import org.apache.flume.Channel;
+import org.apache.flume.ChannelException;
+import org.apache.flume.Context;
+import org.apache.flume.Event;
+import org.apache.flume.Transaction;
+import org.apache.flume.channel.MemoryChannel;
+import org.apache.flume.channel.ReplicatingChannelSelector;
+import org.apache.flume.conf.Configurables;
+import org.apache.flume.event.EventBuilder;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class FailoverChannelProcessorTest {
+
+    private Channel channel;
+    private FailoverChannelProcessor processor;
+
+    @Before
+    public void setUp() {
+        channel = new MemoryChannel();
+        Context context = new Context();
+        context.put("capacity", "100");
+        context.put("transactionCapacity", "5");
+        Configurables.configure(channel, context);
+        channel.start();
+        ReplicatingChannelSelector selector = new ReplicatingChannelSelector();
+        selector.setChannels(Collections.singletonList(channel));
+        processor = new FailoverChannelProcessor(selector);
+    }
+
+    private static List<Event> events(int count) {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(EventBuilder.withBody("test" + i, Charsets.UTF_8));
+        }
+        return events;
+    }
+
+    private int takeAll() {
+        Transaction transaction = channel.getTransaction();
+        transaction.begin();
+        // at most a full transaction is written
+        int count = 0;
+        while (count < 5 && channel.take() != null) {
+            count++;
+        }
+        transaction.commit();
+        transaction.close();
+        return count;
+    }
+
+    @Test
+    public void testProcessEventBatch() {
+        processor.processEventBatch(events(5));
+        Assert.assertEquals(5, takeAll());
+    }
+
+    @Test
+    public void testRequiredChannelFailed() {
+        // larger than the transaction capacity, and there is no optional channel to fail over to
+        try {
+            processor.processEventBatch(events(6));
+            Assert.fail("the batch should not be written");
+        } catch (ChannelException e) {
+            Assert.assertEquals(0, takeAll());
+        }
+    }
+}
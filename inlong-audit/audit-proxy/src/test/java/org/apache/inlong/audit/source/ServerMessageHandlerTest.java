@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.source;
+
+import org.apache.inlong.audit.channel.FailoverChannelProcessor;
+import org.apache.inlong.audit.protocol.AuditApi.AuditMessageBody;
+import org.apache.inlong.audit.protocol.AuditApi.AuditMessageHeader;
+import org.apache.inlong.audit.protocol.AuditApi.AuditReply;
+import org.apache.inlong.audit.protocol.AuditApi.AuditReply.RSP_CODE;
+import org.apache.inlong.audit.protocol.AuditApi.AuditRequest;
+import org.apache.inlong.audit.protocol.AuditData;
+
+import com.google.gson.Gson;
+import org.apache.flume.Channel;
+import org.apache.flume.Context;
+import org.apache.flume.Event;
+import org.apache.flume.Transaction;
+import org.apache.flume.channel.MemoryChannel;
+import org.apache.flume.channel.ReplicatingChannelSelector;
+import org.apache.flume.conf.Configurables;
+import org.apache.flume.source.AbstractSource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ServerMessageHandlerTest {
+
+    private Channel channel;
+    private ServerMessageHandler handler;
+
+    @Before
+    public void setUp() {
+        channel = new MemoryChannel();
+        Context context = new Context();
+        context.put("capacity", "1000");
+        context.put("transactionCapacity", "10");
+        Configurables.configure(channel, context);
+        channel.start();
+        ReplicatingChannelSelector selector = new ReplicatingChannelSelector();
+        selector.setChannels(Collections.singletonList(channel));
+        AbstractSource source = new AbstractSource() {
+        };
+        source.setChannelProcessor(new FailoverChannelProcessor(selector));
+        handler = new ServerMessageHandler(source, null, null, 10, 7L);
+    }
+
+    private static AuditRequest request(int bodies) {
+        AuditRequest.Builder builder = AuditRequest.newBuilder()
+                .setRequestId(1)
+                .setMsgHeader(AuditMessageHeader.newBuilder().setIp("127.0.0.1").setPacketId(1).build());
+        for (int i = 0; i < bodies; i++) {
+            builder.addMsgBody(AuditMessageBody.newBuilder()
+                    .setLogTs(System.currentTimeMillis())
+                    .setInlongGroupId("group")
+                    .setInlongStreamId("stream")
+                    .setAuditId(String.valueOf(i))
+                    .setCount(1)
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private List<AuditData> takeAll() {
+        Transaction transaction = channel.getTransaction();
+        transaction.begin();
+        List<AuditData> result = new ArrayList<>();
+        // at most a full transaction is written
+        Event event;
+        while (result.size() < 10 && (event = channel.take()) != null) {
+            result.add(new Gson().fromJson(new String(event.getBody(), StandardCharsets.UTF_8), AuditData.class));
+        }
+        transaction.commit();
+        transaction.close();
+        return result;
+    }
+
+    @Test
+    public void testBatchPut() throws Exception {
+        AuditReply reply = handler.handleRequest(request(10));
+        Assert.assertEquals(RSP_CODE.SUCCESS, reply.getRspCode());
+        Assert.assertEquals(1, reply.getRequestId());
+        List<AuditData> data = takeAll();
+        Assert.assertEquals(10, data.size());
+        Assert.assertEquals("9", data.get(9).getAuditId());
+        Assert.assertEquals("127.0.0.1", data.get(0).getIp());
+    }
+
+    @Test
+    public void testFailedReply() throws Exception {
+        // the request does not fit in one transaction, nothing is written and the whole request is failed
+        AuditReply reply = handler.handleRequest(request(11));
+        Assert.assertEquals(RSP_CODE.FAILED, reply.getRspCode());
+        Assert.assertTrue(reply.getMessage().endsWith("error body count=11"));
+        Assert.assertTrue(takeAll().isEmpty());
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Audit handle of an audit id, inlong group id and inlong stream id.
+ * The handle can be cached by the caller, so that adding the audit data of a message is just some striped adds
+ * to the bucket of the minute of the log time.
+ */
+public final class AuditHandle {
+
+    private final int auditId;
+    private final String inlongGroupId;
+    private final String inlongStreamId;
+    // key: minute of the log time
+    private final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    // idle buckets removed from the map, only accessed by the report thread
+    private final List<Bucket> retiredBuckets = new LinkedList<>();
+    private volatile Bucket lastBucket;
+    private volatile boolean retired = false;
+    private long retireTime = 0L;
+
+    AuditHandle(int auditId, String inlongGroupId, String inlongStreamId) {
+        this.auditId = auditId;
+        this.inlongGroupId = inlongGroupId;
+        this.inlongStreamId = inlongStreamId;
+    }
+
+    /**
+     * Add audit data
+     */
+    public void add(long logTime, long count, long size) {
+        if (retired) {
+            // the handle cached by the caller is evicted, add to the current handle of the same key
+            AuditHandle current = AuditOperator.getInstance().getAuditHandle(auditId, inlongGroupId, inlongStreamId);
+            if (current != this) {
+                current.add(logTime, count, size);
+                return;
+            }
+        }
+        long delayTime = System.currentTimeMillis() - logTime;
+        long minute = logTime / AuditOperator.PERIOD;
+        Bucket bucket = lastBucket;
+        if (bucket == null || bucket.minute != minute || bucket.retired) {
+            bucket = buckets.computeIfAbsent(minute, Bucket::new);
+            lastBucket = bucket;
+        }
+        bucket.count.add(count);
+        bucket.size.add(size);
+        bucket.delay.add(delayTime * count);
+    }
+
+    public int getAuditId() {
+        return auditId;
+    }
+
+    public String getInlongGroupId() {
+        return inlongGroupId;
+    }
+
+    public String getInlongStreamId() {
+        return inlongStreamId;
+    }
+
+    /**
+     * Collect the audit data added since the last collection, called by the report thread only.
+     * The buckets are never reset, the increments since the last collection are reported, so the concurrent adds
+     * are not lost. The idle buckets are removed from the map, and still collected for a period for the adds
+     * which got them before the removal.
+     *
+     * @param result key: minute of the log time, value: count, size and delay
+     */
+    void collect(Map<Long, long[]> result) {
+        collect(result, System.currentTimeMillis());
+    }
+
+    void collect(Map<Long, long[]> result, long now) {
+        Iterator<Bucket> iterator = retiredBuckets.iterator();
+        while (iterator.hasNext()) {
+            Bucket bucket = iterator.next();
+            bucket.collect(result);
+            if (now - bucket.retireTime >= AuditOperator.PERIOD) {
+                iterator.remove();
+            }
+        }
+        for (Bucket bucket : buckets.values()) {
+            if (!bucket.collect(result)) {
+                bucket.retireTime = now;
+                bucket.retired = true;
+                buckets.remove(bucket.minute, bucket);
+                retiredBuckets.add(bucket);
+            }
+        }
+    }
+
+    /**
+     * @return true if all the buckets are retired and no longer collected
+     */
+    boolean isIdle() {
+        return buckets.isEmpty() && retiredBuckets.isEmpty();
+    }
+
+    /**
+     * Mark the handle evicted, the later adds go to the current handle of the same key.
+     */
+    void retire(long now) {
+        retireTime = now;
+        retired = true;
+    }
+
+    long getRetireTime() {
+        return retireTime;
+    }
+
+    private static class Bucket {
+
+        private final long minute;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder size = new LongAdder();
+        private final LongAdder delay = new LongAdder();
+        private volatile boolean retired = false;
+        private long retireTime = 0L;
+        private long reportedCount = 0L;
+        private long reportedSize = 0L;
+        private long reportedDelay = 0L;
+
+        private Bucket(long minute) {
+            this.minute = minute;
+        }
+
+        /**
+         * @return false if nothing is added since the last collection
+         */
+        private boolean collect(Map<Long, long[]> result) {
+            long currentCount = count.sum();
+            long currentSize = size.sum();
+            long currentDelay = delay.sum();
+            if (currentCount == reportedCount && currentSize == reportedSize && currentDelay == reportedDelay) {
+                return false;
+            }
+            long[] stat = result.computeIfAbsent(minute, k -> new long[3]);
+            stat[0] += currentCount - reportedCount;
+            stat[1] += currentSize - reportedSize;
+            stat[2] += currentDelay - reportedDelay;
+            reportedCount = currentCount;
+            reportedSize = currentSize;
+            reportedDelay = currentDelay;
+            return true;
+        }
+    }
+}
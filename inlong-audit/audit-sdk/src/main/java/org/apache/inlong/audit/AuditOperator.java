@@ -21,17 +21,18 @@ import org.apache.inlong.audit.protocol.AuditApi;
 import org.apache.inlong.audit.send.SenderManager;
 import org.apache.inlong.audit.util.AuditConfig;
 import org.apache.inlong.audit.util.Config;
-import org.apache.inlong.audit.util.StatInfo;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,15 +46,13 @@ import static org.apache.inlong.audit.protocol.AuditApi.BaseCommand.Type.AUDIT_R
 public class AuditOperator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuditOperator.class);
-    private static final String FIELD_SEPARATORS = ":";
     private static final int BATCH_NUM = 100;
     private static final AuditOperator AUDIT_OPERATOR = new AuditOperator();
     private static final ReentrantLock GLOBAL_LOCK = new ReentrantLock();
-    private static final int PERIOD = 1000 * 60;
-    private final ConcurrentHashMap<String, StatInfo> countMap = new ConcurrentHashMap<>();
-    private final HashMap<String, StatInfo> threadCountMap = new HashMap<>();
-    private final ConcurrentHashMap<String, StatInfo> deleteCountMap = new ConcurrentHashMap<>();
-    private final List<String> deleteKeyList = new ArrayList<>();
+    static final int PERIOD = 1000 * 60;
+    private final ConcurrentHashMap<HandleKey, AuditHandle> handleMap = new ConcurrentHashMap<>();
+    // idle handles evicted from the map, still reported for a period for the adds which got them before the eviction
+    private final List<AuditHandle> retiredHandles = new LinkedList<>();
     private final Config config = new Config();
     private final Timer timer = new Timer();
     private int packageId = 1;
@@ -133,22 +132,20 @@ public class AuditOperator {
      * Add audit data
      */
     public void add(int auditID, String inlongGroupID, String inlongStreamID, Long logTime, long count, long size) {
-        long delayTime = System.currentTimeMillis() - logTime;
-        String key = (logTime / PERIOD) + FIELD_SEPARATORS + inlongGroupID + FIELD_SEPARATORS
-                + inlongStreamID + FIELD_SEPARATORS + auditID;
-        addByKey(key, count, size, delayTime);
+        getAuditHandle(auditID, inlongGroupID, inlongStreamID).add(logTime, count, size);
     }
 
     /**
-     * Add audit info by key.
+     * Get the audit handle of the audit id, inlong group id and inlong stream id,
+     * the handle can be cached by the caller to add the audit data without looking up it again.
      */
-    private void addByKey(String key, long count, long size, long delayTime) {
-        if (countMap.get(key) == null) {
-            countMap.put(key, new StatInfo(0L, 0L, 0L));
+    public AuditHandle getAuditHandle(int auditID, String inlongGroupID, String inlongStreamID) {
+        HandleKey key = new HandleKey(auditID, inlongGroupID, inlongStreamID);
+        AuditHandle handle = handleMap.get(key);
+        if (handle == null) {
+            handle = handleMap.computeIfAbsent(key, k -> new AuditHandle(auditID, inlongGroupID, inlongStreamID));
         }
-        countMap.get(key).count.addAndGet(count);
-        countMap.get(key).size.addAndGet(size);
-        countMap.get(key).delay.addAndGet(delayTime * count);
+        return handle;
     }
 
     /**
@@ -157,28 +154,6 @@ public class AuditOperator {
     public synchronized void send() {
         manager.clearBuffer();
         resetStat();
-        // Retrieve statistics from the list of objects without statistics to be eliminated
-        for (Map.Entry<String, StatInfo> entry : this.deleteCountMap.entrySet()) {
-            this.sumThreadGroup(entry.getKey(), entry.getValue());
-        }
-        this.deleteCountMap.clear();
-        for (Map.Entry<String, StatInfo> entry : countMap.entrySet()) {
-            String key = entry.getKey();
-            StatInfo value = entry.getValue();
-            // If there is no data, enter the list to be eliminated
-            if (value.count.get() == 0) {
-                this.deleteKeyList.add(key);
-                continue;
-            }
-            this.sumThreadGroup(key, value);
-        }
-
-        // Clean up obsolete statistical data objects
-        for (String key : this.deleteKeyList) {
-            StatInfo value = this.countMap.remove(key);
-            this.deleteCountMap.put(key, value);
-        }
-        this.deleteKeyList.clear();
 
         long sdkTime = Calendar.getInstance().getTimeInMillis();
         AuditApi.AuditMessageHeader msgHeader = AuditApi.AuditMessageHeader.newBuilder()
@@ -190,21 +165,60 @@ public class AuditOperator {
         requestBuild.setMsgHeader(msgHeader).setRequestId(manager.nextRequestId());
 
         // process the stat info for all threads
-        for (Map.Entry<String, StatInfo> entry : threadCountMap.entrySet()) {
-            String[] keyArray = entry.getKey().split(FIELD_SEPARATORS);
-            long logTime = Long.parseLong(keyArray[0]) * PERIOD;
-            String inlongGroupID = keyArray[1];
-            String inlongStreamID = keyArray[2];
-            String auditID = keyArray[3];
-            StatInfo value = entry.getValue();
+        long now = System.currentTimeMillis();
+        Map<Long, long[]> statMap = new HashMap<>();
+        Iterator<AuditHandle> iterator = retiredHandles.iterator();
+        while (iterator.hasNext()) {
+            AuditHandle handle = iterator.next();
+            handle.collect(statMap, now);
+            addMsgBody(requestBuild, handle, statMap);
+            if (now - handle.getRetireTime() >= PERIOD) {
+                iterator.remove();
+            }
+        }
+        for (AuditHandle handle : handleMap.values()) {
+            handle.collect(statMap, now);
+            addMsgBody(requestBuild, handle, statMap);
+            // the handles which are idle after being flushed are evicted
+            if (handle.isIdle()) {
+                evict(handle, now);
+            }
+        }
+        if (requestBuild.getMsgBodyCount() > 0) {
+            sendByBaseCommand(requestBuild.build());
+            requestBuild.clearMsgBody();
+        }
+
+        LOGGER.info("finish report audit data");
+    }
+
+    /**
+     * Evict the handle from the map, the later adds to it go to a new handle of the same key
+     */
+    void evict(AuditHandle handle, long now) {
+        handle.retire(now);
+        HandleKey key = new HandleKey(handle.getAuditId(), handle.getInlongGroupId(), handle.getInlongStreamId());
+        if (handleMap.remove(key, handle)) {
+            retiredHandles.add(handle);
+        }
+    }
+
+    /**
+     * Add the collected stat of the handle to the request, the request is sent once it's full
+     */
+    private void addMsgBody(AuditApi.AuditRequest.Builder requestBuild, AuditHandle handle,
+            Map<Long, long[]> statMap) {
+        String auditID = String.valueOf(handle.getAuditId());
+        for (Map.Entry<Long, long[]> entry : statMap.entrySet()) {
+            long[] value = entry.getValue();
             AuditApi.AuditMessageBody msgBody = AuditApi.AuditMessageBody.newBuilder()
-                    .setLogTs(logTime)
-                    .setInlongGroupId(inlongGroupID)
-                    .setInlongStreamId(inlongStreamID)
+                    .setLogTs(entry.getKey() * PERIOD)
+                    .setInlongGroupId(handle.getInlongGroupId())
+                    .setInlongStreamId(handle.getInlongStreamId())
                     .setAuditId(auditID)
-                    .setCount(value.count.get())
-                    .setSize(value.size.get())
-                    .setDelay(value.delay.get())
+                    .setCount(value[0])
+                    .setSize(value[1])
+                    .setDelay(value[2])
                     .build();
             requestBuild.addMsgBody(msgBody);
 
@@ -215,13 +229,7 @@ public class AuditOperator {
                 requestBuild.clearMsgBody();
             }
         }
-        if (requestBuild.getMsgBodyCount() > 0) {
-            sendByBaseCommand(requestBuild.build());
-            requestBuild.clearMsgBody();
-        }
-        threadCountMap.clear();
-
-        LOGGER.info("finish report audit data");
+        statMap.clear();
     }
 
     /**
@@ -233,26 +241,6 @@ public class AuditOperator {
         manager.send(baseCommand.build());
     }
 
-    /**
-     * Summary
-     */
-    private void sumThreadGroup(String key, StatInfo statInfo) {
-        long count = statInfo.count.getAndSet(0);
-        if (0 == count) {
-            return;
-        }
-        if (threadCountMap.get(key) == null) {
-            threadCountMap.put(key, new StatInfo(0, 0, 0));
-        }
-
-        long size = statInfo.size.getAndSet(0);
-        long delay = statInfo.delay.getAndSet(0);
-
-        threadCountMap.get(key).count.addAndGet(count);
-        threadCountMap.get(key).size.addAndGet(size);
-        threadCountMap.get(key).delay.addAndGet(delay);
-    }
-
     /**
      * Reset statistics
      */
@@ -260,4 +248,39 @@ public class AuditOperator {
         dataId = 0;
         packageId = 1;
     }
+
+    /**
+     * Key of the audit handle
+     */
+    private static class HandleKey {
+
+        private final int auditId;
+        private final String inlongGroupId;
+        private final String inlongStreamId;
+
+        private HandleKey(int auditId, String inlongGroupId, String inlongStreamId) {
+            this.auditId = auditId;
+            this.inlongGroupId = inlongGroupId;
+            this.inlongStreamId = inlongStreamId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HandleKey)) {
+                return false;
+            }
+            HandleKey that = (HandleKey) o;
+            return auditId == that.auditId
+                    && Objects.equals(inlongGroupId, that.inlongGroupId)
+                    && Objects.equals(inlongStreamId, that.inlongStreamId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(auditId, inlongGroupId, inlongStreamId);
+        }
+    }
 }
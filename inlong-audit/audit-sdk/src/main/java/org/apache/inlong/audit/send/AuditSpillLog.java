@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.send;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only spill log of the audit requests which are not acked by the audit proxy.
+ * The log is made up of segment files, a record is appended for every spilled request, and a tombstone is appended
+ * when the request is acked later. The segments are deleted from the oldest one when all their records are acked,
+ * and the oldest segments are dropped when the total size exceeds the limit.
+ * Record format: type(1) | seq(8) | payload length(4) | payload | crc32 of the former fields(4)
+ */
+public class AuditSpillLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSpillLog.class);
+    private static final String SEGMENT_PREFIX = "audit-spill-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte TYPE_DATA = 1;
+    private static final byte TYPE_TOMBSTONE = 2;
+    private static final int HEADER_LENGTH = 1 + 8 + 4;
+    private static final int CRC_LENGTH = 4;
+
+    private final File dir;
+    private final long maxSegmentSize;
+    private final long maxTotalSize;
+    // key: id of the segment
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    // key: seq of the record, in the append order
+    private final LinkedHashMap<Long, Record> liveRecords = new LinkedHashMap<>();
+    private Segment activeSegment;
+    private FileChannel activeChannel;
+    private long nextSeq = 0L;
+    private long nextSegmentId = 0L;
+    private long totalSize = 0L;
+
+    public AuditSpillLog(File dir, long maxSegmentSize, long maxTotalSize) {
+        this.dir = dir;
+        this.maxTotalSize = Math.max(maxTotalSize, 1024L);
+        this.maxSegmentSize = Math.max(1024L, Math.min(maxSegmentSize, this.maxTotalSize));
+    }
+
+    /**
+     * Load the records of the existing segments
+     */
+    public synchronized void open() throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("failed to create spill dir " + dir);
+        }
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            long id;
+            try {
+                id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                logger.warn("ignore unknown spill file {}", file);
+                continue;
+            }
+            Segment segment = new Segment(id, file);
+            segment.size = file.length();
+            segments.put(id, segment);
+            totalSize += segment.size;
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+            this.scan(segment);
+        }
+        this.removeDeadSegments();
+        logger.info("open audit spill log {}, segments: {}, records: {}, size: {}",
+                dir, segments.size(), liveRecords.size(), totalSize);
+    }
+
+    private void scan(Segment segment) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(segment.file)))) {
+            long position = 0L;
+            CRC32 crc = new CRC32();
+            byte[] header = new byte[HEADER_LENGTH];
+            while (position + HEADER_LENGTH + CRC_LENGTH <= segment.size) {
+                input.readFully(header);
+                ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+                byte type = headerBuffer.get();
+                long seq = headerBuffer.getLong();
+                int length = headerBuffer.getInt();
+                if ((type != TYPE_DATA && type != TYPE_TOMBSTONE) || length < 0
+                        || position + HEADER_LENGTH + length + CRC_LENGTH > segment.size) {
+                    logger.warn("broken record in spill file {} at {}, ignore the rest", segment.file, position);
+                    return;
+                }
+                byte[] payload = new byte[length];
+                input.readFully(payload);
+                crc.reset();
+                crc.update(header);
+                crc.update(payload);
+                if ((int) crc.getValue() != input.readInt()) {
+                    logger.warn("crc mismatch in spill file {} at {}, ignore the rest", segment.file, position);
+                    return;
+                }
+                if (type == TYPE_DATA) {
+                    liveRecords.put(seq, new Record(seq, segment, position + HEADER_LENGTH, length));
+                    segment.liveCount++;
+                } else {
+                    Record record = liveRecords.remove(seq);
+                    if (record != null) {
+                        record.segment.liveCount--;
+                    }
+                }
+                nextSeq = Math.max(nextSeq, seq + 1);
+                position += HEADER_LENGTH + length + CRC_LENGTH;
+            }
+        } catch (EOFException e) {
+            logger.warn("truncated spill file {}", segment.file);
+        }
+    }
+
+    /**
+     * Append a record, {@link #flush()} should be called after a batch of appends
+     *
+     * @return seq of the record
+     */
+    public synchronized long append(byte[] payload) throws IOException {
+        long seq = nextSeq++;
+        Segment segment = this.write(TYPE_DATA, seq, payload);
+        liveRecords.put(seq, new Record(seq, segment, segment.size - payload.length - CRC_LENGTH, payload.length));
+        segment.liveCount++;
+        return seq;
+    }
+
+    /**
+     * Delete a record by a tombstone
+     */
+    public synchronized void delete(long seq) throws IOException {
+        Record record = liveRecords.remove(seq);
+        if (record == null) {
+            return;
+        }
+        record.segment.liveCount--;
+        if (liveRecords.isEmpty()) {
+            // nothing left, drop all the segments instead of writing the tombstone
+            this.clear();
+            return;
+        }
+        this.write(TYPE_TOMBSTONE, seq, new byte[0]);
+        this.removeDeadSegments();
+    }
+
+    /**
+     * Get the oldest records which are not polled yet
+     *
+     * @param maxCount max count of the records
+     * @return key: seq of the record, value: payload
+     */
+    public synchronized Map<Long, byte[]> poll(int maxCount) throws IOException {
+        Map<Long, byte[]> result = new LinkedHashMap<>();
+        Map<Segment, FileChannel> channels = new HashMap<>();
+        try {
+            for (Record record : liveRecords.values()) {
+                if (result.size() >= maxCount) {
+                    break;
+                }
+                if (record.polled) {
+                    continue;
+                }
+                FileChannel channel = channels.get(record.segment);
+                if (channel == null) {
+                    channel = FileChannel.open(record.segment.file.toPath(), StandardOpenOption.READ);
+                    channels.put(record.segment, channel);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(record.length);
+                long position = record.position;
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new EOFException("unexpected end of spill file " + record.segment.file);
+                    }
+                    position += read;
+                }
+                record.polled = true;
+                result.put(record.seq, buffer.array());
+            }
+        } finally {
+            for (FileChannel channel : channels.values()) {
+                channel.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Make a polled record available to be polled again
+     */
+    public synchronized void release(long seq) {
+        Record record = liveRecords.get(seq);
+        if (record != null) {
+            record.polled = false;
+        }
+    }
+
+    /**
+     * Force the appended records to the disk
+     */
+    public synchronized void flush() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(false);
+        }
+    }
+
+    /**
+     * Get the count of the records which are not deleted
+     */
+    public synchronized int size() {
+        return liveRecords.size();
+    }
+
+    /**
+     * Get the total size of the segments
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Close the active segment
+     */
+    public synchronized void close() throws IOException {
+        this.closeActiveSegment();
+    }
+
+    private Segment write(byte type, long seq, byte[] payload) throws IOException {
+        int recordSize = HEADER_LENGTH + payload.length + CRC_LENGTH;
+        this.prepareActiveSegment(recordSize);
+        ByteBuffer buffer = ByteBuffer.allocate(recordSize);
+        buffer.put(type).putLong(seq).putInt(payload.length).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, HEADER_LENGTH + payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            activeChannel.write(buffer);
+        }
+        activeSegment.size += recordSize;
+        totalSize += recordSize;
+        return activeSegment;
+    }
+
+    private void prepareActiveSegment(int recordSize) throws IOException {
+        if (activeSegment != null && activeSegment.size + recordSize > maxSegmentSize) {
+            this.closeActiveSegment();
+        }
+        // keep the total size, drop the oldest segments
+        while (totalSize + recordSize > maxTotalSize && !segments.isEmpty()
+                && segments.firstEntry().getValue() != activeSegment) {
+            Segment oldest = segments.firstEntry().getValue();
+            logger.warn("audit spill log is full, drop {} records of {}", oldest.liveCount, oldest.file);
+            this.dropSegment(oldest);
+        }
+        if (activeSegment == null) {
+            long id = nextSegmentId++;
+            File file = new File(dir, String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+            activeChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            activeSegment = new Segment(id, file);
+            segments.put(id, activeSegment);
+        }
+    }
+
+    private void closeActiveSegment() throws IOException {
+        if (activeChannel != null) {
+            try {
+                activeChannel.force(false);
+            } finally {
+                activeChannel.close();
+                activeChannel = null;
+                activeSegment = null;
+            }
+        }
+    }
+
+    /**
+     * Delete the oldest segments whose records are all deleted, the later segments are kept to keep the tombstones
+     * of the records in the older segments.
+     */
+    private void removeDeadSegments() throws IOException {
+        while (!segments.isEmpty()) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest.liveCount > 0 || oldest == activeSegment) {
+                return;
+            }
+            this.dropSegment(oldest);
+        }
+    }
+
+    private void dropSegment(Segment segment) throws IOException {
+        if (segment == activeSegment) {
+            this.closeActiveSegment();
+        }
+        if (segment.liveCount > 0) {
+            Iterator<Record> iterator = liveRecords.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().segment == segment) {
+                    iterator.remove();
+                }
+            }
+        }
+        segments.remove(segment.id);
+        totalSize -= segment.size;
+        if (!segment.file.delete() && segment.file.exists()) {
+            logger.error("failed to delete spill file {}", segment.file);
+        }
+    }
+
+    private void clear() throws IOException {
+        List<Segment> all = new ArrayList<>(segments.values());
+        for (Segment segment : all) {
+            this.dropSegment(segment);
+        }
+        liveRecords.clear();
+    }
+
+    private static class Segment {
+
+        private final long id;
+        private final File file;
+        private long size = 0L;
+        private int liveCount = 0;
+
+        private Segment(long id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+    }
+
+    private static class Record {
+
+        private final long seq;
+        private final Segment segment;
+        // position of the payload
+        private final long position;
+        private final int length;
+        private boolean polled = false;
+
+        private Record(long seq, Segment segment, long position, int length) {
+            this.seq = seq;
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
@@ -30,10 +30,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -55,12 +53,15 @@ public class SenderManager {
     private final SecureRandom sRandom = new SecureRandom(Long.toString(System.currentTimeMillis()).getBytes());
     private final AtomicLong requestIdSeq = new AtomicLong(0L);
     private final ConcurrentHashMap<Long, AuditData> dataMap = new ConcurrentHashMap<>();
+    // key: request id of the replayed data, value: seq of the record in the spill log
+    private final ConcurrentHashMap<Long, Long> replayMap = new ConcurrentHashMap<>();
 
     private SenderGroup sender;
     private int maxConnectChannels = ALL_CONNECT_CHANNEL;
     // IPList
     private HashSet<String> currentIpPorts = new HashSet<>();
     private AuditConfig auditConfig;
+    private AuditSpillLog spillLog;
 
     /**
      * Constructor
@@ -160,84 +161,137 @@ public class SenderManager {
             this.sleep();
         }
         if (this.dataMap.size() == 0) {
-            checkAuditFile();
+            replaySpillLog();
         }
         if (this.dataMap.size() > auditConfig.getMaxCacheRow()) {
             logger.info("failed cache size: {}>{}", this.dataMap.size(), auditConfig.getMaxCacheRow());
-            writeLocalFile();
-            this.dataMap.clear();
+            spillData();
         }
     }
 
     /**
-     * write local file
+     * Get the spill log, the legacy disaster file is moved into the spill log when the log is opened
      */
-    private void writeLocalFile() {
+    private synchronized AuditSpillLog getSpillLog() {
+        if (spillLog != null) {
+            return spillLog;
+        }
         try {
-            if (!checkFilePath()) {
-                return;
-            }
-            File file = new File(auditConfig.getDisasterFile());
-            if (!file.exists()) {
-                if (!file.createNewFile()) {
-                    logger.error("create file {} failed", auditConfig.getDisasterFile());
-                    return;
+            AuditSpillLog log = new AuditSpillLog(new File(auditConfig.getFilePath()),
+                    auditConfig.getSpillSegmentSize(), auditConfig.getMaxFileSize());
+            log.open();
+            migrateLegacyFile(log);
+            spillLog = log;
+        } catch (IOException e) {
+            logger.error("open audit spill log error: ", e);
+        }
+        return spillLog;
+    }
+
+    /**
+     * Append the unacked data to the spill log and release the cache
+     */
+    private void spillData() {
+        AuditSpillLog log = getSpillLog();
+        if (log == null) {
+            this.dataMap.clear();
+            this.replayMap.clear();
+            return;
+        }
+        int spillCount = 0;
+        try {
+            for (Map.Entry<Long, AuditData> entry : this.dataMap.entrySet()) {
+                Long seq = this.replayMap.remove(entry.getKey());
+                if (seq != null) {
+                    // the data is still in the spill log
+                    log.release(seq);
+                } else {
+                    log.append(entry.getValue().getContent().toByteArray());
+                    spillCount++;
                 }
-                logger.info("create file {} success", auditConfig.getDisasterFile());
-            }
-            if (file.length() > auditConfig.getMaxFileSize()) {
-                file.delete();
-                return;
             }
-            FileOutputStream fos = new FileOutputStream(file);
-            ObjectOutputStream objectOutputStream = new ObjectOutputStream(fos);
-            objectOutputStream.writeObject(dataMap);
-            objectOutputStream.close();
-            fos.close();
+            log.flush();
         } catch (IOException e) {
-            logger.error("write local file error: ", e);
+            logger.error("write audit spill log error: ", e);
         }
+        logger.info("spill audit data: {}, spill log size: {}", spillCount, log.size());
+        this.dataMap.clear();
+        this.replayMap.clear();
     }
 
     /**
-     * check file path
+     * Resend the data in the spill log, the data is deleted from the log when it is acked
      */
-    private boolean checkFilePath() {
-        File file = new File(auditConfig.getFilePath());
-        if (!file.exists()) {
-            if (!file.mkdirs()) {
-                return false;
+    private void replaySpillLog() {
+        if (spillLog == null && !new File(auditConfig.getFilePath()).exists()) {
+            return;
+        }
+        AuditSpillLog log = getSpillLog();
+        if (log == null || log.size() == 0) {
+            return;
+        }
+        Map<Long, byte[]> records;
+        try {
+            records = log.poll(auditConfig.getMaxCacheRow() / 2);
+        } catch (IOException e) {
+            logger.error("read audit spill log error: ", e);
+            return;
+        }
+        logger.info("replay audit spill log: {}/{}", records.size(), log.size());
+        for (Map.Entry<Long, byte[]> entry : records.entrySet()) {
+            AuditApi.BaseCommand baseCommand;
+            try {
+                baseCommand = AuditApi.BaseCommand.parseFrom(entry.getValue());
+            } catch (IOException e) {
+                logger.error("parse audit spill record {} error: ", entry.getKey(), e);
+                deleteSpillRecord(entry.getKey());
+                continue;
             }
-            logger.info("create file {} success", auditConfig.getFilePath());
+            // the request id of the former process may be reused, so use a new one
+            Long requestId = nextRequestId();
+            AuditApi.BaseCommand command = baseCommand.toBuilder()
+                    .setAuditRequest(baseCommand.getAuditRequest().toBuilder().setRequestId(requestId))
+                    .build();
+            AuditData data = new AuditData(command);
+            this.replayMap.put(requestId, entry.getKey());
+            this.dataMap.put(requestId, data);
+            this.sendData(data.getDataByte());
+            this.sleep();
         }
-        return true;
     }
 
     /**
-     * check audit file
+     * Delete the acked record from the spill log
      */
-    private void checkAuditFile() {
+    private void deleteSpillRecord(long seq) {
         try {
-            File file = new File(auditConfig.getDisasterFile());
-            if (!file.exists()) {
-                return;
-            }
-            FileInputStream inputStream = new FileInputStream(auditConfig.getDisasterFile());
-            ObjectInputStream objectStream = new ObjectInputStream(inputStream);
+            spillLog.delete(seq);
+        } catch (IOException e) {
+            logger.error("delete audit spill record {} error: ", seq, e);
+        }
+    }
+
+    /**
+     * Move the data of the legacy disaster file into the spill log
+     */
+    private void migrateLegacyFile(AuditSpillLog log) {
+        File file = new File(auditConfig.getDisasterFile());
+        if (!file.exists()) {
+            return;
+        }
+        try (ObjectInputStream objectStream = new ObjectInputStream(new FileInputStream(file))) {
             ConcurrentHashMap<Long, AuditData> fileData =
                     (ConcurrentHashMap<Long, AuditData>) objectStream.readObject();
-            for (Map.Entry<Long, AuditData> entry : fileData.entrySet()) {
-                if (this.dataMap.size() < (auditConfig.getMaxCacheRow() / 2)) {
-                    this.dataMap.putIfAbsent(entry.getKey(), entry.getValue());
-                }
-                this.sendData(entry.getValue().getDataByte());
-                this.sleep();
+            for (AuditData data : fileData.values()) {
+                log.append(data.getContent().toByteArray());
             }
-            objectStream.close();
-            inputStream.close();
-            file.delete();
+            log.flush();
+            logger.info("move {} audit data from {} to the spill log", fileData.size(), file);
         } catch (IOException | ClassNotFoundException e) {
-            logger.error("check audit file error: ", e);
+            logger.error("read legacy audit file error: ", e);
+        }
+        if (!file.delete()) {
+            logger.error("delete legacy audit file {} failed", file);
         }
     }
 
@@ -266,6 +320,10 @@ public class SenderManager {
             logger.info("audit-proxy response code: {}", baseCommand.getAuditReply().getRspCode());
             if (AuditApi.AuditReply.RSP_CODE.SUCCESS.equals(baseCommand.getAuditReply().getRspCode())) {
                 this.dataMap.remove(requestId);
+                Long seq = this.replayMap.remove(requestId);
+                if (seq != null) {
+                    deleteSpillRecord(seq);
+                }
                 return;
             }
 
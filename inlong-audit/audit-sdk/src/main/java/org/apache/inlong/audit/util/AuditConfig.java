@@ -25,12 +25,14 @@ public class AuditConfig {
     private static final Logger logger = LoggerFactory.getLogger(AuditConfig.class);
     private static String FILE_PATH = "/data/inlong/audit/";
     private static final int FILE_SIZE = 500 * 1024 * 1024;
+    private static final int SPILL_SEGMENT_SIZE = 16 * 1024 * 1024;
     private static final int MAX_CACHE_ROWS = 2000000;
     private static final int MIN_CACHE_ROWS = 100;
 
     private String filePath;
     private int maxCacheRow;
     private int maxFileSize = FILE_SIZE;
+    private int spillSegmentSize = SPILL_SEGMENT_SIZE;
 
     public AuditConfig(String filePath, int maxCacheRow) {
         if (filePath == null || filePath.length() == 0) {
@@ -74,6 +76,14 @@ public class AuditConfig {
         this.maxFileSize = maxFileSize;
     }
 
+    public int getSpillSegmentSize() {
+        return spillSegmentSize;
+    }
+
+    public void setSpillSegmentSize(int spillSegmentSize) {
+        this.spillSegmentSize = spillSegmentSize;
+    }
+
     public String getDisasterFile() {
         return filePath + "/" + disasterFileName;
     }
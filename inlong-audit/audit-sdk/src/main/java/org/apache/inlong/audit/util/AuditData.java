@@ -43,6 +43,13 @@ public class AuditData implements Serializable {
         return this.resendTimes.incrementAndGet();
     }
 
+    /**
+     * Get the command
+     */
+    public AuditApi.BaseCommand getContent() {
+        return content;
+    }
+
     /**
      * Get data byte array
      */
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AuditHandleTest {
+
+    private static void merge(Map<Long, long[]> total, Map<Long, long[]> stats) {
+        for (Map.Entry<Long, long[]> entry : stats.entrySet()) {
+            long[] stat = total.computeIfAbsent(entry.getKey(), k -> new long[3]);
+            for (int i = 0; i < stat.length; i++) {
+                stat[i] += entry.getValue()[i];
+            }
+        }
+        stats.clear();
+    }
+
+    @Test
+    public void testCollect() {
+        AuditHandle handle = new AuditHandle(1, "group", "stream");
+        long minute = System.currentTimeMillis() / AuditOperator.PERIOD;
+        long logTime = minute * AuditOperator.PERIOD;
+        handle.add(logTime, 1, 10);
+        handle.add(logTime + 1, 2, 20);
+        handle.add(logTime - AuditOperator.PERIOD, 3, 30);
+
+        Map<Long, long[]> stats = new HashMap<>();
+        handle.collect(stats);
+        Assert.assertEquals(2, stats.size());
+        Assert.assertEquals(3L, stats.get(minute)[0]);
+        Assert.assertEquals(30L, stats.get(minute)[1]);
+        Assert.assertEquals(3L, stats.get(minute - 1)[0]);
+
+        // only the increments are collected
+        stats.clear();
+        handle.add(logTime, 4, 40);
+        handle.collect(stats);
+        Assert.assertEquals(1, stats.size());
+        Assert.assertEquals(4L, stats.get(minute)[0]);
+
+        // the idle buckets are retired, and the late adds are still collected
+        stats.clear();
+        handle.collect(stats);
+        Assert.assertTrue(stats.isEmpty());
+        handle.add(logTime, 5, 50);
+        handle.collect(stats);
+        Assert.assertEquals(5L, stats.get(minute)[0]);
+    }
+
+    @Test
+    public void testIdleAndRetire() {
+        AuditHandle handle = AuditOperator.getInstance().getAuditHandle(3, "group", "stream");
+        long now = System.currentTimeMillis();
+        handle.add(now, 1, 10);
+        Map<Long, long[]> stats = new HashMap<>();
+        handle.collect(stats, now);
+        Assert.assertFalse(handle.isIdle());
+
+        // the idle bucket is retired, then dropped after a period
+        handle.collect(stats, now);
+        Assert.assertFalse(handle.isIdle());
+        handle.collect(stats, now + AuditOperator.PERIOD);
+        Assert.assertTrue(handle.isIdle());
+
+        // the adds to an evicted handle go to the current handle of the same key
+        AuditOperator.getInstance().evict(handle, now);
+        AuditHandle current = AuditOperator.getInstance().getAuditHandle(3, "group", "stream");
+        Assert.assertNotSame(handle, current);
+        handle.add(now, 2, 20);
+        stats.clear();
+        handle.collect(stats, now);
+        Assert.assertTrue(stats.isEmpty());
+        current.collect(stats, now);
+        Assert.assertEquals(2L, stats.get(now / AuditOperator.PERIOD)[0]);
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        AuditHandle handle = new AuditHandle(2, "group", "stream");
+        long logTime = System.currentTimeMillis();
+        int threadCount = 4;
+        int loop = 100000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < loop; j++) {
+                    handle.add(logTime - (j % 3) * AuditOperator.PERIOD, 1, 2);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        Map<Long, long[]> total = new HashMap<>();
+        Map<Long, long[]> stats = new HashMap<>();
+        boolean running = true;
+        while (running) {
+            running = threads.stream().anyMatch(Thread::isAlive);
+            handle.collect(stats);
+            merge(total, stats);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        handle.collect(stats);
+        merge(total, stats);
+        handle.collect(stats);
+        merge(total, stats);
+
+        long count = 0;
+        long size = 0;
+        for (long[] stat : total.values()) {
+            count += stat[0];
+            size += stat[1];
+        }
+        Assert.assertEquals(3, total.size());
+        Assert.assertEquals((long) threadCount * loop, count);
+        Assert.assertEquals(2L * threadCount * loop, size);
+    }
+}
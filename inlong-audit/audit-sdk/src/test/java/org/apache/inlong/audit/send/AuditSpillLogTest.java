@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.send;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AuditSpillLogTest {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("audit-spill").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void replayAfterReopen() throws Exception {
+        AuditSpillLog log = new AuditSpillLog(dir, 4096, 1024 * 1024);
+        log.open();
+        for (int i = 0; i < 100; i++) {
+            log.append(("data-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        for (long seq = 0; seq < 50; seq++) {
+            log.delete(seq);
+        }
+        log.flush();
+        log.close();
+
+        AuditSpillLog reopened = new AuditSpillLog(dir, 4096, 1024 * 1024);
+        reopened.open();
+        assertEquals(50, reopened.size());
+        Map<Long, byte[]> records = reopened.poll(10);
+        assertEquals(10, records.size());
+        long seq = 50;
+        for (Map.Entry<Long, byte[]> entry : records.entrySet()) {
+            assertEquals(seq, (long) entry.getKey());
+            assertArrayEquals(("data-" + seq).getBytes(StandardCharsets.UTF_8), entry.getValue());
+            seq++;
+        }
+        // polled records are skipped until they are released
+        assertEquals(60L, (long) reopened.poll(1).keySet().iterator().next());
+        reopened.release(50L);
+        assertEquals(50L, (long) reopened.poll(1).keySet().iterator().next());
+        // new records never reuse the seq of the former records
+        assertEquals(100L, reopened.append(new byte[10]));
+        reopened.close();
+    }
+
+    @Test
+    public void deleteAckedSegments() throws Exception {
+        AuditSpillLog log = new AuditSpillLog(dir, 2048, 1024 * 1024);
+        log.open();
+        for (int i = 0; i < 100; i++) {
+            log.append(new byte[100]);
+        }
+        assertTrue(dir.listFiles().length > 1);
+        for (long seq = 0; seq < 99; seq++) {
+            log.delete(seq);
+        }
+        // only the segments of the live record and the tombstones are left
+        assertTrue(log.getTotalSize() < 2 * 2048);
+        log.delete(99L);
+        assertEquals(0, log.size());
+        assertEquals(0L, log.getTotalSize());
+        assertEquals(0, dir.listFiles().length);
+        log.close();
+    }
+
+    @Test
+    public void dropOldestWhenFull() throws Exception {
+        AuditSpillLog log = new AuditSpillLog(dir, 2048, 8192);
+        log.open();
+        for (int i = 0; i < 200; i++) {
+            log.append(new byte[100]);
+        }
+        assertTrue(log.getTotalSize() <= 8192);
+        assertTrue(log.size() < 200);
+        // the newest record is kept
+        Map<Long, byte[]> records = log.poll(Integer.MAX_VALUE);
+        assertTrue(records.containsKey(199L));
+        log.close();
+    }
+
+    @Test
+    public void ignoreTornTail() throws Exception {
+        AuditSpillLog log = new AuditSpillLog(dir, 1024 * 1024, 1024 * 1024);
+        log.open();
+        for (int i = 0; i < 10; i++) {
+            log.append(("data-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        log.close();
+        File segment = dir.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        AuditSpillLog reopened = new AuditSpillLog(dir, 1024 * 1024, 1024 * 1024);
+        reopened.open();
+        assertEquals(9, reopened.size());
+        // the torn record is not written, so its seq is reused
+        assertEquals(9L, reopened.append(new byte[1]));
+        reopened.close();
+    }
+}
@@ -54,6 +54,12 @@ public class MessageQueueConfig {
     @Value("${audit.pulsar.client.concurrent.consumer.num:1}")
     private int concurrentConsumerNum = 1;
 
+    @Value("${audit.pulsar.consumer.batch.size:500}")
+    private int pulsarConsumerBatchSize = 500;
+
+    @Value("${audit.pulsar.consumer.batch.timeout.ms:100}")
+    private int pulsarConsumerBatchTimeoutMs = 100;
+
     @Value("${audit.tube.masterlist:}")
     private String tubeMasterList;
 
@@ -90,6 +96,22 @@ public class MessageQueueConfig {
     @Value("${audit.kafka.auto.offset.reset:earliest}")
     private String autoOffsetReset;
 
+    // threads decoding the consumed batches
+    @Value("${audit.consume.decode.threads:4}")
+    private int consumeDecodeThreads = 4;
+
+    // max count of the consumed batches which are not written by all the stores
+    @Value("${audit.consume.max.inflight.batches:16}")
+    private int consumeMaxInFlightBatches = 16;
+
+    // max count of the batches queued for every store
+    @Value("${audit.consume.writer.queue.size:8}")
+    private int consumeWriterQueueSize = 8;
+
+    // retry times of a failed write with growing backoff, the write is retried until it succeeds
+    @Value("${audit.consume.writer.max.retries:3}")
+    private int consumeWriterMaxRetries = 3;
+
     @Value("${audit.config.proxy.type:pulsar}")
     private String mqType;
 
@@ -30,6 +30,56 @@ public class StoreConfig {
     @Value("${audit.config.store.mode:mysql}")
     private String store;
 
+    // write the raw audit data to the audit_data table of mysql
+    @Value("${audit.config.store.mysql.raw.enable:true}")
+    private boolean mysqlRawEnable;
+
+    // pre-aggregate the audit data to the minute and hour rollup tables of mysql
+    @Value("${audit.config.store.mysql.rollup.enable:true}")
+    private boolean mysqlRollupEnable;
+
+    @Value("${audit.config.store.mysql.rollup.flushIntervalMs:10000}")
+    private int rollupFlushIntervalMs;
+
+    @Value("${audit.config.store.mysql.rollup.batchSize:500}")
+    private int rollupBatchSize;
+
+    // count of the recent packets remembered to drop the duplicated audit data
+    @Value("${audit.config.store.mysql.rollup.dedupCacheSize:200000}")
+    private int rollupDedupCacheSize;
+
+    // max count of the rollup rows kept for retry after failing to write
+    @Value("${audit.config.store.mysql.rollup.maxRetryRows:100000}")
+    private int rollupMaxRetryRows;
+
+    // roll the raw audit data up and delete the data out of the retention of every level
+    @Value("${audit.config.store.mysql.compaction.enable:false}")
+    private boolean compactionEnable;
+
+    @Value("${audit.config.store.mysql.compaction.intervalMinutes:60}")
+    private int compactionIntervalMinutes;
+
+    // size of the id range handled in one chunk
+    @Value("${audit.config.store.mysql.compaction.chunkRows:10000}")
+    private int compactionChunkRows;
+
+    // pause between two chunks, so that the compaction does not hold up the ingestion
+    @Value("${audit.config.store.mysql.compaction.chunkIntervalMs:100}")
+    private int compactionChunkIntervalMs;
+
+    // retention days of the levels, 0 means keeping the data forever
+    @Value("${audit.config.store.mysql.compaction.raw.retentionDays:7}")
+    private int rawRetentionDays;
+
+    @Value("${audit.config.store.mysql.compaction.minute.retentionDays:30}")
+    private int minuteRetentionDays;
+
+    @Value("${audit.config.store.mysql.compaction.hour.retentionDays:365}")
+    private int hourRetentionDays;
+
+    @Value("${audit.config.store.mysql.compaction.day.retentionDays:0}")
+    private int dayRetentionDays;
+
     public boolean isMysqlStore() {
         return store.contains("mysql");
     }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.db.dao;
+
+import org.apache.inlong.audit.db.entities.AuditCompactionStatePo;
+import org.apache.inlong.audit.db.entities.AuditRollupPo;
+
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dao of the audit data compaction, every statement only touches an id range of the table,
+ * so the rows locked by it are bounded.
+ */
+@Repository
+public interface AuditCompactionDao {
+
+    /**
+     * get the max id of the table
+     *
+     * @param table table name
+     * @return max id, null if there is no row
+     */
+    Long selectMaxId(@Param("table") String table);
+
+    /**
+     * get the min id of the expired data in the id range
+     *
+     * @param table table name
+     * @param fromId start id, inclusive
+     * @param maxId end id, inclusive
+     * @param expireTime the data whose log time is before it is expired
+     * @return min id, null if there is no expired row
+     */
+    Long selectMinExpiredId(@Param("table") String table, @Param("fromId") long fromId, @Param("maxId") long maxId,
+            @Param("expireTime") Date expireTime);
+
+    /**
+     * sum the raw audit data of the id range by the minute of log time, a row is skipped if the same data is
+     * in a later row of the table, so the duplicated data is counted once by the chunk of its last row
+     *
+     * @param fromId start id, inclusive
+     * @param toId end id, exclusive
+     * @param expireTime only the data whose log time is before it is summed
+     * @return rollup rows of the minute buckets
+     */
+    List<AuditRollupPo> selectRawRollup(@Param("fromId") long fromId, @Param("toId") long toId,
+            @Param("expireTime") Date expireTime);
+
+    /**
+     * delete the expired data of the id range
+     *
+     * @param table table name
+     * @param fromId start id, inclusive
+     * @param toId end id, exclusive
+     * @param expireTime the data whose log time is before it is deleted
+     * @return deleted rows
+     */
+    int deleteExpired(@Param("table") String table, @Param("fromId") long fromId, @Param("toId") long toId,
+            @Param("expireTime") Date expireTime);
+
+    /**
+     * insert a compaction state, the existing state is kept
+     *
+     * @param key state key
+     * @param value state value
+     * @return inserted rows
+     */
+    int insertState(@Param("key") String key, @Param("value") long value);
+
+    /**
+     * update a compaction state
+     *
+     * @param key state key
+     * @param value state value
+     * @return updated rows
+     */
+    int updateState(@Param("key") String key, @Param("value") long value);
+
+    /**
+     * get the compaction states whose key starts with the prefix
+     *
+     * @param prefix state key prefix
+     * @return states
+     */
+    List<AuditCompactionStatePo> selectStates(@Param("prefix") String prefix);
+
+    /**
+     * delete a compaction state
+     *
+     * @param key state key
+     * @return deleted rows
+     */
+    int deleteState(@Param("key") String key);
+
+    /**
+     * get the average row length of the table from the table statistics
+     *
+     * @param table table name
+     * @return average row length in bytes, null if unknown
+     */
+    Long selectAvgRowLength(@Param("table") String table);
+}
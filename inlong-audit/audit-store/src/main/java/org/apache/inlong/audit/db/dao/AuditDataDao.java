@@ -18,11 +18,39 @@
 package org.apache.inlong.audit.db.dao;
 
 import org.apache.inlong.audit.db.entities.AuditDataPo;
+import org.apache.inlong.audit.db.entities.AuditRollupPo;
 
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AuditDataDao {
 
     int insert(AuditDataPo auditDataPo);
+
+    /**
+     * add the pre-aggregated data to the minute rollup table
+     *
+     * @param list rollup rows of the minute buckets
+     * @return affected rows
+     */
+    int upsertMinuteRollup(@Param("list") List<AuditRollupPo> list);
+
+    /**
+     * add the pre-aggregated data to the hour rollup table
+     *
+     * @param list rollup rows of the hour buckets
+     * @return affected rows
+     */
+    int upsertHourRollup(@Param("list") List<AuditRollupPo> list);
+
+    /**
+     * add the pre-aggregated data to the day rollup table
+     *
+     * @param list rollup rows of the day buckets
+     * @return affected rows
+     */
+    int upsertDayRollup(@Param("list") List<AuditRollupPo> list);
 }
@@ -15,19 +15,19 @@
  * limitations under the License.
  */
 
-package org.apache.inlong.audit.util;
+package org.apache.inlong.audit.db.entities;
 
-import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Setter;
 
-public class StatInfo {
+/**
+ * State of the audit data compaction
+ */
+@Getter
+@Setter
+public class AuditCompactionStatePo {
 
-    public AtomicLong count = new AtomicLong(0);
-    public AtomicLong size = new AtomicLong(0);
-    public AtomicLong delay = new AtomicLong(0);
+    private String stateKey;
+    private Long stateValue;
 
-    public StatInfo(long cnt, long sz, long dy) {
-        count.set(cnt);
-        size.set(sz);
-        delay.set(dy);
-    }
 }
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service;
+
+import org.apache.inlong.audit.config.StoreConfig;
+import org.apache.inlong.audit.db.dao.AuditCompactionDao;
+import org.apache.inlong.audit.db.dao.AuditDataDao;
+import org.apache.inlong.audit.db.entities.AuditCompactionStatePo;
+import org.apache.inlong.audit.db.entities.AuditRollupPo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * AuditCompactionService, rolls the raw audit data up to the minute, hour and day rollup tables and deletes
+ * the data out of the retention of every level. The tables are handled in chunks of id range, so every statement
+ * only locks a bounded number of rows and the ingestion is not blocked. A pass only handles the rows which exist
+ * when it starts, the rows inserted during the pass are left to the next pass.
+ */
+public class AuditCompactionService implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuditCompactionService.class);
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    static final String RAW_TABLE = "audit_data";
+    static final String MINUTE_TABLE = "audit_data_minute";
+    static final String HOUR_TABLE = "audit_data_hour";
+    static final String DAY_TABLE = "audit_data_day";
+    // the raw id ranges written while the rollup service is enabled, the key is the prefix and the start id,
+    // the value is the end id, which is OPEN_END while the rollup service stays enabled
+    static final String ROLLUP_RANGE_PREFIX = "rollup.range.";
+    static final long OPEN_END = Long.MAX_VALUE;
+
+    private final AuditDataDao dataDao;
+    private final AuditCompactionDao compactionDao;
+    private final StoreConfig storeConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService timerService = Executors.newSingleThreadScheduledExecutor();
+    private volatile boolean closed = false;
+
+    // metrics
+    private final AtomicLong compactedRows = new AtomicLong(0);
+    private final AtomicLong deletedRows = new AtomicLong(0);
+    private final AtomicLong reclaimedBytes = new AtomicLong(0);
+
+    /**
+     * Constructor
+     * @param dataDao audit data dao, to write the rollup tables
+     * @param compactionDao audit compaction dao
+     * @param storeConfig store config, such as retention days of every level, chunk size.
+     * @param transactionTemplate transaction of rolling up and deleting a chunk of the raw data
+     */
+    public AuditCompactionService(AuditDataDao dataDao, AuditCompactionDao compactionDao, StoreConfig storeConfig,
+            TransactionTemplate transactionTemplate) {
+        this.dataDao = dataDao;
+        this.compactionDao = compactionDao;
+        this.storeConfig = storeConfig;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * start
+     */
+    public void start() {
+        timerService.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (Throwable t) {
+                LOG.error("compact audit data has err: ", t);
+            }
+        }, storeConfig.getCompactionIntervalMinutes(), storeConfig.getCompactionIntervalMinutes(), TimeUnit.MINUTES);
+    }
+
+    /**
+     * record the raw id range written by the rollup service, must be called before consuming.
+     * A range is opened when the rollup service is enabled and closed when it is disabled, the closed ranges are
+     * kept, so the raw data in them is never rolled up again by the compaction.
+     *
+     * @param compactionDao audit compaction dao
+     * @param rollupEnable whether the rollup service is enabled
+     */
+    public static void recordRollupRange(AuditCompactionDao compactionDao, boolean rollupEnable) {
+        try {
+            Long maxId = compactionDao.selectMaxId(RAW_TABLE);
+            long nextId = maxId == null ? 0 : maxId + 1;
+            List<AuditCompactionStatePo> openRanges = new ArrayList<>();
+            for (AuditCompactionStatePo state : compactionDao.selectStates(ROLLUP_RANGE_PREFIX)) {
+                if (state.getStateValue() == OPEN_END) {
+                    openRanges.add(state);
+                }
+            }
+            if (rollupEnable) {
+                if (openRanges.isEmpty() && compactionDao.insertState(ROLLUP_RANGE_PREFIX + nextId, OPEN_END) > 0) {
+                    LOG.info("the raw audit data from id {} is rolled up by the rollup service", nextId);
+                }
+                return;
+            }
+            for (AuditCompactionStatePo range : openRanges) {
+                long startId = Long.parseLong(range.getStateKey().substring(ROLLUP_RANGE_PREFIX.length()));
+                if (startId >= nextId) {
+                    compactionDao.deleteState(range.getStateKey());
+                } else {
+                    compactionDao.updateState(range.getStateKey(), nextId);
+                }
+                LOG.info("the raw audit data in id range [{}, {}) is rolled up by the rollup service", startId,
+                        nextId);
+            }
+        } catch (Exception e) {
+            LOG.warn("failed to record the rollup range of the raw audit data", e);
+        }
+    }
+
+    /**
+     * get the raw id ranges rolled up by the rollup service
+     *
+     * @return start id -> end id, exclusive
+     */
+    private TreeMap<Long, Long> getRollupRanges() {
+        TreeMap<Long, Long> ranges = new TreeMap<>();
+        for (AuditCompactionStatePo state : compactionDao.selectStates(ROLLUP_RANGE_PREFIX)) {
+            ranges.put(Long.parseLong(state.getStateKey().substring(ROLLUP_RANGE_PREFIX.length())),
+                    state.getStateValue());
+        }
+        return ranges;
+    }
+
+    /**
+     * compact every level, from the finest to the coarsest
+     */
+    public void compact() {
+        // the rollup service writes all the rollup tables, so only the raw data out of its ranges is rolled up
+        compactTable(RAW_TABLE, storeConfig.getRawRetentionDays(), getRollupRanges());
+        compactTable(MINUTE_TABLE, storeConfig.getMinuteRetentionDays(), null);
+        compactTable(HOUR_TABLE, storeConfig.getHourRetentionDays(), null);
+        compactTable(DAY_TABLE, storeConfig.getDayRetentionDays(), null);
+        LOG.info("audit compaction metrics: compacted rows={}, deleted rows={}, reclaimed bytes={}",
+                compactedRows.get(), deletedRows.get(), reclaimedBytes.get());
+    }
+
+    /**
+     * delete the expired data of the table chunk by chunk up to the max id at the start of the pass,
+     * the chunks without expired data are skipped
+     *
+     * @param rollupRanges the expired data out of these id ranges is rolled up before deleted,
+     *         null if the table isn't rolled up
+     */
+    private void compactTable(String table, int retentionDays, TreeMap<Long, Long> rollupRanges) {
+        if (retentionDays <= 0) {
+            return;
+        }
+        Long maxId = compactionDao.selectMaxId(table);
+        if (maxId == null) {
+            return;
+        }
+        Date expireTime = new Date(System.currentTimeMillis() - retentionDays * DAY_MS);
+        int chunkRows = Math.max(1, storeConfig.getCompactionChunkRows());
+        Long avgRowLength = compactionDao.selectAvgRowLength(table);
+        long tableCompacted = 0;
+        long tableDeleted = 0;
+        long cursor = 0;
+        while (!closed) {
+            Long fromId = compactionDao.selectMinExpiredId(table, cursor, maxId, expireTime);
+            if (fromId == null) {
+                break;
+            }
+            // a chunk is either rolled up or not
+            long toId = Math.min(fromId + chunkRows, maxId + 1);
+            boolean rollup = false;
+            if (rollupRanges != null) {
+                Map.Entry<Long, Long> covered = rollupRanges.floorEntry(fromId);
+                if (covered != null && covered.getValue() > fromId) {
+                    toId = Math.min(toId, covered.getValue());
+                } else {
+                    Long nextStart = rollupRanges.higherKey(fromId);
+                    toId = nextStart == null ? toId : Math.min(toId, nextStart);
+                    rollup = true;
+                }
+            }
+            final long chunkEndId = toId;
+            int deleted;
+            if (rollup) {
+                long[] result = transactionTemplate.execute(status -> rollupRawChunk(fromId, chunkEndId, expireTime));
+                tableCompacted += result[0];
+                deleted = (int) result[1];
+            } else {
+                deleted = compactionDao.deleteExpired(table, fromId, chunkEndId, expireTime);
+            }
+            tableDeleted += deleted;
+            cursor = chunkEndId;
+            sleep(storeConfig.getCompactionChunkIntervalMs());
+        }
+        long tableReclaimed = avgRowLength == null ? 0 : avgRowLength * tableDeleted;
+        compactedRows.addAndGet(tableCompacted);
+        deletedRows.addAndGet(tableDeleted);
+        reclaimedBytes.addAndGet(tableReclaimed);
+        if (tableDeleted > 0) {
+            LOG.info("compact {} before {}, compacted rows={}, deleted rows={}, reclaimed bytes={}",
+                    table, expireTime, tableCompacted, tableDeleted, tableReclaimed);
+        }
+    }
+
+    /**
+     * add the expired raw data of the chunk to the rollup tables and delete it in one transaction
+     *
+     * @return rollup rows written and raw rows deleted
+     */
+    private long[] rollupRawChunk(long fromId, long toId, Date expireTime) {
+        List<AuditRollupPo> minuteRows = compactionDao.selectRawRollup(fromId, toId, expireTime);
+        Collection<AuditRollupPo> hourRows = truncate(minuteRows, HOUR_MS);
+        Collection<AuditRollupPo> dayRows = truncate(hourRows, DAY_MS);
+        write(minuteRows, dataDao::upsertMinuteRollup);
+        write(hourRows, dataDao::upsertHourRollup);
+        write(dayRows, dataDao::upsertDayRollup);
+        int deleted = compactionDao.deleteExpired(RAW_TABLE, fromId, toId, expireTime);
+        return new long[]{minuteRows.size() + hourRows.size() + dayRows.size(), deleted};
+    }
+
+    private void write(Collection<AuditRollupPo> rows, Function<List<AuditRollupPo>, Integer> upsert) {
+        int batchSize = Math.max(1, storeConfig.getRollupBatchSize());
+        List<AuditRollupPo> list = new ArrayList<>(rows);
+        for (int start = 0; start < list.size(); start += batchSize) {
+            upsert.apply(list.subList(start, Math.min(start + batchSize, list.size())));
+        }
+    }
+
+    /**
+     * sum the rows by the coarser time bucket in the same way as the rollup service
+     */
+    private static Collection<AuditRollupPo> truncate(Collection<AuditRollupPo> rows, long unit) {
+        Map<List<Object>, AuditRollupPo> result = new LinkedHashMap<>();
+        for (AuditRollupPo row : rows) {
+            long logTs = AuditRollupService.truncate(row.getLogTs().getTime(), unit);
+            List<Object> key = Arrays.asList(logTs, row.getInlongGroupId(), row.getInlongStreamId(),
+                    row.getAuditId(), row.getIp(), row.getDockerId());
+            AuditRollupPo target = result.get(key);
+            if (target == null) {
+                target = new AuditRollupPo();
+                target.setLogTs(new Date(logTs));
+                target.setInlongGroupId(row.getInlongGroupId());
+                target.setInlongStreamId(row.getInlongStreamId());
+                target.setAuditId(row.getAuditId());
+                target.setIp(row.getIp());
+                target.setDockerId(row.getDockerId());
+                target.setCount(0L);
+                target.setSize(0L);
+                target.setDelay(0L);
+                result.put(key, target);
+            }
+            target.setCount(target.getCount() + row.getCount());
+            target.setSize(target.getSize() + row.getSize());
+            target.setDelay(target.getDelay() + row.getDelay());
+        }
+        return result.values();
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    public long getCompactedRows() {
+        return compactedRows.get();
+    }
+
+    public long getDeletedRows() {
+        return deletedRows.get();
+    }
+
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    /**
+     * close
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.timerService.shutdown();
+    }
+}
@@ -21,6 +21,7 @@ import org.apache.inlong.audit.config.ClickHouseConfig;
 import org.apache.inlong.audit.config.MessageQueueConfig;
 import org.apache.inlong.audit.config.StoreConfig;
 import org.apache.inlong.audit.consts.ConfigConstants;
+import org.apache.inlong.audit.db.dao.AuditCompactionDao;
 import org.apache.inlong.audit.db.dao.AuditDataDao;
 import org.apache.inlong.audit.file.RemoteConfigJson;
 import org.apache.inlong.audit.service.consume.BaseConsume;
@@ -43,9 +44,14 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
 
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -53,7 +59,7 @@ import java.util.List;
 import java.util.Properties;
 
 @Service
-public class AuditMsgConsumerServer implements InitializingBean {
+public class AuditMsgConsumerServer implements InitializingBean, DisposableBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuditMsgConsumerServer.class);
     @Autowired
@@ -61,6 +67,10 @@ public class AuditMsgConsumerServer implements InitializingBean {
     @Autowired
     private AuditDataDao auditDataDao;
     @Autowired
+    private AuditCompactionDao auditCompactionDao;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
     private ElasticsearchService esService;
     @Autowired
     private StoreConfig storeConfig;
@@ -68,6 +78,12 @@ public class AuditMsgConsumerServer implements InitializingBean {
     private ClickHouseConfig chConfig;
     // ClickHouseService
     private ClickHouseService ckService;
+    // AuditRollupService
+    private AuditRollupService rollupService;
+    // AuditCompactionService
+    private AuditCompactionService compactionService;
+    // consumer of the message queue
+    private BaseConsume mqConsume;
 
     private static final String DEFAULT_CONFIG_PROPERTIES = "application.properties";
 
@@ -83,7 +99,6 @@ public class AuditMsgConsumerServer implements InitializingBean {
      */
     public void afterPropertiesSet() {
         List<MQInfo> mqInfoList = getClusterFromManager();
-        BaseConsume mqConsume = null;
         List<InsertData> insertServiceList = this.getInsertServiceList();
 
         for (MQInfo mqInfo : mqInfoList) {
@@ -112,9 +127,39 @@ public class AuditMsgConsumerServer implements InitializingBean {
         if (storeConfig.isClickHouseStore()) {
             ckService.start();
         }
+        if (rollupService != null) {
+            rollupService.start();
+        }
+        if (storeConfig.isMysqlStore()) {
+            AuditCompactionService.recordRollupRange(auditCompactionDao, storeConfig.isMysqlRollupEnable());
+        }
+        if (storeConfig.isMysqlStore() && storeConfig.isCompactionEnable()) {
+            compactionService = new AuditCompactionService(auditDataDao, auditCompactionDao, storeConfig,
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+            compactionService.start();
+        }
         mqConsume.start();
     }
 
+    /**
+     * Destroy bean, stops the consuming first, then flushes the rollup service, which acks the batches it has written
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (mqConsume != null) {
+            mqConsume.close();
+        }
+        if (rollupService != null) {
+            rollupService.close();
+        }
+        if (ckService != null) {
+            ckService.close();
+        }
+        if (compactionService != null) {
+            compactionService.close();
+        }
+    }
+
     /**
      * getInsertServiceList
      *
@@ -123,7 +168,13 @@ public class AuditMsgConsumerServer implements InitializingBean {
     private List<InsertData> getInsertServiceList() {
         List<InsertData> insertServiceList = new ArrayList<>();
         if (storeConfig.isMysqlStore()) {
-            insertServiceList.add(new MySqlService(auditDataDao));
+            if (storeConfig.isMysqlRawEnable()) {
+                insertServiceList.add(new MySqlService(auditDataDao));
+            }
+            if (storeConfig.isMysqlRollupEnable()) {
+                rollupService = new AuditRollupService(auditDataDao, storeConfig);
+                insertServiceList.add(rollupService);
+            }
         }
         if (storeConfig.isElasticsearchStore()) {
             insertServiceList.add(esService);
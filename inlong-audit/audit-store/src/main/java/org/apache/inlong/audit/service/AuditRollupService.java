@@ -0,0 +1,356 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service;
+
+import org.apache.inlong.audit.config.StoreConfig;
+import org.apache.inlong.audit.db.dao.AuditDataDao;
+import org.apache.inlong.audit.db.entities.AuditRollupPo;
+import org.apache.inlong.audit.protocol.AuditData;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * AuditRollupService, pre-aggregates the audit data in memory by the minute of log time, inlong group id,
+ * inlong stream id, audit id, ip and docker id, and adds the sums to the minute, hour and day rollup tables in batch.
+ * The batches of the consume pipeline are buffered across the flush interval, and their written callbacks are held
+ * until the flush which writes them.
+ */
+public class AuditRollupService implements InsertData, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuditRollupService.class);
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AuditDataDao dao;
+    private final StoreConfig storeConfig;
+    private final ScheduledExecutorService timerService = Executors.newSingleThreadScheduledExecutor();
+    // writers share the read lock, the flush swaps the buffer under the write lock
+    private final ReentrantReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private volatile Map<RollupKey, RollupValue> buffer = new ConcurrentHashMap<>();
+    // written callbacks of the batches in the buffer, swapped with the buffer
+    private volatile ConcurrentLinkedQueue<Runnable> bufferCallbacks = new ConcurrentLinkedQueue<>();
+    // written callbacks of the batches flushed but not written yet, only accessed by the flush
+    private final List<Runnable> pendingCallbacks = new ArrayList<>();
+    // rows which are not written yet, only accessed by the flush
+    private final Map<RollupKey, RollupValue> minutePending = new HashMap<>();
+    private final Map<RollupKey, RollupValue> hourPending = new HashMap<>();
+    private final Map<RollupKey, RollupValue> dayPending = new HashMap<>();
+    // hash of the recent audit data, the raw data is queried with distinct, so drop the duplicated data here
+    private final LinkedHashMap<Long, Boolean> recentPackets;
+
+    /**
+     * Constructor
+     * @param dao audit data dao
+     * @param storeConfig store config, such as flush interval, batch size.
+     */
+    public AuditRollupService(AuditDataDao dao, StoreConfig storeConfig) {
+        this.dao = dao;
+        this.storeConfig = storeConfig;
+        final int dedupCacheSize = storeConfig.getRollupDedupCacheSize();
+        this.recentPackets = new LinkedHashMap<Long, Boolean>(16, 0.75f, false) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > dedupCacheSize;
+            }
+        };
+    }
+
+    /**
+     * start
+     */
+    public void start() {
+        timerService.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Throwable t) {
+                LOG.error("flush audit rollup has err: ", t);
+            }
+        }, storeConfig.getRollupFlushIntervalMs(), storeConfig.getRollupFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * insert
+     * @param msgBody audit data reading from Pulsar or other MessageQueue.
+     */
+    @Override
+    public void insert(AuditData msgBody) {
+        bufferLock.readLock().lock();
+        try {
+            this.add(msgBody);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * add the audit data to the buffer, must be called under the read lock
+     */
+    private void add(AuditData msgBody) {
+        if (isDuplicated(msgBody)) {
+            return;
+        }
+        RollupKey key = new RollupKey(truncate(msgBody.getLogTs(), MINUTE_MS), msgBody.getInlongGroupId(),
+                msgBody.getInlongStreamId(), msgBody.getAuditId(), msgBody.getIp(), msgBody.getDockerId());
+        buffer.computeIfAbsent(key, k -> new RollupValue())
+                .add(msgBody.getCount(), msgBody.getSize(), msgBody.getDelay());
+    }
+
+    /**
+     * insert a batch and write it to the rollup tables, the duplicated data is dropped when the batch is retried
+     * @param batch audit data reading from Pulsar or other MessageQueue.
+     */
+    @Override
+    public void insertBatch(List<AuditData> batch) {
+        batch.forEach(this::insert);
+        this.flush();
+        synchronized (this) {
+            if (!minutePending.isEmpty() || !hourPending.isEmpty() || !dayPending.isEmpty()) {
+                throw new IllegalStateException("failed to write the audit rollup, the rows are kept for retry");
+            }
+        }
+    }
+
+    /**
+     * buffer a batch, the written callback is called by the flush which writes the batch
+     * @param batch audit data reading from Pulsar or other MessageQueue.
+     * @param written called once the batch is written
+     */
+    @Override
+    public void insertBatch(List<AuditData> batch, Runnable written) {
+        bufferLock.readLock().lock();
+        try {
+            batch.forEach(this::add);
+            bufferCallbacks.add(written);
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * write the buffered data to the rollup tables, the rows failed to write are retried in the next flush,
+     * and the written callbacks are called after all the rows are written
+     */
+    public synchronized void flush() {
+        Map<RollupKey, RollupValue> current;
+        bufferLock.writeLock().lock();
+        try {
+            current = this.buffer;
+            this.buffer = new ConcurrentHashMap<>();
+            pendingCallbacks.addAll(this.bufferCallbacks);
+            this.bufferCallbacks = new ConcurrentLinkedQueue<>();
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+        for (Map.Entry<RollupKey, RollupValue> entry : current.entrySet()) {
+            merge(minutePending, entry.getKey(), entry.getValue());
+            merge(hourPending, entry.getKey().truncateTo(HOUR_MS), entry.getValue());
+            merge(dayPending, entry.getKey().truncateTo(DAY_MS), entry.getValue());
+        }
+        this.write(minutePending, dao::upsertMinuteRollup, "audit_data_minute");
+        this.write(hourPending, dao::upsertHourRollup, "audit_data_hour");
+        this.write(dayPending, dao::upsertDayRollup, "audit_data_day");
+        if (minutePending.isEmpty() && hourPending.isEmpty() && dayPending.isEmpty()) {
+            for (Runnable callback : pendingCallbacks) {
+                try {
+                    callback.run();
+                } catch (Throwable t) {
+                    LOG.error("written callback of audit rollup has err: ", t);
+                }
+            }
+            pendingCallbacks.clear();
+        }
+    }
+
+    /**
+     * write the pending rows in batch, every batch is one statement, so it is added entirely or not at all
+     */
+    private void write(Map<RollupKey, RollupValue> pending, Function<List<AuditRollupPo>, Integer> upsert,
+            String table) {
+        int batchSize = Math.max(1, storeConfig.getRollupBatchSize());
+        List<Map.Entry<RollupKey, RollupValue>> entries = new ArrayList<>(pending.entrySet());
+        try {
+            for (int start = 0; start < entries.size(); start += batchSize) {
+                List<Map.Entry<RollupKey, RollupValue>> rows = entries.subList(start,
+                        Math.min(start + batchSize, entries.size()));
+                List<AuditRollupPo> batch = new ArrayList<>(rows.size());
+                rows.forEach(entry -> batch.add(entry.getKey().toPo(entry.getValue())));
+                upsert.apply(batch);
+                rows.forEach(entry -> pending.remove(entry.getKey()));
+            }
+        } catch (Exception e) {
+            LOG.error("failed to write {} rows to {}, retry later", pending.size(), table, e);
+        }
+        if (pending.size() > storeConfig.getRollupMaxRetryRows()) {
+            LOG.error("drop {} rows of {} which failed to write", pending.size(), table);
+            pending.clear();
+        }
+    }
+
+    private boolean isDuplicated(AuditData data) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, data.getIp());
+        hash = hash(hash, data.getDockerId());
+        hash = hash(hash, data.getThreadId());
+        hash = hash(hash, data.getInlongGroupId());
+        hash = hash(hash, data.getInlongStreamId());
+        hash = hash(hash, data.getAuditId());
+        hash = hash(hash, data.getSdkTs());
+        hash = hash(hash, data.getPacketId());
+        hash = hash(hash, data.getLogTs());
+        hash = hash(hash, data.getCount());
+        hash = hash(hash, data.getSize());
+        hash = hash(hash, data.getDelay());
+        synchronized (recentPackets) {
+            return recentPackets.put(hash, Boolean.TRUE) != null;
+        }
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // separator
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+
+    private static long hash(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ ((value >>> (i * 8)) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void merge(Map<RollupKey, RollupValue> target, RollupKey key, RollupValue value) {
+        target.computeIfAbsent(key, k -> new RollupValue())
+                .add(value.count.get(), value.size.get(), value.delay.get());
+    }
+
+    /**
+     * truncate the timestamp to the start of the minute, hour or day in the local time zone
+     */
+    static long truncate(long timestamp, long unit) {
+        return timestamp - Math.floorMod(timestamp + TimeZone.getDefault().getOffset(timestamp), unit);
+    }
+
+    /**
+     * close
+     */
+    @Override
+    public void close() {
+        this.timerService.shutdown();
+        this.flush();
+    }
+
+    private static class RollupKey {
+
+        private final long logTs;
+        private final String inlongGroupId;
+        private final String inlongStreamId;
+        private final String auditId;
+        private final String ip;
+        private final String dockerId;
+
+        private RollupKey(long logTs, String inlongGroupId, String inlongStreamId, String auditId, String ip,
+                String dockerId) {
+            this.logTs = logTs;
+            // the columns of the rollup tables are not null
+            this.inlongGroupId = Objects.toString(inlongGroupId, "");
+            this.inlongStreamId = Objects.toString(inlongStreamId, "");
+            this.auditId = Objects.toString(auditId, "");
+            this.ip = Objects.toString(ip, "");
+            this.dockerId = Objects.toString(dockerId, "");
+        }
+
+        private RollupKey truncateTo(long unit) {
+            return new RollupKey(truncate(logTs, unit), inlongGroupId, inlongStreamId, auditId, ip, dockerId);
+        }
+
+        private AuditRollupPo toPo(RollupValue value) {
+            AuditRollupPo po = new AuditRollupPo();
+            po.setLogTs(new Date(logTs));
+            po.setInlongGroupId(inlongGroupId);
+            po.setInlongStreamId(inlongStreamId);
+            po.setAuditId(auditId);
+            po.setIp(ip);
+            po.setDockerId(dockerId);
+            po.setCount(value.count.get());
+            po.setSize(value.size.get());
+            po.setDelay(value.delay.get());
+            return po;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey that = (RollupKey) o;
+            return logTs == that.logTs
+                    && inlongGroupId.equals(that.inlongGroupId)
+                    && inlongStreamId.equals(that.inlongStreamId)
+                    && auditId.equals(that.auditId)
+                    && ip.equals(that.ip)
+                    && dockerId.equals(that.dockerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(logTs, inlongGroupId, inlongStreamId, auditId, ip, dockerId);
+        }
+    }
+
+    private static class RollupValue {
+
+        private final AtomicLong count = new AtomicLong(0);
+        private final AtomicLong size = new AtomicLong(0);
+        private final AtomicLong delay = new AtomicLong(0);
+
+        private void add(long count, long size, long delay) {
+            this.count.addAndGet(count);
+            this.size.addAndGet(size);
+            this.delay.addAndGet(delay);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -90,7 +91,7 @@ public class ClickHouseService implements InsertData, AutoCloseable {
     /**
      * processOutput
      */
-    private void processOutput() {
+    private synchronized void processOutput() {
         if (!this.needBatchOutput.get()
                 && (System.currentTimeMillis() - lastCheckTime.get() < chConfig.getBatchIntervalMs())) {
             return;
@@ -101,20 +102,7 @@ public class ClickHouseService implements InsertData, AutoCloseable {
             // output data to clickhouse
             ClickHouseDataPo data = this.batchQueue.poll();
             while (data != null) {
-                pstat.setString(1, data.getIp());
-                pstat.setString(2, data.getDockerId());
-                pstat.setString(3, data.getThreadId());
-                pstat.setTimestamp(4, data.getSdkTs());
-                pstat.setLong(5, data.getPacketId());
-                pstat.setTimestamp(6, data.getLogTs());
-                pstat.setString(7, data.getInlongGroupId());
-                pstat.setString(8, data.getInlongStreamId());
-                pstat.setString(9, data.getAuditId());
-                pstat.setLong(10, data.getCount());
-                pstat.setLong(11, data.getSize());
-                pstat.setLong(12, data.getDelay());
-                pstat.setTimestamp(13, data.getUpdateTime());
-                pstat.addBatch();
+                this.addBatch(pstat, data);
                 this.batchCounter.decrementAndGet();
                 if (++counter >= chConfig.getBatchThreshold()) {
                     pstat.executeBatch();
@@ -141,6 +129,29 @@ public class ClickHouseService implements InsertData, AutoCloseable {
         this.needBatchOutput.compareAndSet(true, false);
     }
 
+    /**
+     * addBatch
+     * @param pstat prepared statement of INSERT_SQL
+     * @param data data to insert
+     * @throws SQLException Exception when setting parameters.
+     */
+    private void addBatch(PreparedStatement pstat, ClickHouseDataPo data) throws SQLException {
+        pstat.setString(1, data.getIp());
+        pstat.setString(2, data.getDockerId());
+        pstat.setString(3, data.getThreadId());
+        pstat.setTimestamp(4, data.getSdkTs());
+        pstat.setLong(5, data.getPacketId());
+        pstat.setTimestamp(6, data.getLogTs());
+        pstat.setString(7, data.getInlongGroupId());
+        pstat.setString(8, data.getInlongStreamId());
+        pstat.setString(9, data.getAuditId());
+        pstat.setLong(10, data.getCount());
+        pstat.setLong(11, data.getSize());
+        pstat.setLong(12, data.getDelay());
+        pstat.setTimestamp(13, data.getUpdateTime());
+        pstat.addBatch();
+    }
+
     /**
      * reconnect
      * @throws SQLException Exception when creating connection.
@@ -165,6 +176,55 @@ public class ClickHouseService implements InsertData, AutoCloseable {
      */
     @Override
     public void insert(AuditData msgBody) {
+        ClickHouseDataPo data = this.toPo(msgBody);
+        try {
+            this.batchQueue.offer(data, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            if (this.batchCounter.incrementAndGet() >= chConfig.getBatchThreshold()) {
+                this.needBatchOutput.compareAndSet(false, true);
+            }
+        } catch (InterruptedException e) {
+            LOG.error(e.getMessage(), e);
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * insert a batch and write it to clickhouse directly
+     * @param batch audit data reading from Pulsar or other MessageQueue.
+     * @throws SQLException Exception when writing to ClickHouse, the connection is re-connected.
+     */
+    @Override
+    public synchronized void insertBatch(List<AuditData> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (this.conn == null) {
+            this.reconnect();
+        }
+        try (PreparedStatement pstat = this.conn.prepareStatement(INSERT_SQL)) {
+            int counter = 0;
+            for (AuditData msgBody : batch) {
+                this.addBatch(pstat, this.toPo(msgBody));
+                if (++counter >= chConfig.getBatchThreshold()) {
+                    pstat.executeBatch();
+                    counter = 0;
+                }
+            }
+            if (counter > 0) {
+                pstat.executeBatch();
+            }
+            this.conn.commit();
+        } catch (SQLException e) {
+            try {
+                this.reconnect();
+            } catch (SQLException e2) {
+                LOG.error("Re-connect clickhouse failure!", e2);
+            }
+            throw e;
+        }
+    }
+
+    private ClickHouseDataPo toPo(AuditData msgBody) {
         ClickHouseDataPo data = new ClickHouseDataPo();
         data.setIp(msgBody.getIp());
         data.setThreadId(msgBody.getThreadId());
@@ -179,15 +239,7 @@ public class ClickHouseService implements InsertData, AutoCloseable {
         data.setInlongStreamId(msgBody.getInlongStreamId());
         data.setSize(msgBody.getSize());
         data.setUpdateTime(new Timestamp(System.currentTimeMillis()));
-        try {
-            this.batchQueue.offer(data, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
-            if (this.batchCounter.incrementAndGet() >= chConfig.getBatchThreshold()) {
-                this.needBatchOutput.compareAndSet(false, true);
-            }
-        } catch (InterruptedException e) {
-            LOG.error(e.getMessage(), e);
-            throw new RuntimeException(e.getMessage(), e);
-        }
+        return data;
     }
 
     /**
@@ -149,35 +149,47 @@ public class ElasticsearchService implements InsertData, AutoCloseable {
         BulkRequest bulkRequest = new BulkRequest();
         try {
             semaphore.acquire();
+        } catch (InterruptedException e) {
+            LOG.error("datalist semaphore has err: ", e);
+            return false;
+        }
+        try {
             for (ESDataPo esDataPo : datalist) {
-                SimpleDateFormat formatter = new SimpleDateFormat("yyyyMMdd");
-                String index = formatter.format(esDataPo.getLogTs()) + "_" + esDataPo.getAuditId();
-                GsonBuilder gsonBuilder = new GsonBuilder();
-                gsonBuilder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-                        .setDateFormat("yyyy-MM-dd HH:mm:ss");
-                Gson gson = gsonBuilder.create();
-                String esJson = gson.toJson(esDataPo);
-                if (!createIndex(index)) {
-                    LOG.error("fail to create index {}", index);
-                    continue;
+                IndexRequest indexRequest = buildIndexRequest(esDataPo);
+                if (indexRequest != null) {
+                    bulkRequest.add(indexRequest);
                 }
-                IndexRequest indexRequest;
-                if (esConfig.isEnableCustomDocId()) {
-                    indexRequest = new IndexRequest(index).type("_doc").id(esDataPo.getDocId())
-                            .source(esJson, XContentType.JSON);
-                } else {
-                    indexRequest = new IndexRequest(index).type("_doc").source(esJson, XContentType.JSON);
-                }
-                bulkRequest.add(indexRequest);
             }
             BulkResponse bulkResponse = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+            return bulkResponse.status().equals(RestStatus.OK);
+        } finally {
             datalist.clear();
             semaphore.release();
-            return bulkResponse.status().equals(RestStatus.OK);
-        } catch (InterruptedException e) {
-            LOG.error("datalist semaphore has err: ", e);
         }
-        return false;
+    }
+
+    /**
+     * build the index request of a doc, the index of the doc is created if it does not exist
+     * @param esDataPo
+     * @return null if the index can not be created
+     */
+    private IndexRequest buildIndexRequest(ESDataPo esDataPo) throws IOException {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyyMMdd");
+        String index = formatter.format(esDataPo.getLogTs()) + "_" + esDataPo.getAuditId();
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        gsonBuilder.setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .setDateFormat("yyyy-MM-dd HH:mm:ss");
+        Gson gson = gsonBuilder.create();
+        String esJson = gson.toJson(esDataPo);
+        if (!createIndex(index)) {
+            LOG.error("fail to create index {}", index);
+            return null;
+        }
+        if (esConfig.isEnableCustomDocId()) {
+            return new IndexRequest(index).type("_doc").id(esDataPo.getDocId())
+                    .source(esJson, XContentType.JSON);
+        }
+        return new IndexRequest(index).type("_doc").source(esJson, XContentType.JSON);
     }
 
     protected void deleteTimeoutIndices() throws IOException {
@@ -323,6 +335,10 @@ public class ElasticsearchService implements InsertData, AutoCloseable {
      */
     @Override
     public void insert(AuditData msgBody) {
+        this.insertData(this.convert(msgBody));
+    }
+
+    private ESDataPo convert(AuditData msgBody) {
         ESDataPo esPo = new ESDataPo();
         esPo.setIp(msgBody.getIp());
         esPo.setThreadId(msgBody.getThreadId());
@@ -336,6 +352,31 @@ public class ElasticsearchService implements InsertData, AutoCloseable {
         esPo.setInlongStreamId(msgBody.getInlongStreamId());
         esPo.setSize(msgBody.getSize());
         esPo.setPacketId(msgBody.getPacketId());
-        this.insertData(esPo);
+        return esPo;
+    }
+
+    /**
+     * insert a batch by a synchronous bulk request of its own, the docs buffered by insert are not touched
+     * @param batch
+     * @throws IOException if any doc of the batch is not written, the batch is retried by the caller
+     */
+    @Override
+    public void insertBatch(List<AuditData> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkRequest bulkRequest = new BulkRequest();
+        for (AuditData auditData : batch) {
+            IndexRequest indexRequest = buildIndexRequest(this.convert(auditData));
+            if (indexRequest == null) {
+                throw new IOException("failed to create the index of audit " + auditData.getAuditId());
+            }
+            bulkRequest.add(indexRequest);
+        }
+        BulkResponse bulkResponse = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+        if (bulkResponse.hasFailures()) {
+            throw new IOException("failed to bulk insert audit data to elasticsearch: "
+                    + bulkResponse.buildFailureMessage());
+        }
     }
 }
@@ -19,6 +19,8 @@ package org.apache.inlong.audit.service;
 
 import org.apache.inlong.audit.protocol.AuditData;
 
+import java.util.List;
+
 /**
  * Insert Data interface
  */
@@ -28,4 +30,23 @@ public interface InsertData {
      * insert audit data to storage.
      */
     void insert(AuditData msgBody);
+
+    /**
+     * insert a batch of audit data to storage, the data should be written when the method returns,
+     * and the exception means the batch should be retried.
+     */
+    default void insertBatch(List<AuditData> batch) throws Exception {
+        for (AuditData msgBody : batch) {
+            this.insert(msgBody);
+        }
+    }
+
+    /**
+     * insert a batch of audit data to storage, the written callback is called once the batch is written, which may
+     * be later than the method returns, such as by a timed flush, and the exception means the batch should be retried.
+     */
+    default void insertBatch(List<AuditData> batch, Runnable written) throws Exception {
+        this.insertBatch(batch);
+        written.run();
+    }
 }
@@ -19,24 +19,16 @@ package org.apache.inlong.audit.service.consume;
 
 import org.apache.inlong.audit.config.MessageQueueConfig;
 import org.apache.inlong.audit.config.StoreConfig;
-import org.apache.inlong.audit.protocol.AuditData;
 import org.apache.inlong.audit.service.InsertData;
 
-import com.google.gson.Gson;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.List;
 
 public abstract class BaseConsume {
 
-    private static final Logger LOG = LoggerFactory.getLogger(BaseConsume.class);
-
-    private final Gson gson = new Gson();
-
     protected List<InsertData> insertServiceList;
     protected StoreConfig storeConfig;
     protected MessageQueueConfig mqConfig;
+    private ConsumePipeline pipeline;
 
     public BaseConsume(List<InsertData> insertServiceList, StoreConfig storeConfig,
             MessageQueueConfig mqConfig) {
@@ -48,19 +40,36 @@ public abstract class BaseConsume {
     public abstract void start();
 
     /**
-     * handleMessage
-     * @param body
-     * @throws Exception
+     * get the pipeline which writes the consumed batches to the insert services
+     */
+    protected synchronized ConsumePipeline getPipeline() {
+        if (pipeline == null) {
+            pipeline = new ConsumePipeline(insertServiceList, mqConfig.getConsumeDecodeThreads(),
+                    mqConfig.getConsumeMaxInFlightBatches(), mqConfig.getConsumeWriterQueueSize(),
+                    mqConfig.getConsumeWriterMaxRetries());
+            pipeline.start();
+        }
+        return pipeline;
+    }
+
+    /**
+     * handleMessages, blocks while too many batches are not written
+     * @param bodies message bodies of the batch
+     * @param callback called after all the insert services have written the batch, in the order of the batches
+     * @return false if the pipeline is closed
+     * @throws InterruptedException
+     */
+    protected boolean handleMessages(List<byte[]> bodies, Runnable callback) throws InterruptedException {
+        return this.getPipeline().submit(bodies, callback);
+    }
+
+    /**
+     * close the pipeline, the batches not written are consumed again after restart
      */
-    protected void handleMessage(String body) throws Exception {
-        AuditData msgBody = gson.fromJson(body, AuditData.class);
-        this.insertServiceList.forEach((service) -> {
-            try {
-                service.insert(msgBody);
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
-            }
-        });
+    public synchronized void close() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
     }
 
 }
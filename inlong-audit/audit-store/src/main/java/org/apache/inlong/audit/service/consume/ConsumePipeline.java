@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service.consume;
+
+import org.apache.inlong.audit.protocol.AuditData;
+import org.apache.inlong.audit.service.InsertData;
+
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConsumePipeline, decodes the batches pulled from the message queue in parallel, and fans them out to the bounded
+ * queue of every insert service, which is written by its own writer thread, so a slow storage does not stall the
+ * others. The callback of a batch is called after all the insert services have written it, and the callbacks are
+ * called in the order of the batches, so the acks of the message queue advance like a watermark.
+ * A batch is never acked before it is written, a failed write is retried until it succeeds, and the consuming is
+ * paused by the limit of the batches in flight meanwhile. An insert service may hold the written callback of a batch
+ * until its own flush, so the batch stays in flight till then.
+ */
+public class ConsumePipeline implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConsumePipeline.class);
+    private static final long POLL_INTERVAL_MS = 100L;
+    private static final long RETRY_INTERVAL_MS = 1000L;
+
+    private final Gson gson = new Gson();
+    private final List<BatchWriter> writers = new ArrayList<>();
+    private final Semaphore inFlightPermits;
+    private final int maxInFlightBatches;
+    private final ExecutorService decodeExecutor;
+    // batches waiting for their callbacks, in the submitting order
+    private final ArrayDeque<AuditBatch> ackQueue = new ArrayDeque<>();
+    private final AtomicLong batchSeq = new AtomicLong(0L);
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor
+     * @param insertServiceList insert services of the enabled storages
+     * @param decodeThreads count of the decoding threads
+     * @param maxInFlightBatches max count of the batches which are submitted but not written
+     * @param writerQueueSize max count of the batches queued for every insert service
+     * @param maxRetries retry times of a failed write with growing backoff, the write is retried with the max
+     *         backoff after that
+     */
+    public ConsumePipeline(List<InsertData> insertServiceList, int decodeThreads, int maxInFlightBatches,
+            int writerQueueSize, int maxRetries) {
+        this.maxInFlightBatches = Math.max(1, maxInFlightBatches);
+        this.inFlightPermits = new Semaphore(this.maxInFlightBatches);
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        int threads = Math.max(1, decodeThreads);
+        this.decodeExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "AuditConsume_Decode_Thread_" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        for (InsertData service : insertServiceList) {
+            writers.add(new BatchWriter(service, Math.max(1, writerQueueSize), Math.max(0, maxRetries)));
+        }
+    }
+
+    /**
+     * start the writer threads
+     */
+    public void start() {
+        for (BatchWriter writer : writers) {
+            Thread thread = new Thread(writer,
+                    "AuditConsume_Writer_Thread_" + writer.service.getClass().getSimpleName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * submit a batch, blocks while the count of the batches in flight reaches the limit
+     * @param bodies message bodies of the batch
+     * @param callback called after all the insert services have written the batch
+     * @return false if the pipeline is closed
+     */
+    public boolean submit(List<byte[]> bodies, Runnable callback) throws InterruptedException {
+        while (!inFlightPermits.tryAcquire(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+                return false;
+            }
+        }
+        if (closed) {
+            inFlightPermits.release();
+            return false;
+        }
+        boolean empty = writers.isEmpty() || bodies.isEmpty();
+        AuditBatch batch = new AuditBatch(batchSeq.getAndIncrement(), callback, empty ? 0 : writers.size());
+        synchronized (ackQueue) {
+            ackQueue.addLast(batch);
+        }
+        if (empty) {
+            batch.data = Collections.emptyList();
+            this.complete(batch);
+            return true;
+        }
+        decodeExecutor.execute(() -> this.decode(batch, bodies));
+        return true;
+    }
+
+    private void decode(AuditBatch batch, List<byte[]> bodies) {
+        List<AuditData> data = new ArrayList<>(bodies.size());
+        for (byte[] body : bodies) {
+            try {
+                AuditData auditData = gson.fromJson(new String(body, StandardCharsets.UTF_8), AuditData.class);
+                if (auditData != null) {
+                    data.add(auditData);
+                }
+            } catch (Exception e) {
+                LOG.error("failed to decode audit data, drop it", e);
+            }
+        }
+        batch.data = data;
+        for (BatchWriter writer : writers) {
+            try {
+                writer.queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.error("interrupted when queuing batch {}", batch.seq);
+                return;
+            }
+        }
+    }
+
+    /**
+     * called by every writer after writing the batch, calls the callbacks of the leading completed batches
+     */
+    private void complete(AuditBatch batch) {
+        // the batch without writers is completed directly
+        if (batch.pendingWriters.get() > 0 && batch.pendingWriters.decrementAndGet() > 0) {
+            return;
+        }
+        synchronized (ackQueue) {
+            batch.completed = true;
+            while (!ackQueue.isEmpty() && ackQueue.peekFirst().completed) {
+                AuditBatch head = ackQueue.pollFirst();
+                inFlightPermits.release();
+                try {
+                    head.callback.run();
+                } catch (Throwable t) {
+                    LOG.error("callback of batch {} has err: ", head.seq, t);
+                }
+            }
+        }
+    }
+
+    /**
+     * get the count of the batches which are submitted but not acked
+     */
+    public int getInFlightCount() {
+        return maxInFlightBatches - inFlightPermits.availablePermits();
+    }
+
+    /**
+     * close, the batches in flight are not acked, except the ones whose written callbacks are called by the insert
+     * services after that, such as by their flush on close
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.decodeExecutor.shutdownNow();
+    }
+
+    private static class AuditBatch {
+
+        private final long seq;
+        private final Runnable callback;
+        private final AtomicInteger pendingWriters;
+        private volatile List<AuditData> data;
+        // guarded by the ack queue
+        private boolean completed = false;
+
+        private AuditBatch(long seq, Runnable callback, int writerCount) {
+            this.seq = seq;
+            this.callback = callback;
+            this.pendingWriters = new AtomicInteger(writerCount);
+        }
+    }
+
+    /**
+     * BatchWriter, writes the queued batches to one insert service, several queued batches are written together
+     */
+    private class BatchWriter implements Runnable {
+
+        private final InsertData service;
+        private final BlockingQueue<AuditBatch> queue;
+        private final int maxRetries;
+
+        private BatchWriter(InsertData service, int queueSize, int maxRetries) {
+            this.service = service;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.maxRetries = maxRetries;
+        }
+
+        @Override
+        public void run() {
+            List<AuditBatch> batches = new ArrayList<>();
+            while (!closed) {
+                try {
+                    AuditBatch first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batches.add(first);
+                    queue.drainTo(batches);
+                    // the batches not written are not acked, they are consumed again after restart
+                    List<AuditBatch> written = new ArrayList<>(batches);
+                    this.write(batches, () -> written.forEach(ConsumePipeline.this::complete));
+                } catch (InterruptedException e) {
+                    LOG.warn("writer of {} is interrupted", service.getClass().getSimpleName());
+                    return;
+                } finally {
+                    batches.clear();
+                }
+            }
+        }
+
+        /**
+         * write the batches, retry until they are accepted by the insert service or the pipeline is closed
+         * @param written called once the batches are written
+         */
+        private void write(List<AuditBatch> batches, Runnable written) throws InterruptedException {
+            List<AuditData> data;
+            if (batches.size() == 1) {
+                data = batches.get(0).data;
+            } else {
+                data = new ArrayList<>();
+                batches.forEach(batch -> data.addAll(batch.data));
+            }
+            for (int retry = 0; !closed; retry++) {
+                try {
+                    service.insertBatch(data, written);
+                    return;
+                } catch (Exception e) {
+                    if (retry >= maxRetries) {
+                        LOG.error("failed to write {} audit data by {} after {} retries, retry later", data.size(),
+                                service.getClass().getSimpleName(), retry, e);
+                    } else {
+                        LOG.warn("failed to write {} audit data by {}, retry later", data.size(),
+                                service.getClass().getSimpleName(), e);
+                    }
+                    Thread.sleep(RETRY_INTERVAL_MS * (Math.min(retry, maxRetries) + 1));
+                }
+            }
+        }
+    }
+}
@@ -27,16 +27,22 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class KafkaConsume extends BaseConsume {
 
@@ -95,6 +101,7 @@ public class KafkaConsume extends BaseConsume {
         private final String topic;
         private final boolean isAutoCommit;
         private final long fetchWaitMs;
+        private final Queue<Map<TopicPartition, OffsetAndMetadata>> writtenOffsets = new ConcurrentLinkedQueue<>();
 
         public Fetcher(KafkaConsumer<String, byte[]> consumer, String topic, boolean isAutoCommit, long fetchWaitMs) {
             this.consumer = consumer;
@@ -107,24 +114,42 @@ public class KafkaConsume extends BaseConsume {
         public void run() {
             while (true) {
                 try {
+                    this.commitWrittenOffsets();
                     // Set the waiting time of the consumer to 100ms
                     ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(fetchWaitMs));
                     if (records != null && !records.isEmpty()) {
+                        List<byte[]> bodies = new ArrayList<>(records.count());
+                        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
                         for (ConsumerRecord<String, byte[]> record : records) {
                             if (StringUtils.equals(record.topic(), topic)) {
-                                String body = new String(record.value(), StandardCharsets.UTF_8);
-                                handleMessage(body);
+                                bodies.add(record.value());
                             }
+                            offsets.put(new TopicPartition(record.topic(), record.partition()),
+                                    new OffsetAndMetadata(record.offset() + 1));
                         }
-
-                        if (!isAutoCommit) {
-                            consumer.commitAsync();
-                        }
+                        // the consumer is not thread safe, so the offsets are committed by the fetcher thread
+                        handleMessages(bodies, () -> writtenOffsets.offer(offsets));
                     }
                 } catch (Exception e) {
                     LOG.error("kafka consumer get message error {}", e.getMessage());
                 }
             }
         }
+
+        /**
+         * commit the offsets of the batches written by all the insert services
+         */
+        private void commitWrittenOffsets() {
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            Map<TopicPartition, OffsetAndMetadata> batchOffsets = writtenOffsets.poll();
+            while (batchOffsets != null) {
+                // the batches are acked in order, so the later offsets cover the former ones
+                offsets.putAll(batchOffsets);
+                batchOffsets = writtenOffsets.poll();
+            }
+            if (!isAutoCommit && !offsets.isEmpty()) {
+                consumer.commitAsync(offsets, null);
+            }
+        }
     }
 }
@@ -24,26 +24,28 @@ import org.apache.inlong.audit.service.InsertData;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pulsar.client.api.AuthenticationFactory;
+import org.apache.pulsar.client.api.BatchReceivePolicy;
 import org.apache.pulsar.client.api.ClientBuilder;
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
-import org.apache.pulsar.client.api.MessageListener;
+import org.apache.pulsar.client.api.Messages;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.SubscriptionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PulsarConsume extends BaseConsume {
 
     private static final Logger LOG = LoggerFactory.getLogger(PulsarConsume.class);
     private final ConcurrentHashMap<String, List<Consumer<byte[]>>> topicConsumerMap = new ConcurrentHashMap<>();
+    private final AtomicInteger fetcherIndex = new AtomicInteger(0);
 
     /**
      * Constructor
@@ -124,35 +126,15 @@ public class PulsarConsume extends BaseConsume {
                         .topic(topic)
                         .receiverQueueSize(mqConfig.getConsumerReceiveQueueSize())
                         .enableRetry(mqConfig.isPulsarConsumerEnableRetry())
-                        .messageListener(new MessageListener<byte[]>() {
-
-                            public void received(Consumer<byte[]> consumer, Message<byte[]> msg) {
-                                try {
-                                    String body = new String(msg.getData(), StandardCharsets.UTF_8);
-                                    handleMessage(body);
-                                    consumer.acknowledge(msg);
-                                } catch (Exception e) {
-                                    LOG.error("Consumer has exception topic {}, subName {}, ex {}",
-                                            topic,
-                                            mqConfig.getPulsarConsumerSubName(),
-                                            e);
-                                    if (mqConfig.isPulsarConsumerEnableRetry()) {
-                                        try {
-                                            consumer.reconsumeLater(msg, 10, TimeUnit.SECONDS);
-                                        } catch (PulsarClientException pulsarClientException) {
-                                            LOG.error("Consumer reconsumeLater has exception "
-                                                    + "topic {}, subName {}, ex {}",
-                                                    topic,
-                                                    mqConfig.getPulsarConsumerSubName(),
-                                                    pulsarClientException);
-                                        }
-                                    } else {
-                                        consumer.negativeAcknowledge(msg);
-                                    }
-                                }
-                            }
-                        })
+                        .batchReceivePolicy(BatchReceivePolicy.builder()
+                                .maxNumMessages(mqConfig.getPulsarConsumerBatchSize())
+                                .timeout(mqConfig.getPulsarConsumerBatchTimeoutMs(), TimeUnit.MILLISECONDS)
+                                .build())
                         .subscribe();
+                final Consumer<byte[]> batchConsumer = consumer;
+                Thread thread = new Thread(() -> fetch(batchConsumer, topic),
+                        "PulsarConsume_Fetcher_Thread_" + fetcherIndex.getAndIncrement());
+                thread.start();
             } catch (PulsarClientException e) {
                 LOG.error("createConsumer has topic {}, subName {}, err {}", topic,
                         mqConfig.getPulsarConsumerSubName(), e);
@@ -160,4 +142,35 @@ public class PulsarConsume extends BaseConsume {
         }
         return consumer;
     }
+
+    /**
+     * receive the messages in batch, and ack them after they are written by all the insert services
+     */
+    private void fetch(Consumer<byte[]> consumer, String topic) {
+        while (true) {
+            try {
+                Messages<byte[]> messages = consumer.batchReceive();
+                if (messages == null || messages.size() == 0) {
+                    continue;
+                }
+                List<byte[]> bodies = new ArrayList<>(messages.size());
+                for (Message<byte[]> msg : messages) {
+                    bodies.add(msg.getData());
+                }
+                if (!handleMessages(bodies, () -> consumer.acknowledgeAsync(messages))) {
+                    LOG.warn("consume pipeline is closed, stop consuming topic {}", topic);
+                    return;
+                }
+            } catch (PulsarClientException.AlreadyClosedException e) {
+                LOG.info("consumer of topic {}, subName {} is closed", topic, mqConfig.getPulsarConsumerSubName());
+                return;
+            } catch (InterruptedException e) {
+                LOG.warn("consumer of topic {} is interrupted", topic);
+                return;
+            } catch (Exception e) {
+                LOG.error("Consumer has exception topic {}, subName {}, ex {}", topic,
+                        mqConfig.getPulsarConsumerSubName(), e);
+            }
+        }
+    }
 }
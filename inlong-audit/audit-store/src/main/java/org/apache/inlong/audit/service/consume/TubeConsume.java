@@ -34,7 +34,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 public class TubeConsume extends BaseConsume {
@@ -123,15 +123,17 @@ public class TubeConsume extends BaseConsume {
                     csmResult = pullMessageConsumer.getMessage();
                     if (csmResult.isSuccess()) {
                         List<Message> messageList = csmResult.getMessageList();
+                        List<byte[]> bodies = new ArrayList<>();
                         if (CollectionUtils.isNotEmpty(messageList)) {
                             for (Message message : messageList) {
                                 if (StringUtils.equals(message.getTopic(), topic)) {
-                                    String body = new String(message.getData(), StandardCharsets.UTF_8);
-                                    handleMessage(body);
+                                    bodies.add(message.getData());
                                 }
                             }
                         }
-                        pullMessageConsumer.confirmConsume(csmResult.getConfirmContext(), true);
+                        // the partition is released after the batch is written by all the insert services
+                        String confirmContext = csmResult.getConfirmContext();
+                        handleMessages(bodies, () -> confirm(confirmContext));
                     } else {
                         LOG.error("receive messages errorCode is {}, error meddage is {}", csmResult.getErrCode(),
                                 csmResult.getErrMsg());
@@ -144,5 +146,13 @@ public class TubeConsume extends BaseConsume {
 
             }
         }
+
+        private void confirm(String confirmContext) {
+            try {
+                pullMessageConsumer.confirmConsume(confirmContext, true);
+            } catch (TubeClientException e) {
+                LOG.error("tube consumer confirmConsume error {}", e.getMessage());
+            }
+        }
     }
 }
@@ -49,3 +49,74 @@ CREATE TABLE IF NOT EXISTS `audit_data`
     INDEX ip_packet (`ip`, `inlong_group_id`, `inlong_stream_id`, `log_ts`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8 COMMENT ='Inlong audit data table';
+
+-- ----------------------------
+-- Table structure for audit_data_minute
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `audit_data_minute`
+(
+    `id`               bigint(20)   NOT NULL PRIMARY KEY AUTO_INCREMENT COMMENT 'Incremental primary key',
+    `log_ts`           TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Start of the minute of the log timestamp',
+    `inlong_group_id`  varchar(100) NOT NULL DEFAULT '' COMMENT 'The target inlong group id',
+    `inlong_stream_id` varchar(100) NOT NULL DEFAULT '' COMMENT 'The target inlong stream id',
+    `audit_id`         varchar(100) NOT NULL DEFAULT '' COMMENT 'Audit id',
+    `ip`               varchar(32)  NOT NULL DEFAULT '' COMMENT 'Client IP',
+    `docker_id`        varchar(100) NOT NULL DEFAULT '' COMMENT 'Client docker id',
+    `count`            BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message count',
+    `size`             BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message size',
+    `delay`            BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message delay count',
+    `update_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
+    UNIQUE KEY unique_rollup (`inlong_group_id`, `inlong_stream_id`, `audit_id`, `log_ts`, `ip`, `docker_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8 COMMENT ='Inlong audit data rollup table by minute';
+
+-- ----------------------------
+-- Table structure for audit_data_hour
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `audit_data_hour`
+(
+    `id`               bigint(20)   NOT NULL PRIMARY KEY AUTO_INCREMENT COMMENT 'Incremental primary key',
+    `log_ts`           TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Start of the hour of the log timestamp',
+    `inlong_group_id`  varchar(100) NOT NULL DEFAULT '' COMMENT 'The target inlong group id',
+    `inlong_stream_id` varchar(100) NOT NULL DEFAULT '' COMMENT 'The target inlong stream id',
+    `audit_id`         varchar(100) NOT NULL DEFAULT '' COMMENT 'Audit id',
+    `ip`               varchar(32)  NOT NULL DEFAULT '' COMMENT 'Client IP',
+    `docker_id`        varchar(100) NOT NULL DEFAULT '' COMMENT 'Client docker id',
+    `count`            BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message count',
+    `size`             BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message size',
+    `delay`            BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message delay count',
+    `update_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
+    UNIQUE KEY unique_rollup (`inlong_group_id`, `inlong_stream_id`, `audit_id`, `log_ts`, `ip`, `docker_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8 COMMENT ='Inlong audit data rollup table by hour';
+
+-- ----------------------------
+-- Table structure for audit_data_day
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `audit_data_day`
+(
+    `id`               bigint(20)   NOT NULL PRIMARY KEY AUTO_INCREMENT COMMENT 'Incremental primary key',
+    `log_ts`           TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Start of the day of the log timestamp',
+    `inlong_group_id`  varchar(100) NOT NULL DEFAULT '' COMMENT 'The target inlong group id',
+    `inlong_stream_id` varchar(100) NOT NULL DEFAULT '' COMMENT 'The target inlong stream id',
+    `audit_id`         varchar(100) NOT NULL DEFAULT '' COMMENT 'Audit id',
+    `ip`               varchar(32)  NOT NULL DEFAULT '' COMMENT 'Client IP',
+    `docker_id`        varchar(100) NOT NULL DEFAULT '' COMMENT 'Client docker id',
+    `count`            BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message count',
+    `size`             BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message size',
+    `delay`            BIGINT       NOT NULL DEFAULT '0' COMMENT 'Message delay count',
+    `update_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
+    UNIQUE KEY unique_rollup (`inlong_group_id`, `inlong_stream_id`, `audit_id`, `log_ts`, `ip`, `docker_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8 COMMENT ='Inlong audit data rollup table by day';
+
+-- ----------------------------
+-- Table structure for audit_compaction_state
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `audit_compaction_state`
+(
+    `state_key`        varchar(100) NOT NULL PRIMARY KEY COMMENT 'State key',
+    `state_value`      BIGINT       NOT NULL DEFAULT '0' COMMENT 'State value',
+    `update_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time'
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8 COMMENT ='Inlong audit compaction state table';
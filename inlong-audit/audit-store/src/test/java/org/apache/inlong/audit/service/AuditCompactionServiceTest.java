@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service;
+
+import org.apache.inlong.audit.config.StoreConfig;
+import org.apache.inlong.audit.db.dao.AuditCompactionDao;
+import org.apache.inlong.audit.db.dao.AuditDataDao;
+import org.apache.inlong.audit.db.entities.AuditCompactionStatePo;
+import org.apache.inlong.audit.db.entities.AuditDataPo;
+import org.apache.inlong.audit.db.entities.AuditRollupPo;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class AuditCompactionServiceTest {
+
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    // table name -> (id -> row)
+    private final Map<String, TreeMap<Long, AuditRollupPo>> tables = new HashMap<>();
+    private final Map<String, Long> states = new HashMap<>();
+    private final List<AuditRollupPo> minuteRows = new ArrayList<>();
+    private final List<AuditRollupPo> hourRows = new ArrayList<>();
+    private final List<AuditRollupPo> dayRows = new ArrayList<>();
+    private int transactions = 0;
+
+    private final AuditDataDao dataDao = new AuditDataDao() {
+
+        @Override
+        public int insert(AuditDataPo auditDataPo) {
+            return 1;
+        }
+
+        @Override
+        public int upsertMinuteRollup(List<AuditRollupPo> list) {
+            minuteRows.addAll(list);
+            return list.size();
+        }
+
+        @Override
+        public int upsertHourRollup(List<AuditRollupPo> list) {
+            hourRows.addAll(list);
+            return list.size();
+        }
+
+        @Override
+        public int upsertDayRollup(List<AuditRollupPo> list) {
+            dayRows.addAll(list);
+            return list.size();
+        }
+    };
+
+    private final AuditCompactionDao compactionDao = new AuditCompactionDao() {
+
+        @Override
+        public Long selectMaxId(String table) {
+            return table(table).isEmpty() ? null : table(table).lastKey();
+        }
+
+        @Override
+        public Long selectMinExpiredId(String table, long fromId, long maxId, Date expireTime) {
+            if (fromId > maxId) {
+                return null;
+            }
+            for (Map.Entry<Long, AuditRollupPo> entry : table(table).subMap(fromId, true, maxId, true).entrySet()) {
+                if (entry.getValue().getLogTs().before(expireTime)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<AuditRollupPo> selectRawRollup(long fromId, long toId, Date expireTime) {
+            Map<String, AuditRollupPo> result = new HashMap<>();
+            TreeMap<Long, AuditRollupPo> raw = table(AuditCompactionService.RAW_TABLE);
+            for (Map.Entry<Long, AuditRollupPo> entry : raw.subMap(fromId, toId).entrySet()) {
+                AuditRollupPo row = entry.getValue();
+                if (!row.getLogTs().before(expireTime) || raw.tailMap(entry.getKey(), false).values().stream()
+                        .anyMatch(later -> isDuplicated(row, later))) {
+                    continue;
+                }
+                long minute = row.getLogTs().getTime() / 60000 * 60000;
+                result.merge(minute + "_" + row.getAuditId(), createRow(minute, row.getAuditId(), row.getCount()),
+                        (a, b) -> createRow(minute, a.getAuditId(), a.getCount() + b.getCount()));
+            }
+            return new ArrayList<>(result.values());
+        }
+
+        @Override
+        public int deleteExpired(String table, long fromId, long toId, Date expireTime) {
+            List<AuditRollupPo> rows = new ArrayList<>(table(table).subMap(fromId, toId).values());
+            rows.removeIf(row -> !row.getLogTs().before(expireTime));
+            table(table).values().removeAll(rows);
+            return rows.size();
+        }
+
+        @Override
+        public int insertState(String key, long value) {
+            return states.putIfAbsent(key, value) == null ? 1 : 0;
+        }
+
+        @Override
+        public int updateState(String key, long value) {
+            return states.replace(key, value) == null ? 0 : 1;
+        }
+
+        @Override
+        public List<AuditCompactionStatePo> selectStates(String prefix) {
+            return states.entrySet().stream().filter(entry -> entry.getKey().startsWith(prefix)).map(entry -> {
+                AuditCompactionStatePo state = new AuditCompactionStatePo();
+                state.setStateKey(entry.getKey());
+                state.setStateValue(entry.getValue());
+                return state;
+            }).collect(Collectors.toList());
+        }
+
+        @Override
+        public int deleteState(String key) {
+            return states.remove(key) == null ? 0 : 1;
+        }
+
+        @Override
+        public Long selectAvgRowLength(String table) {
+            return 100L;
+        }
+    };
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate() {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            transactions++;
+            return action.doInTransaction(null);
+        }
+    };
+
+    private TreeMap<Long, AuditRollupPo> table(String table) {
+        return tables.computeIfAbsent(table, k -> new TreeMap<>());
+    }
+
+    private static AuditRollupPo createRow(long logTs, String auditId, long count) {
+        AuditRollupPo row = new AuditRollupPo();
+        row.setLogTs(new Date(logTs));
+        row.setInlongGroupId("group");
+        row.setInlongStreamId("stream");
+        row.setAuditId(auditId);
+        row.setIp("127.0.0.1");
+        row.setDockerId("docker");
+        row.setCount(count);
+        row.setSize(count * 10);
+        row.setDelay(count * 100);
+        return row;
+    }
+
+    private static boolean isDuplicated(AuditRollupPo row, AuditRollupPo other) {
+        return row.getLogTs().equals(other.getLogTs()) && row.getAuditId().equals(other.getAuditId())
+                && row.getCount().equals(other.getCount());
+    }
+
+    private AuditCompactionService createService(boolean rollupEnable) {
+        StoreConfig storeConfig = new StoreConfig();
+        storeConfig.setMysqlRollupEnable(rollupEnable);
+        storeConfig.setRollupBatchSize(2);
+        storeConfig.setCompactionChunkRows(10);
+        storeConfig.setRawRetentionDays(7);
+        storeConfig.setMinuteRetentionDays(30);
+        storeConfig.setHourRetentionDays(0);
+        storeConfig.setDayRetentionDays(0);
+        return new AuditCompactionService(dataDao, compactionDao, storeConfig, transactionTemplate);
+    }
+
+    private static long sumCount(List<AuditRollupPo> rows) {
+        return rows.stream().mapToLong(AuditRollupPo::getCount).sum();
+    }
+
+    @Test
+    public void testDeleteExpired() {
+        long now = System.currentTimeMillis();
+        // ids 1 - 25 are expired, 26 - 30 are not
+        for (long id = 1; id <= 30; id++) {
+            long logTs = id <= 25 ? now - 40 * DAY_MS : now - DAY_MS;
+            table(AuditCompactionService.MINUTE_TABLE).put(id, createRow(logTs, "1", 1));
+            table(AuditCompactionService.HOUR_TABLE).put(id, createRow(logTs, "1", 1));
+        }
+        AuditCompactionService service = createService(true);
+        service.compact();
+
+        Assert.assertEquals(5, table(AuditCompactionService.MINUTE_TABLE).size());
+        Assert.assertEquals(Long.valueOf(26), table(AuditCompactionService.MINUTE_TABLE).firstKey());
+        // the hour table is kept forever
+        Assert.assertEquals(30, table(AuditCompactionService.HOUR_TABLE).size());
+        Assert.assertEquals(25, service.getDeletedRows());
+        Assert.assertEquals(2500, service.getReclaimedBytes());
+        Assert.assertEquals(0, service.getCompactedRows());
+        Assert.assertEquals(0, transactions);
+        Assert.assertTrue(minuteRows.isEmpty());
+
+        // nothing expired any more
+        service.compact();
+        Assert.assertEquals(25, service.getDeletedRows());
+    }
+
+    @Test
+    public void testRollupRaw() {
+        long now = System.currentTimeMillis();
+        long expired = now - 10 * DAY_MS;
+        for (long id = 1; id <= 15; id++) {
+            table(AuditCompactionService.RAW_TABLE).put(id, createRow(expired + id * 1000, String.valueOf(id % 2), 1));
+        }
+        table(AuditCompactionService.RAW_TABLE).put(16L, createRow(now, "1", 1));
+
+        AuditCompactionService service = createService(false);
+        service.compact();
+
+        Assert.assertEquals(1, table(AuditCompactionService.RAW_TABLE).size());
+        Assert.assertEquals(15, service.getDeletedRows());
+        // the data of the chunk is written to all the rollup tables before it is deleted
+        Assert.assertEquals(15, sumCount(minuteRows));
+        Assert.assertEquals(15, sumCount(hourRows));
+        Assert.assertEquals(15, sumCount(dayRows));
+        for (AuditRollupPo row : dayRows) {
+            Assert.assertEquals(AuditRollupService.truncate(row.getLogTs().getTime(), DAY_MS),
+                    row.getLogTs().getTime());
+            Assert.assertEquals(Long.valueOf(row.getCount() * 10), row.getSize());
+        }
+        Assert.assertEquals(minuteRows.size() + hourRows.size() + dayRows.size(), service.getCompactedRows());
+        // one transaction per chunk
+        Assert.assertEquals(2, transactions);
+        service.close();
+    }
+
+    @Test
+    public void testSkipUnexpiredChunk() {
+        long now = System.currentTimeMillis();
+        // the lowest ids have a future log time
+        for (long id = 1; id <= 30; id++) {
+            long logTs = id <= 12 ? now + DAY_MS : now - 40 * DAY_MS;
+            table(AuditCompactionService.MINUTE_TABLE).put(id, createRow(logTs, "1", 1));
+        }
+        AuditCompactionService service = createService(true);
+        service.compact();
+        Assert.assertEquals(12, table(AuditCompactionService.MINUTE_TABLE).size());
+        Assert.assertEquals(Long.valueOf(12), table(AuditCompactionService.MINUTE_TABLE).lastKey());
+        Assert.assertEquals(18, service.getDeletedRows());
+    }
+
+    @Test
+    public void testDedupAcrossChunks() {
+        long expired = System.currentTimeMillis() - 10 * DAY_MS;
+        // the same data is in the chunks of 1 - 10 and 11 - 20
+        table(AuditCompactionService.RAW_TABLE).put(1L, createRow(expired, "1", 3));
+        table(AuditCompactionService.RAW_TABLE).put(5L, createRow(expired, "1", 3));
+        table(AuditCompactionService.RAW_TABLE).put(15L, createRow(expired, "1", 3));
+        table(AuditCompactionService.RAW_TABLE).put(16L, createRow(expired, "2", 1));
+
+        AuditCompactionService service = createService(false);
+        service.compact();
+        Assert.assertTrue(table(AuditCompactionService.RAW_TABLE).isEmpty());
+        Assert.assertEquals(4, service.getDeletedRows());
+        Assert.assertEquals(4, sumCount(minuteRows));
+        Assert.assertEquals(4, sumCount(dayRows));
+    }
+
+    @Test
+    public void testRollupRawOutOfRollupRange() {
+        long now = System.currentTimeMillis();
+        long expired = now - 10 * DAY_MS;
+        for (long id = 1; id <= 15; id++) {
+            table(AuditCompactionService.RAW_TABLE).put(id, createRow(expired + id * 1000, "1", 1));
+        }
+        // the rollup service is enabled after id 15
+        AuditCompactionService.recordRollupRange(compactionDao, true);
+        for (long id = 16; id <= 20; id++) {
+            table(AuditCompactionService.RAW_TABLE).put(id, createRow(expired + id * 1000, "1", 1));
+        }
+        table(AuditCompactionService.RAW_TABLE).put(21L, createRow(now, "1", 1));
+        // the start is kept after restart
+        AuditCompactionService.recordRollupRange(compactionDao, true);
+        Assert.assertEquals(Long.valueOf(AuditCompactionService.OPEN_END),
+                states.get(AuditCompactionService.ROLLUP_RANGE_PREFIX + 16));
+        Assert.assertEquals(1, states.size());
+
+        AuditCompactionService service = createService(true);
+        service.compact();
+        Assert.assertEquals(1, table(AuditCompactionService.RAW_TABLE).size());
+        Assert.assertEquals(20, service.getDeletedRows());
+        // only the raw data before the rollup service is rolled up
+        Assert.assertEquals(15, sumCount(minuteRows));
+        Assert.assertEquals(15, sumCount(hourRows));
+    }
+
+    @Test
+    public void testRollupRangeKeptAfterDisabled() {
+        long expired = System.currentTimeMillis() - 10 * DAY_MS;
+        for (long id = 1; id <= 5; id++) {
+            table(AuditCompactionService.RAW_TABLE).put(id, createRow(expired, String.valueOf(id), 1));
+        }
+        // ids 6 - 10 are written by the rollup service, ids 11 - 15 are written after it is disabled
+        AuditCompactionService.recordRollupRange(compactionDao, true);
+        for (long id = 6; id <= 10; id++) {
+            table(AuditCompactionService.RAW_TABLE).put(id, createRow(expired, String.valueOf(id), 1));
+        }
+        AuditCompactionService.recordRollupRange(compactionDao, false);
+        Assert.assertEquals(Long.valueOf(11), states.get(AuditCompactionService.ROLLUP_RANGE_PREFIX + 6));
+        for (long id = 11; id <= 15; id++) {
+            table(AuditCompactionService.RAW_TABLE).put(id, createRow(expired, String.valueOf(id), 1));
+        }
+        // disabled again without new data, the empty range is not kept
+        AuditCompactionService.recordRollupRange(compactionDao, true);
+        AuditCompactionService.recordRollupRange(compactionDao, false);
+        Assert.assertEquals(1, states.size());
+
+        AuditCompactionService service = createService(false);
+        service.compact();
+        Assert.assertTrue(table(AuditCompactionService.RAW_TABLE).isEmpty());
+        Assert.assertEquals(15, service.getDeletedRows());
+        // the data in the rollup range is not counted twice
+        Assert.assertEquals(10, sumCount(minuteRows));
+        Assert.assertEquals(10, sumCount(dayRows));
+        // chunks of 1 - 5 and 11 - 15 are rolled up
+        Assert.assertEquals(2, transactions);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service;
+
+import org.apache.inlong.audit.config.StoreConfig;
+import org.apache.inlong.audit.db.dao.AuditDataDao;
+import org.apache.inlong.audit.db.entities.AuditDataPo;
+import org.apache.inlong.audit.db.entities.AuditRollupPo;
+import org.apache.inlong.audit.protocol.AuditData;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AuditRollupServiceTest {
+
+    private final List<AuditRollupPo> minuteRows = new ArrayList<>();
+    private final List<AuditRollupPo> hourRows = new ArrayList<>();
+    private final List<AuditRollupPo> dayRows = new ArrayList<>();
+    private boolean failed = false;
+
+    private final AuditDataDao dao = new AuditDataDao() {
+
+        @Override
+        public int insert(AuditDataPo auditDataPo) {
+            return 1;
+        }
+
+        @Override
+        public int upsertMinuteRollup(List<AuditRollupPo> list) {
+            if (failed) {
+                throw new IllegalStateException("mysql is down");
+            }
+            minuteRows.addAll(list);
+            return list.size();
+        }
+
+        @Override
+        public int upsertHourRollup(List<AuditRollupPo> list) {
+            hourRows.addAll(list);
+            return list.size();
+        }
+
+        @Override
+        public int upsertDayRollup(List<AuditRollupPo> list) {
+            dayRows.addAll(list);
+            return list.size();
+        }
+    };
+
+    private AuditRollupService createService() {
+        StoreConfig storeConfig = new StoreConfig();
+        storeConfig.setRollupBatchSize(2);
+        storeConfig.setRollupDedupCacheSize(100);
+        storeConfig.setRollupMaxRetryRows(100);
+        return new AuditRollupService(dao, storeConfig);
+    }
+
+    private static AuditData createData(long logTs, String auditId, long packetId, long count) {
+        AuditData data = new AuditData();
+        data.setIp("127.0.0.1");
+        data.setDockerId("docker");
+        data.setThreadId("1");
+        data.setSdkTs(logTs);
+        data.setPacketId(packetId);
+        data.setLogTs(logTs);
+        data.setInlongGroupId("group");
+        data.setInlongStreamId("stream");
+        data.setAuditId(auditId);
+        data.setCount(count);
+        data.setSize(count * 10);
+        data.setDelay(count * 100);
+        return data;
+    }
+
+    private static Map<String, Long> sumByKey(List<AuditRollupPo> rows) {
+        Map<String, Long> result = new HashMap<>();
+        for (AuditRollupPo row : rows) {
+            result.merge(row.getLogTs().getTime() + "_" + row.getAuditId(), row.getCount(), Long::sum);
+        }
+        return result;
+    }
+
+    @Test
+    public void testRollup() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2023, Calendar.JANUARY, 1, 10, 0, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        long hour = calendar.getTimeInMillis();
+        long minute = hour + 60 * 1000L;
+
+        AuditRollupService service = createService();
+        service.insert(createData(hour + 1000, "1", 1, 1));
+        service.insert(createData(hour + 2000, "1", 2, 2));
+        service.insert(createData(minute + 3000, "1", 3, 3));
+        service.insert(createData(minute + 4000, "2", 4, 4));
+        // duplicated packet
+        service.insert(createData(minute + 4000, "2", 4, 4));
+        service.flush();
+
+        Map<String, Long> minuteSum = sumByKey(minuteRows);
+        Assert.assertEquals(3, minuteSum.size());
+        Assert.assertEquals(Long.valueOf(3), minuteSum.get(hour + "_1"));
+        Assert.assertEquals(Long.valueOf(3), minuteSum.get(minute + "_1"));
+        Assert.assertEquals(Long.valueOf(4), minuteSum.get(minute + "_2"));
+
+        Map<String, Long> hourSum = sumByKey(hourRows);
+        Assert.assertEquals(2, hourSum.size());
+        Assert.assertEquals(Long.valueOf(6), hourSum.get(hour + "_1"));
+        Assert.assertEquals(Long.valueOf(4), hourSum.get(hour + "_2"));
+
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        long day = calendar.getTimeInMillis();
+        Map<String, Long> daySum = sumByKey(dayRows);
+        Assert.assertEquals(2, daySum.size());
+        Assert.assertEquals(Long.valueOf(6), daySum.get(day + "_1"));
+        Assert.assertEquals(Long.valueOf(4), daySum.get(day + "_2"));
+        for (AuditRollupPo row : hourRows) {
+            Assert.assertEquals(Long.valueOf(row.getCount() * 10), row.getSize());
+            Assert.assertEquals(Long.valueOf(row.getCount() * 100), row.getDelay());
+        }
+    }
+
+    @Test
+    public void testRetry() {
+        long logTs = System.currentTimeMillis();
+        AuditRollupService service = createService();
+        service.insert(createData(logTs, "1", 1, 1));
+        failed = true;
+        service.flush();
+        Assert.assertTrue(minuteRows.isEmpty());
+        Assert.assertEquals(1, hourRows.size());
+
+        // the failed rows are merged with the new data
+        service.insert(createData(logTs, "1", 2, 2));
+        failed = false;
+        service.flush();
+        Assert.assertEquals(1, minuteRows.size());
+        Assert.assertEquals(Long.valueOf(3), minuteRows.get(0).getCount());
+        Assert.assertEquals(2, hourRows.size());
+        service.close();
+    }
+
+    @Test
+    public void testHoldCallbackUntilWritten() {
+        long logTs = System.currentTimeMillis();
+        AtomicInteger written = new AtomicInteger(0);
+        AuditRollupService service = createService();
+        List<AuditData> batch = new ArrayList<>();
+        batch.add(createData(logTs, "1", 1, 1));
+        service.insertBatch(batch, written::incrementAndGet);
+        // the batch is buffered until the flush
+        Assert.assertTrue(minuteRows.isEmpty());
+        Assert.assertEquals(0, written.get());
+
+        failed = true;
+        service.flush();
+        Assert.assertEquals(0, written.get());
+
+        // the callback is held until the retried rows are written
+        List<AuditData> next = new ArrayList<>();
+        next.add(createData(logTs, "1", 2, 2));
+        service.insertBatch(next, written::incrementAndGet);
+        failed = false;
+        service.flush();
+        Assert.assertEquals(2, written.get());
+        Assert.assertEquals(Long.valueOf(3), minuteRows.get(0).getCount());
+        service.close();
+    }
+}
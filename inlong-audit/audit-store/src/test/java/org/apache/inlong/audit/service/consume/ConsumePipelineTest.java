@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service.consume;
+
+import org.apache.inlong.audit.protocol.AuditData;
+import org.apache.inlong.audit.service.InsertData;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConsumePipelineTest {
+
+    private static List<byte[]> bodies(int start, int count) {
+        List<byte[]> bodies = new ArrayList<>();
+        for (int i = start; i < start + count; i++) {
+            bodies.add(("{\"packetId\":" + i + ",\"count\":1}").getBytes(StandardCharsets.UTF_8));
+        }
+        return bodies;
+    }
+
+    /**
+     * the batches are acked in order after all the services have written them
+     */
+    @Test
+    public void testAckAfterAllWritten() throws Exception {
+        List<Long> fastPackets = new CopyOnWriteArrayList<>();
+        List<Long> slowPackets = new CopyOnWriteArrayList<>();
+        CountDownLatch slowLatch = new CountDownLatch(1);
+        InsertData fast = msgBody -> fastPackets.add(msgBody.getPacketId());
+        InsertData slow = msgBody -> {
+            try {
+                slowLatch.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            slowPackets.add(msgBody.getPacketId());
+        };
+        ConsumePipeline pipeline = new ConsumePipeline(Arrays.asList(fast, slow), 4, 16, 8, 0);
+        pipeline.start();
+        List<Integer> acks = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final int batch = i;
+            Assert.assertTrue(pipeline.submit(bodies(i * 10, 10), () -> acks.add(batch)));
+        }
+        // the slow service does not stall the fast one
+        long deadline = System.currentTimeMillis() + 5000;
+        while (fastPackets.size() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(100, fastPackets.size());
+        Assert.assertTrue(acks.isEmpty());
+        Assert.assertEquals(10, pipeline.getInFlightCount());
+
+        slowLatch.countDown();
+        while (acks.size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), acks);
+        Assert.assertEquals(100, slowPackets.size());
+        Assert.assertEquals(0, pipeline.getInFlightCount());
+        pipeline.close();
+    }
+
+    /**
+     * the failed batch is retried, and the empty batch is acked in order
+     */
+    @Test
+    public void testRetry() throws Exception {
+        AtomicInteger failures = new AtomicInteger(1);
+        List<Long> packets = new CopyOnWriteArrayList<>();
+        InsertData service = new InsertData() {
+
+            @Override
+            public void insert(AuditData msgBody) {
+                packets.add(msgBody.getPacketId());
+            }
+
+            @Override
+            public void insertBatch(List<AuditData> batch) throws Exception {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("store is down");
+                }
+                InsertData.super.insertBatch(batch);
+            }
+        };
+        ConsumePipeline pipeline = new ConsumePipeline(Collections.singletonList(service), 1, 4, 4, 3);
+        pipeline.start();
+        CountDownLatch latch = new CountDownLatch(2);
+        List<Integer> acks = new CopyOnWriteArrayList<>();
+        pipeline.submit(bodies(0, 5), () -> {
+            acks.add(0);
+            latch.countDown();
+        });
+        pipeline.submit(Collections.emptyList(), () -> {
+            acks.add(1);
+            latch.countDown();
+        });
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(0, 1), acks);
+        Assert.assertEquals(5, packets.size());
+        pipeline.close();
+        Assert.assertFalse(pipeline.submit(bodies(0, 1), () -> acks.add(2)));
+    }
+
+    /**
+     * the batch is not acked before it is written
+     */
+    @Test
+    public void testNoAckBeforeWritten() throws Exception {
+        AtomicInteger writes = new AtomicInteger(0);
+        InsertData service = new InsertData() {
+
+            @Override
+            public void insert(AuditData msgBody) {
+            }
+
+            @Override
+            public void insertBatch(List<AuditData> batch) throws Exception {
+                writes.incrementAndGet();
+                throw new IllegalStateException("store is down");
+            }
+        };
+        ConsumePipeline pipeline = new ConsumePipeline(Collections.singletonList(service), 1, 4, 4, 0);
+        pipeline.start();
+        List<Integer> acks = new CopyOnWriteArrayList<>();
+        pipeline.submit(bodies(0, 5), () -> acks.add(0));
+        // retried after the max retries
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writes.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(writes.get() >= 2);
+        Assert.assertTrue(acks.isEmpty());
+        Assert.assertEquals(1, pipeline.getInFlightCount());
+        pipeline.close();
+        Thread.sleep(1500);
+        Assert.assertTrue(acks.isEmpty());
+    }
+
+    /**
+     * the batch is acked when the service calls the written callback held by it
+     */
+    @Test
+    public void testDeferredAck() throws Exception {
+        List<Runnable> held = new CopyOnWriteArrayList<>();
+        InsertData service = new InsertData() {
+
+            @Override
+            public void insert(AuditData msgBody) {
+            }
+
+            @Override
+            public void insertBatch(List<AuditData> batch, Runnable written) {
+                held.add(written);
+            }
+        };
+        ConsumePipeline pipeline = new ConsumePipeline(Collections.singletonList(service), 1, 4, 4, 0);
+        pipeline.start();
+        List<Integer> acks = new CopyOnWriteArrayList<>();
+        pipeline.submit(bodies(0, 5), () -> acks.add(0));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (held.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, held.size());
+        Assert.assertTrue(acks.isEmpty());
+        Assert.assertEquals(1, pipeline.getInFlightCount());
+
+        held.forEach(Runnable::run);
+        Assert.assertEquals(Collections.singletonList(0), acks);
+        Assert.assertEquals(0, pipeline.getInFlightCount());
+        pipeline.close();
+    }
+}
@@ -43,4 +43,24 @@ public interface AuditEntityMapper {
             @Param(value = "sDate") String sDate,
             @Param(value = "eDate") String eDate,
             @Param(value = "format") String format);
+
+    /**
+     * sumByLogTs from the rollup tables which are pre-aggregated by the audit store
+     *
+     * @param groupId The groupId of inlong
+     * @param streamId The streamId of inlong
+     * @param auditId The auditId of inlong
+     * @param sDate The start date
+     * @param eDate The end date
+     * @param format The format such as '%Y-%m-%d %H:%i:00'
+     * @param rollupDim The rollup table to query, DAY, HOUR, or MINUTE
+     * @return The result of query
+     */
+    List<Map<String, Object>> sumRollupByLogTs(@Param(value = "groupId") String groupId,
+            @Param(value = "streamId") String streamId,
+            @Param(value = "auditId") String auditId,
+            @Param(value = "sDate") String sDate,
+            @Param(value = "eDate") String eDate,
+            @Param(value = "format") String format,
+            @Param(value = "rollupDim") String rollupDim);
 }
\ No newline at end of file
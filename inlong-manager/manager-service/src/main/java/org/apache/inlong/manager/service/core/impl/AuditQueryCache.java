@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.manager.service.core.impl;
+
+import org.apache.inlong.manager.common.enums.TimeStaticsDim;
+import org.apache.inlong.manager.pojo.audit.AuditInfo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Audit query cache, keeps the audit infos of the closed time buckets of every day, which are not changed any more,
+ * so only the open buckets are queried again. The concurrent identical queries are coalesced into one query,
+ * and the cache is bounded by the count of the audit infos.
+ */
+public class AuditQueryCache {
+
+    private static final DateTimeFormatter LOG_TS_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int LOG_TS_LENGTH = 19;
+
+    // key: query key and start of the day, value: audit infos of the closed buckets of the day
+    private final Cache<String, ClosedBuckets> closedCache;
+    // key: query key, start of the day and start of the query, value: the query in progress
+    private final Map<String, CompletableFuture<List<AuditInfo>>> loadingMap = new ConcurrentHashMap<>();
+    private final long closeDelayMs;
+    private final LongSupplier clock;
+
+    /**
+     * Constructor
+     *
+     * @param maxAuditInfos max count of the cached audit infos
+     * @param closeDelayMs delay after the end of a bucket before it is treated as closed, for the late audit data
+     */
+    public AuditQueryCache(long maxAuditInfos, long closeDelayMs) {
+        this(maxAuditInfos, closeDelayMs, System::currentTimeMillis);
+    }
+
+    AuditQueryCache(long maxAuditInfos, long closeDelayMs, LongSupplier clock) {
+        this.closeDelayMs = closeDelayMs;
+        this.clock = clock;
+        this.closedCache = Caffeine.newBuilder()
+                .maximumWeight(maxAuditInfos)
+                .weigher((String key, ClosedBuckets value) -> value.auditInfos.size() + 1)
+                .build();
+    }
+
+    /**
+     * Get the audit infos of one day
+     *
+     * @param key key of the query, such as the query source, group id, stream id and audit id
+     * @param day start of the day
+     * @param bucketDim dim of the buckets, DAY, HOUR, or MINUTE
+     * @param loader query the audit infos between the start time (inclusive) and the end time (exclusive)
+     * @return audit infos of the day, should not be modified
+     */
+    public List<AuditInfo> get(String key, DateTime day, TimeStaticsDim bucketDim, AuditLoader loader)
+            throws Exception {
+        DateTime dayStart = day.withTimeAtStartOfDay();
+        DateTime dayEnd = dayStart.plusDays(1);
+        String dayKey = key + "|" + dayStart.getMillis();
+        ClosedBuckets cached = closedCache.getIfPresent(dayKey);
+        long from = cached == null ? dayStart.getMillis() : cached.closedUntil;
+        if (from >= dayEnd.getMillis()) {
+            return cached.auditInfos;
+        }
+
+        List<AuditInfo> loaded = load(dayKey + "|" + from, () -> loader.load(new DateTime(from), dayEnd));
+        long closedUntil = Math.min(floor(clock.getAsLong() - closeDelayMs, bucketDim), dayEnd.getMillis());
+        List<AuditInfo> closed = new ArrayList<>();
+        List<AuditInfo> open = new ArrayList<>();
+        boolean cacheable = closedUntil > from;
+        for (AuditInfo auditInfo : loaded) {
+            Long logTs = parseLogTs(auditInfo.getLogTs());
+            if (logTs == null) {
+                // unknown time, do not cache the result
+                cacheable = false;
+                open.add(auditInfo);
+            } else if (logTs < closedUntil) {
+                closed.add(auditInfo);
+            } else {
+                open.add(auditInfo);
+            }
+        }
+
+        List<AuditInfo> result = new ArrayList<>();
+        if (cached != null) {
+            result.addAll(cached.auditInfos);
+        }
+        result.addAll(closed);
+        if (cacheable) {
+            ClosedBuckets buckets = new ClosedBuckets(Collections.unmodifiableList(new ArrayList<>(result)),
+                    closedUntil);
+            closedCache.asMap().merge(dayKey, buckets,
+                    (old, current) -> old.closedUntil >= current.closedUntil ? old : current);
+        }
+        result.addAll(open);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Query once for the concurrent identical queries
+     */
+    private List<AuditInfo> load(String loadKey, AuditSupplier supplier) throws Exception {
+        CompletableFuture<List<AuditInfo>> future = new CompletableFuture<>();
+        CompletableFuture<List<AuditInfo>> loading = loadingMap.putIfAbsent(loadKey, future);
+        if (loading != null) {
+            try {
+                return loading.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+        try {
+            List<AuditInfo> auditInfos = Collections.unmodifiableList(supplier.get());
+            future.complete(auditInfos);
+            return auditInfos;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            loadingMap.remove(loadKey, future);
+        }
+    }
+
+    private static long floor(long time, TimeStaticsDim bucketDim) {
+        DateTime dateTime = new DateTime(time);
+        switch (bucketDim) {
+            case DAY:
+                return dateTime.withTimeAtStartOfDay().getMillis();
+            case HOUR:
+                return dateTime.hourOfDay().roundFloorCopy().getMillis();
+            default:
+                return dateTime.minuteOfHour().roundFloorCopy().getMillis();
+        }
+    }
+
+    private static Long parseLogTs(String logTs) {
+        if (logTs == null || logTs.length() < LOG_TS_LENGTH) {
+            return null;
+        }
+        try {
+            return LOG_TS_FORMATTER.parseMillis(logTs.substring(0, LOG_TS_LENGTH));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the count of the cached days
+     */
+    public long size() {
+        closedCache.cleanUp();
+        return closedCache.estimatedSize();
+    }
+
+    /**
+     * Query the audit infos between the start time (inclusive) and the end time (exclusive)
+     */
+    @FunctionalInterface
+    public interface AuditLoader {
+
+        List<AuditInfo> load(DateTime start, DateTime end) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface AuditSupplier {
+
+        List<AuditInfo> get() throws Exception;
+    }
+
+    private static class ClosedBuckets {
+
+        private final List<AuditInfo> auditInfos;
+        // the buckets before the time are closed
+        private final long closedUntil;
+
+        private ClosedBuckets(List<AuditInfo> auditInfos, long closedUntil) {
+            this.auditInfos = auditInfos;
+            this.closedUntil = closedUntil;
+        }
+    }
+}
@@ -55,6 +55,7 @@ import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.bucket.terms.ParsedTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.metrics.sum.ParsedSum;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -86,9 +87,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
 import static org.elasticsearch.index.query.QueryBuilders.termQuery;
 
 /**
@@ -121,6 +123,20 @@ public class AuditServiceImpl implements AuditService {
     @Value("${audit.query.source}")
     private String auditQuerySource;
 
+    // query the minute, hour and day rollup tables written by the audit store instead of the raw audit data
+    @Value("${audit.query.mysql.rollup.enable:false}")
+    private boolean mysqlRollupEnable;
+
+    // cache the audit infos of the closed time buckets
+    @Value("${audit.query.cache.enable:true}")
+    private boolean queryCacheEnable;
+    @Value("${audit.query.cache.max.infos:1000000}")
+    private long queryCacheMaxInfos;
+    // the time bucket is closed after the delay, the later audit data of it is not shown
+    @Value("${audit.query.cache.close.delay.minutes:10}")
+    private long queryCacheCloseDelayMinutes;
+    private AuditQueryCache queryCache;
+
     @Autowired
     private AuditBaseEntityMapper auditBaseMapper;
     @Autowired
@@ -139,6 +155,10 @@ public class AuditServiceImpl implements AuditService {
     @PostConstruct
     public void initialize() {
         LOGGER.info("init audit base item cache map for {}", AuditServiceImpl.class.getSimpleName());
+        if (queryCacheEnable) {
+            queryCache = new AuditQueryCache(queryCacheMaxInfos,
+                    TimeUnit.MINUTES.toMillis(queryCacheCloseDelayMinutes));
+        }
         try {
             refreshBaseItemCache();
         } catch (Throwable t) {
@@ -253,66 +273,108 @@ public class AuditServiceImpl implements AuditService {
 
         List<AuditVO> result = new ArrayList<>();
         AuditQuerySource querySource = AuditQuerySource.valueOf(auditQuerySource);
+        DateTime startDate = DAY_DATE_FORMATTER.parseDateTime(request.getStartDate());
+        DateTime endDate = DAY_DATE_FORMATTER.parseDateTime(request.getEndDate()).plusDays(1);
+        // the rollup of the same dim is enough for the hour and day statics
+        TimeStaticsDim rollupDim = TimeStaticsDim.MINUTE;
+        if (AuditQuerySource.MYSQL == querySource && mysqlRollupEnable
+                && (request.getTimeStaticsDim() == TimeStaticsDim.HOUR
+                        || request.getTimeStaticsDim() == TimeStaticsDim.DAY)) {
+            rollupDim = request.getTimeStaticsDim();
+        }
         for (String auditId : request.getAuditIds()) {
-            if (AuditQuerySource.MYSQL == querySource) {
-                String format = "%Y-%m-%d %H:%i:00";
-                // Support min agg at now
-                DateTime endDate = DAY_DATE_FORMATTER.parseDateTime(request.getEndDate());
-                String endDateStr = endDate.plusDays(1).toString(DAY_DATE_FORMATTER);
-                List<Map<String, Object>> sumList = auditEntityMapper.sumByLogTs(
-                        groupId, streamId, auditId, request.getStartDate(), endDateStr, format);
-                List<AuditInfo> auditSet = sumList.stream().map(s -> {
-                    AuditInfo vo = new AuditInfo();
-                    vo.setLogTs((String) s.get("logTs"));
-                    vo.setCount(((BigDecimal) s.get("total")).longValue());
-                    vo.setCount(((BigDecimal) s.get("totalDelay")).longValue());
-                    return vo;
-                }).collect(Collectors.toList());
-                result.add(new AuditVO(auditId, auditSet,
-                        auditId.equals(getAuditId(sinkNodeType, true)) ? sinkNodeType : null));
-            } else if (AuditQuerySource.ELASTICSEARCH == querySource) {
-                String index = String.format("%s_%s", request.getStartDate().replaceAll("-", ""), auditId);
+            List<AuditInfo> auditSet = queryAuditInfo(querySource, groupId, streamId, auditId, startDate, endDate,
+                    rollupDim);
+            if (AuditQuerySource.ELASTICSEARCH == querySource && auditSet.isEmpty()) {
+                continue;
+            }
+            result.add(new AuditVO(auditId, auditSet,
+                    auditId.equals(getAuditId(sinkNodeType, true)) ? sinkNodeType : null));
+        }
+        LOGGER.info("success to query audit list for request={}", request);
+        return aggregateByTimeDim(result, request.getTimeStaticsDim());
+    }
+
+    /**
+     * Query the audit infos, the closed time buckets are got from the query cache if it is enabled
+     */
+    private List<AuditInfo> queryAuditInfo(AuditQuerySource querySource, String groupId, String streamId,
+            String auditId, DateTime start, DateTime end, TimeStaticsDim rollupDim) throws Exception {
+        if (queryCache == null) {
+            return loadAuditInfo(querySource, groupId, streamId, auditId, start, end, rollupDim);
+        }
+        String key = String.join("|", querySource.name(), groupId, streamId, auditId, rollupDim.name());
+        List<AuditInfo> auditSet = new ArrayList<>();
+        for (DateTime day = start; day.isBefore(end); day = day.plusDays(1)) {
+            auditSet.addAll(queryCache.get(key, day, rollupDim,
+                    (from, to) -> loadAuditInfo(querySource, groupId, streamId, auditId, from, to, rollupDim)));
+        }
+        return auditSet;
+    }
+
+    /**
+     * Query the audit infos between the start time (inclusive) and the end time (exclusive) from the query source
+     */
+    private List<AuditInfo> loadAuditInfo(AuditQuerySource querySource, String groupId, String streamId,
+            String auditId, DateTime start, DateTime end, TimeStaticsDim rollupDim) throws Exception {
+        List<AuditInfo> auditSet = new ArrayList<>();
+        if (AuditQuerySource.MYSQL == querySource) {
+            String format = "%Y-%m-%d %H:%i:00";
+            List<Map<String, Object>> sumList;
+            if (mysqlRollupEnable) {
+                sumList = auditEntityMapper.sumRollupByLogTs(groupId, streamId, auditId,
+                        start.toString(SECOND_FORMAT), end.toString(SECOND_FORMAT), format, rollupDim.name());
+            } else {
+                sumList = auditEntityMapper.sumByLogTs(groupId, streamId, auditId,
+                        start.toString(SECOND_FORMAT), end.toString(SECOND_FORMAT), format);
+            }
+            for (Map<String, Object> s : sumList) {
+                AuditInfo vo = new AuditInfo();
+                vo.setLogTs((String) s.get("logTs"));
+                vo.setCount(((BigDecimal) s.get("total")).longValue());
+                vo.setCount(((BigDecimal) s.get("totalDelay")).longValue());
+                auditSet.add(vo);
+            }
+        } else if (AuditQuerySource.ELASTICSEARCH == querySource) {
+            // the index is created by day
+            for (DateTime day = start.withTimeAtStartOfDay(); day.isBefore(end); day = day.plusDays(1)) {
+                String index = String.format("%s_%s", day.toString("yyyyMMdd"), auditId);
                 if (!elasticsearchApi.indexExists(index)) {
                     LOGGER.warn("elasticsearch index={} not exists", index);
                     continue;
                 }
-                SearchResponse response = elasticsearchApi.search(toAuditSearchRequest(index, groupId, streamId));
+                DateTime from = day.isBefore(start) ? start : day;
+                DateTime to = day.plusDays(1).isAfter(end) ? end : day.plusDays(1);
+                SearchResponse response = elasticsearchApi.search(
+                        toAuditSearchRequest(index, groupId, streamId, from, to));
                 final List<Aggregation> aggregations = response.getAggregations().asList();
                 if (CollectionUtils.isNotEmpty(aggregations)) {
                     ParsedTerms terms = (ParsedTerms) aggregations.get(0);
-                    if (CollectionUtils.isNotEmpty(terms.getBuckets())) {
-                        List<AuditInfo> auditSet = terms.getBuckets().stream().map(bucket -> {
-                            AuditInfo vo = new AuditInfo();
-                            vo.setLogTs(bucket.getKeyAsString());
-                            vo.setCount((long) ((ParsedSum) bucket.getAggregations().asList().get(0)).getValue());
-                            vo.setDelay((long) ((ParsedSum) bucket.getAggregations().asList().get(1)).getValue());
-                            return vo;
-                        }).collect(Collectors.toList());
-                        result.add(new AuditVO(auditId, auditSet,
-                                auditId.equals(getAuditId(sinkNodeType, true)) ? sinkNodeType : null));
-                    }
-                }
-            } else if (AuditQuerySource.CLICKHOUSE == querySource) {
-                try (Connection connection = config.getCkConnection();
-                        PreparedStatement statement = getAuditCkStatement(connection, groupId, streamId, auditId,
-                                request.getStartDate(), request.getEndDate());
-
-                        ResultSet resultSet = statement.executeQuery()) {
-                    List<AuditInfo> auditSet = new ArrayList<>();
-                    while (resultSet.next()) {
+                    for (Terms.Bucket bucket : terms.getBuckets()) {
                         AuditInfo vo = new AuditInfo();
-                        vo.setLogTs(resultSet.getString("log_ts"));
-                        vo.setCount(resultSet.getLong("total"));
-                        vo.setDelay(resultSet.getLong("total_delay"));
+                        vo.setLogTs(bucket.getKeyAsString());
+                        vo.setCount((long) ((ParsedSum) bucket.getAggregations().asList().get(0)).getValue());
+                        vo.setDelay((long) ((ParsedSum) bucket.getAggregations().asList().get(1)).getValue());
                         auditSet.add(vo);
                     }
-                    result.add(new AuditVO(auditId, auditSet,
-                            auditId.equals(getAuditId(sinkNodeType, true)) ? sinkNodeType : null));
+                }
+            }
+        } else if (AuditQuerySource.CLICKHOUSE == querySource) {
+            try (Connection connection = config.getCkConnection();
+                    PreparedStatement statement = getAuditCkStatement(connection, groupId, streamId, auditId,
+                            start.toString(SECOND_FORMAT), end.toString(SECOND_FORMAT));
+
+                    ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    AuditInfo vo = new AuditInfo();
+                    vo.setLogTs(resultSet.getString("log_ts"));
+                    vo.setCount(resultSet.getLong("total"));
+                    vo.setDelay(resultSet.getLong("total_delay"));
+                    auditSet.add(vo);
                 }
             }
         }
-        LOGGER.info("success to query audit list for request={}", request);
-        return aggregateByTimeDim(result, request.getTimeStaticsDim());
+        return auditSet;
     }
 
     private List<String> getAuditIds(String groupId, String streamId, String sinkNodeType) {
@@ -347,15 +409,19 @@ public class AuditServiceImpl implements AuditService {
      * @param index The index of elasticsearch
      * @param groupId The groupId of inlong
      * @param streamId The streamId of inlong
+     * @param start The start datetime of the log time (inclusive)
+     * @param end The end datetime of the log time (exclusive)
      * @return The search request of elasticsearch
      */
-    private SearchRequest toAuditSearchRequest(String index, String groupId, String streamId) {
+    private SearchRequest toAuditSearchRequest(String index, String groupId, String streamId, DateTime start,
+            DateTime end) {
         TermsAggregationBuilder builder = AggregationBuilders.terms("log_ts").field("log_ts")
                 .size(Integer.MAX_VALUE).subAggregation(AggregationBuilders.sum("count").field("count"))
                 .subAggregation(AggregationBuilders.sum("delay").field("delay"));
         BoolQueryBuilder filterBuilder = new BoolQueryBuilder();
         filterBuilder.must(termQuery("inlong_group_id", groupId));
         filterBuilder.must(termQuery("inlong_stream_id", streamId));
+        filterBuilder.must(rangeQuery("log_ts").gte(start.toString(SECOND_FORMAT)).lt(end.toString(SECOND_FORMAT)));
         SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
         sourceBuilder.aggregation(builder);
         sourceBuilder.query(filterBuilder);
@@ -371,14 +437,12 @@ public class AuditServiceImpl implements AuditService {
      * @param groupId The groupId of inlong
      * @param streamId The streamId of inlong
      * @param auditId The auditId of request
-     * @param startDate The start datetime of request
-     * @param endDate The en datetime of request
+     * @param start The start datetime of the log time (inclusive)
+     * @param end The end datetime of the log time (exclusive)
      * @return The clickhouse Statement
      */
     private PreparedStatement getAuditCkStatement(Connection connection, String groupId, String streamId,
-            String auditId, String startDate, String endDate) throws SQLException {
-        String start = DAY_DATE_FORMATTER.parseDateTime(startDate).toString(SECOND_FORMAT);
-        String end = DAY_DATE_FORMATTER.parseDateTime(endDate).plusDays(1).toString(SECOND_FORMAT);
+            String auditId, String start, String end) throws SQLException {
 
         // Query results are duplicated according to all fields.
         String subQuery = new SQL()
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.manager.service.core.impl;
+
+import org.apache.inlong.manager.common.enums.TimeStaticsDim;
+import org.apache.inlong.manager.pojo.audit.AuditInfo;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audit query cache test for {@link AuditQueryCache}
+ */
+class AuditQueryCacheTest {
+
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final DateTime day = new DateTime(2022, 1, 1, 0, 0);
+    private final AtomicLong now = new AtomicLong();
+    private final List<DateTime> queryStarts = new ArrayList<>();
+
+    /**
+     * one audit info every minute before the current time
+     */
+    private List<AuditInfo> load(DateTime start, DateTime end) {
+        queryStarts.add(start);
+        List<AuditInfo> auditInfos = new ArrayList<>();
+        for (DateTime time = start; time.isBefore(end) && time.getMillis() < now.get(); time = time.plusMinutes(1)) {
+            auditInfos.add(new AuditInfo(time.toString("yyyy-MM-dd HH:mm:ss"), 1L, 0L));
+        }
+        return auditInfos;
+    }
+
+    @Test
+    void testOnlyQueryOpenBuckets() throws Exception {
+        AuditQueryCache cache = new AuditQueryCache(10000, 5 * MINUTE_MS, now::get);
+        now.set(day.plusHours(1).getMillis());
+        List<AuditInfo> result = cache.get("g1|s1|3", day, TimeStaticsDim.MINUTE, this::load);
+        Assertions.assertEquals(60, result.size());
+
+        // the minutes before 00:55 are closed, only query the later minutes
+        now.set(day.plusHours(2).getMillis());
+        result = cache.get("g1|s1|3", day, TimeStaticsDim.MINUTE, this::load);
+        Assertions.assertEquals(120, result.size());
+        Assertions.assertEquals(day.plusMinutes(55), queryStarts.get(1));
+        Assertions.assertEquals("2022-01-01 01:59:00", result.get(119).getLogTs());
+
+        // the whole day is closed, no more queries
+        now.set(day.plusDays(2).getMillis());
+        Assertions.assertEquals(24 * 60, cache.get("g1|s1|3", day, TimeStaticsDim.MINUTE, this::load).size());
+        Assertions.assertEquals(day.plusHours(1).plusMinutes(55), queryStarts.get(2));
+        Assertions.assertEquals(24 * 60, cache.get("g1|s1|3", day, TimeStaticsDim.MINUTE, this::load).size());
+        Assertions.assertEquals(3, queryStarts.size());
+    }
+
+    @Test
+    void testCoalesceQueries() throws Exception {
+        AuditQueryCache cache = new AuditQueryCache(10000, 5 * MINUTE_MS, now::get);
+        now.set(day.plusDays(2).getMillis());
+        AtomicInteger queryTimes = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AuditQueryCache.AuditLoader loader = (start, end) -> {
+            queryTimes.incrementAndGet();
+            started.countDown();
+            release.await();
+            List<AuditInfo> auditInfos = new ArrayList<>();
+            auditInfos.add(new AuditInfo("2022-01-01 00:00:00", 1L, 0L));
+            return auditInfos;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<AuditInfo>>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> cache.get("g1|s1|3", day, TimeStaticsDim.MINUTE, loader)));
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            futures.add(executor.submit(() -> cache.get("g1|s1|3", day, TimeStaticsDim.MINUTE, loader)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<List<AuditInfo>> future : futures) {
+            Assertions.assertEquals(1, future.get(10, TimeUnit.SECONDS).size());
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, queryTimes.get());
+    }
+
+    @Test
+    void testEvictBySize() throws Exception {
+        AuditQueryCache cache = new AuditQueryCache(3000, 5 * MINUTE_MS, now::get);
+        now.set(day.plusDays(10).getMillis());
+        for (int i = 0; i < 5; i++) {
+            cache.get("g1|s1|3", day.plusDays(i), TimeStaticsDim.MINUTE, this::load);
+        }
+        // every day has 1440 audit infos
+        Assertions.assertTrue(cache.size() <= 2);
+    }
+}
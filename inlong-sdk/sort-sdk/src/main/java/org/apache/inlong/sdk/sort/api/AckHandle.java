@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.api;
+
+/**
+ * Typed handle to ack one fetched message record, it is bound to the fetcher and the position
+ * of the record, so the ack does not need to parse or look up a String offset.
+ */
+public interface AckHandle {
+
+    /**
+     * Ack the message record which this handle is bound to.
+     * @throws Exception
+     */
+    void ack() throws Exception;
+
+    /**
+     * Get the String offset of the message record, it is built lazily and only used by the String ack api.
+     * @return Offset of message.
+     */
+    String getOffset();
+}
@@ -25,6 +25,10 @@ import org.apache.inlong.sdk.sort.metrics.SortSdkMetricItemSet;
 import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class ClientContext implements Cleanable {
 
@@ -34,6 +38,8 @@ public abstract class ClientContext implements Cleanable {
 
     protected final SortSdkMetricItemSet metricItemSet;
 
+    private ThreadPoolExecutor decodeExecutor;
+
     public ClientContext(SortClientConfig config) {
         this.config = config;
         this.sortTaskId = config.getSortTaskId();
@@ -47,9 +53,35 @@ public abstract class ClientContext implements Cleanable {
 
     @Override
     public boolean clean() {
+        synchronized (this) {
+            if (decodeExecutor != null) {
+                decodeExecutor.shutdownNow();
+                decodeExecutor = null;
+            }
+        }
         return true;
     }
 
+    /**
+     * get the decode executor shared by all fetchers of the client, created at the first call
+     *
+     * @return decode executor, null if the decode stage is disabled
+     */
+    public synchronized ThreadPoolExecutor getDecodeExecutor() {
+        if (decodeExecutor == null && config.getDecodeThreads() > 0) {
+            int threads = config.getDecodeThreads();
+            AtomicInteger index = new AtomicInteger(0);
+            // the queue is bounded by the decodeQueueSize of every fetcher
+            decodeExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread thread = new Thread(r, "sort_sdk_decode_" + sortTaskId + "_" + index.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        return decodeExecutor;
+    }
+
     public void addConsumeTime(InLongTopic topic, int partitionId) {
         SortSdkMetricItem metricItem = this.getMetricItem(topic, partitionId);
         metricItem.consumeTimes.incrementAndGet();
@@ -142,6 +174,16 @@ public abstract class ClientContext implements Cleanable {
         metricItem.requestManagerParamErrorCount.incrementAndGet();
     }
 
+    public void updateDecodeQueueSize(int size) {
+        SortSdkMetricItem metricItem = this.getMetricItem(null, -1);
+        metricItem.decodeQueueSize.set(size);
+    }
+
+    public void addReorderQueueSize(InLongTopic topic, int delta) {
+        SortSdkMetricItem metricItem = this.getMetricItem(topic, -1);
+        metricItem.reorderQueueSize.addAndGet(delta);
+    }
+
     private SortSdkMetricItem getMetricItem(InLongTopic topic, int partitionId) {
         Map<String, String> dimensions = new HashMap<>();
         dimensions.put(SortSdkMetricItem.KEY_SORT_TASK_ID, sortTaskId);
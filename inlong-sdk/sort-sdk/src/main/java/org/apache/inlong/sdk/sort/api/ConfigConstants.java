@@ -54,4 +54,7 @@ public class ConfigConstants {
     public static final String IS_TOPIC_STATICS_ENABLED = "isTopicStaticsEnabled";
     public static final String IS_PARTITION_STATICS_ENABLED = "isPartitionStaticsEnabled";
 
+    public static final String DECODE_THREADS = "decodeThreads";
+    public static final String DECODE_QUEUE_SIZE = "decodeQueueSize";
+
 }
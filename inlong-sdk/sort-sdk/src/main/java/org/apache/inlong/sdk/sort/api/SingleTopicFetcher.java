@@ -18,12 +18,16 @@
 package org.apache.inlong.sdk.sort.api;
 
 import org.apache.inlong.sdk.sort.entity.InLongTopic;
+import org.apache.inlong.sdk.sort.entity.MessageRecord;
+import org.apache.inlong.sdk.sort.fetcher.DecodePipeline;
 import org.apache.inlong.sdk.sort.impl.decode.MessageDeserializer;
 import org.apache.inlong.sdk.sort.interceptor.MsgTimeInterceptor;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 /**
  * Topic fetcher that only consumer one topic.
@@ -44,6 +48,8 @@ public abstract class SingleTopicFetcher implements TopicFetcher {
     // for rollback
     protected Interceptor interceptor;
     protected Seeker seeker;
+    // decode stage between the fetch thread and the callback, null if decode in the fetch thread
+    protected DecodePipeline decodePipeline;
 
     public SingleTopicFetcher(
             InLongTopic topic,
@@ -56,6 +62,19 @@ public abstract class SingleTopicFetcher implements TopicFetcher {
         this.interceptor = Optional.ofNullable(interceptor).orElse(new MsgTimeInterceptor());
     }
 
+    /**
+     * create the decode pipeline if the decode threads are configured
+     *
+     * @param callback callback of the decoded records and their partition
+     */
+    protected void initDecodePipeline(BiConsumer<List<MessageRecord>, Integer> callback) {
+        Executor decodeExecutor = context.getDecodeExecutor();
+        if (decodeExecutor != null) {
+            this.decodePipeline = new DecodePipeline(context, topic, decodeExecutor,
+                    context.getConfig().getDecodeQueueSize(), callback);
+        }
+    }
+
     @Override
     public String getFetchKey() {
         return topic.getTopicKey();
@@ -17,6 +17,8 @@
 
 package org.apache.inlong.sdk.sort.api;
 
+import org.apache.inlong.sdk.sort.entity.MessageRecord;
+
 public abstract class SortClient {
 
     public abstract boolean init() throws Throwable;
@@ -24,6 +26,20 @@ public abstract class SortClient {
     public abstract void ack(String msgKey, String msgOffset)
             throws Exception;
 
+    /**
+     * Ack the message record by its typed ack handle, the records without a handle are acked by String offset.
+     * @param messageRecord Fetched message record.
+     * @throws Exception
+     */
+    public void ack(MessageRecord messageRecord) throws Exception {
+        AckHandle ackHandle = messageRecord.getAckHandle();
+        if (ackHandle != null) {
+            ackHandle.ack();
+            return;
+        }
+        this.ack(messageRecord.getMsgKey(), messageRecord.getOffset());
+    }
+
     public abstract boolean close();
 
     public abstract SortClientConfig getConfig();
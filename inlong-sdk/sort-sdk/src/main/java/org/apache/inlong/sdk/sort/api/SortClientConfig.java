@@ -72,6 +72,11 @@ public class SortClientConfig implements Serializable {
     private boolean topicStaticsEnabled = true;
     private boolean partitionStaticsEnabled = true;
 
+    // count of the decode threads, decode in the fetch thread if it is 0
+    private int decodeThreads = 0;
+    // max count of the records of a fetcher in the decode stage
+    private int decodeQueueSize = 1000;
+
     public SortClientConfig(
             String sortTaskId,
             String sortClusterName,
@@ -379,6 +384,22 @@ public class SortClientConfig implements Serializable {
         return partitionStaticsEnabled;
     }
 
+    public int getDecodeThreads() {
+        return decodeThreads;
+    }
+
+    public void setDecodeThreads(int decodeThreads) {
+        this.decodeThreads = decodeThreads;
+    }
+
+    public int getDecodeQueueSize() {
+        return decodeQueueSize;
+    }
+
+    public void setDecodeQueueSize(int decodeQueueSize) {
+        this.decodeQueueSize = decodeQueueSize;
+    }
+
     /**
      * ConsumeStrategy
      */
@@ -469,6 +490,10 @@ public class SortClientConfig implements Serializable {
                 Boolean.TRUE.toString());
         this.partitionStaticsEnabled = StringUtils.equalsIgnoreCase(strPartitionStaticsEnabled,
                 Boolean.TRUE.toString());
+
+        this.decodeThreads = NumberUtils.toInt(sortSdkParams.get(ConfigConstants.DECODE_THREADS), decodeThreads);
+        this.decodeQueueSize = NumberUtils.toInt(sortSdkParams.get(ConfigConstants.DECODE_QUEUE_SIZE),
+                decodeQueueSize);
     }
 
     public List<InLongTopic> getConsumerSubset(List<InLongTopic> totalTopics) {
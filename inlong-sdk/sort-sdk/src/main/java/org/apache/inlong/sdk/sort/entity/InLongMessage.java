@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sdk.sort.entity;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public class InLongMessage {
@@ -43,6 +44,13 @@ public class InLongMessage {
         this.params = params;
     }
 
+    /**
+     * Constructor of the lazy messages, which materialize the body and params on demand.
+     */
+    protected InLongMessage(String inlongGroupId, String inlongStreamId, long msgTime, String sourceIp) {
+        this(inlongGroupId, inlongStreamId, msgTime, sourceIp, null, null);
+    }
+
     public long getMsgTime() {
         return msgTime;
     }
@@ -59,6 +67,34 @@ public class InLongMessage {
         return params;
     }
 
+    /**
+     * Get one param without materializing the params map of lazy messages.
+     * @param key Param key.
+     * @return Param value, null if it does not exist.
+     */
+    public String getParam(String key) {
+        Map<String, String> currentParams = getParams();
+        return currentParams == null ? null : currentParams.get(key);
+    }
+
+    /**
+     * Get the body as a read only slice without copying the body of lazy messages.
+     * @return Body buffer.
+     */
+    public ByteBuffer getBodyBuffer() {
+        byte[] currentBody = getBody();
+        return currentBody == null ? ByteBuffer.allocate(0) : ByteBuffer.wrap(currentBody).asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the body length without copying the body of lazy messages.
+     * @return Body length.
+     */
+    public int getBodyLength() {
+        byte[] currentBody = getBody();
+        return currentBody == null ? 0 : currentBody.length;
+    }
+
     public String getInlongGroupId() {
         return inlongGroupId;
     }
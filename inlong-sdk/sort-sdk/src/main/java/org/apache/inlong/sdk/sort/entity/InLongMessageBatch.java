@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.entity;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lazy view of the messages decoded from one MQ record, the messages are the slices of the decompressed buffer,
+ * and their body and params are materialized only when they are accessed.
+ */
+public class InLongMessageBatch extends AbstractList<InLongMessage> implements RandomAccess {
+
+    private final byte[] buffer;
+    private final List<InLongMessage> messages;
+
+    public InLongMessageBatch(byte[] buffer, List<InLongMessage> messages) {
+        this.buffer = buffer;
+        this.messages = messages;
+    }
+
+    /**
+     * Get the buffer which the messages are decoded from, it is kept alive by the message slices.
+     * @return Decoded buffer.
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public InLongMessage get(int index) {
+        return messages.get(index);
+    }
+
+    @Override
+    public int size() {
+        return messages.size();
+    }
+}
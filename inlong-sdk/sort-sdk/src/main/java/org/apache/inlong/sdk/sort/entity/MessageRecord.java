@@ -17,6 +17,8 @@
 
 package org.apache.inlong.sdk.sort.entity;
 
+import org.apache.inlong.sdk.sort.api.AckHandle;
+
 import java.util.List;
 
 public class MessageRecord {
@@ -25,12 +27,22 @@ public class MessageRecord {
     private final List<InLongMessage> msgs;
     private final String offset;
     private final long recTime;
+    private final AckHandle ackHandle;
 
     public MessageRecord(String msgKey, List<InLongMessage> msgs, String offset, long recTime) {
         this.msgKey = msgKey;
         this.msgs = msgs;
         this.offset = offset;
         this.recTime = recTime;
+        this.ackHandle = null;
+    }
+
+    public MessageRecord(String msgKey, List<InLongMessage> msgs, AckHandle ackHandle, long recTime) {
+        this.msgKey = msgKey;
+        this.msgs = msgs;
+        this.offset = null;
+        this.recTime = recTime;
+        this.ackHandle = ackHandle;
     }
 
     public String getMsgKey() {
@@ -42,6 +54,9 @@ public class MessageRecord {
     }
 
     public String getOffset() {
+        if (offset == null && ackHandle != null) {
+            return ackHandle.getOffset();
+        }
         return offset;
     }
 
@@ -49,12 +64,16 @@ public class MessageRecord {
         return recTime;
     }
 
+    public AckHandle getAckHandle() {
+        return ackHandle;
+    }
+
     @Override
     public String toString() {
         return "MessageRecord{"
                 + "msgKey='" + msgKey
                 + ", message=" + String.valueOf(msgs)
-                + ", offset='" + offset
+                + ", offset='" + getOffset()
                 + ", recTime=" + recTime
                 + '}';
     }
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.fetcher;
+
+import org.apache.inlong.sdk.sort.api.ClientContext;
+import org.apache.inlong.sdk.sort.entity.InLongTopic;
+import org.apache.inlong.sdk.sort.entity.MessageRecord;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Decode stage between the fetch thread and the callback of a fetcher.
+ * The fetch thread submits the raw messages in the consumed order, the decode threads deserialize them concurrently,
+ * and the decoded records are delivered to the callback in the submitted order, so the records of a partition
+ * keep their order.
+ * At most maxInFlight messages can be decoding or waiting for the callback, the fetch thread is blocked in
+ * {@link #submit(int, Callable)} when the stage is full.
+ */
+public class DecodePipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DecodePipeline.class);
+    private static final long SUBMIT_WAIT_MS = 100L;
+
+    private final ClientContext context;
+    private final InLongTopic topic;
+    private final Executor executor;
+    private final BiConsumer<List<MessageRecord>, Integer> callback;
+    private final int capacity;
+    private final Semaphore permits;
+    // decoded results indexed by sequence % capacity
+    private final AtomicReferenceArray<DecodeResult> results;
+    private final ReentrantLock deliverLock = new ReentrantLock();
+    // only accessed by the fetch thread
+    private long nextSubmitSeq = 0L;
+    private volatile long nextDeliverSeq = 0L;
+    private volatile boolean closed = false;
+
+    public DecodePipeline(
+            ClientContext context,
+            InLongTopic topic,
+            Executor executor,
+            int maxInFlight,
+            BiConsumer<List<MessageRecord>, Integer> callback) {
+        this.context = context;
+        this.topic = topic;
+        this.executor = executor;
+        this.callback = callback;
+        this.capacity = Math.max(1, maxInFlight);
+        this.permits = new Semaphore(capacity);
+        this.results = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * submit a decode task, called by the fetch thread in the consumed order
+     *
+     * @param partitionId partition of the message
+     * @param decodeTask task returns the decoded records, the records which are empty are not called back
+     * @return false if the pipeline is closed while waiting for the space of the stage
+     * @throws InterruptedException if the fetch thread is interrupted while waiting
+     */
+    public boolean submit(int partitionId, Callable<List<MessageRecord>> decodeTask) throws InterruptedException {
+        while (!permits.tryAcquire(SUBMIT_WAIT_MS, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+                return false;
+            }
+        }
+        final long seq = nextSubmitSeq++;
+        context.addReorderQueueSize(topic, 1);
+        try {
+            executor.execute(() -> complete(seq, partitionId, decode(partitionId, decodeTask)));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("decode executor rejected the message of {}, partition {}", topic.getTopic(), partitionId);
+            context.addConsumeError(topic, partitionId, -1);
+            complete(seq, partitionId, Collections.emptyList());
+        }
+        return true;
+    }
+
+    /**
+     * report the size of the stage queues
+     */
+    public void reportMetrics() {
+        if (executor instanceof ThreadPoolExecutor) {
+            context.updateDecodeQueueSize(((ThreadPoolExecutor) executor).getQueue().size());
+        }
+    }
+
+    /**
+     * stop calling back, the records which are not called back are not acked
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    public int getInFlightCount() {
+        return capacity - permits.availablePermits();
+    }
+
+    private List<MessageRecord> decode(int partitionId, Callable<List<MessageRecord>> decodeTask) {
+        try {
+            List<MessageRecord> records = decodeTask.call();
+            return records == null ? Collections.emptyList() : records;
+        } catch (Throwable t) {
+            // the message is not acked, it will be consumed again after restart or rebalance
+            context.addConsumeError(topic, partitionId, -1);
+            LOGGER.error("fail to decode message of {}, partition {}: {}", topic.getTopic(), partitionId,
+                    t.getMessage(), t);
+            return Collections.emptyList();
+        }
+    }
+
+    private void complete(long seq, int partitionId, List<MessageRecord> records) {
+        results.set((int) (seq % capacity), new DecodeResult(partitionId, records));
+        deliver();
+    }
+
+    /**
+     * call back the decoded records in the submitted order, only one thread delivers at a time,
+     * the other threads just leave their results to it.
+     */
+    private void deliver() {
+        while (deliverLock.tryLock()) {
+            try {
+                int index = (int) (nextDeliverSeq % capacity);
+                DecodeResult result;
+                while ((result = results.get(index)) != null) {
+                    results.set(index, null);
+                    nextDeliverSeq++;
+                    try {
+                        if (!closed && !result.records.isEmpty()) {
+                            callback.accept(result.records, result.partitionId);
+                        }
+                    } catch (Throwable t) {
+                        LOGGER.error("fail to callback records of {}: {}", topic.getTopic(), t.getMessage(), t);
+                    } finally {
+                        context.addReorderQueueSize(topic, -1);
+                        permits.release();
+                    }
+                    index = (int) (nextDeliverSeq % capacity);
+                }
+            } finally {
+                deliverLock.unlock();
+            }
+            // a result may be completed after the check and before the unlock
+            if (results.get((int) (nextDeliverSeq % capacity)) == null) {
+                return;
+            }
+        }
+    }
+
+    private static class DecodeResult {
+
+        private final int partitionId;
+        private final List<MessageRecord> records;
+
+        private DecodeResult(int partitionId, List<MessageRecord> records) {
+            this.partitionId = partitionId;
+            this.records = records;
+        }
+    }
+}
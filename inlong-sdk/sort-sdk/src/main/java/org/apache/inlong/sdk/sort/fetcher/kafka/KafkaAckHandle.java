@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.fetcher.kafka;
+
+import org.apache.inlong.sdk.sort.api.AckHandle;
+import org.apache.inlong.sdk.sort.util.PartitionAckTracker;
+
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Ack handle of a kafka record, it acks the offset in the tracker of its partition directly.
+ */
+public class KafkaAckHandle implements AckHandle {
+
+    private final PartitionAckTracker tracker;
+    private final TopicPartition topicPartition;
+    private final long offset;
+    private final boolean withTopic;
+
+    /**
+     * Constructor
+     * 
+     * @param tracker        ack tracker of the partition
+     * @param topicPartition topic partition of the record
+     * @param offset         offset of the record
+     * @param withTopic      whether the String offset contains the topic, which is the format of multi topics fetcher
+     */
+    public KafkaAckHandle(PartitionAckTracker tracker, TopicPartition topicPartition, long offset,
+            boolean withTopic) {
+        this.tracker = tracker;
+        this.topicPartition = topicPartition;
+        this.offset = offset;
+        this.withTopic = withTopic;
+    }
+
+    @Override
+    public void ack() {
+        tracker.ack(offset);
+    }
+
+    @Override
+    public String getOffset() {
+        if (withTopic) {
+            return topicPartition.topic() + ":" + topicPartition.partition() + ":" + offset;
+        }
+        return topicPartition.partition() + ":" + offset;
+    }
+}
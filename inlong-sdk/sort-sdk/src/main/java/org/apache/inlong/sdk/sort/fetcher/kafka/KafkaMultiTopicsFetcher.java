@@ -27,6 +27,7 @@ import org.apache.inlong.sdk.sort.entity.InLongMessage;
 import org.apache.inlong.sdk.sort.entity.InLongTopic;
 import org.apache.inlong.sdk.sort.entity.MessageRecord;
 import org.apache.inlong.sdk.sort.fetcher.pulsar.PulsarMultiTopicsFetcher;
+import org.apache.inlong.sdk.sort.util.PartitionAckTracker;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -48,11 +49,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -63,7 +62,7 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PulsarMultiTopicsFetcher.class);
     private final ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap;
-    private final ConcurrentHashMap<TopicPartition, ConcurrentSkipListMap<Long, Boolean>> ackOffsetMap;
+    private final ConcurrentHashMap<TopicPartition, PartitionAckTracker> ackOffsetMap;
     private final String bootstrapServers;
     private ConsumerRebalanceListener listener;
     private KafkaConsumer<byte[], byte[]> consumer;
@@ -149,18 +148,11 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
         TopicPartition topicPartition = new TopicPartition(offset[0], Integer.parseInt(offset[1]));
         long ackOffset = Long.parseLong(offset[2]);
 
-        // ack
-        if (!ackOffsetMap.containsKey(topicPartition) || !ackOffsetMap.get(topicPartition).containsKey(ackOffset)) {
+        // mark this offset has been ack.
+        PartitionAckTracker tracker = ackOffsetMap.get(topicPartition);
+        if (tracker == null || !tracker.ack(ackOffset)) {
             LOGGER.warn("did not find offsetMap to ack offset of {}, offset {}, just ignore it",
                     topicPartition, ackOffset);
-            return;
-        }
-
-        // mark this offset has been ack.
-        ConcurrentSkipListMap<Long, Boolean> tpOffsetMap = ackOffsetMap.get(topicPartition);
-        // to prevent race condition in AckOffsetOnRebalance::onPartitionsRevoked
-        if (Objects.nonNull(tpOffsetMap)) {
-            tpOffsetMap.put(ackOffset, true);
         }
     }
 
@@ -182,7 +174,7 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
                 fetchThread.interrupt();
             }
             if (consumer != null) {
-                prepareCommit();
+                AckOffsetOnRebalance.prepareCommit(ackOffsetMap, commitOffsetMap);
                 consumer.commitSync(commitOffsetMap);
                 consumer.close();
             }
@@ -226,30 +218,6 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
         return false;
     }
 
-    private void prepareCommit() {
-        List<Long> removeOffsets = new ArrayList<>();
-        ackOffsetMap.forEach((topicPartition, tpOffsetMap) -> {
-            // get the remove list
-            long commitOffset = -1;
-            for (Long ackOffset : tpOffsetMap.keySet()) {
-                if (!tpOffsetMap.get(ackOffset)) {
-                    break;
-                }
-                removeOffsets.add(ackOffset);
-                commitOffset = ackOffset;
-            }
-            // the first haven't ack, do nothing
-            if (CollectionUtils.isEmpty(removeOffsets)) {
-                return;
-            }
-
-            // remove offset and commit offset
-            removeOffsets.forEach(tpOffsetMap::remove);
-            removeOffsets.clear();
-            commitOffsetMap.put(topicPartition, new OffsetAndMetadata(commitOffset));
-        });
-    }
-
     public class Fetcher implements Runnable {
 
         private boolean subscribeNew() {
@@ -273,7 +241,7 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
         }
 
         private void commitKafkaOffset() {
-            prepareCommit();
+            AckOffsetOnRebalance.prepareCommit(ackOffsetMap, commitOffsetMap);
             if (consumer != null) {
                 try {
                     LOGGER.info("commit {}", commitOffsetMap);
@@ -301,15 +269,11 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
                 context.addCallBackFail(topic, partition, messageRecords.size(),
                         System.currentTimeMillis() - start);
                 LOGGER.error("failed to callback: ", e);
+                // the failed records are skipped, so that they do not block the commit of the partition
+                messageRecords.forEach(record -> ((KafkaAckHandle) record.getAckHandle()).ack());
             }
         }
 
-        private String getOffset(String topic, int partitionId, long offset) {
-            TopicPartition topicPartition = new TopicPartition(topic, partitionId);
-            ackOffsetMap.computeIfAbsent(topicPartition, k -> new ConcurrentSkipListMap<>()).put(offset, false);
-            return topic + ":" + partitionId + ":" + offset;
-        }
-
         private Map<String, String> getMsgHeaders(Headers headers) {
             Map<String, String> headerMap = new HashMap<>();
             for (Header header : headers) {
@@ -361,27 +325,42 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
             long fetchTimeCost = System.currentTimeMillis() - startFetchTime;
 
             if (null != records && !records.isEmpty()) {
-                for (ConsumerRecord<byte[], byte[]> msg : records) {
-                    List<MessageRecord> msgs = new ArrayList<>();
-                    String topicName = msg.topic();
-                    InLongTopic topic = onlineTopics.get(topicName);
-                    String offsetKey = getOffset(topicName, msg.partition(), msg.offset());
-                    List<InLongMessage> inLongMessages = deserializer
-                            .deserialize(context, topic, getMsgHeaders(msg.headers()), msg.value());
-                    context.addConsumeSuccess(topic, msg.partition(), inLongMessages.size(), msg.value().length,
-                            fetchTimeCost);
-                    int originSize = inLongMessages.size();
-                    inLongMessages = interceptor.intercept(inLongMessages);
-                    if (inLongMessages.isEmpty()) {
-                        ack(offsetKey);
-                        continue;
+                for (TopicPartition topicPartition : records.partitions()) {
+                    InLongTopic topic = onlineTopics.get(topicPartition.topic());
+                    PartitionAckTracker tracker = ackOffsetMap.computeIfAbsent(topicPartition,
+                            k -> new PartitionAckTracker());
+                    for (ConsumerRecord<byte[], byte[]> msg : records.records(topicPartition)) {
+                        List<MessageRecord> msgs = new ArrayList<>();
+                        tracker.track(msg.offset());
+                        KafkaAckHandle ackHandle = new KafkaAckHandle(tracker, topicPartition, msg.offset(), true);
+                        List<InLongMessage> inLongMessages;
+                        int originSize;
+                        try {
+                            inLongMessages = deserializer
+                                    .deserialize(context, topic, getMsgHeaders(msg.headers()), msg.value());
+                            context.addConsumeSuccess(topic, msg.partition(), inLongMessages.size(),
+                                    msg.value().length, fetchTimeCost);
+                            originSize = inLongMessages.size();
+                            inLongMessages = interceptor.intercept(inLongMessages);
+                        } catch (Throwable t) {
+                            // the message is skipped, so that a bad message does not block the commit of the partition
+                            context.addConsumeError(topic, msg.partition(), -1);
+                            LOGGER.error("fail to decode message of {}, offset {}, skip it: {}", topicPartition,
+                                    msg.offset(), t.getMessage(), t);
+                            ackHandle.ack();
+                            continue;
+                        }
+                        if (inLongMessages.isEmpty()) {
+                            ackHandle.ack();
+                            continue;
+                        }
+                        int filterSize = originSize - inLongMessages.size();
+                        context.addConsumeFilter(topic, msg.partition(), filterSize);
+                        msgs.add(new MessageRecord(fetchKey,
+                                inLongMessages,
+                                ackHandle, System.currentTimeMillis()));
+                        handleAndCallbackMsg(msgs, topic, msg.partition());
                     }
-                    int filterSize = originSize - inLongMessages.size();
-                    context.addConsumeFilter(topic, msg.partition(), filterSize);
-                    msgs.add(new MessageRecord(fetchKey,
-                            inLongMessages,
-                            offsetKey, System.currentTimeMillis()));
-                    handleAndCallbackMsg(msgs, topic, msg.partition());
                 }
                 sleepTime = 0L;
             } else {
@@ -26,6 +26,7 @@ import org.apache.inlong.sdk.sort.api.SortClientConfig;
 import org.apache.inlong.sdk.sort.entity.InLongMessage;
 import org.apache.inlong.sdk.sort.entity.InLongTopic;
 import org.apache.inlong.sdk.sort.entity.MessageRecord;
+import org.apache.inlong.sdk.sort.util.PartitionAckTracker;
 
 import com.google.gson.Gson;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -58,6 +59,7 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaSingleTopicFetcher.class);
     private final ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TopicPartition, PartitionAckTracker> ackOffsetMap = new ConcurrentHashMap<>();
     private String bootstrapServers;
     private KafkaConsumer<byte[], byte[]> consumer;
 
@@ -75,12 +77,13 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
     public boolean init() {
         try {
             createKafkaConsumer(bootstrapServers);
+            this.initDecodePipeline(this::handleAndCallbackMsg);
             if (consumer != null) {
                 LOGGER.info("start to subscribe topic:{}", new Gson().toJson(topic));
                 this.seeker = SeekerFactory.createKafkaSeeker(consumer, topic);
                 consumer.subscribe(Collections.singletonList(topic.getTopic()),
                         new AckOffsetOnRebalance(this.topic.getInLongCluster().getClusterId(), seeker,
-                                commitOffsetMap, consumer));
+                                commitOffsetMap, ackOffsetMap, consumer));
             } else {
                 LOGGER.info("consumer is null");
                 return false;
@@ -103,8 +106,10 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
         String[] offset = msgOffset.split(":");
         if (offset.length == 2) {
             TopicPartition topicPartition = new TopicPartition(topic.getTopic(), Integer.parseInt(offset[0]));
-            OffsetAndMetadata offsetAndMetadata = new OffsetAndMetadata(Long.parseLong(offset[1]));
-            commitOffsetMap.put(topicPartition, offsetAndMetadata);
+            PartitionAckTracker tracker = ackOffsetMap.get(topicPartition);
+            if (tracker == null || !tracker.ack(Long.parseLong(offset[1]))) {
+                LOGGER.warn("did not find offset to ack of {}, offset {}, just ignore it", topicPartition, offset[1]);
+            }
         } else {
             throw new Exception("offset is illegal, the correct format is int:long ,the error offset is:" + msgOffset);
         }
@@ -124,6 +129,9 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
     public boolean close() {
         this.closed = true;
         try {
+            if (decodePipeline != null) {
+                decodePipeline.close();
+            }
             if (fetchThread != null) {
                 fetchThread.interrupt();
             }
@@ -192,9 +200,90 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
         LOGGER.info("end to create kafka consumer:{}", consumer);
     }
 
+    /**
+     * put the received msg to onFinished method
+     *
+     * @param messageRecords {@link List < MessageRecord >}
+     */
+    private void handleAndCallbackMsg(List<MessageRecord> messageRecords, int partition) {
+        long start = System.currentTimeMillis();
+        try {
+            context.addCallBack(topic, partition);
+            context.getConfig().getCallback().onFinishedBatch(messageRecords);
+            context.addCallBackSuccess(topic, partition, messageRecords.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            context.addCallBackFail(topic, partition, messageRecords.size(),
+                    System.currentTimeMillis() - start);
+            LOGGER.error("failed to callback: {}", e.getMessage(), e);
+            // the failed records are skipped, so that they do not block the commit of the partition
+            messageRecords.forEach(record -> ((KafkaAckHandle) record.getAckHandle()).ack());
+        }
+    }
+
+    /**
+     * deserialize and intercept a kafka message, the message which is filtered out is acked directly
+     *
+     * @param msg kafka message
+     * @param ackHandle ack handle of the message
+     * @param fetchTimeCost time cost of the poll
+     * @return the records to callback, empty if filtered out
+     */
+    private List<MessageRecord> decode(ConsumerRecord<byte[], byte[]> msg, KafkaAckHandle ackHandle,
+            long fetchTimeCost) throws Exception {
+        List<InLongMessage> inLongMessages = deserializer
+                .deserialize(context, topic, getMsgHeaders(msg.headers()), msg.value());
+        context.addConsumeSuccess(topic, msg.partition(), inLongMessages.size(), msg.value().length,
+                fetchTimeCost);
+        int originSize = inLongMessages.size();
+        inLongMessages = interceptor.intercept(inLongMessages);
+        if (inLongMessages.isEmpty()) {
+            ackHandle.ack();
+            return Collections.emptyList();
+        }
+        int filterSize = originSize - inLongMessages.size();
+        context.addConsumeFilter(topic, msg.partition(), filterSize);
+        List<MessageRecord> msgs = new ArrayList<>();
+        msgs.add(new MessageRecord(topic.getTopicKey(),
+                inLongMessages,
+                ackHandle, System.currentTimeMillis()));
+        return msgs;
+    }
+
+    /**
+     * decode a kafka message, the message which fails to be decoded is skipped,
+     * so that a bad message does not block the commit of its partition.
+     *
+     * @param msg kafka message
+     * @param ackHandle ack handle of the message
+     * @param fetchTimeCost time cost of the poll
+     * @return the records to callback, empty if filtered out or failed
+     */
+    private List<MessageRecord> decodeOrSkip(ConsumerRecord<byte[], byte[]> msg, KafkaAckHandle ackHandle,
+            long fetchTimeCost) {
+        try {
+            return decode(msg, ackHandle, fetchTimeCost);
+        } catch (Throwable t) {
+            context.addConsumeError(topic, msg.partition(), -1);
+            LOGGER.error("fail to decode message of {}, partition {}, offset {}, skip it: {}", topic.getTopic(),
+                    msg.partition(), msg.offset(), t.getMessage(), t);
+            ackHandle.ack();
+            return Collections.emptyList();
+        }
+    }
+
+    private Map<String, String> getMsgHeaders(Headers headers) {
+        Map<String, String> headerMap = new HashMap<>();
+        for (Header header : headers) {
+            headerMap.put(header.key(), new String(header.value()));
+        }
+        return headerMap;
+    }
+
     public class Fetcher implements Runnable {
 
         private void commitKafkaOffset() {
+            AckOffsetOnRebalance.prepareCommit(ackOffsetMap, commitOffsetMap);
             if (consumer != null && commitOffsetMap.size() > 0) {
                 try {
                     consumer.commitSync(commitOffsetMap);
@@ -205,37 +294,6 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
             }
         }
 
-        /**
-         * put the received msg to onFinished method
-         *
-         * @param messageRecords {@link List < MessageRecord >}
-         */
-        private void handleAndCallbackMsg(List<MessageRecord> messageRecords, int partition) {
-            long start = System.currentTimeMillis();
-            try {
-                context.addCallBack(topic, partition);
-                context.getConfig().getCallback().onFinishedBatch(messageRecords);
-                context.addCallBackSuccess(topic, partition, messageRecords.size(),
-                        System.currentTimeMillis() - start);
-            } catch (Exception e) {
-                context.addCallBackFail(topic, partition, messageRecords.size(),
-                        System.currentTimeMillis() - start);
-                LOGGER.error("failed to callback: {}", e.getMessage(), e);
-            }
-        }
-
-        private String getOffset(int partitionId, long offset) {
-            return partitionId + ":" + offset;
-        }
-
-        private Map<String, String> getMsgHeaders(Headers headers) {
-            Map<String, String> headerMap = new HashMap<>();
-            for (Header header : headers) {
-                headerMap.put(header.key(), new String(header.value()));
-            }
-            return headerMap;
-        }
-
         @Override
         public void run() {
             boolean hasPermit;
@@ -275,28 +333,31 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
             ConsumerRecords<byte[], byte[]> records = consumer
                     .poll(Duration.ofMillis(context.getConfig().getKafkaFetchWaitMs()));
             long fetchTimeCost = System.currentTimeMillis() - startFetchTime;
+            if (decodePipeline != null) {
+                decodePipeline.reportMetrics();
+            }
             if (null != records && !records.isEmpty()) {
 
-                for (ConsumerRecord<byte[], byte[]> msg : records) {
-                    List<MessageRecord> msgs = new ArrayList<>();
-                    String offsetKey = getOffset(msg.partition(), msg.offset());
-                    List<InLongMessage> inLongMessages = deserializer
-                            .deserialize(context, topic, getMsgHeaders(msg.headers()), msg.value());
-                    context.addConsumeSuccess(topic, msg.partition(), inLongMessages.size(), msg.value().length,
-                            fetchTimeCost);
-                    int originSize = inLongMessages.size();
-                    inLongMessages = interceptor.intercept(inLongMessages);
-                    if (inLongMessages.isEmpty()) {
-                        ack(offsetKey);
-                        continue;
+                for (TopicPartition topicPartition : records.partitions()) {
+                    PartitionAckTracker tracker = ackOffsetMap.computeIfAbsent(topicPartition,
+                            k -> new PartitionAckTracker());
+                    for (ConsumerRecord<byte[], byte[]> msg : records.records(topicPartition)) {
+                        tracker.track(msg.offset());
+                        KafkaAckHandle ackHandle = new KafkaAckHandle(tracker, topicPartition, msg.offset(), false);
+                        if (decodePipeline != null) {
+                            if (!decodePipeline.submit(msg.partition(),
+                                    () -> decodeOrSkip(msg, ackHandle, fetchTimeCost))) {
+                                // the pipeline is closed, the message is consumed again after restart
+                                tracker.untrack(msg.offset());
+                                return;
+                            }
+                            continue;
+                        }
+                        List<MessageRecord> msgs = decodeOrSkip(msg, ackHandle, fetchTimeCost);
+                        if (!msgs.isEmpty()) {
+                            handleAndCallbackMsg(msgs, msg.partition());
+                        }
                     }
-                    int filterSize = originSize - inLongMessages.size();
-                    context.addConsumeFilter(topic, msg.partition(), filterSize);
-
-                    msgs.add(new MessageRecord(topic.getTopicKey(),
-                            inLongMessages,
-                            offsetKey, System.currentTimeMillis()));
-                    handleAndCallbackMsg(msgs, msg.partition());
                 }
                 sleepTime = 0L;
             } else {
@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sdk.sort.fetcher.pulsar;
 
+import org.apache.inlong.sdk.sort.api.AckHandle;
 import org.apache.inlong.sdk.sort.api.ClientContext;
 import org.apache.inlong.sdk.sort.api.Deserializer;
 import org.apache.inlong.sdk.sort.api.Interceptor;
@@ -44,7 +45,6 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -55,7 +55,6 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PulsarSingleTopicFetcher.class);
     private final ReentrantReadWriteLock mainLock = new ReentrantReadWriteLock(true);
-    private final ConcurrentHashMap<String, MessageId> offsetCache = new ConcurrentHashMap<>();
     private Consumer<byte[]> consumer;
     private PulsarClient pulsarClient;
 
@@ -84,13 +83,12 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
         return Collections.singletonList(topic);
     }
 
-    private void ackSucc(String offset) {
-        offsetCache.remove(offset);
+    private void ackSucc() {
         context.addAckSuccess(topic, -1);
     }
 
     /**
-     * ack Offset
+     * ack Offset, the offset is the Base64 of the serialized MessageId
      *
      * @param msgOffset String
      */
@@ -103,20 +101,8 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
                     LOGGER.error("consumer == null {}", topic);
                     return;
                 }
-                MessageId messageId = offsetCache.get(msgOffset);
-                if (messageId == null) {
-                    context.addAckFail(topic, -1);
-                    LOGGER.error("messageId == null {}", topic);
-                    return;
-                }
-                consumer.acknowledgeAsync(messageId)
-                        .thenAccept(consumer -> ackSucc(msgOffset))
-                        .exceptionally(exception -> {
-                            LOGGER.error("ack fail:{} {}",
-                                    topic, msgOffset, exception);
-                            context.addAckFail(topic, -1);
-                            return null;
-                        });
+                MessageId messageId = MessageId.fromByteArray(Base64.getDecoder().decode(msgOffset));
+                this.ack(messageId);
             } catch (Exception e) {
                 context.addAckFail(topic, -1);
                 LOGGER.error(e.getMessage(), e);
@@ -125,6 +111,27 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
         }
     }
 
+    /**
+     * ack MessageId
+     *
+     * @param messageId MessageId
+     */
+    private void ack(MessageId messageId) {
+        if (consumer == null) {
+            context.addAckFail(topic, -1);
+            LOGGER.error("consumer == null {}", topic);
+            return;
+        }
+        consumer.acknowledgeAsync(messageId)
+                .thenAccept(consumer -> ackSucc())
+                .exceptionally(exception -> {
+                    LOGGER.error("ack fail:{} {}",
+                            topic, messageId, exception);
+                    context.addAckFail(topic, -1);
+                    return null;
+                });
+    }
+
     /**
      * create Consumer and fetch thread
      *
@@ -160,6 +167,7 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
                     .subscribe();
 
             this.seeker = SeekerFactory.createPulsarSeeker(consumer, topic);
+            this.initDecodePipeline((msgs, partition) -> handleAndCallbackMsg(msgs));
             String threadName = String.format("sort_sdk_pulsar_single_topic_fetch_thread_%s_%s_%d",
                     this.topic.getInLongCluster().getClusterId(), topic.getTopic(), this.hashCode());
             this.fetchThread = new Thread(new PulsarSingleTopicFetcher.Fetcher(), threadName);
@@ -201,6 +209,9 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
     public boolean close() {
         mainLock.writeLock().lock();
         try {
+            if (decodePipeline != null) {
+                decodePipeline.close();
+            }
             try {
                 if (consumer != null) {
                     consumer.close();
@@ -221,30 +232,58 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
         return closed;
     }
 
-    public class Fetcher implements Runnable {
-
-        /**
-         * put the received msg to onFinished method
-         *
-         * @param messageRecords {@link List}
-         */
-        private void handleAndCallbackMsg(List<MessageRecord> messageRecords) {
-            long start = System.currentTimeMillis();
-            try {
-                context.addCallBack(topic, -1);
-                context.getConfig().getCallback().onFinishedBatch(messageRecords);
-                context.addCallBackSuccess(topic, -1, messageRecords.size(),
-                        System.currentTimeMillis() - start);
-            } catch (Exception e) {
-                context.addCallBackFail(topic, -1, messageRecords.size(),
-                        System.currentTimeMillis() - start);
-                LOGGER.error("failed to callback", e);
-            }
+    /**
+     * put the received msg to onFinished method
+     *
+     * @param messageRecords {@link List}
+     */
+    private void handleAndCallbackMsg(List<MessageRecord> messageRecords) {
+        long start = System.currentTimeMillis();
+        try {
+            context.addCallBack(topic, -1);
+            context.getConfig().getCallback().onFinishedBatch(messageRecords);
+            context.addCallBackSuccess(topic, -1, messageRecords.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            context.addCallBackFail(topic, -1, messageRecords.size(),
+                    System.currentTimeMillis() - start);
+            LOGGER.error("failed to callback", e);
         }
+    }
 
-        private String getOffset(MessageId msgId) {
-            return Base64.getEncoder().encodeToString(msgId.toByteArray());
+    /**
+     * deserialize and intercept a pulsar message, the message which is filtered out is acked directly
+     *
+     * @param msg pulsar message
+     * @param fetchTimeCost time cost of the receive
+     * @return the records to callback, empty if filtered out
+     */
+    private List<MessageRecord> decode(Message<byte[]> msg, long fetchTimeCost) throws Exception {
+        PulsarAckHandle ackHandle = new PulsarAckHandle(msg.getMessageId());
+
+        // deserialize
+        List<InLongMessage> inLongMessages = deserializer
+                .deserialize(context, topic, msg.getProperties(), msg.getData());
+        context.addConsumeSuccess(topic, -1, inLongMessages.size(), msg.getData().length,
+                fetchTimeCost);
+        int originSize = inLongMessages.size();
+        // intercept
+        inLongMessages = interceptor.intercept(inLongMessages);
+        if (inLongMessages.isEmpty()) {
+            ackHandle.ack();
+            return Collections.emptyList();
         }
+        int filterSize = originSize - inLongMessages.size();
+        context.addConsumeFilter(topic, -1, filterSize);
+
+        List<MessageRecord> msgs = new ArrayList<>();
+        msgs.add(new MessageRecord(topic.getTopicKey(),
+                inLongMessages,
+                ackHandle, System.currentTimeMillis()));
+        return msgs;
+    }
+
+    public class Fetcher implements Runnable {
 
         @Override
         public void run() {
@@ -270,6 +309,9 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
                         long startFetchTime = System.currentTimeMillis();
                         Messages<byte[]> messages = consumer.batchReceive();
                         fetchTimeCost = System.currentTimeMillis() - startFetchTime;
+                        if (decodePipeline != null) {
+                            decodePipeline.reportMetrics();
+                        }
                         if (null != messages && messages.size() != 0) {
                             for (Message<byte[]> msg : messages) {
                                 // if need seek
@@ -278,29 +320,17 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
                                     break;
                                 }
 
-                                String offsetKey = getOffset(msg.getMessageId());
-                                offsetCache.put(offsetKey, msg.getMessageId());
-
-                                // deserialize
-                                List<InLongMessage> inLongMessages = deserializer
-                                        .deserialize(context, topic, msg.getProperties(), msg.getData());
-                                context.addConsumeSuccess(topic, -1, inLongMessages.size(), msg.getData().length,
-                                        fetchTimeCost);
-                                int originSize = inLongMessages.size();
-                                // intercept
-                                inLongMessages = interceptor.intercept(inLongMessages);
-                                if (inLongMessages.isEmpty()) {
-                                    ack(offsetKey);
+                                if (decodePipeline != null) {
+                                    long receiveTimeCost = fetchTimeCost;
+                                    if (!decodePipeline.submit(-1, () -> decode(msg, receiveTimeCost))) {
+                                        break;
+                                    }
                                     continue;
                                 }
-                                int filterSize = originSize - inLongMessages.size();
-                                context.addConsumeFilter(topic, -1, filterSize);
-
-                                List<MessageRecord> msgs = new ArrayList<>();
-                                msgs.add(new MessageRecord(topic.getTopicKey(),
-                                        inLongMessages,
-                                        offsetKey, System.currentTimeMillis()));
-                                handleAndCallbackMsg(msgs);
+                                List<MessageRecord> msgs = decode(msg, fetchTimeCost);
+                                if (!msgs.isEmpty()) {
+                                    handleAndCallbackMsg(msgs);
+                                }
                             }
                             sleepTime = 0L;
                         } else {
@@ -330,4 +360,26 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
             }
         }
     }
+
+    /**
+     * Ack handle of a pulsar message, it keeps the MessageId instead of caching it by String offset.
+     */
+    private class PulsarAckHandle implements AckHandle {
+
+        private final MessageId messageId;
+
+        private PulsarAckHandle(MessageId messageId) {
+            this.messageId = messageId;
+        }
+
+        @Override
+        public void ack() {
+            PulsarSingleTopicFetcher.this.ack(messageId);
+        }
+
+        @Override
+        public String getOffset() {
+            return Base64.getEncoder().encodeToString(messageId.toByteArray());
+        }
+    }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sdk.sort.fetcher.tube;
 
+import org.apache.inlong.sdk.sort.api.AckHandle;
 import org.apache.inlong.sdk.sort.api.ClientContext;
 import org.apache.inlong.sdk.sort.api.Deserializer;
 import org.apache.inlong.sdk.sort.api.Interceptor;
@@ -84,6 +85,7 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
                 }
                 messageConsumer.subscribe(topic.getTopic(), filters);
                 messageConsumer.completeSubscribe();
+                this.initDecodePipeline((msgs, partition) -> handleAndCallbackMsg(msgs));
 
                 String threadName = String.format("sort_sdk_tube_single_topic_fetch_thread_%s_%s_%d",
                         this.topic.getInLongCluster().getClusterId(), topic.getTopic(), this.hashCode());
@@ -137,6 +139,9 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
     @Override
     public boolean close() {
         try {
+            if (decodePipeline != null) {
+                decodePipeline.close();
+            }
             if (fetchThread != null) {
                 fetchThread.interrupt();
             }
@@ -172,26 +177,26 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
         return Collections.singletonList(topic);
     }
 
-    public class Fetcher implements Runnable {
-
-        /**
-         * put the received msg to onFinished method
-         *
-         * @param messageRecord {@link MessageRecord}
-         */
-        private void handleAndCallbackMsg(MessageRecord messageRecord) {
-            long start = System.currentTimeMillis();
-            try {
-                context.addCallBack(topic, -1);
-                context.getConfig().getCallback().onFinishedBatch(Collections.singletonList(messageRecord));
-                context.addCallBackSuccess(topic, -1, 1,
-                        System.currentTimeMillis() - start);
-            } catch (Exception e) {
-                context.addCallBackFail(topic, -1, 1,
-                        System.currentTimeMillis() - start);
-                LOG.error("failed to callback {}", e.getMessage(), e);
-            }
+    /**
+     * put the received msg to onFinished method
+     *
+     * @param messageRecords {@link List}
+     */
+    private void handleAndCallbackMsg(List<MessageRecord> messageRecords) {
+        long start = System.currentTimeMillis();
+        try {
+            context.addCallBack(topic, -1);
+            context.getConfig().getCallback().onFinishedBatch(messageRecords);
+            context.addCallBackSuccess(topic, -1, messageRecords.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            context.addCallBackFail(topic, -1, messageRecords.size(),
+                    System.currentTimeMillis() - start);
+            LOG.error("failed to callback {}", e.getMessage(), e);
         }
+    }
+
+    public class Fetcher implements Runnable {
 
         /**
          * parseAttr from k1=v1&k2=v2 to kv map
@@ -221,6 +226,34 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
             return parseAttr(splitter, attribute, "=");
         }
 
+        /**
+         * deserialize and intercept a tube message
+         *
+         * @param msg tube message
+         * @param ackHandle ack handle shared by the messages of one fetch
+         * @param fetchTimeCost time cost of the fetch
+         * @return the records to callback, empty if filtered out
+         */
+        private List<MessageRecord> decode(Message msg, TubeAckHandle ackHandle, long fetchTimeCost)
+                throws Exception {
+            List<InLongMessage> deserialize = deserializer
+                    .deserialize(context, topic, getAttributeMap(msg.getAttribute()),
+                            msg.getData());
+            context.addConsumeSuccess(topic, -1, deserialize.size(), msg.getData().length,
+                    fetchTimeCost);
+            int originSize = deserialize.size();
+            deserialize = interceptor.intercept(deserialize);
+            if (deserialize.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int filterSize = originSize - deserialize.size();
+            context.addConsumeFilter(topic, -1, filterSize);
+
+            List<InLongMessage> msgs = new ArrayList<>(deserialize);
+            return Collections.singletonList(new MessageRecord(topic.getTopicKey(), msgs,
+                    ackHandle, System.currentTimeMillis()));
+        }
+
         @Override
         public void run() {
             boolean hasPermit;
@@ -244,25 +277,23 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
                     long startFetchTime = System.currentTimeMillis();
                     ConsumerResult message = messageConsumer.getMessage();
                     fetchTimeCost = System.currentTimeMillis() - startFetchTime;
+                    if (decodePipeline != null) {
+                        decodePipeline.reportMetrics();
+                    }
                     if (null != message && TErrCodeConstants.SUCCESS == message.getErrCode()) {
+                        TubeAckHandle ackHandle = new TubeAckHandle(message.getConfirmContext());
                         for (Message msg : message.getMessageList()) {
-                            List<InLongMessage> msgs = new ArrayList<>();
-                            List<InLongMessage> deserialize = deserializer
-                                    .deserialize(context, topic, getAttributeMap(msg.getAttribute()),
-                                            msg.getData());
-                            context.addConsumeSuccess(topic, -1, deserialize.size(), msg.getData().length,
-                                    fetchTimeCost);
-                            int originSize = deserialize.size();
-                            deserialize = interceptor.intercept(deserialize);
-                            if (deserialize.isEmpty()) {
+                            if (decodePipeline != null) {
+                                long receiveTimeCost = fetchTimeCost;
+                                if (!decodePipeline.submit(-1, () -> decode(msg, ackHandle, receiveTimeCost))) {
+                                    break;
+                                }
                                 continue;
                             }
-                            int filterSize = originSize - deserialize.size();
-                            context.addConsumeFilter(topic, -1, filterSize);
-
-                            msgs.addAll(deserialize);
-                            handleAndCallbackMsg(new MessageRecord(topic.getTopicKey(), msgs,
-                                    message.getConfirmContext(), System.currentTimeMillis()));
+                            List<MessageRecord> msgs = decode(msg, ackHandle, fetchTimeCost);
+                            if (!msgs.isEmpty()) {
+                                handleAndCallbackMsg(msgs);
+                            }
                         }
                         sleepTime = 0L;
                     } else {
@@ -289,4 +320,26 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
             }
         }
     }
+
+    /**
+     * Ack handle of a tube fetch result, the records of one fetch share the confirm context.
+     */
+    private class TubeAckHandle implements AckHandle {
+
+        private final String confirmContext;
+
+        private TubeAckHandle(String confirmContext) {
+            this.confirmContext = confirmContext;
+        }
+
+        @Override
+        public void ack() throws Exception {
+            TubeSingleTopicFetcher.this.ack(confirmContext);
+        }
+
+        @Override
+        public String getOffset() {
+            return confirmContext;
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.impl.decode;
+
+import org.apache.inlong.sdk.sort.entity.InLongMessage;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Lazy message of an InLongMsg pack, the body is a slice of the decompressed buffer,
+ * and the attributes are shared by the messages of the same attr.
+ */
+public class InLongMsgMessage extends InLongMessage {
+
+    private final Map<String, String> attributes;
+    private final ByteBuffer bodyBuffer;
+    private volatile byte[] body;
+
+    public InLongMsgMessage(String inlongGroupId, String inlongStreamId, long msgTime, String sourceIp,
+            Map<String, String> attributes, ByteBuffer bodyBuffer) {
+        super(inlongGroupId, inlongStreamId, msgTime, sourceIp);
+        this.attributes = attributes;
+        this.bodyBuffer = bodyBuffer;
+    }
+
+    @Override
+    public byte[] getBody() {
+        byte[] result = body;
+        if (result == null) {
+            result = new byte[bodyBuffer.remaining()];
+            System.arraycopy(bodyBuffer.array(), bodyBuffer.arrayOffset() + bodyBuffer.position(),
+                    result, 0, result.length);
+            body = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, String> getParams() {
+        return attributes;
+    }
+
+    @Override
+    public ByteBuffer getBodyBuffer() {
+        return bodyBuffer.asReadOnlyBuffer();
+    }
+
+    @Override
+    public int getBodyLength() {
+        return bodyBuffer.remaining();
+    }
+}
@@ -22,23 +22,28 @@ import org.apache.inlong.common.msg.InLongMsg;
 import org.apache.inlong.common.util.StringUtil;
 import org.apache.inlong.common.util.Utils;
 import org.apache.inlong.sdk.commons.protocol.EventConstants;
-import org.apache.inlong.sdk.commons.protocol.ProxySdk.MapFieldEntry;
 import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObj;
 import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObjs;
 import org.apache.inlong.sdk.sort.api.ClientContext;
 import org.apache.inlong.sdk.sort.api.Deserializer;
 import org.apache.inlong.sdk.sort.entity.InLongMessage;
+import org.apache.inlong.sdk.sort.entity.InLongMessageBatch;
 import org.apache.inlong.sdk.sort.entity.InLongTopic;
 
+import com.google.protobuf.CodedInputStream;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 public class MessageDeserializer implements Deserializer {
 
@@ -62,6 +67,11 @@ public class MessageDeserializer implements Deserializer {
 
     private static final String PARSE_ATTR_ERROR_STRING = "Could not find %s in attributes!";
 
+    private static final int INIT_DECOMPRESS_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_DECOMPRESS_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final ThreadLocal<byte[]> DECOMPRESS_BUFFER = ThreadLocal
+            .withInitial(() -> new byte[INIT_DECOMPRESS_BUFFER_SIZE]);
+
     public MessageDeserializer() {
     }
 
@@ -115,18 +125,15 @@ public class MessageDeserializer implements Deserializer {
         String inlongStreamId = headers.getOrDefault(INLONG_STREAMID_KEY, "");
         switch (compressType) {
             case COMPRESS_TYPE_NONE: {
-                return transformMessageObjs(context, inLongTopic, MessageObjs.parseFrom(msgBytes), inlongGroupId,
-                        inlongStreamId);
+                return transformMessageObjs(context, inLongTopic, msgBytes, inlongGroupId, inlongStreamId);
             }
             case COMPRESS_TYPE_SNAPPY: {
                 byte[] values = Utils.snappyDecompress(msgBytes, 0, msgBytes.length);
-                return transformMessageObjs(context, inLongTopic, MessageObjs.parseFrom(values), inlongGroupId,
-                        inlongStreamId);
+                return transformMessageObjs(context, inLongTopic, values, inlongGroupId, inlongStreamId);
             }
             case COMPRESS_TYPE_GZIP: {
-                byte[] values = Utils.gzipDecompress(msgBytes, 0, msgBytes.length);
-                return transformMessageObjs(context, inLongTopic, MessageObjs.parseFrom(values), inlongGroupId,
-                        inlongStreamId);
+                byte[] values = gzipDecompress(msgBytes);
+                return transformMessageObjs(context, inLongTopic, values, inlongGroupId, inlongStreamId);
             }
             default:
                 throw new IllegalArgumentException("Unknown compress type:" + compressType);
@@ -134,31 +141,47 @@ public class MessageDeserializer implements Deserializer {
     }
 
     /**
-     * transform MessageObjs to SortSdkMessage
+     * gzip decompress into the pooled buffer of the thread, and copy out the result only once
      *
-     * @param messageObjs {@link MessageObjs}
-     * @return {@link List}
+     * @param msgBytes byte[]
+     * @return decompressed bytes
+     */
+    private static byte[] gzipDecompress(byte[] msgBytes) throws IOException {
+        byte[] buf = DECOMPRESS_BUFFER.get();
+        int offset = 0;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(msgBytes), 8192)) {
+            int readNum;
+            while ((readNum = gzip.read(buf, offset, buf.length - offset)) != -1) {
+                offset += readNum;
+                if (offset == buf.length) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                }
+            }
+        }
+        if (buf.length <= MAX_POOLED_DECOMPRESS_BUFFER_SIZE) {
+            DECOMPRESS_BUFFER.set(buf);
+        }
+        return Arrays.copyOf(buf, offset);
+    }
+
+    /**
+     * transform MessageObjs to lazy messages, the bodies alias the decompressed buffer
+     *
+     * @param values decompressed bytes of {@link MessageObjs}
+     * @return {@link InLongMessageBatch}
      */
     private List<InLongMessage> transformMessageObjs(
             ClientContext context, InLongTopic inLongTopic,
-            MessageObjs messageObjs, String inlongGroupId,
-            String inlongStreamId) {
-        if (null == messageObjs) {
-            return null;
-        }
-        List<InLongMessage> inLongMessages = new ArrayList<>();
+            byte[] values, String inlongGroupId,
+            String inlongStreamId) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(values);
+        input.enableAliasing(true);
+        MessageObjs messageObjs = MessageObjs.parseFrom(input);
+        List<InLongMessage> inLongMessages = new ArrayList<>(messageObjs.getMsgsCount());
         for (MessageObj messageObj : messageObjs.getMsgsList()) {
-            List<MapFieldEntry> mapFieldEntries = messageObj.getParamsList();
-            Map<String, String> headers = new HashMap<>();
-            for (MapFieldEntry mapFieldEntry : mapFieldEntries) {
-                headers.put(mapFieldEntry.getKey(), mapFieldEntry.getValue());
-            }
-            InLongMessage inLongMessage = new InLongMessage(inlongGroupId, inlongStreamId, messageObj.getMsgTime(),
-                    messageObj.getSourceIp(),
-                    messageObj.getBody().toByteArray(), headers);
-            inLongMessages.add(inLongMessage);
+            inLongMessages.add(new PbInLongMessage(inlongGroupId, inlongStreamId, messageObj));
         }
-        return inLongMessages;
+        return new InLongMessageBatch(values, inLongMessages);
     }
 
     private List<InLongMessage> decodeInlongMsg(
@@ -167,6 +190,8 @@ public class MessageDeserializer implements Deserializer {
             byte[] msgBytes,
             Map<String, String> headers) {
         List<InLongMessage> messageList = new ArrayList<>();
+        String lastDate = null;
+        long lastDateTime = 0L;
 
         InLongMsg inLongMsg = InLongMsg.parseFrom(msgBytes);
         for (String attr : inLongMsg.getAttrs()) {
@@ -185,7 +210,12 @@ public class MessageDeserializer implements Deserializer {
             long msgTime;
             if (attributes.containsKey(INLONGMSG_ATTR_TIME_T)) {
                 String date = attributes.get(INLONGMSG_ATTR_TIME_T).trim();
-                msgTime = StringUtil.parseDateTime(date);
+                // the attrs of a pack are usually in the same time
+                if (!date.equals(lastDate)) {
+                    lastDateTime = StringUtil.parseDateTime(date);
+                    lastDate = date;
+                }
+                msgTime = lastDateTime;
             } else if (attributes.containsKey(INLONGMSG_ATTR_TIME_DT)) {
                 String epoch = attributes.get(INLONGMSG_ATTR_TIME_DT).trim();
                 msgTime = Long.parseLong(epoch);
@@ -197,18 +227,18 @@ public class MessageDeserializer implements Deserializer {
             String srcIp = Optional.ofNullable(attributes.get(INLONGMSG_ATTR_CLIENT_IP))
                     .orElse(DEFAULT_IP);
 
-            Iterator<byte[]> iterator = inLongMsg.getIterator(attr);
+            Iterator<ByteBuffer> iterator = inLongMsg.getIteratorBuffer(attr);
             while (iterator.hasNext()) {
-                byte[] bodyBytes = iterator.next();
-                if (Objects.isNull(bodyBytes)) {
+                ByteBuffer bodyBuffer = iterator.next();
+                if (Objects.isNull(bodyBuffer)) {
                     continue;
                 }
-                InLongMessage inLongMessage = new InLongMessage(groupId, streamId, msgTime,
-                        srcIp, bodyBytes, attributes);
+                InLongMessage inLongMessage = new InLongMsgMessage(groupId, streamId, msgTime,
+                        srcIp, attributes, bodyBuffer);
                 messageList.add(inLongMessage);
             }
         }
-        return messageList;
+        return new InLongMessageBatch(msgBytes, messageList);
     }
 
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.impl.decode;
+
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MapFieldEntry;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObj;
+import org.apache.inlong.sdk.sort.entity.InLongMessage;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lazy message of a PB pack, the body aliases the decompressed buffer
+ * and the params map is built on the first access.
+ */
+public class PbInLongMessage extends InLongMessage {
+
+    private final MessageObj messageObj;
+    private volatile byte[] body;
+    private volatile Map<String, String> params;
+
+    public PbInLongMessage(String inlongGroupId, String inlongStreamId, MessageObj messageObj) {
+        super(inlongGroupId, inlongStreamId, messageObj.getMsgTime(), messageObj.getSourceIp());
+        this.messageObj = messageObj;
+    }
+
+    @Override
+    public byte[] getBody() {
+        byte[] result = body;
+        if (result == null) {
+            result = messageObj.getBody().toByteArray();
+            body = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, String> getParams() {
+        Map<String, String> result = params;
+        if (result == null) {
+            List<MapFieldEntry> mapFieldEntries = messageObj.getParamsList();
+            result = new HashMap<>();
+            for (MapFieldEntry mapFieldEntry : mapFieldEntries) {
+                result.put(mapFieldEntry.getKey(), mapFieldEntry.getValue());
+            }
+            params = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String getParam(String key) {
+        Map<String, String> result = params;
+        if (result != null) {
+            return result.get(key);
+        }
+        // the last entry wins as the params map
+        String value = null;
+        for (MapFieldEntry mapFieldEntry : messageObj.getParamsList()) {
+            if (mapFieldEntry.getKey().equals(key)) {
+                value = mapFieldEntry.getValue();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public ByteBuffer getBodyBuffer() {
+        return messageObj.getBody().asReadOnlyByteBuffer();
+    }
+
+    @Override
+    public int getBodyLength() {
+        return messageObj.getBody().size();
+    }
+}
@@ -36,8 +36,8 @@ import java.util.stream.Collectors;
 public class MsgTimeInterceptor implements Interceptor {
 
     private static final Logger logger = LoggerFactory.getLogger(MsgTimeInterceptor.class);
-    private long startTime;
-    private long stopTime;
+    // the interceptor is shared by the decode threads, so the time interval is replaced as a whole
+    private volatile TimeInterval interval = new TimeInterval(0, 0);
 
     public MsgTimeInterceptor() {
     }
@@ -47,20 +47,33 @@ public class MsgTimeInterceptor implements Interceptor {
         if (CollectionUtils.isEmpty(messages)) {
             return new ArrayList<>(0);
         }
+        TimeInterval current = interval;
         return messages.stream()
-                .filter(msg -> isValidMsgTime(msg.getMsgTime()))
+                .filter(msg -> current.contains(msg.getMsgTime()))
                 .collect(Collectors.toList());
     }
 
     @Override
     public void configure(InLongTopic inLongTopic) {
-        startTime = TimeUtil.parseStartTime(inLongTopic);
-        stopTime = TimeUtil.parseStopTime(inLongTopic);
+        long startTime = TimeUtil.parseStartTime(inLongTopic);
+        long stopTime = TimeUtil.parseStopTime(inLongTopic);
+        interval = new TimeInterval(startTime, stopTime);
         logger.info("start to config MsgTimeInterceptor, start time is {}, stop time is {}", startTime, stopTime);
     }
 
-    private boolean isValidMsgTime(long msgTime) {
-        return msgTime >= startTime && msgTime <= stopTime;
+    private static class TimeInterval {
+
+        private final long startTime;
+        private final long stopTime;
+
+        TimeInterval(long startTime, long stopTime) {
+            this.startTime = startTime;
+            this.stopTime = stopTime;
+        }
+
+        boolean contains(long msgTime) {
+            return msgTime >= startTime && msgTime <= stopTime;
+        }
     }
 
 }
@@ -19,6 +19,7 @@ package org.apache.inlong.sdk.sort.metrics;
 
 import org.apache.inlong.common.metric.CountMetric;
 import org.apache.inlong.common.metric.Dimension;
+import org.apache.inlong.common.metric.GaugeMetric;
 import org.apache.inlong.common.metric.MetricDomain;
 import org.apache.inlong.common.metric.MetricItem;
 
@@ -61,6 +62,9 @@ public class SortSdkMetricItem extends MetricItem {
     public static final String M_REQUEST_MANAGER_CONF_CHANAGED_COUNT = "requestManagerConfChanagedCount";
     public static final String M_RQUEST_MANAGER_COMMON_ERROR_COUNT = "requestManagerCommonErrorCount";
     public static final String M_RQUEST_MANAGER_PARAM_ERROR_COUNT = "requestManagerParamErrorCount";
+    // GaugeMetric
+    public static final String M_DECODE_QUEUE_SIZE = "decodeQueueSize";
+    public static final String M_REORDER_QUEUE_SIZE = "reorderQueueSize";
 
     @Dimension
     public String sortTaskId;
@@ -113,6 +117,12 @@ public class SortSdkMetricItem extends MetricItem {
     public AtomicLong requestManagerCommonErrorCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong requestManagerParamErrorCount = new AtomicLong(0);
+    // records waiting for the decode threads
+    @GaugeMetric
+    public AtomicLong decodeQueueSize = new AtomicLong(0);
+    // records of the fetchers which are decoding or waiting for the in-order callback
+    @GaugeMetric
+    public AtomicLong reorderQueueSize = new AtomicLong(0);
 
     public SortSdkMetricItem() {
 
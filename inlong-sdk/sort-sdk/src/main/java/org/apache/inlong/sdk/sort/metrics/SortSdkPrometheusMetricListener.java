@@ -23,6 +23,7 @@ import org.apache.inlong.common.metric.MetricValue;
 
 import io.prometheus.client.Collector;
 import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,8 +34,10 @@ import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -48,6 +51,9 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
 
     private static final Logger LOG = LoggerFactory.getLogger(SortSdkPrometheusMetricListener.class);
 
+    private static final Set<String> GAUGE_METRICS = new HashSet<>(
+            Arrays.asList(M_DECODE_QUEUE_SIZE, M_REORDER_QUEUE_SIZE));
+
     private SortSdkMetricItem metricItem;
     private Map<String, AtomicLong> metricValueMap = new ConcurrentHashMap<>();
     private List<String> dimensionKeys = new ArrayList<>();
@@ -93,6 +99,9 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
                 metricItem.requestManagerCommonErrorCount);
         metricValueMap.put(SortSdkMetricItem.M_RQUEST_MANAGER_PARAM_ERROR_COUNT,
                 metricItem.requestManagerParamErrorCount);
+        // decode stage
+        metricValueMap.put(SortSdkMetricItem.M_DECODE_QUEUE_SIZE, metricItem.decodeQueueSize);
+        metricValueMap.put(SortSdkMetricItem.M_REORDER_QUEUE_SIZE, metricItem.reorderQueueSize);
 
         this.dimensionKeys.add(DEFAULT_DIMENSION_LABEL);
     }
@@ -129,8 +138,14 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
                 metricItem.requestManagerParamErrorCount.get());
         totalCounter.addMetric(Collections.singletonList(M_RQUEST_MANAGER_COMMON_ERROR_COUNT),
                 metricItem.requestManagerCommonErrorCount.get());
+        GaugeMetricFamily totalGauge = new GaugeMetricFamily("SortSdkGauge",
+                "The gauge metrics of SortSdk.",
+                Arrays.asList("dimension"));
+        totalGauge.addMetric(Collections.singletonList(M_DECODE_QUEUE_SIZE), metricItem.decodeQueueSize.get());
+        totalGauge.addMetric(Collections.singletonList(M_REORDER_QUEUE_SIZE), metricItem.reorderQueueSize.get());
         List<MetricFamilySamples> mfs = new ArrayList<>();
         mfs.add(totalCounter);
+        mfs.add(totalGauge);
         return mfs;
     }
 
@@ -153,6 +168,8 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
 
     @Override
     public void snapshot(String domain, List<MetricItemValue> itemValues) {
+        // gauges are the sum of the current values of all metric items
+        GAUGE_METRICS.forEach(key -> this.metricValueMap.get(key).set(0));
         itemValues.forEach(itemValue -> this.snapshot(domain, itemValue.getMetrics()));
     }
 }
\ No newline at end of file
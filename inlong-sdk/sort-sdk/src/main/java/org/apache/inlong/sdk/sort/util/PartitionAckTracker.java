@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.util;
+
+import java.util.Arrays;
+
+/**
+ * Ack tracker of one partition, it keeps the in-flight offsets in a ring bitmap and moves
+ * a watermark over the contiguous acked offsets, so tracking an offset does not box it.
+ * The offsets which are skipped by the consumer (compacted or control records) count as acked.
+ */
+public class PartitionAckTracker {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    // bit is set when the offset is in-flight
+    private long[] words;
+    private int mask;
+    // the first offset after the watermark, it is -1 before the first track
+    private long base = -1L;
+    // the offset after the last tracked one
+    private long next = -1L;
+    private int pendingCount;
+    private long committedOffset = -1L;
+
+    public PartitionAckTracker() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param initCapacity initial count of offsets in the ring, rounded up to a power of two
+     */
+    public PartitionAckTracker(int initCapacity) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < initCapacity) {
+            capacity <<= 1;
+        }
+        this.words = new long[capacity >>> 6];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * track a fetched offset, the offsets should be tracked in ascending order,
+     * a smaller offset means the consumer has been seeked back and resets the tracker.
+     * 
+     * @param offset
+     */
+    public synchronized void track(long offset) {
+        if (next < 0 || offset < next) {
+            this.reset(offset);
+        } else if (pendingCount == 0) {
+            // all tracked offsets are acked, skip the gap directly
+            base = offset;
+            committedOffset = offset - 1;
+        }
+        while (offset - base > mask) {
+            this.grow();
+        }
+        int index = (int) (offset & mask);
+        words[index >>> 6] |= 1L << index;
+        pendingCount++;
+        next = offset + 1;
+    }
+
+    /**
+     * ack a tracked offset
+     * 
+     * @param  offset
+     * @return        false if the offset is not in-flight, it has been acked or belongs to a reset range
+     */
+    public synchronized boolean ack(long offset) {
+        if (offset < base || offset >= next) {
+            return false;
+        }
+        int index = (int) (offset & mask);
+        long bit = 1L << index;
+        if ((words[index >>> 6] & bit) == 0) {
+            return false;
+        }
+        words[index >>> 6] &= ~bit;
+        pendingCount--;
+        return true;
+    }
+
+    /**
+     * untrack the last tracked offset which is not handed to the callback,
+     * the watermark never moves over it, so it is consumed again after restart or rebalance.
+     * 
+     * @param  offset
+     * @return        false if the offset is not the last tracked one or it has been acked
+     */
+    public synchronized boolean untrack(long offset) {
+        if (offset != next - 1 || offset < base) {
+            return false;
+        }
+        int index = (int) (offset & mask);
+        long bit = 1L << index;
+        if ((words[index >>> 6] & bit) == 0) {
+            return false;
+        }
+        words[index >>> 6] &= ~bit;
+        pendingCount--;
+        next = offset;
+        return true;
+    }
+
+    /**
+     * move the watermark over the contiguous acked offsets
+     * 
+     * @return the last contiguous acked offset, -1 if it is not changed since the last moving
+     */
+    public synchronized long advance() {
+        if (next < 0) {
+            return -1L;
+        }
+        while (base < next) {
+            int index = (int) (base & mask);
+            long word = words[index >>> 6] >>> index;
+            if (word != 0) {
+                base += Long.numberOfTrailingZeros(word);
+                break;
+            }
+            base += 64 - (index & 63);
+        }
+        if (base > next) {
+            base = next;
+        }
+        if (base - 1 == committedOffset) {
+            return -1L;
+        }
+        committedOffset = base - 1;
+        return committedOffset;
+    }
+
+    /**
+     * hasPending
+     * 
+     * @return true if there is any in-flight offset
+     */
+    public synchronized boolean hasPending() {
+        return pendingCount > 0;
+    }
+
+    /**
+     * get count of the in-flight offsets
+     * 
+     * @return pendingCount
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * get the first in-flight offset
+     * 
+     * @return the first in-flight offset, -1 if there is no in-flight offset
+     */
+    public synchronized long getFirstPendingOffset() {
+        if (pendingCount == 0) {
+            return -1L;
+        }
+        for (long offset = base; offset < next; offset++) {
+            int index = (int) (offset & mask);
+            if ((words[index >>> 6] & (1L << index)) != 0) {
+                return offset;
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * get the last contiguous acked offset
+     * 
+     * @return committedOffset
+     */
+    public synchronized long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    private void reset(long offset) {
+        Arrays.fill(words, 0L);
+        pendingCount = 0;
+        base = offset;
+        next = offset;
+        committedOffset = offset - 1;
+    }
+
+    private void grow() {
+        int capacity = (mask + 1) << 1;
+        long[] newWords = new long[capacity >>> 6];
+        int newMask = capacity - 1;
+        for (long offset = base; offset < next; offset++) {
+            int index = (int) (offset & mask);
+            if ((words[index >>> 6] & (1L << index)) != 0) {
+                int newIndex = (int) (offset & newMask);
+                newWords[newIndex >>> 6] |= 1L << newIndex;
+            }
+        }
+        this.words = newWords;
+        this.mask = newMask;
+    }
+}
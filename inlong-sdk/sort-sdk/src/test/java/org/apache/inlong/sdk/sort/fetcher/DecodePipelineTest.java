@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.fetcher;
+
+import org.apache.inlong.sdk.sort.api.ClientContext;
+import org.apache.inlong.sdk.sort.entity.CacheZoneCluster;
+import org.apache.inlong.sdk.sort.entity.InLongTopic;
+import org.apache.inlong.sdk.sort.entity.MessageRecord;
+import org.apache.inlong.sdk.sort.impl.ClientContextImpl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(PowerMockRunner.class)
+public class DecodePipelineTest {
+
+    private ClientContext context;
+    private InLongTopic inLongTopic;
+
+    private void setUp() {
+        System.setProperty("log4j2.disable.jmx", Boolean.TRUE.toString());
+        context = PowerMockito.mock(ClientContextImpl.class);
+        inLongTopic = new InLongTopic();
+        inLongTopic.setTopic("testTopic");
+        inLongTopic.setInLongCluster(new CacheZoneCluster("clusterId", "bootstraps", "token"));
+    }
+
+    @Test
+    public void testOrderedCallback() throws Exception {
+        setUp();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int maxInFlight = 16;
+        int count = 2000;
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger decoding = new AtomicInteger(0);
+        AtomicInteger maxDecoding = new AtomicInteger(0);
+        DecodePipeline pipeline = new DecodePipeline(context, inLongTopic, executor, maxInFlight,
+                (records, partition) -> records.forEach(record -> delivered.add(record.getOffset())));
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            Assert.assertTrue(pipeline.submit(index % 3, () -> {
+                maxDecoding.accumulateAndGet(decoding.incrementAndGet(), Math::max);
+                TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(200));
+                decoding.decrementAndGet();
+                if (index % 100 == 7) {
+                    throw new IllegalStateException("broken message " + index);
+                }
+                if (index % 100 == 8) {
+                    // filtered out
+                    return Collections.emptyList();
+                }
+                return Collections.singletonList(
+                        new MessageRecord("testTopic", Collections.emptyList(), index + ":" + index, 0L));
+            }));
+            Assert.assertTrue(pipeline.getInFlightCount() <= maxInFlight);
+        }
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (pipeline.getInFlightCount() > 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        executor.shutdownNow();
+        Assert.assertEquals(0, pipeline.getInFlightCount());
+        Assert.assertTrue(maxDecoding.get() <= maxInFlight);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % 100 != 7 && i % 100 != 8) {
+                expected.add(i + ":" + i);
+            }
+        }
+        Assert.assertEquals(expected, delivered);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        setUp();
+        List<List<MessageRecord>> delivered = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        // run the decode tasks manually
+        DecodePipeline pipeline = new DecodePipeline(context, inLongTopic, tasks::add, 2,
+                (records, partition) -> delivered.add(records));
+        MessageRecord record = new MessageRecord("testTopic", Collections.emptyList(), "0:0", 0L);
+        Assert.assertTrue(pipeline.submit(0, () -> Collections.singletonList(record)));
+        Assert.assertTrue(pipeline.submit(0, () -> Collections.singletonList(record)));
+        Assert.assertEquals(2, pipeline.getInFlightCount());
+        // complete out of order, the second one waits for the first one
+        tasks.get(1).run();
+        Assert.assertTrue(delivered.isEmpty());
+        tasks.get(0).run();
+        Assert.assertEquals(2, delivered.size());
+
+        Assert.assertTrue(pipeline.submit(0, () -> Collections.singletonList(record)));
+        Assert.assertTrue(pipeline.submit(0, () -> Collections.singletonList(record)));
+        pipeline.close();
+        // the stage is full and closed
+        Assert.assertFalse(pipeline.submit(0, () -> Collections.singletonList(record)));
+        tasks.get(2).run();
+        tasks.get(3).run();
+        Assert.assertEquals(2, delivered.size());
+        Assert.assertEquals(0, pipeline.getInFlightCount());
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObjs;
 import org.apache.inlong.sdk.sort.api.ClientContext;
 import org.apache.inlong.sdk.sort.entity.CacheZoneCluster;
 import org.apache.inlong.sdk.sort.entity.InLongMessage;
+import org.apache.inlong.sdk.sort.entity.InLongMessageBatch;
 import org.apache.inlong.sdk.sort.entity.InLongTopic;
 import org.apache.inlong.sdk.sort.impl.ClientContextImpl;
 
@@ -35,6 +36,7 @@ import org.junit.runner.RunWith;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +88,9 @@ public class MessageDeserializerTest {
 
         // 6. DeserializeVersion2NoCompress
         testDeserializeVersion2NoCompress();
+
+        // 7. testDeserializeLazyMessage
+        testDeserializeLazyMessage();
     }
 
     private void testDeserializeVersion0() {
@@ -181,6 +186,32 @@ public class MessageDeserializerTest {
         }
     }
 
+    private void testDeserializeLazyMessage() {
+        try {
+            prepareTestMessageObjs();
+            headers.put("compressType", "1");
+
+            byte[] testDataByteArray = Utils.compressGZip(messageObjs.toByteArray());
+
+            List<InLongMessage> deserialize = messageDeserializer
+                    .deserialize(context, inLongTopic, headers, testDataByteArray);
+            Assert.assertTrue(deserialize instanceof InLongMessageBatch);
+            InLongMessage message = deserialize.get(1);
+            Assert.assertEquals("ip2", message.getSourceIp());
+            Assert.assertEquals("val", message.getParam("key"));
+            Assert.assertNull(message.getParam("none"));
+            Assert.assertEquals(testData.length(), message.getBodyLength());
+            ByteBuffer bodyBuffer = message.getBodyBuffer();
+            byte[] body = new byte[bodyBuffer.remaining()];
+            bodyBuffer.get(body);
+            Assert.assertEquals(testData, new String(body));
+            Assert.assertEquals("val", message.getParams().get("key"));
+            Assert.assertEquals(testData, new String(message.getBody()));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
     private void prepareTestMessageObjs() {
         headers.put("version", "1");
         testData = "test data";
@@ -39,10 +39,9 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
-import org.powermock.reflect.Whitebox;
 
+import java.util.Base64;
 import java.util.HashMap;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -108,13 +107,10 @@ public class InLongPulsarFetcherImplTest {
         TopicFetcher inLongTopicFetcher = new PulsarSingleTopicFetcher(inLongTopic, clientContext,
                 new MsgTimeInterceptor(), new MessageDeserializer(), null);
         MessageId messageId = PowerMockito.mock(MessageId.class);
-        ConcurrentHashMap<String, MessageId> offsetCache = new ConcurrentHashMap<>();
-        offsetCache.put("test", messageId);
-
-        Whitebox.setInternalState(inLongTopicFetcher, "offsetCache", offsetCache);
+        when(messageId.toByteArray()).thenReturn("test".getBytes());
 
         try {
-            inLongTopicFetcher.ack("test");
+            inLongTopicFetcher.ack(Base64.getEncoder().encodeToString(messageId.toByteArray()));
         } catch (Exception e) {
             e.printStackTrace();
         }
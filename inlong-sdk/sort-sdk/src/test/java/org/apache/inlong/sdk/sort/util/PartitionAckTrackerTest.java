@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+public class PartitionAckTrackerTest {
+
+    @Test
+    public void testContiguousAck() {
+        PartitionAckTracker tracker = new PartitionAckTracker();
+        Assert.assertEquals(-1L, tracker.advance());
+        for (long offset = 100; offset < 110; offset++) {
+            tracker.track(offset);
+        }
+        Assert.assertTrue(tracker.ack(101));
+        Assert.assertTrue(tracker.ack(102));
+        // the first offset has not been acked
+        Assert.assertEquals(-1L, tracker.advance());
+        Assert.assertTrue(tracker.ack(100));
+        Assert.assertEquals(102L, tracker.advance());
+        // duplicated and unknown acks are ignored
+        Assert.assertFalse(tracker.ack(100));
+        Assert.assertFalse(tracker.ack(110));
+        Assert.assertEquals(-1L, tracker.advance());
+        for (long offset = 103; offset < 110; offset++) {
+            tracker.ack(offset);
+        }
+        Assert.assertFalse(tracker.hasPending());
+        Assert.assertEquals(109L, tracker.advance());
+        Assert.assertEquals(109L, tracker.getCommittedOffset());
+    }
+
+    @Test
+    public void testGapAndGrow() {
+        PartitionAckTracker tracker = new PartitionAckTracker(16);
+        tracker.track(0);
+        // the skipped offsets count as acked
+        tracker.track(5000);
+        tracker.track(5001);
+        Assert.assertEquals(3, tracker.getPendingCount());
+        Assert.assertTrue(tracker.ack(5000));
+        Assert.assertEquals(-1L, tracker.advance());
+        Assert.assertEquals(0L, tracker.getFirstPendingOffset());
+        Assert.assertTrue(tracker.ack(0));
+        Assert.assertEquals(5000L, tracker.advance());
+        Assert.assertEquals(5001L, tracker.getFirstPendingOffset());
+        Assert.assertTrue(tracker.ack(5001));
+        Assert.assertEquals(5001L, tracker.advance());
+        // no in-flight offset, jump over the gap without growing
+        tracker.track(1000000L);
+        Assert.assertTrue(tracker.ack(1000000L));
+        Assert.assertEquals(1000000L, tracker.advance());
+    }
+
+    @Test
+    public void testSeekBack() {
+        PartitionAckTracker tracker = new PartitionAckTracker();
+        for (long offset = 10; offset < 20; offset++) {
+            tracker.track(offset);
+            tracker.ack(offset);
+        }
+        Assert.assertEquals(19L, tracker.advance());
+        // seek back to an offset which has been committed, nothing to commit before it is acked
+        tracker.track(15);
+        Assert.assertEquals(-1L, tracker.advance());
+        Assert.assertTrue(tracker.ack(15));
+        Assert.assertEquals(15L, tracker.advance());
+    }
+
+    @Test
+    public void testRandomAck() {
+        PartitionAckTracker tracker = new PartitionAckTracker();
+        Random random = new Random(7);
+        TreeSet<Long> pending = new TreeSet<>();
+        long next = 0;
+        long committed = -1;
+        for (int round = 0; round < 20000; round++) {
+            if (random.nextInt(3) > 0 || pending.isEmpty()) {
+                next += 1 + random.nextInt(2);
+                if (pending.isEmpty()) {
+                    // the gap before the offset is skipped without a commit
+                    committed = next - 1;
+                }
+                tracker.track(next);
+                pending.add(next);
+            } else {
+                Long offset = pending.ceiling(pending.first() + random.nextInt(3000));
+                if (offset == null) {
+                    offset = pending.last();
+                }
+                Assert.assertTrue(tracker.ack(offset));
+                pending.remove(offset);
+            }
+            long expect = pending.isEmpty() ? next : pending.first() - 1;
+            long result = tracker.advance();
+            if (expect != committed) {
+                Assert.assertEquals(expect, result);
+                committed = expect;
+            } else {
+                Assert.assertEquals(-1L, result);
+            }
+        }
+    }
+
+    @Test
+    public void testUntrack() {
+        PartitionAckTracker tracker = new PartitionAckTracker();
+        tracker.track(0);
+        tracker.track(1);
+        tracker.track(2);
+        // only the last tracked offset can be untracked
+        Assert.assertFalse(tracker.untrack(1));
+        Assert.assertTrue(tracker.untrack(2));
+        tracker.ack(0);
+        tracker.ack(1);
+        Assert.assertFalse(tracker.hasPending());
+        // the watermark never moves over the untracked offset
+        Assert.assertEquals(1L, tracker.advance());
+        tracker.track(2);
+        Assert.assertTrue(tracker.hasPending());
+        Assert.assertEquals(-1L, tracker.advance());
+        tracker.ack(2);
+        Assert.assertEquals(2L, tracker.advance());
+    }
+}
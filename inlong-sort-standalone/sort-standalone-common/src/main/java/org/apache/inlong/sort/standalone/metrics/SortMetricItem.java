@@ -19,6 +19,7 @@ package org.apache.inlong.sort.standalone.metrics;
 
 import org.apache.inlong.common.metric.CountMetric;
 import org.apache.inlong.common.metric.Dimension;
+import org.apache.inlong.common.metric.GaugeMetric;
 import org.apache.inlong.common.metric.MetricDomain;
 import org.apache.inlong.common.metric.MetricItem;
 import org.apache.inlong.common.msg.AttributeConstants;
@@ -52,6 +53,7 @@ public class SortMetricItem extends MetricItem {
     public static final String M_READ_SUCCESS_SIZE = "readSuccessSize";
     public static final String M_READ_FAIL_COUNT = "readFailCount";
     public static final String M_READ_FAIL_SIZE = "readFailSize";
+    public static final String M_READ_FILTER_COUNT = "readFilterCount";
     public static final String M_SEND_COUNT = "sendCount";
     public static final String M_SEND_SIZE = "sendSize";
     public static final String M_SEND_SUCCESS_COUNT = "sendSuccessCount";
@@ -62,6 +64,14 @@ public class SortMetricItem extends MetricItem {
     public static final String M_SINK_DURATION = "sinkDuration";
     public static final String M_NODE_DURATION = "nodeDuration";
     public static final String M_WHOLE_DURATION = "wholeDuration";
+    // adaptive bulk
+    public static final String M_BULK_ACTION = "bulkAction";
+    public static final String M_BULK_CONCURRENCY = "bulkConcurrency";
+    public static final String M_BULK_LATENCY = "bulkLatency";
+    public static final String M_BULK_REJECT_COUNT = "bulkRejectCount";
+    // local disk rollback
+    public static final String M_SPILL_BYTES = "spillBytes";
+    public static final String M_SPILL_AGE = "spillAge";
 
     @Dimension
     public String clusterId;
@@ -89,6 +99,9 @@ public class SortMetricItem extends MetricItem {
     public AtomicLong readFailCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong readFailSize = new AtomicLong(0);
+    // messages of the other sort tasks, which are discarded before the channel
+    @CountMetric
+    public AtomicLong readFilterCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong sendCount = new AtomicLong(0);
     @CountMetric
@@ -110,6 +123,20 @@ public class SortMetricItem extends MetricItem {
     @CountMetric
     // sinkCallbackTime - eventCreateTime(milliseconds)
     public AtomicLong wholeDuration = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong bulkAction = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong bulkConcurrency = new AtomicLong(0);
+    @GaugeMetric
+    // latency of the last bulk(milliseconds)
+    public AtomicLong bulkLatency = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong bulkRejectCount = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong spillBytes = new AtomicLong(0);
+    @GaugeMetric
+    // age of the earliest spilled profile(milliseconds)
+    public AtomicLong spillAge = new AtomicLong(0);
 
     /**
      * fillInlongId
@@ -18,6 +18,7 @@
 package org.apache.inlong.sort.standalone.utils;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -61,6 +62,20 @@ public class BufferQueue<A> {
         return record;
     }
 
+    /**
+     * pollRecord, wait until a record is offered or timeout
+     * 
+     * @param  timeout
+     * @param  unit
+     * @return                      null if timeout
+     * @throws InterruptedException
+     */
+    public A pollRecord(long timeout, TimeUnit unit) throws InterruptedException {
+        A record = queue.poll(timeout, unit);
+        this.pollCount.getAndIncrement();
+        return record;
+    }
+
     /**
      * offer
      */
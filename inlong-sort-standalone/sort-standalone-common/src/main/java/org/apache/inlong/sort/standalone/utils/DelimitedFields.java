@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.inlong.sort.standalone.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 
+ * DelimitedFields
+ * <p>
+ * Byte level tokenizer of a utf-8 delimited text, the result is the same as decoding the text and
+ * calling {@link UnescapeHelper#toFiledList(String, char)}.
+ * A field is an offset range of the original bytes, only the fields with escape bytes are unescaped
+ * to an internal buffer. An ascii separator other than backslash never appears inside a multi-byte utf-8 char,
+ * other separators are split through UnescapeHelper and all the fields are copied to the internal buffer.
+ * The buffers are reused by the next split, so an instance is not thread-safe.
+ */
+public class DelimitedFields {
+
+    private static final int INIT_FIELD_COUNT = 32;
+    private static final byte ESCAPE = '\\';
+
+    private byte[] source;
+    private byte[] unescaped = new byte[0];
+    private int unescapedSize = 0;
+    private int[] starts = new int[INIT_FIELD_COUNT];
+    private int[] ends = new int[INIT_FIELD_COUNT];
+    private boolean[] escaped = new boolean[INIT_FIELD_COUNT];
+    private int size = 0;
+
+    /**
+     * isSupported
+     * 
+     * @param  separator
+     * @return           true if the separator is split at byte level
+     */
+    public static boolean isSupported(char separator) {
+        return separator < 0x80 && separator != ESCAPE;
+    }
+
+    /**
+     * split the bytes by separator
+     * 
+     * @param  bytes
+     * @param  offset
+     * @param  length
+     * @param  separator
+     * @return           this
+     */
+    public DelimitedFields split(byte[] bytes, int offset, int length, char separator) {
+        this.source = bytes;
+        this.size = 0;
+        this.unescapedSize = 0;
+        if (length <= 0) {
+            return this;
+        }
+        if (!isSupported(separator)) {
+            this.splitString(new String(bytes, offset, length, StandardCharsets.UTF_8), separator);
+            return this;
+        }
+        byte sep = (byte) separator;
+        int limit = offset + length;
+        int fieldStart = offset;
+        boolean fieldEscaped = false;
+        int i = offset;
+        while (i < limit) {
+            byte b = bytes[i];
+            if (b == ESCAPE && i + 1 < limit && isEscapedByte(bytes[i + 1], sep)) {
+                fieldEscaped = true;
+                i += 2;
+                continue;
+            }
+            if (b == sep) {
+                this.addField(fieldStart, i, fieldEscaped, sep);
+                fieldStart = i + 1;
+                fieldEscaped = false;
+            }
+            i++;
+        }
+        // the last field, it is empty if the text ends with separator
+        this.addField(fieldStart, limit, fieldEscaped, sep);
+        return this;
+    }
+
+    /**
+     * size
+     * 
+     * @return count of fields
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * get the bytes of a field, the source bytes or the internal buffer of unescaped fields
+     * 
+     * @param  index
+     * @return
+     */
+    public byte[] getArray(int index) {
+        return escaped[index] ? unescaped : source;
+    }
+
+    /**
+     * get start offset of a field in {@link #getArray(int)}
+     * 
+     * @param  index
+     * @return
+     */
+    public int getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * get end offset(exclusive) of a field in {@link #getArray(int)}
+     * 
+     * @param  index
+     * @return
+     */
+    public int getEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * get a field as string
+     * 
+     * @param  index
+     * @return
+     */
+    public String getString(int index) {
+        return new String(getArray(index), starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * get a field as string, truncated at a char boundary to maxBytes utf-8 bytes
+     * 
+     * @param  index
+     * @param  maxBytes
+     * @return
+     */
+    public String getString(int index, int maxBytes) {
+        byte[] array = getArray(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        if (length > maxBytes) {
+            length = Math.max(0, maxBytes);
+            // not cut in a multi-byte char
+            while (length > 0 && (array[start + length] & 0xC0) == 0x80) {
+                length--;
+            }
+        }
+        return new String(array, start, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * splitString
+     * 
+     * @param text
+     * @param separator
+     */
+    private void splitString(String text, char separator) {
+        List<String> fields = UnescapeHelper.toFiledList(text, separator);
+        for (String field : fields) {
+            byte[] fieldBytes = field.getBytes(StandardCharsets.UTF_8);
+            this.ensureCapacity(fieldBytes.length);
+            System.arraycopy(fieldBytes, 0, unescaped, unescapedSize, fieldBytes.length);
+            this.addRange(unescapedSize, unescapedSize + fieldBytes.length, true);
+            this.unescapedSize += fieldBytes.length;
+        }
+    }
+
+    /**
+     * isEscapedByte
+     * 
+     * @param  next byte after backslash
+     * @param  sep
+     * @return
+     */
+    private static boolean isEscapedByte(byte next, byte sep) {
+        return next == '0' || next == 'n' || next == 'r' || next == ESCAPE || next == sep;
+    }
+
+    /**
+     * addField
+     * 
+     * @param start
+     * @param end
+     * @param fieldEscaped
+     * @param sep
+     */
+    private void addField(int start, int end, boolean fieldEscaped, byte sep) {
+        if (fieldEscaped) {
+            int unescapedStart = unescapedSize;
+            this.unescape(start, end, sep);
+            this.addRange(unescapedStart, unescapedSize, true);
+        } else {
+            this.addRange(start, end, false);
+        }
+    }
+
+    /**
+     * addRange
+     * 
+     * @param start
+     * @param end
+     * @param inBuffer true if the range is in the internal buffer
+     */
+    private void addRange(int start, int end, boolean inBuffer) {
+        if (size == starts.length) {
+            int newLength = size * 2;
+            this.starts = Arrays.copyOf(starts, newLength);
+            this.ends = Arrays.copyOf(ends, newLength);
+            this.escaped = Arrays.copyOf(escaped, newLength);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        escaped[size] = inBuffer;
+        size++;
+    }
+
+    /**
+     * ensureCapacity of the internal buffer
+     * 
+     * @param required
+     */
+    private void ensureCapacity(int required) {
+        if (required > unescaped.length - unescapedSize) {
+            this.unescaped = Arrays.copyOf(unescaped, Math.max(unescaped.length * 2, unescapedSize + required));
+        }
+    }
+
+    /**
+     * unescape a field to the internal buffer
+     * 
+     * @param start
+     * @param end
+     * @param sep
+     */
+    private void unescape(int start, int end, byte sep) {
+        this.ensureCapacity(end - start);
+        byte[] src = this.source;
+        byte[] dst = this.unescaped;
+        int pos = unescapedSize;
+        int i = start;
+        while (i < end) {
+            byte b = src[i];
+            if (b == ESCAPE && i + 1 < end && isEscapedByte(src[i + 1], sep)) {
+                byte next = src[i + 1];
+                if (next == 'n') {
+                    dst[pos++] = '\n';
+                } else if (next == 'r') {
+                    dst[pos++] = '\r';
+                } else {
+                    // "\0" is unescaped to char '0' by UnescapeHelper
+                    dst[pos++] = next;
+                }
+                i += 2;
+            } else {
+                dst[pos++] = b;
+                i++;
+            }
+        }
+        this.unescapedSize = pos;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.inlong.sort.standalone.utils;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 
+ * TestDelimitedFields
+ */
+public class TestDelimitedFields {
+
+    private static final String[] TEXTS = new String[]{
+            "",
+            "a",
+            "a|b|c",
+            "a||c|",
+            "|",
+            "a\\|b|c\\\\|d\\n\\r\\0e",
+            "a\\x|\\",
+            "\\|",
+            "\u4e2d|\u6587\\|\ud83d\ude00|"
+    };
+
+    /**
+     * test that the fields are the same as UnescapeHelper
+     */
+    @Test
+    public void testSameAsUnescapeHelper() {
+        DelimitedFields fields = new DelimitedFields();
+        for (char separator : new char[]{'|', '\t', '\u4e2d', '\\'}) {
+            for (String text : TEXTS) {
+                String input = text.replace('|', separator);
+                byte[] bytes = ("##" + input).getBytes(StandardCharsets.UTF_8);
+                fields.split(bytes, 2, bytes.length - 2, separator);
+                assertEquals(input, UnescapeHelper.toFiledList(input, separator), toList(fields));
+            }
+        }
+    }
+
+    /**
+     * test that the fields without escape are ranges of the source bytes
+     */
+    @Test
+    public void testZeroCopy() {
+        byte[] bytes = "a|b\\|c|d".getBytes(StandardCharsets.UTF_8);
+        DelimitedFields fields = new DelimitedFields().split(bytes, 0, bytes.length, '|');
+        assertEquals(3, fields.size());
+        assertSame(bytes, fields.getArray(0));
+        assertEquals(0, fields.getStart(0));
+        assertEquals(1, fields.getEnd(0));
+        assertEquals("b|c", fields.getString(1));
+        assertSame(bytes, fields.getArray(2));
+        assertEquals(7, fields.getStart(2));
+    }
+
+    /**
+     * test that the fields are truncated at char boundary
+     */
+    @Test
+    public void testTruncate() {
+        byte[] bytes = "\u4e2d\u6587ab|c".getBytes(StandardCharsets.UTF_8);
+        DelimitedFields fields = new DelimitedFields().split(bytes, 0, bytes.length, '|');
+        assertEquals("", fields.getString(0, 2));
+        assertEquals("\u4e2d", fields.getString(0, 5));
+        assertEquals("\u4e2d\u6587a", fields.getString(0, 7));
+        assertEquals("\u4e2d\u6587ab", fields.getString(0, 100));
+        assertEquals("c", fields.getString(1, 1));
+    }
+
+    /**
+     * toList
+     * 
+     * @param  fields
+     * @return
+     */
+    private static List<String> toList(DelimitedFields fields) {
+        List<String> values = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            values.add(fields.getString(i));
+        }
+        return values;
+    }
+}
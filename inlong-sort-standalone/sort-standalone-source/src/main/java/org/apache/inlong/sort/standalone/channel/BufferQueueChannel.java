@@ -33,6 +33,7 @@ import org.slf4j.Logger;
 import java.util.Date;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -73,7 +74,8 @@ public class BufferQueueChannel extends AbstractChannel {
     @Override
     public void put(Event event) throws ChannelException {
         putCounter.incrementAndGet();
-        int eventSize = event.getBody().length;
+        int eventSize = event instanceof ProfileEvent ? ((ProfileEvent) event).getBodyLength()
+                : event.getBody().length;
         this.bufferQueue.acquire(eventSize);
         ProfileTransaction transaction = currentTransaction.get();
         Preconditions.checkState(transaction != null, "No transaction exists for this thread");
@@ -94,7 +96,32 @@ public class BufferQueueChannel extends AbstractChannel {
      */
     @Override
     public Event take() throws ChannelException {
-        ProfileEvent event = this.bufferQueue.pollRecord();
+        return this.doTake(this.bufferQueue.pollRecord());
+    }
+
+    /**
+     * take, wait until an event is put or timeout
+     * 
+     * @param  timeoutMs
+     * @return                  Event, null if timeout
+     * @throws ChannelException
+     */
+    public Event take(long timeoutMs) throws ChannelException {
+        try {
+            return this.doTake(this.bufferQueue.pollRecord(timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            LOG.warn("take is interrupted:{}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * doTake
+     * 
+     * @param  event
+     * @return       Event
+     */
+    private Event doTake(ProfileEvent event) {
         if (event != null) {
             ProfileTransaction transaction = currentTransaction.get();
             Preconditions.checkState(transaction != null, "No transaction exists for this thread");
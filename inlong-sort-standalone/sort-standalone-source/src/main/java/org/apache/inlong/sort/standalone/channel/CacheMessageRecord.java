@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sort.standalone.channel;
 
+import org.apache.inlong.sdk.sort.api.AckHandle;
 import org.apache.inlong.sdk.sort.api.SortClient;
 import org.apache.inlong.sdk.sort.entity.MessageRecord;
 import org.apache.inlong.sort.standalone.config.holder.AckPolicy;
@@ -36,8 +37,10 @@ public class CacheMessageRecord {
 
     public static final Logger LOG = LoggerFactory.getLogger(CacheMessageRecord.class);
     private final SortClient client;
+    // only the ack position is kept, the messages are released once they are put into channel
     private final String msgKey;
     private final String offset;
+    private final AckHandle ackHandle;
     private final AtomicInteger ackCount;
     private final AckPolicy ackPolicy;
     private Set<Integer> tokenSet;
@@ -49,14 +52,27 @@ public class CacheMessageRecord {
      * @param client
      */
     public CacheMessageRecord(MessageRecord msgRecord, SortClient client, AckPolicy ackPolicy) {
+        this(msgRecord, msgRecord.getMsgs().size(), client, ackPolicy);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param msgRecord
+     * @param msgCount  count of the messages to ack, the others are not put into channel
+     * @param client
+     * @param ackPolicy
+     */
+    public CacheMessageRecord(MessageRecord msgRecord, int msgCount, SortClient client, AckPolicy ackPolicy) {
         this.msgKey = msgRecord.getMsgKey();
-        this.offset = msgRecord.getOffset();
-        this.ackCount = new AtomicInteger(msgRecord.getMsgs().size());
+        this.ackHandle = msgRecord.getAckHandle();
+        this.offset = ackHandle == null ? msgRecord.getOffset() : null;
+        this.ackCount = new AtomicInteger(msgCount);
         this.client = client;
         this.ackPolicy = ackPolicy;
         if (AckPolicy.TOKEN.equals(ackPolicy)) {
             this.tokenSet = new HashSet<>();
-            for (int i = 0; i < msgRecord.getMsgs().size(); i++) {
+            for (int i = 0; i < msgCount; i++) {
                 this.tokenSet.add(i);
             }
         }
@@ -92,13 +108,25 @@ public class CacheMessageRecord {
         int result = this.ackCount.decrementAndGet();
         if (result == 0 && client != null) {
             try {
-                client.ack(msgKey, offset);
+                this.ack();
             } catch (Exception e) {
                 LOG.error(e.getMessage(), e);
             }
         }
     }
 
+    /**
+     * ack
+     * @throws Exception
+     */
+    private void ack() throws Exception {
+        if (ackHandle != null) {
+            ackHandle.ack();
+            return;
+        }
+        client.ack(msgKey, offset);
+    }
+
     /**
      * ackMessageByToken
      * @param ackToken ackToken
@@ -108,7 +136,7 @@ public class CacheMessageRecord {
         int result = this.tokenSet.size();
         if (result == 0 && client != null) {
             try {
-                client.ack(msgKey, offset);
+                this.ack();
             } catch (Exception e) {
                 LOG.error(e.getMessage(), e);
             }
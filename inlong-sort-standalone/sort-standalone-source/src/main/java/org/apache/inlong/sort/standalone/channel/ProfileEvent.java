@@ -41,6 +41,10 @@ public class ProfileEvent extends SimpleEvent {
     private final long fetchTime;
     private CacheMessageRecord cacheRecord;
     private final int ackToken;
+    // the headers are copied from the sdk message on the first access
+    private volatile InLongMessage sdkMessage;
+    // the body is got from the sdk message on the first access
+    private volatile InLongMessage bodyMessage;
 
     /**
      * Constructor
@@ -66,8 +70,8 @@ public class ProfileEvent extends SimpleEvent {
      * @param cacheRecord
      */
     public ProfileEvent(InLongMessage sdkMessage, CacheMessageRecord cacheRecord) {
-        super.setHeaders(sdkMessage.getParams());
-        super.setBody(sdkMessage.getBody());
+        this.sdkMessage = sdkMessage;
+        this.bodyMessage = sdkMessage;
         this.inlongGroupId = sdkMessage.getInlongGroupId();
         this.inlongStreamId = sdkMessage.getInlongStreamId();
         this.uid = InlongId.generateUid(inlongGroupId, inlongStreamId);
@@ -78,6 +82,87 @@ public class ProfileEvent extends SimpleEvent {
         this.ackToken = cacheRecord.getToken();
     }
 
+    /**
+     * get headers, the headers of sdk message are materialized here
+     * 
+     * @return the headers
+     */
+    @Override
+    public Map<String, String> getHeaders() {
+        InLongMessage message = this.sdkMessage;
+        if (message != null) {
+            super.setHeaders(message.getParams());
+            this.sdkMessage = null;
+        }
+        return super.getHeaders();
+    }
+
+    /**
+     * set headers
+     * 
+     * @param headers
+     */
+    @Override
+    public void setHeaders(Map<String, String> headers) {
+        this.sdkMessage = null;
+        super.setHeaders(headers);
+    }
+
+    /**
+     * get body, the body of sdk message is materialized here
+     * 
+     * @return the body
+     */
+    @Override
+    public byte[] getBody() {
+        InLongMessage message = this.bodyMessage;
+        if (message != null) {
+            super.setBody(message.getBody());
+            this.bodyMessage = null;
+        }
+        return super.getBody();
+    }
+
+    /**
+     * set body
+     * 
+     * @param body
+     */
+    @Override
+    public void setBody(byte[] body) {
+        this.bodyMessage = null;
+        super.setBody(body);
+    }
+
+    /**
+     * get body length without materializing the body of sdk message
+     * 
+     * @return the body length
+     */
+    public int getBodyLength() {
+        InLongMessage message = this.bodyMessage;
+        if (message != null) {
+            return message.getBodyLength();
+        }
+        byte[] body = super.getBody();
+        return body == null ? 0 : body.length;
+    }
+
+    /**
+     * get one header without materializing the headers of sdk message
+     * 
+     * @param  key
+     * @return     header value
+     */
+    public String getHeader(String key) {
+        InLongMessage message = this.sdkMessage;
+        if (message != null) {
+            return message.getParam(key);
+        }
+        Map<String, String> headers = super.getHeaders();
+        return headers == null ? null : headers.get(key);
+    }
+
     /**
      * get inlongGroupId
      * 
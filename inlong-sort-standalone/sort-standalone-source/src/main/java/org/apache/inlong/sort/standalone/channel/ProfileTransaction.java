@@ -60,7 +60,7 @@ public class ProfileTransaction implements Transaction {
     @Override
     public void commit() {
         for (ProfileEvent event : takeList) {
-            bufferQueue.release(event.getBody().length);
+            bufferQueue.release(event.getBodyLength());
         }
         this.takeList.clear();
         for (ProfileEvent event : putList) {
@@ -79,7 +79,7 @@ public class ProfileTransaction implements Transaction {
         }
         this.takeList.clear();
         for (ProfileEvent event : putList) {
-            bufferQueue.release(event.getBody().length);
+            bufferQueue.release(event.getBodyLength());
         }
         this.putList.clear();
     }
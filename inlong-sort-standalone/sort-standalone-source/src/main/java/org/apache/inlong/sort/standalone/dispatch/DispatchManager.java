@@ -23,16 +23,16 @@ import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 import org.apache.flume.Context;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DispatchManager
+ * <p>
+ * Events are accumulated into the profile of their uid and minute atomically, a full profile is dispatched at once.
+ * The deadline of a profile is kept in a timer wheel, so that only the expiring profiles are visited
+ * when the overtime data is output.
  */
 public class DispatchManager {
 
@@ -42,21 +42,24 @@ public class DispatchManager {
     public static final String KEY_DISPATCH_MAX_PACKSIZE = "dispatchMaxPackSize";
     public static final String KEY_DISPATCH_AHEAD_TIME = "dispatchAheadTime";
     public static final String KEY_DISPATCH_DELAY_TIME = "dispatchDelayTime";
+    public static final String KEY_DISPATCH_TICK_INTERVAL = "dispatchTickInterval";
     public static final long DEFAULT_DISPATCH_TIMEOUT = 2000;
     public static final long DEFAULT_DISPATCH_MAX_PACKCOUNT = 256;
     public static final long DEFAULT_DISPATCH_MAX_PACKSIZE = 327680;
     public static final long MINUTE_MS = 60L * 1000;
     public static final long DEFAULT_DISPATCH_AHEAD_TIME = 60 * 60 * 1000L;
     public static final long DEFAULT_DISPATCH_DELAY_TIME = 60 * 60 * 1000 * 16L;
+    // default tick interval is 1/8 of dispatch timeout
+    public static final int DEFAULT_TICKS_PER_TIMEOUT = 8;
     private final long dispatchTimeout;
     private final long maxPackCount;
     private final long maxPackSize;
     private final long dispatchAheadTime;
     private final long dispatchDelayTime;
+    private final long tickInterval;
     private LinkedBlockingQueue<DispatchProfile> dispatchQueue;
-    private ConcurrentHashMap<String, DispatchProfile> profileCache = new ConcurrentHashMap<>();
-    // flag that manager need to output overtime data.
-    private AtomicBoolean needOutputOvertimeData = new AtomicBoolean(false);
+    private ConcurrentHashMap<DispatchKey, DispatchProfile> profileCache = new ConcurrentHashMap<>();
+    private final DispatchTimerWheel<DispatchProfile> timerWheel;
     private AtomicLong inCounter = new AtomicLong(0);
     private AtomicLong outCounter = new AtomicLong(0);
 
@@ -73,77 +76,71 @@ public class DispatchManager {
         this.maxPackSize = context.getLong(KEY_DISPATCH_MAX_PACKSIZE, DEFAULT_DISPATCH_MAX_PACKSIZE);
         this.dispatchAheadTime = context.getLong(KEY_DISPATCH_AHEAD_TIME, DEFAULT_DISPATCH_AHEAD_TIME);
         this.dispatchDelayTime = -1 * context.getLong(KEY_DISPATCH_DELAY_TIME, DEFAULT_DISPATCH_DELAY_TIME);
+        this.tickInterval = Math.max(1, context.getLong(KEY_DISPATCH_TICK_INTERVAL,
+                dispatchTimeout / DEFAULT_TICKS_PER_TIMEOUT));
+        this.timerWheel = new DispatchTimerWheel<>(tickInterval, dispatchTimeout, System.currentTimeMillis());
     }
 
     /**
-     * addEvent
+     * addEvent, it can be called by several threads
      * 
      * @param event
      */
     public void addEvent(ProfileEvent event) {
-        // parse
-        String eventUid = event.getUid();
         long dispatchTime = event.getRawLogTime() - event.getRawLogTime() % MINUTE_MS;
-        String dispatchKey = eventUid + "." + dispatchTime;
-        //
-        DispatchProfile dispatchProfile = this.profileCache.get(dispatchKey);
-        if (dispatchProfile == null) {
-            dispatchProfile = new DispatchProfile(eventUid, event.getInlongGroupId(), event.getInlongStreamId(),
-                    dispatchTime);
-            this.profileCache.put(dispatchKey, dispatchProfile);
-        }
-        //
-        boolean addResult = dispatchProfile.addEvent(event, maxPackCount, maxPackSize);
-        if (!addResult) {
-            DispatchProfile newDispatchProfile = new DispatchProfile(eventUid, event.getInlongGroupId(),
-                    event.getInlongStreamId(), dispatchTime);
-            DispatchProfile oldDispatchProfile = this.profileCache.put(dispatchKey, newDispatchProfile);
+        DispatchKey dispatchKey = new DispatchKey(event.getUid(), dispatchTime);
+        this.profileCache.compute(dispatchKey, (key, dispatchProfile) -> {
+            if (dispatchProfile != null && dispatchProfile.addEvent(event, maxPackCount, maxPackSize)) {
+                return dispatchProfile;
+            }
             long curTime = System.currentTimeMillis();
-            this.checkAndResetDispatchTime(dispatchProfile, curTime);
-            this.dispatchQueue.offer(oldDispatchProfile);
-            outCounter.addAndGet(dispatchProfile.getCount());
+            if (dispatchProfile != null) {
+                // the profile is full
+                this.output(dispatchProfile, curTime);
+            }
+            DispatchProfile newDispatchProfile = new DispatchProfile(key.uid, event.getInlongGroupId(),
+                    event.getInlongStreamId(), dispatchTime);
             newDispatchProfile.addEvent(event, maxPackCount, maxPackSize);
-        }
+            this.timerWheel.add(newDispatchProfile, curTime + dispatchTimeout);
+            return newDispatchProfile;
+        });
         inCounter.incrementAndGet();
     }
 
     /**
-     * outputOvertimeData
-     * 
-     * @return
+     * outputOvertimeData, output the profiles whose deadline is expired
      */
-    public void outputOvertimeData() {
-        if (!needOutputOvertimeData.getAndSet(false)) {
-            return;
-        }
-        LOG.debug("start to outputOvertimeData profileCacheSize:{},dispatchQueueSize:{}",
-                profileCache.size(), dispatchQueue.size());
-        long currentTime = System.currentTimeMillis();
-        long createThreshold = currentTime - dispatchTimeout;
-        List<String> removeKeys = new ArrayList<>();
-        long eventCount = 0;
-        for (Entry<String, DispatchProfile> entry : this.profileCache.entrySet()) {
-            DispatchProfile dispatchProfile = entry.getValue();
-            eventCount += dispatchProfile.getCount();
-            if (!dispatchProfile.isTimeout(createThreshold)) {
-                continue;
-            }
-            removeKeys.add(entry.getKey());
-        }
-        // output
+    public synchronized void outputOvertimeData() {
         long curTime = System.currentTimeMillis();
-        removeKeys.forEach((key) -> {
-            DispatchProfile dispatchProfile = this.profileCache.remove(key);
-            if (dispatchProfile != null) {
-                this.checkAndResetDispatchTime(dispatchProfile, curTime);
-                dispatchQueue.offer(dispatchProfile);
-                outCounter.addAndGet(dispatchProfile.getCount());
-            }
+        int expireCount = this.timerWheel.expire(curTime, (dispatchProfile) -> {
+            DispatchKey dispatchKey = new DispatchKey(dispatchProfile.getUid(), dispatchProfile.getDispatchTime());
+            // the profile may be output already because it is full
+            this.profileCache.computeIfPresent(dispatchKey, (key, current) -> {
+                if (current != dispatchProfile) {
+                    return current;
+                }
+                this.output(current, curTime);
+                return null;
+            });
         });
-        LOG.debug("end to outputOvertimeData profileCacheSize:{},dispatchQueueSize:{},eventCount:{},"
-                + "inCounter:{},outCounter:{}",
-                profileCache.size(), dispatchQueue.size(), eventCount,
-                inCounter.getAndSet(0), outCounter.getAndSet(0));
+        if (expireCount > 0) {
+            LOG.debug("outputOvertimeData expireCount:{},profileCacheSize:{},dispatchQueueSize:{},"
+                    + "inCounter:{},outCounter:{}",
+                    expireCount, profileCache.size(), dispatchQueue.size(),
+                    inCounter.getAndSet(0), outCounter.getAndSet(0));
+        }
+    }
+
+    /**
+     * output
+     * 
+     * @param dispatchProfile
+     * @param curTime
+     */
+    private void output(DispatchProfile dispatchProfile, long curTime) {
+        this.checkAndResetDispatchTime(dispatchProfile, curTime);
+        this.dispatchQueue.offer(dispatchProfile);
+        outCounter.addAndGet(dispatchProfile.getCount());
     }
 
     /**
@@ -185,9 +182,71 @@ public class DispatchManager {
     }
 
     /**
-     * setNeedOutputOvertimeData
+     * get tickInterval, the interval to call outputOvertimeData
+     * 
+     * @return the tickInterval
+     */
+    public long getTickInterval() {
+        return tickInterval;
+    }
+
+    /**
+     * get profileCacheSize
+     * 
+     * @return count of the profiles waiting for dispatch
+     */
+    public int getProfileCacheSize() {
+        return profileCache.size();
+    }
+
+    /**
+     * 
+     * DispatchKey, uid and dispatch minute of a profile
      */
-    public void setNeedOutputOvertimeData() {
-        this.needOutputOvertimeData.getAndSet(true);
+    private static class DispatchKey {
+
+        private final String uid;
+        private final long dispatchTime;
+        private final int hash;
+
+        /**
+         * Constructor
+         * 
+         * @param uid
+         * @param dispatchTime
+         */
+        DispatchKey(String uid, long dispatchTime) {
+            this.uid = uid;
+            this.dispatchTime = dispatchTime;
+            this.hash = 31 * uid.hashCode() + Long.hashCode(dispatchTime);
+        }
+
+        /**
+         * hashCode
+         * 
+         * @return
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * equals
+         * 
+         * @param  obj
+         * @return
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DispatchKey)) {
+                return false;
+            }
+            DispatchKey other = (DispatchKey) obj;
+            return dispatchTime == other.dispatchTime && hash == other.hash && uid.equals(other.uid);
+        }
     }
 }
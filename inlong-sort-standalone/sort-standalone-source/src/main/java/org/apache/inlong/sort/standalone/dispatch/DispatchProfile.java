@@ -36,6 +36,8 @@ public class DispatchProfile {
     private long count = 0;
     private long size = 0;
     private long dispatchTime;
+    private int retryTimes = 0;
+    private Runnable ackCallback;
 
     /**
      * Constructor
@@ -178,6 +180,33 @@ public class DispatchProfile {
         this.dispatchTime = dispatchTime;
     }
 
+    /**
+     * get retryTimes
+     * 
+     * @return the retryTimes
+     */
+    public int getRetryTimes() {
+        return retryTimes;
+    }
+
+    /**
+     * increaseRetryTimes
+     * 
+     * @return retryTimes after increase
+     */
+    public int increaseRetryTimes() {
+        return ++retryTimes;
+    }
+
+    /**
+     * set ackCallback
+     * 
+     * @param ackCallback called after the events are acked
+     */
+    public void setAckCallback(Runnable ackCallback) {
+        this.ackCallback = ackCallback;
+    }
+
     /**
      * ack
      */
@@ -185,5 +214,8 @@ public class DispatchProfile {
         this.events.forEach((event) -> {
             event.ack();
         });
+        if (ackCallback != null) {
+            ackCallback.run();
+        }
     }
 }
@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.dispatch;
+
+import org.apache.inlong.sort.standalone.rollback.RollbackSpillStore;
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.flume.Context;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 
+ * DispatchRetryQueue
+ * <p>
+ * Failed dispatch profiles wait here with exponential backoff before they are sent again,
+ * so that a failing target is not retried in a tight loop and the healthy profiles are not blocked.
+ * With a rollback dir, a profile failed more than the rollback retry times is spilled to local disk
+ * and acked, and the spilled profiles are replayed with rate limit after no profile fails for a while.
+ */
+public class DispatchRetryQueue {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(DispatchRetryQueue.class);
+
+    public static final String KEY_RETRY_INTERVAL = "retryIntervalMs";
+    public static final String KEY_MAX_RETRY_INTERVAL = "maxRetryIntervalMs";
+    public static final long DEFAULT_RETRY_INTERVAL = 1000L;
+    public static final long DEFAULT_MAX_RETRY_INTERVAL = 60000L;
+    // local disk rollback
+    public static final String KEY_ROLLBACK_DIR = "rollbackDir";
+    public static final String KEY_ROLLBACK_RETRY_TIMES = "rollbackRetryTimes";
+    public static final String KEY_ROLLBACK_SEGMENT_SIZE = "rollbackSegmentSizeMb";
+    public static final String KEY_ROLLBACK_MAX_SIZE = "rollbackMaxSizeMb";
+    public static final String KEY_ROLLBACK_REPLAY_RATE = "rollbackReplayRate";
+    public static final String KEY_ROLLBACK_REPLAY_PAUSE = "rollbackReplayPauseMs";
+    public static final int DEFAULT_ROLLBACK_RETRY_TIMES = 3;
+    public static final long DEFAULT_ROLLBACK_SEGMENT_SIZE = 64L;
+    public static final long DEFAULT_ROLLBACK_MAX_SIZE = 10240L;
+    public static final double DEFAULT_ROLLBACK_REPLAY_RATE = 10.0;
+    public static final long MB_BYTES = 1024L * 1024L;
+    // 2^20 times of retry interval is large enough for any max retry interval
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final DelayQueue<RetryProfile> queue = new DelayQueue<>();
+    private final long retryInterval;
+    private final long maxRetryInterval;
+    // rollback
+    private RollbackSpillStore spillStore;
+    private int rollbackRetryTimes = DEFAULT_ROLLBACK_RETRY_TIMES;
+    private long replayPause;
+    private RateLimiter replayLimiter;
+    private volatile long lastFailureTime = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param context
+     */
+    public DispatchRetryQueue(Context context) {
+        this(context.getLong(KEY_RETRY_INTERVAL, DEFAULT_RETRY_INTERVAL),
+                context.getLong(KEY_MAX_RETRY_INTERVAL, DEFAULT_MAX_RETRY_INTERVAL));
+    }
+
+    /**
+     * Constructor, the rollback store of the sink is in the sub dir of the rollback dir
+     * 
+     * @param context
+     * @param sinkName
+     */
+    public DispatchRetryQueue(Context context, String sinkName) {
+        this(context);
+        String rollbackDir = context.getString(KEY_ROLLBACK_DIR);
+        if (StringUtils.isBlank(rollbackDir)) {
+            return;
+        }
+        File dir = new File(rollbackDir, sinkName);
+        try {
+            this.spillStore = new RollbackSpillStore(dir,
+                    context.getLong(KEY_ROLLBACK_SEGMENT_SIZE, DEFAULT_ROLLBACK_SEGMENT_SIZE) * MB_BYTES,
+                    context.getLong(KEY_ROLLBACK_MAX_SIZE, DEFAULT_ROLLBACK_MAX_SIZE) * MB_BYTES);
+        } catch (IOException e) {
+            LOG.error("fail to open rollback store, rollback is disabled:" + dir.getAbsolutePath(), e);
+            return;
+        }
+        this.rollbackRetryTimes = context.getInteger(KEY_ROLLBACK_RETRY_TIMES, DEFAULT_ROLLBACK_RETRY_TIMES);
+        this.replayPause = context.getLong(KEY_ROLLBACK_REPLAY_PAUSE, maxRetryInterval);
+        String strRate = context.getString(KEY_ROLLBACK_REPLAY_RATE);
+        double replayRate = StringUtils.isBlank(strRate) ? DEFAULT_ROLLBACK_REPLAY_RATE : Double.parseDouble(strRate);
+        this.replayLimiter = RateLimiter.create(replayRate);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param retryInterval
+     * @param maxRetryInterval
+     */
+    public DispatchRetryQueue(long retryInterval, long maxRetryInterval) {
+        this.retryInterval = Math.max(0, retryInterval);
+        this.maxRetryInterval = Math.max(this.retryInterval, maxRetryInterval);
+    }
+
+    /**
+     * offer a failed profile, it is available after the backoff of its retry times
+     * 
+     * @param profile
+     */
+    public void offer(DispatchProfile profile) {
+        int retryTimes = profile.increaseRetryTimes();
+        long currentTime = System.currentTimeMillis();
+        this.lastFailureTime = currentTime;
+        if (spillStore != null && retryTimes > rollbackRetryTimes && spillStore.spill(profile)) {
+            // the profile is on disk, the source can go on
+            profile.ack();
+            return;
+        }
+        long delay = this.getBackoff(retryTimes);
+        queue.offer(new RetryProfile(profile, currentTime + delay));
+    }
+
+    /**
+     * poll a profile whose backoff is expired, or a spilled profile when no profile fails in the replay pause
+     * 
+     * @return null if no profile is available
+     */
+    public DispatchProfile poll() {
+        RetryProfile retry = queue.poll();
+        if (retry != null) {
+            return retry.profile;
+        }
+        if (spillStore == null || System.currentTimeMillis() - lastFailureTime < replayPause
+                || spillStore.getSpillBytes() <= 0 || !replayLimiter.tryAcquire()) {
+            return null;
+        }
+        return spillStore.replay();
+    }
+
+    /**
+     * get bytes of the spilled profiles
+     * 
+     * @return 0 without rollback store
+     */
+    public long getSpillBytes() {
+        return spillStore == null ? 0 : spillStore.getSpillBytes();
+    }
+
+    /**
+     * get age of the earliest spilled profile
+     * 
+     * @param  currentTime
+     * @return             0 without spilled profile
+     */
+    public long getSpillAge(long currentTime) {
+        if (spillStore == null) {
+            return 0;
+        }
+        long oldestSpillTime = spillStore.getOldestSpillTime();
+        return oldestSpillTime <= 0 ? 0 : Math.max(0, currentTime - oldestSpillTime);
+    }
+
+    /**
+     * close the rollback store, the profiles waiting in memory are spilled before
+     */
+    public void close() {
+        if (spillStore == null) {
+            return;
+        }
+        int spillCount = 0;
+        Iterator<RetryProfile> it = queue.iterator();
+        while (it.hasNext()) {
+            DispatchProfile profile = it.next().profile;
+            it.remove();
+            // a profile not spilled is not acked, it is consumed or replayed again after restart
+            if (spillStore.spill(profile)) {
+                profile.ack();
+                spillCount++;
+            }
+        }
+        LOG.info("spill {} retry profiles on close", spillCount);
+        spillStore.close();
+    }
+
+    /**
+     * getBackoff
+     * 
+     * @param  retryTimes
+     * @return            retry interval doubled per retry, not more than the max retry interval
+     */
+    public long getBackoff(int retryTimes) {
+        int shift = Math.min(Math.max(retryTimes - 1, 0), MAX_BACKOFF_SHIFT);
+        return Math.min(retryInterval << shift, maxRetryInterval);
+    }
+
+    /**
+     * size
+     * 
+     * @return count of profiles waiting for retry
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * 
+     * RetryProfile
+     */
+    private static class RetryProfile implements Delayed {
+
+        private final DispatchProfile profile;
+        private final long retryTime;
+
+        /**
+         * Constructor
+         * 
+         * @param profile
+         * @param retryTime
+         */
+        RetryProfile(DispatchProfile profile, long retryTime) {
+            this.profile = profile;
+            this.retryTime = retryTime;
+        }
+
+        /**
+         * getDelay
+         * 
+         * @param  unit
+         * @return
+         */
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(retryTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * compareTo
+         * 
+         * @param  other
+         * @return
+         */
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof RetryProfile) {
+                return Long.compare(retryTime, ((RetryProfile) other).retryTime);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
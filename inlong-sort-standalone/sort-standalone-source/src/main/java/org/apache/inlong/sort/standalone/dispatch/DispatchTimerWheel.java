@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 
+ * DispatchTimerWheel
+ * <p>
+ * Hashed timer wheel of deadlines, the cost of expiring is proportional to the items in the elapsed ticks,
+ * not to all the items waiting in the wheel.
+ * Items can be added by any thread, expire should be called by one thread at a time.
+ */
+public class DispatchTimerWheel<T> {
+
+    private final long tickMs;
+    private final int mask;
+    private final ConcurrentLinkedQueue<Timeout<T>>[] slots;
+    // all the ticks before the current tick are expired
+    private volatile long currentTick;
+
+    /**
+     * Constructor
+     * 
+     * @param tickMs     time span of one slot
+     * @param maxDelayMs max delay of the deadlines, a longer delay waits one more round of the wheel
+     * @param startTime
+     */
+    @SuppressWarnings("unchecked")
+    public DispatchTimerWheel(long tickMs, long maxDelayMs, long startTime) {
+        this.tickMs = Math.max(1, tickMs);
+        long ticks = maxDelayMs / this.tickMs + 2;
+        int slotCount = 1;
+        while (slotCount < ticks && slotCount < (1 << 20)) {
+            slotCount <<= 1;
+        }
+        this.mask = slotCount - 1;
+        this.slots = new ConcurrentLinkedQueue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            this.slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = startTime / this.tickMs;
+    }
+
+    /**
+     * add an item with its deadline
+     * 
+     * @param item
+     * @param deadline
+     */
+    public void add(T item, long deadline) {
+        long tick = Math.max(deadline / tickMs, currentTick);
+        slots[(int) (tick & mask)].offer(new Timeout<>(item, deadline));
+    }
+
+    /**
+     * expire the items of the elapsed ticks
+     * 
+     * @param  now
+     * @param  consumer accept the expired items
+     * @return          count of expired items
+     */
+    public int expire(long now, Consumer<T> consumer) {
+        long nowTick = now / tickMs;
+        int count = 0;
+        // every slot is visited once when the wheel has not been expired for more than one round
+        if (nowTick - currentTick > slots.length) {
+            currentTick = nowTick - slots.length;
+        }
+        while (currentTick < nowTick) {
+            ConcurrentLinkedQueue<Timeout<T>> slot = slots[(int) (currentTick & mask)];
+            List<Timeout<T>> laterRounds = null;
+            Timeout<T> timeout;
+            while ((timeout = slot.poll()) != null) {
+                if (timeout.deadline > now) {
+                    if (laterRounds == null) {
+                        laterRounds = new ArrayList<>();
+                    }
+                    laterRounds.add(timeout);
+                    continue;
+                }
+                consumer.accept(timeout.item);
+                count++;
+            }
+            if (laterRounds != null) {
+                laterRounds.forEach(slot::offer);
+            }
+            currentTick++;
+        }
+        return count;
+    }
+
+    /**
+     * get tickMs
+     * 
+     * @return the tickMs
+     */
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    /**
+     * 
+     * Timeout
+     */
+    private static class Timeout<T> {
+
+        private final T item;
+        private final long deadline;
+
+        /**
+         * Constructor
+         * 
+         * @param item
+         * @param deadline
+         */
+        Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
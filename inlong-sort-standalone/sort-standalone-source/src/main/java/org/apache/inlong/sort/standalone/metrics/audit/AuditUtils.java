@@ -83,7 +83,7 @@ public class AuditUtils {
             String inlongGroupId = event.getInlongGroupId();
             String inlongStreamId = event.getInlongStreamId();
             long logTime = event.getRawLogTime();
-            AuditOperator.getInstance().add(auditID, inlongGroupId, inlongStreamId, logTime, 1, event.getBody().length);
+            AuditOperator.getInstance().add(auditID, inlongGroupId, inlongStreamId, logTime, 1, event.getBodyLength());
         }
     }
 
@@ -36,18 +36,25 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.inlong.common.metric.MetricItemMBean.DOMAIN_SEPARATOR;
 import static org.apache.inlong.common.metric.MetricRegister.JMX_DOMAIN;
 import static org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder.KEY_CLUSTER_ID;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_ACTION;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_CONCURRENCY;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_LATENCY;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_REJECT_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_NODE_DURATION;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_FAIL_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_FAIL_SIZE;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_FILTER_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_SUCCESS_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_SUCCESS_SIZE;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_COUNT;
@@ -57,6 +64,8 @@ import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_SI
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_SUCCESS_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_SUCCESS_SIZE;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SINK_DURATION;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SPILL_AGE;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SPILL_BYTES;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_WHOLE_DURATION;
 
 /**
@@ -69,6 +78,9 @@ public class PrometheusMetricListener extends Collector implements MetricListene
     public static final String KEY_PROMETHEUS_HTTP_PORT = "prometheusHttpPort";
     public static final int DEFAULT_PROMETHEUS_HTTP_PORT = 8080;
     public static final String DEFAULT_DIMENSION_LABEL = "dimension";
+    // gauge metrics are replaced by the latest value instead of accumulated
+    private static final Set<String> GAUGE_METRICS = new HashSet<>(
+            Arrays.asList(M_BULK_ACTION, M_BULK_CONCURRENCY, M_BULK_LATENCY, M_SPILL_BYTES, M_SPILL_AGE));
 
     private String metricName;
     private SortMetricItem metricItem;
@@ -99,6 +111,7 @@ public class PrometheusMetricListener extends Collector implements MetricListene
         metricValueMap.put(M_READ_SUCCESS_SIZE, metricItem.readSuccessSize);
         metricValueMap.put(M_READ_FAIL_COUNT, metricItem.readFailCount);
         metricValueMap.put(M_READ_FAIL_SIZE, metricItem.readFailSize);
+        metricValueMap.put(M_READ_FILTER_COUNT, metricItem.readFilterCount);
         //
         metricValueMap.put(M_SEND_COUNT, metricItem.sendCount);
         metricValueMap.put(M_SEND_SIZE, metricItem.sendSize);
@@ -165,7 +178,11 @@ public class PrometheusMetricListener extends Collector implements MetricListene
                     dimensionMetricValue.getMetrics().put(metricValue.name, metricValue);
                     continue;
                 }
-                metricValue.value += entry.getValue().value;
+                if (GAUGE_METRICS.contains(fieldName)) {
+                    metricValue.value = entry.getValue().value;
+                } else {
+                    metricValue.value += entry.getValue().value;
+                }
             }
         }
     }
@@ -185,6 +202,7 @@ public class PrometheusMetricListener extends Collector implements MetricListene
         totalCounter.addMetric(Arrays.asList(M_READ_SUCCESS_SIZE), metricItem.readSuccessSize.get());
         totalCounter.addMetric(Arrays.asList(M_READ_FAIL_COUNT), metricItem.readFailCount.get());
         totalCounter.addMetric(Arrays.asList(M_READ_FAIL_SIZE), metricItem.readFailSize.get());
+        totalCounter.addMetric(Arrays.asList(M_READ_FILTER_COUNT), metricItem.readFilterCount.get());
         //
         totalCounter.addMetric(Arrays.asList(M_SEND_COUNT), metricItem.sendCount.get());
         totalCounter.addMetric(Arrays.asList(M_SEND_SIZE), metricItem.sendSize.get());
@@ -210,6 +228,7 @@ public class PrometheusMetricListener extends Collector implements MetricListene
             addCounterMetricFamily(M_READ_SUCCESS_SIZE, itemValue, idCounter);
             addCounterMetricFamily(M_READ_FAIL_COUNT, itemValue, idCounter);
             addCounterMetricFamily(M_READ_FAIL_SIZE, itemValue, idCounter);
+            addCounterMetricFamily(M_READ_FILTER_COUNT, itemValue, idCounter);
             // send
             addCounterMetricFamily(M_SEND_COUNT, itemValue, idCounter);
             addCounterMetricFamily(M_SEND_SIZE, itemValue, idCounter);
@@ -222,6 +241,13 @@ public class PrometheusMetricListener extends Collector implements MetricListene
             addCounterMetricFamily(M_SINK_DURATION, itemValue, idCounter);
             addCounterMetricFamily(M_NODE_DURATION, itemValue, idCounter);
             addCounterMetricFamily(M_WHOLE_DURATION, itemValue, idCounter);
+            // adaptive bulk
+            addCounterMetricFamily(M_BULK_ACTION, itemValue, idCounter);
+            addCounterMetricFamily(M_BULK_CONCURRENCY, itemValue, idCounter);
+            addCounterMetricFamily(M_BULK_LATENCY, itemValue, idCounter);
+            addCounterMetricFamily(M_BULK_REJECT_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_SPILL_BYTES, itemValue, idCounter);
+            addCounterMetricFamily(M_SPILL_AGE, itemValue, idCounter);
         }
         mfs.add(idCounter);
         return mfs;
@@ -0,0 +1,566 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.rollback;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.utils.Constants;
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * 
+ * RollbackSpillStore
+ * <p>
+ * Local disk store of the dispatch profiles that the sink fails to send, so that the source can be acked
+ * and the memory is not filled in a long outage of the target.
+ * The profiles are appended to segment files, each record is "length, crc32, body",
+ * and the body is a compact binary encoding of the profile and its events.
+ * The profiles are replayed in spill order. The checkpoint file keeps the position of the earliest
+ * replayed profile that is not acked, so a profile lost in the sink or in a crash is replayed again,
+ * and a segment is deleted after all its profiles are acked.
+ */
+public class RollbackSpillStore {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(RollbackSpillStore.class);
+
+    public static final String SEGMENT_PREFIX = "segment-";
+    public static final String SEGMENT_SUFFIX = ".data";
+    public static final String CHECKPOINT_FILE = "checkpoint";
+    // length and crc32
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final File dir;
+    private final long segmentSize;
+    private final long maxSize;
+    // segment id to file, in spill order
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+    private final CRC32 crc = new CRC32();
+
+    // writer
+    private long writeSegmentId;
+    private FileOutputStream writeStream;
+    private DataOutputStream writer;
+    private long writeOffset = 0;
+    // reader
+    private long readSegmentId = -1;
+    private DataInputStream reader;
+    private long readOffset = 0;
+    private SpillRecord peeked;
+    // replayed records waiting for ack, in replay order
+    private final ArrayDeque<SpillRecord> pending = new ArrayDeque<>();
+    // bytes not acked
+    private long spillBytes = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param  dir
+     * @param  segmentSize max bytes of a segment file
+     * @param  maxSize     max bytes of all the segment files
+     * @throws IOException
+     */
+    public RollbackSpillStore(File dir, long segmentSize, long maxSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("fail to create rollback dir:" + dir.getAbsolutePath());
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    String strId = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                    try {
+                        this.segments.put(Long.parseLong(strId), file);
+                        this.spillBytes += file.length();
+                    } catch (NumberFormatException e) {
+                        LOG.error("unknown file in rollback dir:{}", file.getAbsolutePath());
+                    }
+                }
+            }
+        }
+        // never append to an old segment, its tail may be broken
+        this.writeSegmentId = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        this.loadCheckpoint();
+        LOG.info("open rollback store:{}, segments:{}, spillBytes:{}", dir.getAbsolutePath(),
+                segments.size(), spillBytes);
+    }
+
+    /**
+     * spill a profile
+     * 
+     * @param  profile
+     * @return         false if the store is full or the profile can not be written
+     */
+    public synchronized boolean spill(DispatchProfile profile) {
+        byte[] body;
+        try {
+            body = encode(profile, System.currentTimeMillis());
+        } catch (IOException e) {
+            LOG.error("fail to encode profile, uid:" + profile.getUid(), e);
+            return false;
+        }
+        long recordSize = RECORD_HEADER_SIZE + body.length;
+        if (spillBytes + recordSize > maxSize) {
+            return false;
+        }
+        try {
+            if (writer == null || writeOffset >= segmentSize) {
+                this.rollWriter();
+            }
+            crc.reset();
+            crc.update(body, 0, body.length);
+            writer.writeInt(body.length);
+            writer.writeInt((int) crc.getValue());
+            writer.write(body);
+            writer.flush();
+            // the source is acked after spill, so the record has to be on disk
+            writeStream.getChannel().force(false);
+            this.writeOffset += recordSize;
+            this.spillBytes += recordSize;
+            return true;
+        } catch (IOException e) {
+            LOG.error("fail to spill profile, uid:" + profile.getUid(), e);
+            // the tail of the segment may be broken, the next profile goes to a new segment
+            this.closeWriter();
+            return false;
+        }
+    }
+
+    /**
+     * replay the earliest spilled profile, the checkpoint passes the profile after it is acked
+     * 
+     * @return null if the store is empty
+     */
+    public synchronized DispatchProfile replay() {
+        SpillRecord record = this.peek();
+        if (record == null) {
+            return null;
+        }
+        this.peeked = null;
+        this.readOffset += record.recordSize;
+        this.pending.addLast(record);
+        record.profile.setAckCallback(() -> this.ack(record));
+        return record.profile;
+    }
+
+    /**
+     * ack a replayed record, the checkpoint moves to the earliest record not acked
+     * 
+     * @param record
+     */
+    synchronized void ack(SpillRecord record) {
+        if (record.acked) {
+            return;
+        }
+        record.acked = true;
+        boolean committed = false;
+        while (!pending.isEmpty() && pending.peekFirst().acked) {
+            this.spillBytes -= pending.pollFirst().recordSize;
+            committed = true;
+        }
+        if (committed) {
+            this.commit();
+        }
+    }
+
+    /**
+     * get the spill time of the earliest profile not acked
+     * 
+     * @return 0 if the store is empty
+     */
+    public synchronized long getOldestSpillTime() {
+        SpillRecord record = pending.isEmpty() ? this.peek() : pending.peekFirst();
+        return record == null ? 0 : record.spillTime;
+    }
+
+    /**
+     * get bytes of the profiles not acked
+     * 
+     * @return
+     */
+    public synchronized long getSpillBytes() {
+        return spillBytes;
+    }
+
+    /**
+     * isEmpty
+     * 
+     * @return true if all the spilled profiles are acked
+     */
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty() && this.peek() == null;
+    }
+
+    /**
+     * close
+     */
+    public synchronized void close() {
+        this.closeWriter();
+        this.closeReader();
+    }
+
+    /**
+     * peek the next record
+     * 
+     * @return null if the store is empty
+     */
+    private SpillRecord peek() {
+        while (peeked == null) {
+            if (reader == null && !this.openReader()) {
+                return null;
+            }
+            try {
+                this.peeked = this.readRecord();
+            } catch (IOException e) {
+                LOG.error(String.format("broken record in rollback segment:%d, offset:%d, skip the segment",
+                        readSegmentId, readOffset), e);
+            }
+            if (peeked == null) {
+                this.finishReadSegment();
+            }
+        }
+        return peeked;
+    }
+
+    /**
+     * readRecord
+     * 
+     * @return             null at the end of the segment
+     * @throws IOException if the record is broken
+     */
+    private SpillRecord readRecord() throws IOException {
+        int length;
+        try {
+            length = reader.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        int checksum = reader.readInt();
+        if (length < 0 || length > maxSize) {
+            throw new IOException("invalid record length:" + length);
+        }
+        byte[] body = new byte[length];
+        reader.readFully(body);
+        crc.reset();
+        crc.update(body, 0, length);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("crc32 mismatch");
+        }
+        SpillRecord record = decode(body, RECORD_HEADER_SIZE + length);
+        record.segmentId = readSegmentId;
+        record.offset = readOffset;
+        return record;
+    }
+
+    /**
+     * openReader, seal the write segment if it is the earliest one
+     * 
+     * @return false if there is no segment
+     */
+    private boolean openReader() {
+        Long nextSegmentId;
+        while ((nextSegmentId = segments.ceilingKey(readSegmentId)) != null) {
+            long segmentId = nextSegmentId;
+            if (segmentId == writeSegmentId && writer != null) {
+                if (writeOffset == 0) {
+                    return false;
+                }
+                this.closeWriter();
+            }
+            File file = segments.get(segmentId);
+            long offset = segmentId == readSegmentId ? readOffset : 0;
+            try {
+                FileInputStream input = new FileInputStream(file);
+                DataInputStream newReader = new DataInputStream(new BufferedInputStream(input));
+                long skipped = 0;
+                while (skipped < offset) {
+                    long n = newReader.skip(offset - skipped);
+                    if (n <= 0) {
+                        break;
+                    }
+                    skipped += n;
+                }
+                this.reader = newReader;
+                this.readSegmentId = segmentId;
+                this.readOffset = skipped;
+                return true;
+            } catch (IOException e) {
+                LOG.error("fail to open rollback segment:" + file.getAbsolutePath(), e);
+                this.readSegmentId = segmentId;
+                this.readOffset = 0;
+                this.finishReadSegment();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * finishReadSegment, move the reader to the next segment
+     */
+    private void finishReadSegment() {
+        this.closeReader();
+        File file = segments.get(readSegmentId);
+        if (file != null) {
+            // the bytes left in a broken segment are never replayed
+            this.spillBytes -= Math.max(0, file.length() - readOffset);
+        }
+        Long nextSegmentId = segments.higherKey(readSegmentId);
+        this.readSegmentId = nextSegmentId == null ? writeSegmentId : nextSegmentId;
+        this.readOffset = 0;
+        this.commit();
+    }
+
+    /**
+     * commit, save the position of the earliest record not acked and delete the segments before it
+     */
+    private void commit() {
+        SpillRecord first = pending.peekFirst();
+        long segmentId = first == null ? readSegmentId : first.segmentId;
+        long offset = first == null ? readOffset : first.offset;
+        this.saveCheckpoint(segmentId, offset);
+        this.deleteSegmentsBefore(segmentId);
+    }
+
+    /**
+     * deleteSegmentsBefore
+     * 
+     * @param segmentId
+     */
+    private void deleteSegmentsBefore(long segmentId) {
+        while (!segments.isEmpty() && segments.firstKey() < segmentId) {
+            File file = segments.pollFirstEntry().getValue();
+            if (!file.delete()) {
+                LOG.error("fail to delete rollback segment:{}", file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * rollWriter
+     * 
+     * @throws IOException
+     */
+    private void rollWriter() throws IOException {
+        this.closeWriter();
+        File file = new File(dir, String.format("%s%020d%s", SEGMENT_PREFIX, writeSegmentId, SEGMENT_SUFFIX));
+        this.writeStream = new FileOutputStream(file, true);
+        this.writer = new DataOutputStream(writeStream);
+        this.writeOffset = file.length();
+        this.segments.put(writeSegmentId, file);
+    }
+
+    /**
+     * closeWriter, the next spill opens a new segment
+     */
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
+        this.writer = null;
+        this.writeStream = null;
+        this.writeOffset = 0;
+        this.writeSegmentId++;
+    }
+
+    /**
+     * closeReader
+     */
+    private void closeReader() {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
+        this.reader = null;
+        this.peeked = null;
+    }
+
+    /**
+     * loadCheckpoint
+     */
+    private void loadCheckpoint() {
+        File file = new File(dir, CHECKPOINT_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            long segmentId = input.readLong();
+            long offset = input.readLong();
+            // the segments before the checkpoint are acked, they are left by a crash before the delete
+            for (File acked : segments.headMap(segmentId).values()) {
+                this.spillBytes -= acked.length();
+            }
+            this.deleteSegmentsBefore(segmentId);
+            this.readSegmentId = segmentId;
+            this.readOffset = 0;
+            if (segments.containsKey(segmentId)) {
+                this.readOffset = offset;
+                this.spillBytes -= Math.min(offset, segments.get(segmentId).length());
+            }
+            this.writeSegmentId = Math.max(writeSegmentId, segmentId);
+        } catch (IOException e) {
+            LOG.error("fail to load rollback checkpoint:" + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * saveCheckpoint
+     * 
+     * @param segmentId
+     * @param offset
+     */
+    private void saveCheckpoint(long segmentId, long offset) {
+        File file = new File(dir, CHECKPOINT_FILE);
+        try (RandomAccessFile output = new RandomAccessFile(file, "rw")) {
+            output.seek(0);
+            output.writeLong(segmentId);
+            output.writeLong(offset);
+        } catch (IOException e) {
+            LOG.error("fail to save rollback checkpoint:" + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * encode a profile
+     * 
+     * @param  profile
+     * @param  spillTime
+     * @return             body of the record
+     * @throws IOException
+     */
+    static byte[] encode(DispatchProfile profile, long spillTime) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(profile.getSize() + 256, 1 << 20));
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeLong(spillTime);
+        output.writeLong(profile.getDispatchTime());
+        output.writeUTF(profile.getUid());
+        output.writeUTF(profile.getInlongGroupId());
+        output.writeUTF(profile.getInlongStreamId());
+        output.writeInt(profile.getEvents().size());
+        for (ProfileEvent event : profile.getEvents()) {
+            output.writeLong(event.getRawLogTime());
+            Map<String, String> headers = event.getHeaders();
+            output.writeInt(headers.size());
+            for (Entry<String, String> entry : headers.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue() == null ? "" : entry.getValue());
+            }
+            byte[] body = event.getBody();
+            output.writeInt(body.length);
+            output.write(body);
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * decode a profile, the events are not bound to the source because the source is acked at spill
+     * 
+     * @param  body
+     * @param  recordSize
+     * @return
+     * @throws IOException
+     */
+    static SpillRecord decode(byte[] body, long recordSize) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+        long spillTime = input.readLong();
+        long dispatchTime = input.readLong();
+        String uid = input.readUTF();
+        String inlongGroupId = input.readUTF();
+        String inlongStreamId = input.readUTF();
+        DispatchProfile profile = new DispatchProfile(uid, inlongGroupId, inlongStreamId, dispatchTime);
+        int eventCount = input.readInt();
+        for (int i = 0; i < eventCount; i++) {
+            long rawLogTime = input.readLong();
+            int headerCount = input.readInt();
+            Map<String, String> headers = new HashMap<>(Math.max(16, headerCount * 2));
+            for (int j = 0; j < headerCount; j++) {
+                headers.put(input.readUTF(), input.readUTF());
+            }
+            // the sdk params may have no inlong id and message time
+            headers.putIfAbsent(Constants.INLONG_GROUP_ID, inlongGroupId);
+            headers.putIfAbsent(Constants.INLONG_STREAM_ID, inlongStreamId);
+            headers.putIfAbsent(Constants.HEADER_KEY_MSG_TIME, String.valueOf(rawLogTime));
+            byte[] eventBody = new byte[input.readInt()];
+            input.readFully(eventBody);
+            profile.addEvent(new ProfileEvent(headers, eventBody), Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+        return new SpillRecord(profile, spillTime, recordSize);
+    }
+
+    /**
+     * 
+     * SpillRecord
+     */
+    static class SpillRecord {
+
+        private final DispatchProfile profile;
+        private final long spillTime;
+        private final long recordSize;
+        // position in the segments
+        private long segmentId;
+        private long offset;
+        private boolean acked = false;
+
+        SpillRecord(DispatchProfile profile, long spillTime, long recordSize) {
+            this.profile = profile;
+            this.spillTime = spillTime;
+            this.recordSize = recordSize;
+        }
+
+        /**
+         * get profile
+         * 
+         * @return the profile
+         */
+        DispatchProfile getProfile() {
+            return profile;
+        }
+    }
+}
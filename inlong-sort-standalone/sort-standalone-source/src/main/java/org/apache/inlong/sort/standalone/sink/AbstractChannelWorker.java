@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink;
+
+import org.apache.inlong.sort.standalone.channel.BufferQueueChannel;
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.apache.flume.Channel;
+import org.apache.flume.Event;
+import org.apache.flume.lifecycle.LifecycleState;
+import org.slf4j.Logger;
+
+/**
+ * 
+ * AbstractChannelWorker
+ * <p>
+ * Worker thread of a sink, it runs until it is closed.
+ * The worker waits on the channel or the dispatch queue until data arrives instead of sleeping,
+ * and only sleeps one process interval after an error.
+ */
+public abstract class AbstractChannelWorker extends Thread {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(AbstractChannelWorker.class);
+
+    protected final SinkContext sinkContext;
+    protected final String workerName;
+    protected volatile LifecycleState status;
+
+    /**
+     * Constructor
+     * 
+     * @param sinkContext
+     * @param workerName
+     */
+    public AbstractChannelWorker(SinkContext sinkContext, String workerName) {
+        super(workerName);
+        this.sinkContext = sinkContext;
+        this.workerName = workerName;
+        this.status = LifecycleState.IDLE;
+    }
+
+    /**
+     * start
+     */
+    @Override
+    public void start() {
+        LOG.info("start channel worker:{}", workerName);
+        this.status = LifecycleState.START;
+        super.start();
+    }
+
+    /**
+     * close, the worker exits after the current round
+     */
+    public void close() {
+        LOG.info("close channel worker:{}", workerName);
+        this.status = LifecycleState.STOP;
+    }
+
+    /**
+     * run
+     */
+    @Override
+    public void run() {
+        LOG.info("channel worker:{} start to run, status:{}", workerName, status);
+        while (status == LifecycleState.START) {
+            try {
+                this.doRun();
+            } catch (Throwable t) {
+                LOG.error(t.getMessage(), t);
+                this.sleepOneInterval();
+            }
+        }
+        try {
+            this.onStop();
+        } catch (Throwable t) {
+            LOG.error(t.getMessage(), t);
+        }
+        LOG.info("channel worker:{} is stopped", workerName);
+    }
+
+    /**
+     * doRun, process one round of data
+     * 
+     * @throws Exception
+     */
+    protected abstract void doRun() throws Exception;
+
+    /**
+     * onStop, flush the buffered data before the worker exits
+     */
+    protected void onStop() {
+    }
+
+    /**
+     * takeEvent, wait one process interval for an event in the transaction of current thread
+     * 
+     * @param  channel
+     * @return         null if there is no event
+     */
+    protected Event takeEvent(Channel channel) {
+        if (channel instanceof BufferQueueChannel) {
+            return ((BufferQueueChannel) channel).take(sinkContext.getProcessInterval());
+        }
+        Event event = channel.take();
+        if (event == null) {
+            this.sleepOneInterval();
+        }
+        return event;
+    }
+
+    /**
+     * sleepOneInterval
+     */
+    protected void sleepOneInterval() {
+        try {
+            Thread.sleep(sinkContext.getProcessInterval());
+        } catch (InterruptedException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * get workerName
+     * 
+     * @return the workerName
+     */
+    public String getWorkerName() {
+        return workerName;
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.inlong.common.pojo.sortstandalone.SortTaskConfig;
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
 import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigHolder;
+import org.apache.inlong.sort.standalone.dispatch.DispatchRetryQueue;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItemSet;
 import org.apache.inlong.sort.standalone.utils.BufferQueue;
@@ -33,6 +34,7 @@ import org.apache.flume.Context;
 import org.slf4j.Logger;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -46,6 +48,7 @@ public class SinkContext {
     public static final Logger LOG = InlongLoggerFactory.getLogger(SinkContext.class);
 
     public static final String KEY_MAX_THREADS = "maxThreads";
+    public static final String KEY_WORKER_THREADS = "workerThreads";
     public static final String KEY_PROCESSINTERVAL = "processInterval";
     public static final String KEY_RELOADINTERVAL = "reloadInterval";
     public static final String KEY_TASK_NAME = "taskName";
@@ -62,6 +65,7 @@ public class SinkContext {
     protected final Channel channel;
     //
     protected final int maxThreads;
+    protected final int workerThreads;
     protected final long processInterval;
     protected final long reloadInterval;
     //
@@ -82,6 +86,7 @@ public class SinkContext {
         this.clusterId = context.getString(CommonPropertiesHolder.KEY_CLUSTER_ID);
         this.taskName = context.getString(KEY_TASK_NAME);
         this.maxThreads = sinkContext.getInteger(KEY_MAX_THREADS, 10);
+        this.workerThreads = Math.max(1, sinkContext.getInteger(KEY_WORKER_THREADS, maxThreads));
         this.processInterval = sinkContext.getInteger(KEY_PROCESSINTERVAL, 100);
         this.reloadInterval = sinkContext.getLong(KEY_RELOADINTERVAL, 60000L);
         //
@@ -200,6 +205,15 @@ public class SinkContext {
         return maxThreads;
     }
 
+    /**
+     * get workerThreads, count of channel workers of the sink
+     * 
+     * @return the workerThreads
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
     /**
      * get processInterval
      * 
@@ -242,6 +256,21 @@ public class SinkContext {
         dimensions.put(SortMetricItem.KEY_INLONG_STREAM_ID, inlongStreamId);
     }
 
+    /**
+     * addSpillMetric
+     * 
+     * @param retryQueue
+     */
+    public void addSpillMetric(DispatchRetryQueue retryQueue) {
+        Map<String, String> dimensions = new HashMap<>();
+        dimensions.put(SortMetricItem.KEY_CLUSTER_ID, this.getClusterId());
+        dimensions.put(SortMetricItem.KEY_TASK_NAME, this.getTaskName());
+        dimensions.put(SortMetricItem.KEY_SINK_ID, this.getSinkName());
+        SortMetricItem metricItem = this.getMetricItemSet().findMetricItem(dimensions);
+        metricItem.spillBytes.set(retryQueue.getSpillBytes());
+        metricItem.spillAge.set(retryQueue.getSpillAge(System.currentTimeMillis()));
+    }
+
     /**
      * createBufferQueue
      * @return
@@ -19,29 +19,39 @@ package org.apache.inlong.sort.standalone.sink.clickhouse;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.sink.AbstractChannelWorker;
 
-import org.apache.flume.lifecycle.LifecycleState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.yandex.clickhouse.ClickHouseConnection;
+import ru.yandex.clickhouse.ClickHouseStatement;
+import ru.yandex.clickhouse.domain.ClickHouseFormat;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ClickHouseChannelWorker
+ * <p>
+ * Rows of the dispatch profiles are accumulated per insert target in RowBinary format, and written by one insert
+ * when the buffer is full or timeout, then the profiles in the buffer are acked.
+ * The id whose columns can not be written in RowBinary is written by PreparedStatement per profile.
+ * The failed profiles are sent again after the backoff of the retry queue.
  */
-public class ClickHouseChannelWorker extends Thread {
+public class ClickHouseChannelWorker extends AbstractChannelWorker {
 
     public static final Logger LOG = LoggerFactory.getLogger(ClickHouseChannelWorker.class);
 
     private final ClickHouseSinkContext context;
-    private final int workerIndex;
-    private LifecycleState status;
     private IEventHandler handler;
     private Connection conn;
+    // insert prefix -> buffer
+    private final Map<String, ClickHouseTableBuffer> bufferMap = new HashMap<>();
 
     /**
      * Constructor
@@ -50,37 +60,33 @@ public class ClickHouseChannelWorker extends Thread {
      * @param workerIndex
      */
     public ClickHouseChannelWorker(ClickHouseSinkContext context, int workerIndex) {
+        super(context, context.getSinkName() + "-worker-" + workerIndex);
         this.context = context;
-        this.workerIndex = workerIndex;
-        this.status = LifecycleState.IDLE;
         this.handler = this.context.createEventHandler();
     }
 
     /**
-     * run
+     * onStop, flush the buffered rows before exit
      */
     @Override
-    public void run() {
-        status = LifecycleState.START;
-        LOG.info("start to ClickHouseChannelWorker:{},status:{},index:{}", context.getTaskName(), status, workerIndex);
-        while (status == LifecycleState.START) {
-            try {
-                this.doRun();
-            } catch (Throwable t) {
-                LOG.error(t.getMessage(), t);
-            }
+    protected void onStop() {
+        for (ClickHouseTableBuffer buffer : bufferMap.values()) {
+            this.flush(buffer);
         }
     }
 
     /**
      * doRun
+     * 
+     * @throws InterruptedException
      */
-    public void doRun() {
-        DispatchProfile currentRecord = context.getDispatchQueue().poll();
+    @Override
+    public void doRun() throws InterruptedException {
+        DispatchProfile currentRecord = this.takeDispatchProfile();
         try {
             // prepare
             if (currentRecord == null) {
-                this.sleepOneInterval();
+                this.flushTimeout();
                 return;
             }
             // check config
@@ -97,10 +103,22 @@ public class ClickHouseChannelWorker extends Thread {
                 currentRecord.ack();
                 return;
             }
-            // execute sql
             if (this.conn == null) {
                 this.reconnect();
             }
+            // RowBinary
+            if (idConfig.getRowBinaryColumns() != null) {
+                ClickHouseTableBuffer buffer = bufferMap.computeIfAbsent(idConfig.getInsertPrefix(),
+                        k -> new ClickHouseTableBuffer(k, (int) Math.min(context.getFlushSize(), 1024 * 1024)));
+                buffer.append(idConfig, handler, currentRecord);
+                if (buffer.isFull(context.getFlushSize(), context.getFlushRows())) {
+                    this.flush(buffer);
+                }
+                this.flushTimeout();
+                return;
+            }
+            // execute sql
+            long sendTime = System.currentTimeMillis();
             try (PreparedStatement pstat = this.conn.prepareStatement(insertSql)) {
                 for (ProfileEvent event : currentRecord.getEvents()) {
                     Map<String, String> columnValueMap = this.handler.parse(idConfig, event);
@@ -111,31 +129,85 @@ public class ClickHouseChannelWorker extends Thread {
                 this.conn.commit();
             } catch (Exception e) {
                 this.reconnect();
+                throw e;
             }
+            context.addSendSuccessMetric(currentRecord, sendTime);
+            currentRecord.ack();
         } catch (Throwable e) {
             LOG.error(e.getMessage(), e);
             if (currentRecord != null) {
-                context.getDispatchQueue().add(currentRecord);
+                context.getRetryQueue().offer(currentRecord);
             }
             this.sleepOneInterval();
         }
     }
 
     /**
-     * close
+     * takeDispatchProfile, the profiles to retry first, then wait one process interval for the dispatch queue
+     * 
+     * @return                      null if there is no profile
+     * @throws InterruptedException
+     */
+    private DispatchProfile takeDispatchProfile() throws InterruptedException {
+        DispatchProfile profile = context.getRetryQueue().poll();
+        if (profile != null) {
+            return profile;
+        }
+        return context.getDispatchQueue().poll(context.getProcessInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * flushTimeout
      */
-    public void close() {
-        this.status = LifecycleState.STOP;
+    private void flushTimeout() {
+        for (ClickHouseTableBuffer buffer : bufferMap.values()) {
+            if (buffer.isTimeout(context.getFlushInterval())) {
+                this.flush(buffer);
+            }
+        }
     }
 
     /**
-     * sleepOneInterval
+     * flush, write the buffer by one RowBinary insert, ack the profiles on success, dispatch them again on failure
+     * 
+     * @param buffer
      */
-    private void sleepOneInterval() {
+    private void flush(ClickHouseTableBuffer buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        long sendTime = System.currentTimeMillis();
         try {
-            Thread.sleep(context.getProcessInterval());
-        } catch (InterruptedException e1) {
-            LOG.error(e1.getMessage(), e1);
+            if (this.conn == null) {
+                this.reconnect();
+            }
+            ClickHouseConnection chConn = this.conn.unwrap(ClickHouseConnection.class);
+            try (ClickHouseStatement stat = chConn.createStatement()) {
+                // the body is streamed over the pooled http connection of the driver
+                stat.write().send(buffer.getInsertPrefix(), buffer.getBuffer().toInputStream(),
+                        ClickHouseFormat.RowBinary);
+            }
+            for (DispatchProfile profile : buffer.getProfiles()) {
+                context.addSendSuccessMetric(profile, sendTime);
+                profile.ack();
+            }
+            LOG.debug("flush RowBinary insert:{},rows:{},bytes:{},cost:{}", buffer.getInsertPrefix(),
+                    buffer.getRowCount(), buffer.getBuffer().size(), System.currentTimeMillis() - sendTime);
+        } catch (Throwable e) {
+            LOG.error("Fail to flush RowBinary insert:{},rows:{},error:{}", buffer.getInsertPrefix(),
+                    buffer.getRowCount(), e.getMessage(), e);
+            for (DispatchProfile profile : buffer.getProfiles()) {
+                context.addSendFailMetric(e.getMessage(), profile);
+                context.getRetryQueue().offer(profile);
+            }
+            try {
+                this.reconnect();
+            } catch (SQLException se) {
+                LOG.error(se.getMessage(), se);
+            }
+            this.sleepOneInterval();
+        } finally {
+            buffer.clear();
         }
     }
 
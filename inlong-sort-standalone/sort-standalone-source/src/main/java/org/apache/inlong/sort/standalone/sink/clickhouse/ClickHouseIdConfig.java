@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sort.standalone.sink.clickhouse;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.commons.math3.util.Pair;
 
 import java.util.ArrayList;
@@ -42,6 +43,9 @@ public class ClickHouseIdConfig {
     private List<String> contentFieldList;
     private List<Pair<String, Integer>> dbFieldList;
     private String insertSql;
+    // RowBinary insert, columns are null if any type is not supported
+    private String insertPrefix;
+    private List<RowBinaryColumn> rowBinaryColumns;
 
     /**
      * parseFieldList
@@ -215,4 +219,38 @@ public class ClickHouseIdConfig {
         this.insertSql = insertSql;
     }
 
+    /**
+     * get insertPrefix
+     * @return the insertPrefix
+     */
+    public String getInsertPrefix() {
+        return insertPrefix;
+    }
+
+    /**
+     * set insertPrefix
+     * @param insertPrefix the insertPrefix to set
+     */
+    public void setInsertPrefix(String insertPrefix) {
+        this.insertPrefix = insertPrefix;
+    }
+
+    /**
+     * get rowBinaryColumns
+     * @return the rowBinaryColumns
+     */
+    @JsonIgnore
+    public List<RowBinaryColumn> getRowBinaryColumns() {
+        return rowBinaryColumns;
+    }
+
+    /**
+     * set rowBinaryColumns
+     * @param rowBinaryColumns the rowBinaryColumns to set
+     */
+    @JsonIgnore
+    public void setRowBinaryColumns(List<RowBinaryColumn> rowBinaryColumns) {
+        this.rowBinaryColumns = rowBinaryColumns;
+    }
+
 }
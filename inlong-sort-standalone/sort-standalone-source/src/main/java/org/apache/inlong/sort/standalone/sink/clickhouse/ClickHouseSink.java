@@ -63,7 +63,7 @@ public class ClickHouseSink extends AbstractSink implements Configurable {
         try {
             this.context = new ClickHouseSinkContext(getName(), parentContext, getChannel(), dispatchQueue);
             this.context.start();
-            for (int i = 0; i < context.getMaxThreads(); i++) {
+            for (int i = 0; i < context.getWorkerThreads(); i++) {
                 ClickHouseChannelWorker worker = new ClickHouseChannelWorker(context, i);
                 this.workers.add(worker);
                 worker.start();
@@ -74,9 +74,13 @@ public class ClickHouseSink extends AbstractSink implements Configurable {
             this.scheduledPool.scheduleWithFixedDelay(new Runnable() {
 
                 public void run() {
-                    dispatchManager.setNeedOutputOvertimeData();
+                    try {
+                        dispatchManager.outputOvertimeData();
+                    } catch (Throwable t) {
+                        LOG.error(t.getMessage(), t);
+                    }
                 }
-            }, this.dispatchManager.getDispatchTimeout(), this.dispatchManager.getDispatchTimeout(),
+            }, this.dispatchManager.getTickInterval(), this.dispatchManager.getTickInterval(),
                     TimeUnit.MILLISECONDS);
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
@@ -120,7 +124,6 @@ public class ClickHouseSink extends AbstractSink implements Configurable {
      */
     @Override
     public Status process() throws EventDeliveryException {
-        this.dispatchManager.outputOvertimeData();
         Channel channel = getChannel();
         Transaction tx = channel.getTransaction();
         tx.begin();
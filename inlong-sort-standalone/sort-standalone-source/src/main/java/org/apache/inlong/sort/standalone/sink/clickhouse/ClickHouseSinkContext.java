@@ -24,6 +24,7 @@ import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
 import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigHolder;
 import org.apache.inlong.sort.standalone.config.pojo.InlongId;
 import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.dispatch.DispatchRetryQueue;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
 import org.apache.inlong.sort.standalone.metrics.audit.AuditUtils;
 import org.apache.inlong.sort.standalone.sink.SinkContext;
@@ -66,16 +67,31 @@ public class ClickHouseSinkContext extends SinkContext {
     public static final String KEY_JDBC_USERNAME = "jdbcUsername";
     public static final String KEY_JDBC_PASSWORD = "jdbcPassword";
     public static final String KEY_EVENT_HANDLER = "clickHouseEventHandler";
+    // RowBinary bulk insert, only for DefaultEventHandler, a custom IEventHandler uses PreparedStatement
+    public static final String KEY_ROW_BINARY = "rowBinary";
+    public static final boolean DEFAULT_ROW_BINARY = true;
+    public static final String KEY_FLUSH_SIZE = "flushSize";
+    public static final long DEFAULT_FLUSH_SIZE = 16 * 1024 * 1024L;
+    public static final String KEY_FLUSH_ROWS = "flushRows";
+    public static final long DEFAULT_FLUSH_ROWS = 200000L;
+    public static final String KEY_FLUSH_INTERVAL = "flushInterval";
+    public static final long DEFAULT_FLUSH_INTERVAL = 2000L;
 
     private Context parentContext;
     private String nodeId;
     private Map<String, ClickHouseIdConfig> idConfigMap = new ConcurrentHashMap<>();
     private final LinkedBlockingQueue<DispatchProfile> dispatchQueue;
+    private final DispatchRetryQueue retryQueue;
     // jdbc config
     private String jdbcDriver;
     private String jdbcUrl;
     private String jdbcUsername;
     private String jdbcPassword;
+    // RowBinary config
+    private boolean rowBinary = DEFAULT_ROW_BINARY;
+    private long flushSize = DEFAULT_FLUSH_SIZE;
+    private long flushRows = DEFAULT_FLUSH_ROWS;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
 
     /**
      * Constructor
@@ -89,14 +105,25 @@ public class ClickHouseSinkContext extends SinkContext {
         super(sinkName, context, channel);
         this.parentContext = context;
         this.dispatchQueue = dispatchQueue;
+        this.retryQueue = new DispatchRetryQueue(context, sinkName);
         this.nodeId = CommonPropertiesHolder.getString(KEY_NODE_ID, NetworkUtils.getLocalIp());
     }
 
+    /**
+     * close
+     */
+    @Override
+    public void close() {
+        super.close();
+        this.retryQueue.close();
+    }
+
     /**
      * reload
      */
     public void reload() {
         try {
+            this.addSpillMetric(retryQueue);
             SortTaskConfig newSortTaskConfig = SortClusterConfigHolder.getTaskConfig(taskName);
             LOG.info("start to get SortTaskConfig:taskName:{}:config:{}", taskName,
                     new ObjectMapper().writeValueAsString(newSortTaskConfig));
@@ -122,6 +149,10 @@ public class ClickHouseSinkContext extends SinkContext {
             this.jdbcUrl = currentContext.getString(KEY_JDBC_URL);
             this.jdbcUsername = currentContext.getString(KEY_JDBC_USERNAME);
             this.jdbcPassword = currentContext.getString(KEY_JDBC_PASSWORD);
+            this.rowBinary = currentContext.getBoolean(KEY_ROW_BINARY, DEFAULT_ROW_BINARY);
+            this.flushSize = currentContext.getLong(KEY_FLUSH_SIZE, DEFAULT_FLUSH_SIZE);
+            this.flushRows = currentContext.getLong(KEY_FLUSH_ROWS, DEFAULT_FLUSH_ROWS);
+            this.flushInterval = currentContext.getLong(KEY_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
             Class.forName(this.jdbcDriver);
             // load DB field
             this.initIdConfig(newIdConfigMap);
@@ -149,11 +180,13 @@ public class ClickHouseSinkContext extends SinkContext {
                 idConfig.setContentFieldList(ClickHouseIdConfig.parseFieldNames(idConfig.getContentFieldNames()));
                 // load db field type
                 Map<String, Integer> fullTypeMap = new HashMap<>();
-                try (ResultSet rs = stat.executeQuery("select * from " + idConfig.getTableName())) {
+                Map<String, String> fullTypeNameMap = new HashMap<>();
+                try (ResultSet rs = stat.executeQuery("select * from " + idConfig.getTableName() + " limit 0")) {
                     ResultSetMetaData meta = rs.getMetaData();
                     int columnCount = meta.getColumnCount();
                     for (int i = 1; i <= columnCount; i++) {
                         fullTypeMap.put(meta.getColumnName(i), meta.getColumnType(i));
+                        fullTypeNameMap.put(meta.getColumnName(i), meta.getColumnTypeName(i));
                     }
                 } catch (Exception e) {
                     LOG.error("Can not get metadata,group:{},stream:{},error:{}", idConfig.getInlongGroupId(),
@@ -180,8 +213,45 @@ public class ClickHouseSinkContext extends SinkContext {
                 insertSql.deleteCharAt(insertSql.length() - 1);
                 insertSql.append(")");
                 idConfig.setInsertSql(insertSql.toString());
+                // RowBinary columns
+                this.initRowBinaryColumns(idConfig, dbFieldNameList, fullTypeNameMap);
+            }
+        }
+    }
+
+    /**
+     * initRowBinaryColumns
+     * @param idConfig
+     * @param dbFieldNameList
+     * @param fullTypeNameMap
+     */
+    private void initRowBinaryColumns(ClickHouseIdConfig idConfig, List<String> dbFieldNameList,
+            Map<String, String> fullTypeNameMap) {
+        idConfig.setInsertPrefix("insert into " + idConfig.getTableName() + " ("
+                + String.join(",", dbFieldNameList) + ")");
+        if (!rowBinary) {
+            return;
+        }
+        String eventHandlerClass = CommonPropertiesHolder.getString(KEY_EVENT_HANDLER,
+                DefaultEventHandler.class.getName());
+        if (!DefaultEventHandler.class.getName().equals(eventHandlerClass)) {
+            // RowBinary encodes the fields as DefaultEventHandler does, which would bypass the custom handler
+            LOG.info("Custom IEventHandler:{}, use PreparedStatement,group:{},stream:{}", eventHandlerClass,
+                    idConfig.getInlongGroupId(), idConfig.getInlongStreamId());
+            return;
+        }
+        List<RowBinaryColumn> columns = new ArrayList<>(dbFieldNameList.size());
+        for (String fieldName : dbFieldNameList) {
+            RowBinaryColumn column = RowBinaryColumn.create(fullTypeNameMap.get(fieldName));
+            if (column == null) {
+                LOG.warn("Can not write RowBinary, use PreparedStatement,group:{},stream:{},field:{},type:{}",
+                        idConfig.getInlongGroupId(), idConfig.getInlongStreamId(), fieldName,
+                        fullTypeNameMap.get(fieldName));
+                return;
             }
+            columns.add(column);
         }
+        idConfig.setRowBinaryColumns(columns);
     }
 
     /**
@@ -395,6 +465,30 @@ public class ClickHouseSinkContext extends SinkContext {
         this.jdbcPassword = jdbcPassword;
     }
 
+    /**
+     * get flushSize
+     * @return the flushSize
+     */
+    public long getFlushSize() {
+        return flushSize;
+    }
+
+    /**
+     * get flushRows
+     * @return the flushRows
+     */
+    public long getFlushRows() {
+        return flushRows;
+    }
+
+    /**
+     * get flushInterval
+     * @return the flushInterval
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
     /**
      * get dispatchQueue
      * @return the dispatchQueue
@@ -403,6 +497,14 @@ public class ClickHouseSinkContext extends SinkContext {
         return dispatchQueue;
     }
 
+    /**
+     * get retryQueue
+     * @return the retryQueue
+     */
+    public DispatchRetryQueue getRetryQueue() {
+        return retryQueue;
+    }
+
     /**
      * getIdConfig
      * 
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+
+import org.apache.commons.math3.util.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * ClickHouseTableBuffer, rows of one insert target in RowBinary format, accumulated across dispatch profiles,
+ * so that small profiles are written to ClickHouse by one large insert.
+ */
+public class ClickHouseTableBuffer {
+
+    private final String insertPrefix;
+    private final RowBinaryBuffer buffer;
+    private final List<DispatchProfile> profiles = new ArrayList<>();
+    private long rowCount = 0;
+    private long createTime = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param insertPrefix
+     * @param initSize
+     */
+    public ClickHouseTableBuffer(String insertPrefix, int initSize) {
+        this.insertPrefix = insertPrefix;
+        this.buffer = new RowBinaryBuffer(initSize);
+    }
+
+    /**
+     * append
+     * 
+     * @param idConfig
+     * @param handler
+     * @param profile
+     */
+    public void append(ClickHouseIdConfig idConfig, IEventHandler handler, DispatchProfile profile) {
+        if (profiles.isEmpty()) {
+            this.createTime = System.currentTimeMillis();
+        }
+        List<Pair<String, Integer>> dbFieldList = idConfig.getDbFieldList();
+        List<RowBinaryColumn> columns = idConfig.getRowBinaryColumns();
+        int profileStart = buffer.size();
+        try {
+            for (ProfileEvent event : profile.getEvents()) {
+                Map<String, String> columnValueMap = handler.parse(idConfig, event);
+                for (int i = 0; i < columns.size(); i++) {
+                    columns.get(i).write(columnValueMap.get(dbFieldList.get(i).getKey()), buffer);
+                }
+            }
+        } catch (RuntimeException e) {
+            // keep the rows of the other profiles, the profile will be dispatched again
+            buffer.truncate(profileStart);
+            throw e;
+        }
+        this.rowCount += profile.getEvents().size();
+        this.profiles.add(profile);
+    }
+
+    /**
+     * isFull
+     * 
+     * @param  flushSize
+     * @param  flushRows
+     * @return
+     */
+    public boolean isFull(long flushSize, long flushRows) {
+        return buffer.size() >= flushSize || rowCount >= flushRows;
+    }
+
+    /**
+     * isTimeout
+     * 
+     * @param  flushInterval
+     * @return
+     */
+    public boolean isTimeout(long flushInterval) {
+        return !profiles.isEmpty() && System.currentTimeMillis() - createTime >= flushInterval;
+    }
+
+    /**
+     * clear, the memory of buffer is reused by next batch
+     */
+    public void clear() {
+        this.buffer.reset();
+        this.profiles.clear();
+        this.rowCount = 0;
+    }
+
+    /**
+     * isEmpty
+     * 
+     * @return
+     */
+    public boolean isEmpty() {
+        return profiles.isEmpty();
+    }
+
+    /**
+     * get insertPrefix
+     * 
+     * @return the insertPrefix, like "insert into table (field1,field2)"
+     */
+    public String getInsertPrefix() {
+        return insertPrefix;
+    }
+
+    /**
+     * get buffer
+     * 
+     * @return the buffer
+     */
+    public RowBinaryBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * get profiles
+     * 
+     * @return the profiles
+     */
+    public List<DispatchProfile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * get rowCount
+     * 
+     * @return the rowCount
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+}
@@ -19,14 +19,13 @@ package org.apache.inlong.sort.standalone.sink.clickhouse;
 
 import org.apache.inlong.sdk.commons.protocol.EventConstants;
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
-import org.apache.inlong.sort.standalone.utils.UnescapeHelper;
+import org.apache.inlong.sort.standalone.utils.DelimitedFields;
 
 import org.apache.commons.math3.util.Pair;
 import org.apache.pulsar.shade.org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.Charset;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -47,6 +46,9 @@ public class DefaultEventHandler implements IEventHandler {
 
     public static final String KEY_EXTINFO = "extinfo";
 
+    private static final ThreadLocal<DelimitedFields> DELIMITED_FIELDS =
+            ThreadLocal.withInitial(DelimitedFields::new);
+
     private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
     /**
@@ -61,23 +63,18 @@ public class DefaultEventHandler implements IEventHandler {
         // parse fields
         String delimeter = idConfig.getSeparator();
         char cDelimeter = delimeter.charAt(0);
-        String strContext = null;
         // for tab separator
         byte[] bodyBytes = event.getBody();
-        int msgLength = event.getBody().length;
-        int contentOffset = idConfig.getContentOffset();
-        if (contentOffset > 0 && msgLength >= 1) {
-            strContext = new String(bodyBytes, contentOffset, msgLength - contentOffset, Charset.defaultCharset());
-        } else {
-            strContext = new String(bodyBytes, Charset.defaultCharset());
-        }
-        // unescape
-        List<String> columnValues = UnescapeHelper.toFiledList(strContext, cDelimeter);
+        int msgLength = bodyBytes.length;
+        int contentOffset = Math.min(Math.max(idConfig.getContentOffset(), 0), msgLength);
+        // split the body bytes, only the matched fields are decoded
+        DelimitedFields columnValues = DELIMITED_FIELDS.get()
+                .split(bodyBytes, contentOffset, msgLength - contentOffset, cDelimeter);
         // column size
         List<String> contentFieldList = idConfig.getContentFieldList();
         int matchSize = Math.min(contentFieldList.size(), columnValues.size());
         for (int i = 0; i < matchSize; i++) {
-            resultMap.put(contentFieldList.get(i), columnValues.get(i));
+            resultMap.put(contentFieldList.get(i), columnValues.getString(i));
         }
 
         // ftime
@@ -96,11 +93,11 @@ public class DefaultEventHandler implements IEventHandler {
      * @return
      */
     public static String getExtInfo(ProfileEvent event) {
-        String extinfoValue = event.getHeaders().get(KEY_EXTINFO);
+        String extinfoValue = event.getHeader(KEY_EXTINFO);
         if (extinfoValue != null) {
             return KEY_EXTINFO + "=" + extinfoValue;
         }
-        extinfoValue = KEY_EXTINFO + "=" + event.getHeaders().get(EventConstants.HEADER_KEY_SOURCE_IP);
+        extinfoValue = KEY_EXTINFO + "=" + event.getHeader(EventConstants.HEADER_KEY_SOURCE_IP);
         return extinfoValue;
     }
 
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 
+ * RowBinaryBuffer, growable buffer of rows in ClickHouse RowBinary format, numbers are little endian.
+ */
+public class RowBinaryBuffer extends ByteArrayOutputStream {
+
+    /**
+     * Constructor
+     * 
+     * @param initSize
+     */
+    public RowBinaryBuffer(int initSize) {
+        super(initSize);
+    }
+
+    /**
+     * writeInt8
+     * 
+     * @param value
+     */
+    public void writeInt8(int value) {
+        this.write(value);
+    }
+
+    /**
+     * writeInt16
+     * 
+     * @param value
+     */
+    public void writeInt16(int value) {
+        this.write(value);
+        this.write(value >>> 8);
+    }
+
+    /**
+     * writeInt32
+     * 
+     * @param value
+     */
+    public void writeInt32(int value) {
+        this.write(value);
+        this.write(value >>> 8);
+        this.write(value >>> 16);
+        this.write(value >>> 24);
+    }
+
+    /**
+     * writeInt64
+     * 
+     * @param value
+     */
+    public void writeInt64(long value) {
+        this.writeInt32((int) value);
+        this.writeInt32((int) (value >>> 32));
+    }
+
+    /**
+     * writeVarInt, unsigned LEB128 used as the length of String
+     * 
+     * @param value
+     */
+    public void writeVarInt(long value) {
+        while ((value & ~0x7FL) != 0) {
+            this.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        this.write((int) value);
+    }
+
+    /**
+     * writeString
+     * 
+     * @param value
+     */
+    public void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarInt(bytes.length);
+        this.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * truncate, drop the bytes after the size, used to roll back a partially written row
+     * 
+     * @param size
+     */
+    public void truncate(int size) {
+        if (size < this.count) {
+            this.count = size;
+        }
+    }
+
+    /**
+     * toInputStream, read the buffer without copy
+     * 
+     * @return
+     */
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(this.buf, 0, this.count);
+    }
+}
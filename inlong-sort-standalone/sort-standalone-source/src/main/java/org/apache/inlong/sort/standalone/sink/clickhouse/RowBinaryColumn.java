@@ -0,0 +1,434 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 
+ * RowBinaryColumn, encode the string value of a field as a column of ClickHouse RowBinary format.
+ * <p>
+ * The column type is the ClickHouse type name of the table metadata, like "Nullable(String)" or "Decimal(18, 4)".
+ * An invalid number is written as 0 and an invalid time is written as 1970-01-01 00:00:00, the same as the
+ * PreparedStatement of DefaultEventHandler.
+ */
+public abstract class RowBinaryColumn {
+
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd[ HH:mm:ss]")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+            .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter();
+
+    private static final Pattern WRAPPER_PATTERN = Pattern.compile("^(Nullable|LowCardinality)\\((.+)\\)$");
+    private static final Pattern FIXED_STRING_PATTERN = Pattern.compile("^FixedString\\((\\d+)\\)$");
+    private static final Pattern DATETIME_PATTERN = Pattern.compile("^DateTime\\('(.+)'\\)$");
+    private static final Pattern DATETIME64_PATTERN = Pattern.compile("^DateTime64\\((\\d+)(?:,\\s*'(.+)')?\\)$");
+    private static final Pattern DECIMAL_PATTERN = Pattern.compile("^Decimal\\((\\d+),\\s*(\\d+)\\)$");
+    private static final Pattern DECIMAL_N_PATTERN = Pattern.compile("^Decimal(32|64|128|256)\\((\\d+)\\)$");
+
+    /**
+     * write
+     * 
+     * @param value  null means the field is missing
+     * @param buffer
+     */
+    public abstract void write(String value, RowBinaryBuffer buffer);
+
+    /**
+     * create
+     * 
+     * @param  typeName ClickHouse type name
+     * @return          null if the type is not supported
+     */
+    public static RowBinaryColumn create(String typeName) {
+        if (typeName == null) {
+            return null;
+        }
+        String type = typeName.trim();
+        Matcher wrapper = WRAPPER_PATTERN.matcher(type);
+        if (wrapper.matches()) {
+            RowBinaryColumn nested = create(wrapper.group(2));
+            if (nested == null) {
+                return null;
+            }
+            if ("LowCardinality".equals(wrapper.group(1))) {
+                // LowCardinality is transparent in RowBinary format
+                return nested;
+            }
+            return new NullableColumn(nested);
+        }
+        switch (type) {
+            case "Int8":
+            case "UInt8":
+            case "Bool":
+                return new IntColumn(1, false);
+            case "Int16":
+                return new IntColumn(2, false);
+            case "UInt16":
+                return new IntColumn(2, true);
+            case "Int32":
+                return new IntColumn(4, false);
+            case "UInt32":
+                return new IntColumn(4, true);
+            case "Int64":
+                return new IntColumn(8, false);
+            case "UInt64":
+                return new IntColumn(8, true);
+            case "Float32":
+                return new FloatColumn(false);
+            case "Float64":
+                return new FloatColumn(true);
+            case "String":
+                return new StringColumn();
+            case "Date":
+                return new DateColumn(false);
+            case "Date32":
+                return new DateColumn(true);
+            case "DateTime":
+                return new DateTimeColumn(-1, ZoneId.systemDefault());
+            default:
+                break;
+        }
+        Matcher matcher = DATETIME_PATTERN.matcher(type);
+        if (matcher.matches()) {
+            // DateTime('timezone'), the value is the local time of the timezone
+            ZoneId zone = parseZone(matcher.group(1));
+            return zone == null ? null : new DateTimeColumn(-1, zone);
+        }
+        matcher = FIXED_STRING_PATTERN.matcher(type);
+        if (matcher.matches()) {
+            return new FixedStringColumn(Integer.parseInt(matcher.group(1)));
+        }
+        matcher = DATETIME64_PATTERN.matcher(type);
+        if (matcher.matches()) {
+            ZoneId zone = matcher.group(2) == null ? ZoneId.systemDefault() : parseZone(matcher.group(2));
+            return zone == null ? null : new DateTimeColumn(Integer.parseInt(matcher.group(1)), zone);
+        }
+        matcher = DECIMAL_PATTERN.matcher(type);
+        if (matcher.matches()) {
+            int precision = Integer.parseInt(matcher.group(1));
+            int width = precision <= 9 ? 4 : precision <= 18 ? 8 : precision <= 38 ? 16 : 32;
+            return new DecimalColumn(width, Integer.parseInt(matcher.group(2)));
+        }
+        matcher = DECIMAL_N_PATTERN.matcher(type);
+        if (matcher.matches()) {
+            return new DecimalColumn(Integer.parseInt(matcher.group(1)) / 8, Integer.parseInt(matcher.group(2)));
+        }
+        return null;
+    }
+
+    /**
+     * parseZone
+     * 
+     * @param  zoneId
+     * @return        null if the timezone is unknown
+     */
+    private static ZoneId parseZone(String zoneId) {
+        try {
+            return ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * parseEpochNano
+     * 
+     * @param  value local time of the system timezone
+     * @return       0 if the value is invalid
+     */
+    public static long parseEpochNano(String value) {
+        return parseEpochNano(value, ZoneId.systemDefault());
+    }
+
+    /**
+     * parseEpochNano
+     * 
+     * @param  value local time of the timezone
+     * @param  zone
+     * @return       0 if the value is invalid
+     */
+    public static long parseEpochNano(String value, ZoneId zone) {
+        try {
+            LocalDateTime time = LocalDateTime.parse(value.trim(), DATE_TIME_FORMATTER);
+            Instant instant = time.atZone(zone).toInstant();
+            return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * parseLong
+     * 
+     * @param  value
+     * @param  unsigned
+     * @return          0 if the value is invalid
+     */
+    public static long parseLong(String value, boolean unsigned) {
+        if (value == null || value.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return unsigned ? Long.parseUnsignedLong(value.trim()) : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 
+     * NullableColumn
+     */
+    private static class NullableColumn extends RowBinaryColumn {
+
+        private final RowBinaryColumn nested;
+
+        NullableColumn(RowBinaryColumn nested) {
+            this.nested = nested;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            if (value == null) {
+                buffer.writeInt8(1);
+                return;
+            }
+            buffer.writeInt8(0);
+            nested.write(value, buffer);
+        }
+    }
+
+    /**
+     * 
+     * IntColumn
+     */
+    private static class IntColumn extends RowBinaryColumn {
+
+        private final int width;
+        private final boolean unsigned;
+
+        IntColumn(int width, boolean unsigned) {
+            this.width = width;
+            this.unsigned = unsigned;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            long number;
+            if (width == 1 && ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value))) {
+                number = "true".equalsIgnoreCase(value) ? 1 : 0;
+            } else {
+                number = parseLong(value, unsigned && width == 8);
+            }
+            switch (width) {
+                case 1:
+                    buffer.writeInt8((int) number);
+                    break;
+                case 2:
+                    buffer.writeInt16((int) number);
+                    break;
+                case 4:
+                    buffer.writeInt32((int) number);
+                    break;
+                default:
+                    buffer.writeInt64(number);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 
+     * FloatColumn
+     */
+    private static class FloatColumn extends RowBinaryColumn {
+
+        private final boolean isDouble;
+
+        FloatColumn(boolean isDouble) {
+            this.isDouble = isDouble;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            double number = 0;
+            if (value != null && !value.isEmpty()) {
+                try {
+                    number = Double.parseDouble(value.trim());
+                } catch (NumberFormatException e) {
+                    number = 0;
+                }
+            }
+            if (isDouble) {
+                buffer.writeInt64(Double.doubleToLongBits(number));
+            } else {
+                buffer.writeInt32(Float.floatToIntBits((float) number));
+            }
+        }
+    }
+
+    /**
+     * 
+     * StringColumn
+     */
+    private static class StringColumn extends RowBinaryColumn {
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            buffer.writeString(value == null ? "" : value);
+        }
+    }
+
+    /**
+     * 
+     * FixedStringColumn, padded with zero bytes or truncated to the length
+     */
+    private static class FixedStringColumn extends RowBinaryColumn {
+
+        private final int length;
+
+        FixedStringColumn(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            int size = Math.min(bytes.length, length);
+            buffer.write(bytes, 0, size);
+            for (int i = size; i < length; i++) {
+                buffer.write(0);
+            }
+        }
+    }
+
+    /**
+     * 
+     * DateColumn, days since 1970-01-01
+     */
+    private static class DateColumn extends RowBinaryColumn {
+
+        private final boolean isDate32;
+
+        DateColumn(boolean isDate32) {
+            this.isDate32 = isDate32;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            long days = 0;
+            if (value != null && !value.isEmpty()) {
+                try {
+                    days = LocalDate.parse(value.trim(), DATE_TIME_FORMATTER).toEpochDay();
+                } catch (Exception e) {
+                    days = 0;
+                }
+            }
+            if (isDate32) {
+                buffer.writeInt32((int) days);
+            } else {
+                buffer.writeInt16((int) Math.max(0, days));
+            }
+        }
+    }
+
+    /**
+     * 
+     * DateTimeColumn, seconds since epoch for DateTime, ticks of the precision for DateTime64
+     */
+    private static class DateTimeColumn extends RowBinaryColumn {
+
+        private final int precision;
+        private final ZoneId zone;
+
+        DateTimeColumn(int precision, ZoneId zone) {
+            this.precision = precision;
+            this.zone = zone;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            long nanos = value == null || value.isEmpty() ? 0L : parseEpochNano(value, zone);
+            if (precision < 0) {
+                buffer.writeInt32((int) Math.max(0, Math.floorDiv(nanos, 1_000_000_000L)));
+                return;
+            }
+            long divisor = BigInteger.TEN.pow(9 - Math.min(9, precision)).longValue();
+            buffer.writeInt64(Math.floorDiv(nanos, divisor));
+        }
+    }
+
+    /**
+     * 
+     * DecimalColumn, unscaled value as little endian integer of the width
+     */
+    private static class DecimalColumn extends RowBinaryColumn {
+
+        private final int width;
+        private final int scale;
+
+        DecimalColumn(int width, int scale) {
+            this.width = width;
+            this.scale = scale;
+        }
+
+        @Override
+        public void write(String value, RowBinaryBuffer buffer) {
+            BigInteger unscaled = BigInteger.ZERO;
+            if (value != null && !value.isEmpty()) {
+                try {
+                    unscaled = new BigDecimal(value.trim()).setScale(scale, RoundingMode.HALF_UP).unscaledValue();
+                } catch (NumberFormatException | ArithmeticException e) {
+                    unscaled = BigInteger.ZERO;
+                }
+            }
+            if (width == 4) {
+                buffer.writeInt32(unscaled.intValue());
+                return;
+            }
+            if (width == 8) {
+                buffer.writeInt64(unscaled.longValue());
+                return;
+            }
+            // big endian two's complement to little endian of the width with sign extension
+            byte[] bytes = unscaled.toByteArray();
+            byte sign = (byte) (unscaled.signum() < 0 ? 0xFF : 0);
+            for (int i = 0; i < width; i++) {
+                int index = bytes.length - 1 - i;
+                buffer.write(index >= 0 ? bytes[index] : sign);
+            }
+        }
+    }
+}
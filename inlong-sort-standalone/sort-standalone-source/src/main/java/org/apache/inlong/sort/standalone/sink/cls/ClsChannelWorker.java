@@ -18,6 +18,7 @@
 package org.apache.inlong.sort.standalone.sink.cls;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.sink.AbstractChannelWorker;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
 import com.google.common.base.Preconditions;
@@ -27,7 +28,6 @@ import com.tencentcloudapi.cls.producer.errors.ProducerException;
 import org.apache.flume.Channel;
 import org.apache.flume.Event;
 import org.apache.flume.Transaction;
-import org.apache.flume.lifecycle.LifecycleState;
 import org.slf4j.Logger;
 
 import java.util.List;
@@ -35,15 +35,13 @@ import java.util.List;
 /**
  * Cls channel worker.
  */
-public class ClsChannelWorker extends Thread {
+public class ClsChannelWorker extends AbstractChannelWorker {
 
     private static final Logger LOG = InlongLoggerFactory.getLogger(ClsChannelWorker.class);
 
     private final ClsSinkContext context;
-    private final String workerName;
     private final Channel channel;
     private final IEvent2LogItemHandler handler;
-    private LifecycleState status;
 
     /**
      * Constructor.
@@ -53,53 +51,26 @@ public class ClsChannelWorker extends Thread {
      * @param workerIndex Index of cls channel worker.
      */
     public ClsChannelWorker(String sinkName, ClsSinkContext context, int workerIndex) {
-        this.context = Preconditions.checkNotNull(context);
-        this.workerName = sinkName + "-" + workerIndex;
+        super(Preconditions.checkNotNull(context), sinkName + "-" + workerIndex);
+        this.context = context;
         this.channel = Preconditions.checkNotNull(context.getChannel());
         this.handler = Preconditions.checkNotNull(context.getLogItemHandler());
-        this.status = LifecycleState.IDLE;
-    }
-
-    @Override
-    public void start() {
-        LOG.info("Start new cls channel worker {}", this.workerName);
-        status = LifecycleState.START;
-        super.start();
-    }
-
-    /**
-     * Close cls channel worker.
-     */
-    public void close() {
-        LOG.info("Close cls channel worker {}", this.workerName);
-        status = LifecycleState.STOP;
-    }
-
-    /**
-     * Run until status is STOP.
-     */
-    @Override
-    public void run() {
-        LOG.info("worker {} start to run, the state is {}", this.workerName, status.name());
-        while (status != LifecycleState.STOP) {
-            doRun();
-        }
     }
 
     /**
      * Do run.
      */
-    private void doRun() {
+    @Override
+    protected void doRun() {
         Transaction tx = null;
         try {
             tx = channel.getTransaction();
             tx.begin();
-            Event rowEvent = channel.take();
+            Event rowEvent = this.takeEvent(channel);
 
-            // if event is null, close tx and sleep for a while.
+            // if event is null, close tx, the take has waited for a while.
             if (rowEvent == null) {
                 this.commitTransaction(tx);
-                sleepOneInterval();
                 return;
             }
             // if is the instanceof ProfileEvent
@@ -142,15 +113,6 @@ public class ClsChannelWorker extends Thread {
         client.putLogs(idConfig.getTopicId(), record, callback);
     }
 
-    /** sleepOneInterval */
-    private void sleepOneInterval() {
-        try {
-            Thread.sleep(context.getProcessInterval());
-        } catch (InterruptedException e1) {
-            LOG.error(e1.getMessage(), e1);
-        }
-    }
-
     /**
      * Rollback transaction if it exists.
      * @param tx Transaction
@@ -51,7 +51,7 @@ public class ClsSink extends AbstractSink implements Configurable {
         try {
             this.context = new ClsSinkContext(getName(), parentContext, getChannel());
             this.context.start();
-            for (int i = 0; i < context.getMaxThreads(); i++) {
+            for (int i = 0; i < context.getWorkerThreads(); i++) {
                 ClsChannelWorker worker = new ClsChannelWorker(getName(), context, i);
                 this.workers.add(worker);
                 worker.start();
@@ -18,13 +18,12 @@
 package org.apache.inlong.sort.standalone.sink.cls;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.DelimitedFields;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
-import org.apache.inlong.sort.standalone.utils.UnescapeHelper;
 
 import com.tencentcloudapi.cls.producer.common.LogItem;
 import org.slf4j.Logger;
 
-import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -37,6 +36,8 @@ import java.util.Map;
 public class DefaultEvent2LogItemHandler implements IEvent2LogItemHandler {
 
     private static final Logger LOG = InlongLoggerFactory.getLogger(DefaultEvent2LogItemHandler.class);
+    private static final ThreadLocal<DelimitedFields> DELIMITED_FIELDS =
+            ThreadLocal.withInitial(DelimitedFields::new);
     private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
 
     /**
@@ -57,16 +58,14 @@ public class DefaultEvent2LogItemHandler implements IEvent2LogItemHandler {
         }
 
         // prepare values
-        String stringValues = this.getStringValues(event, idConfig);
-        char delimiter = idConfig.getSeparator().charAt(0);
-        List<String> listValues = UnescapeHelper.toFiledList(stringValues, delimiter);
-        listValues.forEach(value -> this.truncateSingleValue(value, context.getKeywordMaxLength()));
+        DelimitedFields listValues = this.splitValues(event, idConfig);
         // prepare keys
         List<String> listKeys = idConfig.getFieldList();
         // prepare offset
         int fieldOffset = idConfig.getFieldOffset();
         // convert to LogItem format
-        LogItem item = this.parseToLogItem(listKeys, listValues, event.getRawLogTime(), fieldOffset);
+        LogItem item = this.parseToLogItem(listKeys, listValues, event.getRawLogTime(), fieldOffset,
+                context.getKeywordMaxLength());
         // add ftime
         String ftime = dateFormat.format(new Date(event.getRawLogTime()));
         item.PushBack("ftime", ftime);
@@ -79,36 +78,27 @@ public class DefaultEvent2LogItemHandler implements IEvent2LogItemHandler {
         return itemList;
     }
 
-    private String getStringValues(ProfileEvent event, ClsIdConfig idConfig) {
+    private DelimitedFields splitValues(ProfileEvent event, ClsIdConfig idConfig) {
         byte[] bodyBytes = event.getBody();
-        int msgLength = event.getBody().length;
-        int contentOffset = idConfig.getContentOffset();
-        if (contentOffset > 0 && msgLength >= 1) {
-            return new String(bodyBytes, contentOffset, msgLength - contentOffset, Charset.defaultCharset());
-        } else {
-            return new String(bodyBytes, Charset.defaultCharset());
-        }
+        int msgLength = bodyBytes.length;
+        int contentOffset = Math.min(Math.max(idConfig.getContentOffset(), 0), msgLength);
+        char delimiter = idConfig.getSeparator().charAt(0);
+        return DELIMITED_FIELDS.get().split(bodyBytes, contentOffset, msgLength - contentOffset, delimiter);
     }
 
-    private LogItem parseToLogItem(List<String> listKeys, List<String> listValues, long time, int fieldOffset) {
+    private LogItem parseToLogItem(List<String> listKeys, DelimitedFields listValues, long time, int fieldOffset,
+            int keywordMaxLength) {
         LogItem logItem = new LogItem(time);
         for (int i = fieldOffset; i < listKeys.size(); ++i) {
             String key = listKeys.get(i);
             int columnIndex = i - fieldOffset;
-            String value = columnIndex < listValues.size() ? listValues.get(columnIndex) : "";
+            // the value is truncated at a char boundary
+            String value = columnIndex < listValues.size() ? listValues.getString(columnIndex, keywordMaxLength) : "";
             logItem.PushBack(key, value);
         }
         return logItem;
     }
 
-    private String truncateSingleValue(String value, int limit) {
-        byte[] inBytes = value.getBytes(Charset.defaultCharset());
-        if (inBytes.length > limit) {
-            value = new String(inBytes, 0, limit);
-        }
-        return value;
-    }
-
     private String getExtInfo(ProfileEvent event) {
         if (event.getHeaders().size() > 0) {
             StringBuilder sBuilder = new StringBuilder();
@@ -19,14 +19,14 @@ package org.apache.inlong.sort.standalone.sink.elasticsearch;
 
 import org.apache.inlong.sdk.commons.protocol.EventConstants;
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
-import org.apache.inlong.sort.standalone.utils.UnescapeHelper;
+import org.apache.inlong.sort.standalone.utils.DelimitedFields;
 
-import java.nio.charset.Charset;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -36,9 +36,17 @@ import java.util.concurrent.atomic.AtomicLong;
 public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHandler {
 
     public static final String KEY_EXTINFO = "extinfo";
+    public static final String KEY_FTIME = "ftime";
+
+    private static final DateTimeFormatter FTIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+    private static final ThreadLocal<EsDocumentBuilder> DOCUMENT_BUILDER =
+            ThreadLocal.withInitial(EsDocumentBuilder::new);
+    private static final ThreadLocal<DelimitedFields> DELIMITED_FIELDS =
+            ThreadLocal.withInitial(DelimitedFields::new);
 
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     private AtomicLong esIndexIndex = new AtomicLong(System.currentTimeMillis());
+    private volatile CachedFtime cachedFtime = new CachedFtime(Long.MIN_VALUE, null);
 
     /**
      * parse
@@ -58,42 +66,43 @@ public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHand
         // parse fields
         String delimeter = idConfig.getSeparator();
         char cDelimeter = delimeter.charAt(0);
-        String strContext = null;
         // for tab separator
         byte[] bodyBytes = event.getBody();
-        int msgLength = event.getBody().length;
-        int contentOffset = idConfig.getContentOffset();
-        if (contentOffset > 0 && msgLength >= 1) {
-            strContext = new String(bodyBytes, contentOffset, msgLength - contentOffset, Charset.defaultCharset());
-        } else {
-            strContext = new String(bodyBytes, Charset.defaultCharset());
-        }
-        // unescape
-        List<String> columnVlues = UnescapeHelper.toFiledList(strContext, cDelimeter);
-        int valueLength = columnVlues.size();
+        int msgLength = bodyBytes.length;
+        int contentOffset = Math.min(Math.max(idConfig.getContentOffset(), 0), msgLength);
+        // split the body bytes, only the escaped fields are copied
+        DelimitedFields columnValues = DELIMITED_FIELDS.get()
+                .split(bodyBytes, contentOffset, msgLength - contentOffset, cDelimeter);
+        int valueLength = columnValues.size();
         List<String> fieldList = idConfig.getFieldList();
-        int columnLength = fieldList.size();
         // field offset
         int fieldOffset = idConfig.getFieldOffset();
-        // get field value
-        Map<String, String> fieldMap = new HashMap<>();
-        for (int i = fieldOffset; i < columnLength; ++i) {
+        // get field value, write json bytes from the body directly
+        int keywordMaxLength = context.getKeywordMaxLength();
+        EsDocumentBuilder builder = DOCUMENT_BUILDER.get().begin();
+        // a repeated field name is written once with its last value
+        for (int i : idConfig.getDocumentFieldIndexes()) {
+            if (i < fieldOffset) {
+                continue;
+            }
             String fieldName = fieldList.get(i);
+            // ftime and extinfo are always filled by sink
+            if (KEY_FTIME.equals(fieldName) || KEY_EXTINFO.equals(fieldName)) {
+                continue;
+            }
             int columnIndex = i - fieldOffset;
-            String fieldValue = columnIndex < valueLength ? columnVlues.get(columnIndex) : "";
-            byte[] fieldBytes = fieldValue.getBytes(Charset.defaultCharset());
-            if (fieldBytes.length > context.getKeywordMaxLength()) {
-                fieldValue = new String(fieldBytes, 0, context.getKeywordMaxLength());
+            if (columnIndex < valueLength) {
+                builder.field(fieldName, columnValues.getArray(columnIndex), columnValues.getStart(columnIndex),
+                        columnValues.getEnd(columnIndex), keywordMaxLength);
+            } else {
+                builder.field(fieldName, "", keywordMaxLength);
             }
-            fieldMap.put(fieldName, fieldValue);
         }
 
         // ftime
-        String ftime = dateFormat.format(new Date(event.getRawLogTime()));
-        fieldMap.put("ftime", ftime);
+        builder.field(KEY_FTIME, this.formatFtime(event.getRawLogTime()), Integer.MAX_VALUE);
         // extinfo
-        String extinfo = getExtInfo(event);
-        fieldMap.put("extinfo", extinfo);
+        builder.field(KEY_EXTINFO, getExtInfo(event), Integer.MAX_VALUE);
         String indexName = idConfig.parseIndexName(event.getRawLogTime());
         // build
         EsIndexRequest indexRequest = new EsIndexRequest(indexName, event);
@@ -101,10 +110,26 @@ public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHand
             String esIndexId = uid + delimeter + event.getRawLogTime() + delimeter + esIndexIndex.incrementAndGet();
             indexRequest.id(esIndexId);
         }
-        indexRequest.source(fieldMap);
+        indexRequest.source(builder.end(), XContentType.JSON);
         return indexRequest;
     }
 
+    /**
+     * formatFtime, the formatted string is cached per second
+     * 
+     * @param  rawLogTime
+     * @return
+     */
+    public String formatFtime(long rawLogTime) {
+        long second = Math.floorDiv(rawLogTime, 1000L);
+        CachedFtime cached = this.cachedFtime;
+        if (cached.second != second) {
+            cached = new CachedFtime(second, FTIME_FORMATTER.format(Instant.ofEpochSecond(second)));
+            this.cachedFtime = cached;
+        }
+        return cached.ftime;
+    }
+
     /**
      * getExtInfo
      * 
@@ -112,11 +137,32 @@ public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHand
      * @return
      */
     public static String getExtInfo(ProfileEvent event) {
-        String extinfoValue = event.getHeaders().get(KEY_EXTINFO);
+        String extinfoValue = event.getHeader(KEY_EXTINFO);
         if (extinfoValue != null) {
             return KEY_EXTINFO + "=" + extinfoValue;
         }
-        extinfoValue = KEY_EXTINFO + "=" + event.getHeaders().get(EventConstants.HEADER_KEY_SOURCE_IP);
+        extinfoValue = KEY_EXTINFO + "=" + event.getHeader(EventConstants.HEADER_KEY_SOURCE_IP);
         return extinfoValue;
     }
+
+    /**
+     * 
+     * CachedFtime, replaced as a whole so that threads never see a torn value
+     */
+    private static class CachedFtime {
+
+        private final long second;
+        private final String ftime;
+
+        /**
+         * Constructor
+         * 
+         * @param second
+         * @param ftime
+         */
+        CachedFtime(long second, String ftime) {
+            this.second = second;
+            this.ftime = ftime;
+        }
+    }
 }
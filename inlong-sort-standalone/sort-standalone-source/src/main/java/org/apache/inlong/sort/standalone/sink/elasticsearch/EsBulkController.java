@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+/**
+ * 
+ * EsBulkController
+ * <p>
+ * AIMD control of bulk size and concurrent bulk requests of an output channel.
+ * A bulk with rejected items, a failed bulk or a bulk slower than the target latency halves the
+ * concurrent requests, and halves the bulk size when only one request is allowed.
+ * After a window of healthy bulks, the concurrent requests and the bulk size grow by one step.
+ * Without adaptive control, the bulk size and concurrent requests are always the configured maximum.
+ */
+public class EsBulkController {
+
+    private final boolean adaptive;
+    private final int minBulkAction;
+    private final int maxBulkAction;
+    private final long maxBulkSizeBytes;
+    private final int maxConcurrentRequests;
+    private final long targetLatencyMs;
+
+    private volatile int bulkAction;
+    private volatile int concurrentRequests;
+    private volatile long lastLatencyMs = 0;
+    private int inflightRequests = 0;
+    private int healthyBulks = 0;
+    // responses of the bulks sent before the last decrease, they don't decrease again
+    private int staleResponses = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param context
+     */
+    public EsBulkController(EsSinkContext context) {
+        this(context.isAdaptiveBulk(), context.getMinBulkAction(), context.getBulkAction(),
+                context.getBulkSizeMb() * EsSinkContext.MB_BYTES, context.getConcurrentRequests(),
+                context.getBulkTargetLatencyMs());
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param adaptive
+     * @param minBulkAction
+     * @param maxBulkAction
+     * @param maxBulkSizeBytes
+     * @param maxConcurrentRequests
+     * @param targetLatencyMs
+     */
+    public EsBulkController(boolean adaptive, int minBulkAction, int maxBulkAction, long maxBulkSizeBytes,
+            int maxConcurrentRequests, long targetLatencyMs) {
+        this.adaptive = adaptive;
+        this.maxBulkAction = Math.max(1, maxBulkAction);
+        this.minBulkAction = Math.max(1, Math.min(minBulkAction, this.maxBulkAction));
+        this.maxBulkSizeBytes = maxBulkSizeBytes;
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.targetLatencyMs = targetLatencyMs;
+        this.bulkAction = this.maxBulkAction;
+        this.concurrentRequests = this.maxConcurrentRequests;
+    }
+
+    /**
+     * acquire a slot of concurrent requests
+     * 
+     * @param  timeoutMs
+     * @return                      false if no slot is released in timeout
+     * @throws InterruptedException
+     */
+    public synchronized boolean acquire(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (inflightRequests >= concurrentRequests) {
+            long waitMs = deadline - System.currentTimeMillis();
+            if (waitMs <= 0) {
+                return false;
+            }
+            this.wait(waitMs);
+        }
+        inflightRequests++;
+        return true;
+    }
+
+    /**
+     * release a slot of concurrent requests
+     */
+    public synchronized void release() {
+        inflightRequests--;
+        this.notifyAll();
+    }
+
+    /**
+     * hasIdleSlot
+     * 
+     * @return true if a bulk can be sent without waiting
+     */
+    public synchronized boolean hasIdleSlot() {
+        return inflightRequests < concurrentRequests;
+    }
+
+    /**
+     * getInflightRequests
+     * 
+     * @return
+     */
+    public synchronized int getInflightRequests() {
+        return inflightRequests;
+    }
+
+    /**
+     * onBulkResponse
+     * 
+     * @param actions       count of bulk items
+     * @param rejectedItems count of items rejected by es
+     * @param latencyMs
+     */
+    public synchronized void onBulkResponse(int actions, int rejectedItems, long latencyMs) {
+        this.lastLatencyMs = latencyMs;
+        if (!adaptive) {
+            return;
+        }
+        if (rejectedItems > 0 || latencyMs > targetLatencyMs) {
+            this.decrease();
+            return;
+        }
+        if (staleResponses > 0) {
+            staleResponses--;
+        }
+        // additive increase once per window of concurrent requests
+        if (++healthyBulks < concurrentRequests) {
+            return;
+        }
+        healthyBulks = 0;
+        if (concurrentRequests < maxConcurrentRequests) {
+            concurrentRequests++;
+            this.notifyAll();
+        } else if (actions >= bulkAction) {
+            // only a full bulk means that a larger bulk is needed
+            bulkAction = Math.min(maxBulkAction, bulkAction + minBulkAction);
+        }
+    }
+
+    /**
+     * onBulkFailure, the whole bulk is failed
+     */
+    public synchronized void onBulkFailure() {
+        if (adaptive) {
+            this.decrease();
+        }
+    }
+
+    /**
+     * decrease
+     */
+    private void decrease() {
+        healthyBulks = 0;
+        if (staleResponses > 0) {
+            staleResponses--;
+            return;
+        }
+        // the other inflight bulks were sent before this decrease
+        staleResponses = Math.max(0, inflightRequests - 1);
+        if (concurrentRequests > 1) {
+            concurrentRequests = Math.max(1, concurrentRequests / 2);
+        } else {
+            bulkAction = Math.max(minBulkAction, bulkAction / 2);
+        }
+    }
+
+    /**
+     * get bulkAction
+     * 
+     * @return the bulkAction
+     */
+    public int getBulkAction() {
+        return bulkAction;
+    }
+
+    /**
+     * get bulkSizeBytes, scaled with bulkAction
+     * 
+     * @return the bulkSizeBytes
+     */
+    public long getBulkSizeBytes() {
+        return maxBulkSizeBytes * bulkAction / maxBulkAction;
+    }
+
+    /**
+     * get concurrentRequests
+     * 
+     * @return the concurrentRequests
+     */
+    public int getConcurrentRequests() {
+        return concurrentRequests;
+    }
+
+    /**
+     * get lastLatencyMs
+     * 
+     * @return the lastLatencyMs
+     */
+    public long getLastLatencyMs() {
+        return lastLatencyMs;
+    }
+}
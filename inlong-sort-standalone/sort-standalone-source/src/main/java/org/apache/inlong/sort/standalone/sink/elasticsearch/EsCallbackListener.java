@@ -25,9 +25,12 @@ import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
 import org.slf4j.Logger;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * EsCallbackListener
@@ -38,6 +41,9 @@ public class EsCallbackListener implements BulkProcessor.Listener {
     public static final Logger LOG = InlongLoggerFactory.getLogger(EsCallbackListener.class);
 
     private EsSinkContext context;
+    private EsBulkController controller;
+    // executionId -> time when the bulk is sent, the latency seen by the client includes the network and queueing
+    private final Map<Long, Long> bulkStartTimes = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -45,7 +51,18 @@ public class EsCallbackListener implements BulkProcessor.Listener {
      * @param context
      */
     public EsCallbackListener(EsSinkContext context) {
+        this(context, new EsBulkController(context));
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param context
+     * @param controller
+     */
+    public EsCallbackListener(EsSinkContext context, EsBulkController controller) {
         this.context = context;
+        this.controller = controller;
     }
 
     /**
@@ -57,6 +74,7 @@ public class EsCallbackListener implements BulkProcessor.Listener {
     @Override
     public void beforeBulk(long executionId, BulkRequest request) {
         LOG.debug("beforeBulk,executionId:{},request:{}", executionId, request);
+        bulkStartTimes.put(executionId, System.currentTimeMillis());
     }
 
     /**
@@ -69,12 +87,15 @@ public class EsCallbackListener implements BulkProcessor.Listener {
     @Override
     public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
         LOG.debug("afterBulk,executionId,executionId:{},request:{},response:{}", executionId, request, response);
+        Long startTime = bulkStartTimes.remove(executionId);
+        long latencyMs = startTime == null ? response.getTook().millis() : System.currentTimeMillis() - startTime;
         BulkItemResponse[] itemResponses = response.getItems();
         List<DocWriteRequest<?>> requests = request.requests();
         if (itemResponses.length != requests.size()) {
             LOG.error("BulkItemResponse size is not equal to IndexRequest size:requestSize:{},responseSize:{}",
                     requests.size(), itemResponses.length);
         }
+        int rejectedItems = 0;
         for (int i = 0; i < itemResponses.length; i++) {
             // parameter
             EsIndexRequest requestItem = (EsIndexRequest) requests.get(i);
@@ -82,8 +103,11 @@ public class EsCallbackListener implements BulkProcessor.Listener {
             ProfileEvent event = requestItem.getEvent();
             long sendTime = requestItem.getSendTime();
 
-            // is fail
+            // is fail, only the failed items are resent
             if (responseItem.isFailed()) {
+                if (responseItem.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS) {
+                    rejectedItems++;
+                }
                 context.addSendResultMetric(event, context.getTaskName(), false, sendTime);
                 context.backDispatchQueue(requestItem);
             } else {
@@ -92,6 +116,9 @@ public class EsCallbackListener implements BulkProcessor.Listener {
                 event.ack();
             }
         }
+        // adjust bulk size and concurrent requests
+        controller.onBulkResponse(requests.size(), rejectedItems, latencyMs);
+        context.addBulkMetric(controller, rejectedItems);
     }
 
     /**
@@ -104,6 +131,7 @@ public class EsCallbackListener implements BulkProcessor.Listener {
     @Override
     public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
         LOG.error("afterBulk,executionId:" + executionId + ",failure:" + failure, failure);
+        bulkStartTimes.remove(executionId);
         String errorMsg = String.format("EsSenderError,whole bulk,errorMsg:%s,count:%d", failure.getMessage(),
                 request.numberOfActions());
         LOG.error(errorMsg, failure);
@@ -117,6 +145,17 @@ public class EsCallbackListener implements BulkProcessor.Listener {
             context.addSendResultMetric(event, context.getTaskName(), false, sendTime);
             context.backDispatchQueue(requestItem);
         }
+        controller.onBulkFailure();
+        context.addBulkMetric(controller, 0);
+    }
+
+    /**
+     * get controller
+     * 
+     * @return the controller
+     */
+    public EsBulkController getController() {
+        return controller;
     }
 
 }
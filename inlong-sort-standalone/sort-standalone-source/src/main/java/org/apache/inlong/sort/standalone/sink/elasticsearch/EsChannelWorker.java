@@ -18,25 +18,23 @@
 package org.apache.inlong.sort.standalone.sink.elasticsearch;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.sink.AbstractChannelWorker;
 
 import org.apache.flume.Channel;
 import org.apache.flume.Event;
 import org.apache.flume.Transaction;
-import org.apache.flume.lifecycle.LifecycleState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * EsChannelWorker
  */
-public class EsChannelWorker extends Thread {
+public class EsChannelWorker extends AbstractChannelWorker {
 
     public static final Logger LOG = LoggerFactory.getLogger(EsChannelWorker.class);
 
     private final EsSinkContext context;
-    private final int workerIndex;
 
-    private LifecycleState status;
     private IEvent2IndexRequestHandler handler;
 
     /**
@@ -46,46 +44,28 @@ public class EsChannelWorker extends Thread {
      * @param workerIndex
      */
     public EsChannelWorker(EsSinkContext context, int workerIndex) {
+        super(context, context.getSinkName() + "-worker-" + workerIndex);
         this.context = context;
-        this.workerIndex = workerIndex;
-        this.status = LifecycleState.IDLE;
         this.handler = context.createIndexRequestHandler();
     }
 
-    /**
-     * run
-     */
-    @Override
-    public void run() {
-        status = LifecycleState.START;
-        LOG.info("start to EsChannelWorker:{},status:{},index:{}", context.getTaskName(), status, workerIndex);
-        while (status == LifecycleState.START) {
-            try {
-                this.doRun();
-            } catch (Throwable t) {
-                LOG.error(t.getMessage(), t);
-            }
-        }
-    }
-
     /**
      * doRun
      */
+    @Override
     public void doRun() {
         Channel channel = context.getChannel();
         Transaction tx = channel.getTransaction();
         tx.begin();
         try {
-            Event event = channel.take();
+            Event event = this.takeEvent(channel);
             if (event == null) {
                 tx.commit();
-                Thread.sleep(context.getProcessInterval());
                 return;
             }
             if (!(event instanceof ProfileEvent)) {
                 tx.commit();
                 this.context.addSendFailMetric();
-                Thread.sleep(context.getProcessInterval());
                 return;
             }
             // to profileEvent
@@ -112,11 +92,4 @@ public class EsChannelWorker extends Thread {
             tx.close();
         }
     }
-
-    /**
-     * close
-     */
-    public void close() {
-        this.status = LifecycleState.STOP;
-    }
 }
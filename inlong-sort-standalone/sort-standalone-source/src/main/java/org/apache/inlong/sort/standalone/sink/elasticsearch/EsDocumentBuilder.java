@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 
+ * EsDocumentBuilder
+ * <p>
+ * Write string fields of a document to utf-8 json bytes directly, without building a map
+ * and serializing it through XContent. The buffer is reused, so the builder is not thread-safe.
+ */
+public class EsDocumentBuilder {
+
+    private static final int INIT_BUFFER_SIZE = 1024;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+    private static final byte REPLACEMENT = '?';
+
+    private byte[] buffer = new byte[INIT_BUFFER_SIZE];
+    private int size = 0;
+    private boolean firstField = true;
+
+    /**
+     * begin a new document
+     * 
+     * @return this
+     */
+    public EsDocumentBuilder begin() {
+        this.size = 0;
+        this.firstField = true;
+        this.writeByte('{');
+        return this;
+    }
+
+    /**
+     * add a string field, the value is truncated at a char boundary to maxBytes utf-8 bytes.
+     * 
+     * @param  name
+     * @param  value
+     * @param  maxBytes max utf-8 bytes of the value before escaping
+     * @return          this
+     */
+    public EsDocumentBuilder field(String name, String value, int maxBytes) {
+        if (!firstField) {
+            this.writeByte(',');
+        }
+        this.firstField = false;
+        this.writeString(name, Integer.MAX_VALUE);
+        this.writeByte(':');
+        this.writeString(value, maxBytes);
+        return this;
+    }
+
+    /**
+     * add a field of utf-8 bytes, the bytes are copied without decoding to string.
+     * The value is truncated at a char boundary to maxBytes, and malformed utf-8 is decoded with replacement.
+     * 
+     * @param  name
+     * @param  bytes
+     * @param  start
+     * @param  end      exclusive
+     * @param  maxBytes max utf-8 bytes of the value before escaping
+     * @return          this
+     */
+    public EsDocumentBuilder field(String name, byte[] bytes, int start, int end, int maxBytes) {
+        int mark = this.size;
+        boolean markFirstField = this.firstField;
+        if (!firstField) {
+            this.writeByte(',');
+        }
+        this.firstField = false;
+        this.writeString(name, Integer.MAX_VALUE);
+        this.writeByte(':');
+        if (!this.writeUtf8(bytes, start, end, maxBytes)) {
+            // rewrite the field with the string decoder
+            this.size = mark;
+            this.firstField = markFirstField;
+            this.field(name, new String(bytes, start, end - start, StandardCharsets.UTF_8), maxBytes);
+        }
+        return this;
+    }
+
+    /**
+     * end the document
+     * 
+     * @return json bytes of the document
+     */
+    public byte[] end() {
+        this.writeByte('}');
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * writeString
+     * 
+     * @param value
+     * @param maxBytes
+     */
+    private void writeString(String value, int maxBytes) {
+        int length = value.length();
+        // quotes, and at most 6 bytes per char when escaped
+        this.ensureCapacity(2 + 6 * Math.min(length, maxBytes));
+        byte[] buf = this.buffer;
+        int pos = this.size;
+        buf[pos++] = '"';
+        int valueBytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (++valueBytes > maxBytes) {
+                    break;
+                }
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buf[pos++] = (byte) c;
+                } else {
+                    pos = writeEscaped(buf, pos, c);
+                }
+            } else if (c < 0x800) {
+                valueBytes += 2;
+                if (valueBytes > maxBytes) {
+                    break;
+                }
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                valueBytes += 4;
+                if (valueBytes > maxBytes) {
+                    break;
+                }
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogate, same as String.getBytes
+                if (++valueBytes > maxBytes) {
+                    break;
+                }
+                buf[pos++] = REPLACEMENT;
+            } else {
+                valueBytes += 3;
+                if (valueBytes > maxBytes) {
+                    break;
+                }
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[pos++] = '"';
+        this.size = pos;
+    }
+
+    /**
+     * writeUtf8
+     * 
+     * @param  src
+     * @param  start
+     * @param  end
+     * @param  maxBytes
+     * @return          false if the bytes are malformed utf-8
+     */
+    private boolean writeUtf8(byte[] src, int start, int end, int maxBytes) {
+        int length = Math.min(end - start, maxBytes);
+        // quotes, and at most 6 bytes per byte when escaped
+        this.ensureCapacity(2 + 6 * Math.max(length, 0));
+        byte[] buf = this.buffer;
+        int pos = this.size;
+        buf[pos++] = '"';
+        int limit = start + Math.max(length, 0);
+        int i = start;
+        while (i < limit) {
+            int b = src[i] & 0xFF;
+            if (b < 0x80) {
+                if (b >= 0x20 && b != '"' && b != '\\') {
+                    buf[pos++] = (byte) b;
+                } else {
+                    pos = writeEscaped(buf, pos, (char) b);
+                }
+                i++;
+                continue;
+            }
+            int charLength = utf8Length(src, i, end);
+            if (charLength <= 0) {
+                return false;
+            }
+            if (i + charLength > limit) {
+                // truncated at char boundary
+                break;
+            }
+            System.arraycopy(src, i, buf, pos, charLength);
+            pos += charLength;
+            i += charLength;
+        }
+        buf[pos++] = '"';
+        this.size = pos;
+        return true;
+    }
+
+    /**
+     * utf8Length
+     * 
+     * @param  src
+     * @param  i   offset of the lead byte
+     * @param  end
+     * @return     byte length of a well-formed char, 0 if malformed
+     */
+    private static int utf8Length(byte[] src, int i, int end) {
+        int b = src[i] & 0xFF;
+        int charLength;
+        int min2 = 0x80;
+        int max2 = 0xBF;
+        if (b >= 0xC2 && b <= 0xDF) {
+            charLength = 2;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            charLength = 3;
+            if (b == 0xE0) {
+                min2 = 0xA0;
+            } else if (b == 0xED) {
+                // surrogates
+                max2 = 0x9F;
+            }
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            charLength = 4;
+            if (b == 0xF0) {
+                min2 = 0x90;
+            } else if (b == 0xF4) {
+                max2 = 0x8F;
+            }
+        } else {
+            return 0;
+        }
+        if (i + charLength > end) {
+            return 0;
+        }
+        int second = src[i + 1] & 0xFF;
+        if (second < min2 || second > max2) {
+            return 0;
+        }
+        for (int j = 2; j < charLength; j++) {
+            if ((src[i + j] & 0xC0) != 0x80) {
+                return 0;
+            }
+        }
+        return charLength;
+    }
+
+    /**
+     * writeEscaped
+     * 
+     * @param  buf
+     * @param  pos
+     * @param  c
+     * @return     new position
+     */
+    private static int writeEscaped(byte[] buf, int pos, char c) {
+        buf[pos++] = '\\';
+        switch (c) {
+            case '"':
+                buf[pos++] = '"';
+                break;
+            case '\\':
+                buf[pos++] = '\\';
+                break;
+            case '\n':
+                buf[pos++] = 'n';
+                break;
+            case '\r':
+                buf[pos++] = 'r';
+                break;
+            case '\t':
+                buf[pos++] = 't';
+                break;
+            default:
+                buf[pos++] = 'u';
+                buf[pos++] = '0';
+                buf[pos++] = '0';
+                buf[pos++] = HEX_DIGITS[(c >> 4) & 0xF];
+                buf[pos++] = HEX_DIGITS[c & 0xF];
+        }
+        return pos;
+    }
+
+    /**
+     * writeByte
+     * 
+     * @param b
+     */
+    private void writeByte(char b) {
+        this.ensureCapacity(1);
+        this.buffer[size++] = (byte) b;
+    }
+
+    /**
+     * ensureCapacity
+     * 
+     * @param required
+     */
+    private void ensureCapacity(int required) {
+        // compare with the remaining space to avoid overflow
+        if (required > buffer.length - size) {
+            long newLength = Math.max(2L * buffer.length, (long) size + required);
+            this.buffer = Arrays.copyOf(buffer, (int) Math.min(newLength, Integer.MAX_VALUE - 8));
+        }
+    }
+}
@@ -21,7 +21,9 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 
@@ -62,6 +64,7 @@ public class EsIdConfig {
     private int fieldOffset = 2; // for ftime,extinfo
     private int contentOffset = 0;// except for boss + tab(1)
     private List<String> fieldList;
+    private int[] documentFieldIndexes;
 
     /**
      * get inlongGroupId
@@ -176,6 +179,34 @@ public class EsIdConfig {
      */
     public void setFieldList(List<String> fieldList) {
         this.fieldList = fieldList;
+        this.documentFieldIndexes = null;
+    }
+
+    /**
+     * get indexes of fieldList written to the document in ascending order,
+     * a repeated field name only keeps its last index, so the last value wins.
+     * 
+     * @return the documentFieldIndexes
+     */
+    public int[] getDocumentFieldIndexes() {
+        int[] indexes = this.documentFieldIndexes;
+        if (indexes == null) {
+            List<String> fields = this.getFieldList();
+            Set<String> names = new HashSet<>();
+            int[] lastIndexes = new int[fields.size()];
+            int count = 0;
+            for (int i = fields.size() - 1; i >= 0; --i) {
+                if (names.add(fields.get(i))) {
+                    lastIndexes[count++] = i;
+                }
+            }
+            indexes = new int[count];
+            for (int i = 0; i < count; ++i) {
+                indexes[i] = lastIndexes[count - 1 - i];
+            }
+            this.documentFieldIndexes = indexes;
+        }
+        return indexes;
     }
 
     /**
@@ -27,21 +27,17 @@ import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.elasticsearch.action.ActionListener;
-import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.common.unit.ByteSizeUnit;
-import org.elasticsearch.common.unit.ByteSizeValue;
-import org.elasticsearch.common.unit.TimeValue;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.function.BiConsumer;
 
 /**
  * EsOutputChannel
@@ -53,7 +49,11 @@ public class EsOutputChannel extends Thread {
     private LifecycleState status;
     private EsSinkContext context;
     private RestHighLevelClient esClient;
-    private BulkProcessor bulkProcessor;
+    private final EsBulkController controller;
+    private final EsCallbackListener esListener;
+    private BulkRequest bulkRequest = new BulkRequest();
+    private long bulkCreateTime = System.currentTimeMillis();
+    private long executionId = 0;
 
     /**
      * Constructor
@@ -64,29 +64,27 @@ public class EsOutputChannel extends Thread {
         super(context.getTaskName());
         this.context = context;
         this.status = LifecycleState.IDLE;
+        this.controller = new EsBulkController(context);
+        this.esListener = new EsCallbackListener(context, controller);
     }
 
     /**
      * init
      */
     public void init() {
-        if (initEsclient()) {
-            initBulkprocessIfNeed();
-        }
+        initEsclient();
     }
 
     /**
-     * getBulkProcessor
+     * getEsClient
      *
      * @return
      */
-    public BulkProcessor getBulkProcessor() {
-        if (bulkProcessor == null) {
-            if (initEsclient()) {
-                initBulkprocessIfNeed();
-            }
+    public RestHighLevelClient getEsClient() {
+        if (esClient == null) {
+            initEsclient();
         }
-        return bulkProcessor;
+        return esClient;
     }
 
     /**
@@ -130,33 +128,6 @@ public class EsOutputChannel extends Thread {
         return true;
     }
 
-    /**
-     * initBulkprocessIfNeed
-     * 
-     * @return
-     */
-    private boolean initBulkprocessIfNeed() {
-        try {
-            if (bulkProcessor == null) {
-                EsCallbackListener esListener = new EsCallbackListener(context);
-                BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer = (request, bulkListener) -> esClient
-                        .bulkAsync(request, RequestOptions.DEFAULT, bulkListener);
-                BulkProcessor bulkProcessor = BulkProcessor.builder(consumer, esListener)
-                        .setBulkActions(context.getBulkAction())
-                        .setBulkSize(new ByteSizeValue(context.getBulkSizeMb(), ByteSizeUnit.MB))
-                        .setFlushInterval(TimeValue.timeValueSeconds(context.getFlushInterval()))
-                        .setConcurrentRequests(context.getConcurrentRequests())
-                        .build();
-                this.bulkProcessor = bulkProcessor;
-            }
-        } catch (Exception e) {
-            LOG.error("init esclient failed", e);
-            esClient = null;
-            return false;
-        }
-        return true;
-    }
-
     /**
      *
      * close
@@ -164,9 +135,19 @@ public class EsOutputChannel extends Thread {
     public void close() {
         status = LifecycleState.STOP;
         try {
-            this.bulkProcessor.close();
+            // the last bulk is sent by the output thread when it exits
+            if (this.isAlive() && Thread.currentThread() != this) {
+                this.join(context.getFlushInterval());
+            } else {
+                this.flush();
+            }
+            // wait for the inflight bulks
+            long deadline = System.currentTimeMillis() + context.getFlushInterval();
+            while (controller.getInflightRequests() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(context.getProcessInterval());
+            }
         } catch (Exception e) {
-            LOG.error(String.format("close bulkProcessor:%s", e.getMessage()), e);
+            LOG.error(String.format("close bulk:%s", e.getMessage()), e);
         }
         try {
             this.esClient.close();
@@ -189,6 +170,11 @@ public class EsOutputChannel extends Thread {
                 LOG.error(t.getMessage(), t);
             }
         }
+        try {
+            this.flush();
+        } catch (Throwable t) {
+            LOG.error(t.getMessage(), t);
+        }
     }
 
     /**
@@ -199,17 +185,25 @@ public class EsOutputChannel extends Thread {
     public void send() throws InterruptedException {
         EsIndexRequest indexRequest = null;
         try {
-            BulkProcessor bulkProcessor = this.getBulkProcessor();
-            // check bulkProcessor
-            if (bulkProcessor == null) {
+            // check esClient
+            if (this.getEsClient() == null) {
                 Thread.sleep(context.getProcessInterval());
                 return;
             }
             // get indexRequest
             indexRequest = context.takeDispatchQueue();
             if (indexRequest == null) {
-                Thread.sleep(context.getProcessInterval());
-                return;
+                // no more data, send the bulk at once if there is an idle slot
+                if (bulkRequest.numberOfActions() > 0 && (controller.hasIdleSlot()
+                        || System.currentTimeMillis() - bulkCreateTime >= context.getFlushInterval())) {
+                    this.flush();
+                    return;
+                }
+                // wait for new data instead of sleeping
+                indexRequest = context.takeDispatchQueue(context.getProcessInterval());
+                if (indexRequest == null) {
+                    return;
+                }
             }
             // get id config
             String uid = indexRequest.getEvent().getUid();
@@ -218,9 +212,17 @@ public class EsOutputChannel extends Thread {
                         indexRequest.getSendTime());
                 return;
             }
-            // send
-            bulkProcessor.add(indexRequest);
+            // add to bulk
+            if (bulkRequest.numberOfActions() == 0) {
+                this.bulkCreateTime = System.currentTimeMillis();
+            }
+            bulkRequest.add(indexRequest);
             context.addSendMetric(indexRequest.getEvent(), context.getTaskName());
+            indexRequest = null;
+            if (bulkRequest.numberOfActions() >= controller.getBulkAction()
+                    || bulkRequest.estimatedSizeInBytes() >= controller.getBulkSizeBytes()) {
+                this.flush();
+            }
         } catch (Throwable e) {
             LOG.error(e.getMessage(), e);
             if (indexRequest != null) {
@@ -235,4 +237,68 @@ public class EsOutputChannel extends Thread {
             }
         }
     }
+
+    /**
+     * flush, send the current bulk when a slot of concurrent requests is acquired
+     * 
+     * @throws InterruptedException
+     */
+    private void flush() throws InterruptedException {
+        if (bulkRequest.numberOfActions() == 0) {
+            return;
+        }
+        while (!controller.acquire(context.getFlushInterval())) {
+            if (status == LifecycleState.STOP) {
+                // resend the bulk after restart
+                for (DocWriteRequest<?> request : bulkRequest.requests()) {
+                    context.backDispatchQueue((EsIndexRequest) request);
+                }
+                this.bulkRequest = new BulkRequest();
+                return;
+            }
+            LOG.warn("wait for inflight bulks:{},concurrentRequests:{}", controller.getInflightRequests(),
+                    controller.getConcurrentRequests());
+        }
+        final BulkRequest request = this.bulkRequest;
+        final long id = ++this.executionId;
+        this.bulkRequest = new BulkRequest();
+        esListener.beforeBulk(id, request);
+        try {
+            esClient.bulkAsync(request, RequestOptions.DEFAULT, new ActionListener<BulkResponse>() {
+
+                @Override
+                public void onResponse(BulkResponse response) {
+                    try {
+                        esListener.afterBulk(id, request, response);
+                    } finally {
+                        controller.release();
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    try {
+                        esListener.afterBulk(id, request, e);
+                    } finally {
+                        controller.release();
+                    }
+                }
+            });
+        } catch (Exception e) {
+            try {
+                esListener.afterBulk(id, request, e);
+            } finally {
+                controller.release();
+            }
+        }
+    }
+
+    /**
+     * get controller
+     * 
+     * @return the controller
+     */
+    public EsBulkController getController() {
+        return controller;
+    }
 }
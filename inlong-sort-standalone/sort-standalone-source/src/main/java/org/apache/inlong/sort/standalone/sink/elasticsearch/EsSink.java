@@ -55,7 +55,7 @@ public class EsSink extends AbstractSink implements Configurable {
             this.dispatchQueue = SinkContext.createBufferQueue();
             this.context = new EsSinkContext(getName(), parentContext, getChannel(), dispatchQueue);
             this.context.start();
-            for (int i = 0; i < context.getMaxThreads(); i++) {
+            for (int i = 0; i < context.getWorkerThreads(); i++) {
                 EsChannelWorker worker = new EsChannelWorker(context, i);
                 this.workers.add(worker);
                 worker.start();
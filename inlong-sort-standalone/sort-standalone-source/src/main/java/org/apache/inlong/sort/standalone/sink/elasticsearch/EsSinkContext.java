@@ -43,6 +43,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -69,6 +70,9 @@ public class EsSinkContext extends SinkContext {
     public static final String KEY_HTTP_HOSTS = "httpHosts";
     public static final String KEY_EVENT_INDEXREQUEST_HANDLER = "indexRequestHandler";
     public static final String KEY_IS_USE_INDEX_ID = "isUseIndexId";
+    public static final String KEY_ADAPTIVE_BULK = "adaptiveBulk";
+    public static final String KEY_MIN_BULK_ACTION = "minBulkAction";
+    public static final String KEY_BULK_TARGET_LATENCY = "bulkTargetLatencyMs";
 
     public static final int DEFAULT_BULK_ACTION = 10000;
     public static final int DEFAULT_BULK_SIZE_MB = 20;
@@ -82,6 +86,10 @@ public class EsSinkContext extends SinkContext {
     public static final int DEFAULT_LOG_MAX_LENGTH = 32 * 1024;
     public static final int DEFAULT_KEYWORD_MAX_LENGTH = 8 * 1024;
     public static final boolean DEFAULT_IS_USE_INDEX_ID = false;
+    public static final boolean DEFAULT_ADAPTIVE_BULK = true;
+    public static final int DEFAULT_MIN_BULK_ACTION = 100;
+    public static final long DEFAULT_BULK_TARGET_LATENCY = 2000L;
+    public static final long MB_BYTES = 1024L * 1024;
 
     private Context sinkContext;
     private String nodeId;
@@ -105,6 +113,9 @@ public class EsSinkContext extends SinkContext {
     private int logMaxLength = DEFAULT_LOG_MAX_LENGTH;
     private int keywordMaxLength = DEFAULT_KEYWORD_MAX_LENGTH;
     private boolean isUseIndexId = DEFAULT_IS_USE_INDEX_ID;
+    private boolean adaptiveBulk = DEFAULT_ADAPTIVE_BULK;
+    private int minBulkAction = DEFAULT_MIN_BULK_ACTION;
+    private long bulkTargetLatencyMs = DEFAULT_BULK_TARGET_LATENCY;
     // http host
     private String strHttpHosts;
     private HttpHost[] httpHosts;
@@ -151,7 +162,7 @@ public class EsSinkContext extends SinkContext {
                 String uid = InlongId.generateUid(inlongGroupId, inlongStreamId);
                 String jsonIdConfig = objectMapper.writeValueAsString(idParam);
                 EsIdConfig idConfig = objectMapper.readValue(jsonIdConfig, EsIdConfig.class);
-                idConfig.getFieldList();
+                idConfig.getDocumentFieldIndexes();
                 newIdConfigMap.put(uid, idConfig);
             }
             // change current config
@@ -172,6 +183,9 @@ public class EsSinkContext extends SinkContext {
             this.logMaxLength = sinkContext.getInteger(KEY_LOG_MAX_LENGTH, DEFAULT_LOG_MAX_LENGTH);
             this.keywordMaxLength = sinkContext.getInteger(KEY_KEYWORD_MAX_LENGTH, DEFAULT_KEYWORD_MAX_LENGTH);
             this.isUseIndexId = sinkContext.getBoolean(KEY_IS_USE_INDEX_ID, DEFAULT_IS_USE_INDEX_ID);
+            this.adaptiveBulk = sinkContext.getBoolean(KEY_ADAPTIVE_BULK, DEFAULT_ADAPTIVE_BULK);
+            this.minBulkAction = sinkContext.getInteger(KEY_MIN_BULK_ACTION, DEFAULT_MIN_BULK_ACTION);
+            this.bulkTargetLatencyMs = sinkContext.getLong(KEY_BULK_TARGET_LATENCY, DEFAULT_BULK_TARGET_LATENCY);
             // http host
             this.strHttpHosts = sinkContext.getString(KEY_HTTP_HOSTS);
             if (!StringUtils.isBlank(strHttpHosts)) {
@@ -273,6 +287,24 @@ public class EsSinkContext extends SinkContext {
         }
     }
 
+    /**
+     * addBulkMetric
+     * 
+     * @param controller
+     * @param rejectedItems
+     */
+    public void addBulkMetric(EsBulkController controller, int rejectedItems) {
+        Map<String, String> dimensions = new HashMap<>();
+        dimensions.put(SortMetricItem.KEY_CLUSTER_ID, this.getClusterId());
+        dimensions.put(SortMetricItem.KEY_TASK_NAME, this.getTaskName());
+        dimensions.put(SortMetricItem.KEY_SINK_ID, this.getSinkName());
+        SortMetricItem metricItem = this.getMetricItemSet().findMetricItem(dimensions);
+        metricItem.bulkAction.set(controller.getBulkAction());
+        metricItem.bulkConcurrency.set(controller.getConcurrentRequests());
+        metricItem.bulkLatency.set(controller.getLastLatencyMs());
+        metricItem.bulkRejectCount.addAndGet(rejectedItems);
+    }
+
     /**
      * getIdConfig
      * 
@@ -344,6 +376,21 @@ public class EsSinkContext extends SinkContext {
         return indexRequest;
     }
 
+    /**
+     * takeDispatchQueue, wait until an index request is offered or timeout
+     * 
+     * @param  timeoutMs
+     * @return                      null if timeout
+     * @throws InterruptedException
+     */
+    public EsIndexRequest takeDispatchQueue(long timeoutMs) throws InterruptedException {
+        EsIndexRequest indexRequest = this.dispatchQueue.pollRecord(timeoutMs, TimeUnit.MILLISECONDS);
+        if (indexRequest != null) {
+            this.takeCounter.incrementAndGet();
+        }
+        return indexRequest;
+    }
+
     /**
      * backDispatchQueue
      * 
@@ -616,6 +663,33 @@ public class EsSinkContext extends SinkContext {
         this.isUseIndexId = isUseIndexId;
     }
 
+    /**
+     * get adaptiveBulk
+     * 
+     * @return the adaptiveBulk
+     */
+    public boolean isAdaptiveBulk() {
+        return adaptiveBulk;
+    }
+
+    /**
+     * get minBulkAction
+     * 
+     * @return the minBulkAction
+     */
+    public int getMinBulkAction() {
+        return minBulkAction;
+    }
+
+    /**
+     * get bulkTargetLatencyMs
+     * 
+     * @return the bulkTargetLatencyMs
+     */
+    public long getBulkTargetLatencyMs() {
+        return bulkTargetLatencyMs;
+    }
+
     /**
      * create indexRequestHandler
      * 
@@ -17,21 +17,32 @@
 
 package org.apache.inlong.sort.standalone.sink.hive;
 
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.slf4j.Logger;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * 
  * HdfsIdFile
+ * <p>
+ * Events are written to a buffered, optionally compressed, stream without flush per profile.
+ * The written profiles are acked only at a checkpoint, after the data is hflushed to hdfs,
+ * and they are offered to the dispatch queue again if the checkpoint fails.
+ * A compressed file is a sequence of compressed members, one member per checkpoint, so that
+ * the files of a partition can still be concatenated.
  */
 public class HdfsIdFile {
 
@@ -54,9 +65,17 @@ public class HdfsIdFile {
     private final Path intmpFilePath;
     private final String strIntmpFile;
     private final FSDataOutputStream intmpOutput;
+    private final HdfsIdFileWriter writer;
     private final long createTime;
     private long modifiedTime;
-    private boolean isOpen = true;
+    private volatile boolean isOpen = true;
+    // profiles written after the last checkpoint
+    private final List<PendingProfile> pendingProfiles = new ArrayList<>();
+    private volatile long pendingBytes = 0;
+    private volatile long checkpointTime;
+    // rows and size of the file at the last checkpoint, the data after it is dropped if the file is aborted
+    private long checkpointRows = 0;
+    private long checkpointSize = 0;
 
     /**
      * Constructor
@@ -83,7 +102,9 @@ public class HdfsIdFile {
         this.outPath = new Path(hdfsPath + strIdRootPath + SUBPATH_OUT);
         fs.mkdirs(outPath);
 
-        this.strIntmpFile = getFileName(context, createTime);
+        this.checkpointTime = createTime;
+        CompressionCodec codec = context.getCompressionCodec();
+        this.strIntmpFile = getFileName(context, createTime) + (codec == null ? "" : codec.getDefaultExtension());
         this.intmpFilePath = new Path(intmpPath, strIntmpFile);
         // check if file exists
         if (fs.exists(intmpFilePath)) {
@@ -91,6 +112,7 @@ public class HdfsIdFile {
             fs.delete(intmpFilePath, true);
         }
         this.intmpOutput = fs.create(intmpFilePath, true);
+        this.writer = new HdfsIdFileWriter(intmpOutput, codec, context.getWriteBufferSize());
     }
 
     /**
@@ -106,22 +128,152 @@ public class HdfsIdFile {
     }
 
     /**
-     * close
+     * write the formatted events of a profile, the profile is acked at the next checkpoint.
      * 
+     * @param  data        formatted events
+     * @param  rows        count of events
+     * @param  profile
+     * @param  sendTime
+     * @return             false if the file has been closed
      * @throws IOException
      */
-    public void close() {
+    public synchronized boolean write(ByteArrayOutputStream data, long rows, DispatchProfile profile, long sendTime)
+            throws IOException {
+        if (!isOpen) {
+            return false;
+        }
+        writer.write(data, rows);
+        pendingProfiles.add(new PendingProfile(profile, sendTime));
+        pendingBytes += data.size();
+        return true;
+    }
+
+    /**
+     * isCheckpointRequired
+     * 
+     * @param  currentTime
+     * @return             true if the pending data exceeds flush size or flush interval
+     */
+    public boolean isCheckpointRequired(long currentTime) {
+        return pendingBytes >= context.getFlushSize()
+                || (pendingBytes > 0 && currentTime - checkpointTime >= context.getFlushInterval());
+    }
+
+    /**
+     * isRollRequired
+     * 
+     * @param  currentTime
+     * @return             true if the file exceeds max size, max rows or max open time
+     */
+    public boolean isRollRequired(long currentTime) {
+        // file name is in seconds, so a file is rolled at most once per second
+        if (currentTime - createTime < 1000L) {
+            return false;
+        }
+        return writer.isRollRequired(context.getMaxFileSize(), context.getMaxFileRows())
+                || currentTime - createTime >= context.getMaxFileOpenDelayMinute() * HiveSinkContext.MINUTE_MS;
+    }
+
+    /**
+     * checkpoint, hflush the buffered data and ack the pending profiles
+     */
+    public synchronized void checkpoint() {
+        if (!isOpen) {
+            return;
+        }
+        if (pendingProfiles.isEmpty()) {
+            this.checkpointTime = System.currentTimeMillis();
+            return;
+        }
+        try {
+            writer.flush();
+            intmpOutput.hflush();
+        } catch (Exception e) {
+            LOG.error(String.format("fail to checkpoint file:%s,error:%s", intmpFilePath, e.getMessage()), e);
+            this.abort();
+            return;
+        }
+        // the writer is flushed, so the size is the size of the file on hdfs
+        this.checkpointRows = writer.getFileRows();
+        this.checkpointSize = writer.getFileSize();
+        this.completePendingProfiles(true);
+    }
+
+    /**
+     * abort, offer the pending profiles to dispatch queue again and close the file,
+     * the file is truncated to the last checkpoint, so that the rows of the pending profiles are not published.
+     */
+    public synchronized void abort() {
+        this.close(false);
+    }
+
+    /**
+     * completePendingProfiles
+     * 
+     * @param result
+     */
+    private void completePendingProfiles(boolean result) {
+        for (PendingProfile pending : pendingProfiles) {
+            context.addSendResultMetric(pending.profile, context.getTaskName(), result, pending.sendTime);
+            if (result) {
+                pending.profile.ack();
+            } else {
+                context.getRetryQueue().offer(pending.profile);
+            }
+        }
+        this.pendingProfiles.clear();
+        this.pendingBytes = 0;
+        this.checkpointTime = System.currentTimeMillis();
+    }
+
+    /**
+     * close, flush and ack the pending profiles, then publish the file
+     */
+    public synchronized void close() {
+        this.close(true);
+    }
+
+    /**
+     * close
+     * 
+     * @param commit false if the pending profiles are offered to dispatch queue again
+     */
+    private void close(boolean commit) {
+        if (!isOpen) {
+            return;
+        }
         this.isOpen = false;
-        if (intmpOutput != null) {
+        boolean result = commit;
+        try {
+            writer.close();
+        } catch (Exception e) {
+            // the tail of the file may be truncated or corrupt
+            LOG.error(String.format("fail to close file:%s,error:%s", intmpFilePath, e.getMessage()), e);
+            result = false;
             try {
-                intmpOutput.flush();
                 intmpOutput.close();
-                if (intmpOutput.getPos() != 0) {
-                    Path inFilePath = new Path(this.inPath, strIntmpFile);
-                    fs.rename(intmpFilePath, inFilePath);
-                } else {
-                    fs.delete(intmpFilePath, true);
-                }
+            } catch (Exception ex) {
+                LOG.error(ex.getMessage(), ex);
+            }
+        }
+        this.completePendingProfiles(result);
+        try {
+            long fileRows = result ? writer.getFileRows() : checkpointRows;
+            if (fileRows == 0) {
+                fs.delete(intmpFilePath, true);
+                return;
+            }
+            if (!result && !fs.truncate(intmpFilePath, checkpointSize)) {
+                LOG.info("truncate file:{} to checkpoint size:{}, the last block is recovering",
+                        intmpFilePath, checkpointSize);
+            }
+            Path inFilePath = new Path(this.inPath, strIntmpFile);
+            fs.rename(intmpFilePath, inFilePath);
+        } catch (Exception e) {
+            // the file is kept in intmp path and not published
+            LOG.error(String.format("fail to publish file:%s,error:%s", intmpFilePath, e.getMessage()), e);
+        } finally {
+            try {
                 this.fs.close();
             } catch (Exception e) {
                 LOG.error(e.getMessage(), e);
@@ -255,4 +407,24 @@ public class HdfsIdFile {
         return isOpen;
     }
 
+    /**
+     * 
+     * PendingProfile
+     */
+    private static class PendingProfile {
+
+        private final DispatchProfile profile;
+        private final long sendTime;
+
+        /**
+         * Constructor
+         * 
+         * @param profile
+         * @param sendTime
+         */
+        PendingProfile(DispatchProfile profile, long sendTime) {
+            this.profile = profile;
+            this.sendTime = sendTime;
+        }
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 
+ * HdfsIdFileWriter
+ * <p>
+ * Buffered, optionally compressed, writer of a hdfs file.
+ * A compressed file is a sequence of compressed members, one member per checkpoint, every member
+ * is written by a new compression stream, because resetting the state of a stream does not start
+ * a new member for all the codecs, e.g. the gzip codec without native zlib does not write the header again.
+ * The file size is tracked in the writer, it includes the bytes not flushed to hdfs yet.
+ */
+public class HdfsIdFileWriter {
+
+    private final CountingOutputStream countingOutput;
+    private final CompressionCodec codec;
+    // stream and compressor of the current compressed member, null if there is no open member
+    private CompressionOutputStream memberOutput;
+    private Compressor compressor;
+    // uncompressed bytes written to the current compressed member
+    private volatile long memberBytes = 0;
+    private volatile long fileRows = 0;
+
+    /**
+     * Constructor
+     * 
+     * @param  fileOutput  output of the file
+     * @param  codec       compression codec, null if not compressed
+     * @param  bufferSize  write buffer size
+     * @throws IOException
+     */
+    public HdfsIdFileWriter(OutputStream fileOutput, CompressionCodec codec, int bufferSize) throws IOException {
+        // count the bytes before the buffer, so that the buffered bytes are included
+        this.countingOutput = new CountingOutputStream(new BufferedOutputStream(fileOutput, bufferSize));
+        this.codec = codec;
+    }
+
+    /**
+     * write the formatted events
+     * 
+     * @param  data        formatted events
+     * @param  rows        count of events
+     * @throws IOException
+     */
+    public void write(ByteArrayOutputStream data, long rows) throws IOException {
+        if (codec == null) {
+            data.writeTo(countingOutput);
+        } else {
+            if (memberOutput == null) {
+                this.compressor = CodecPool.getCompressor(codec);
+                this.memberOutput = codec.createOutputStream(new NonClosingOutputStream(countingOutput), compressor);
+            }
+            data.writeTo(memberOutput);
+            memberBytes += data.size();
+        }
+        fileRows += rows;
+    }
+
+    /**
+     * finish the current compressed member and flush the buffered data
+     * 
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+        this.closeMember();
+        countingOutput.flush();
+    }
+
+    /**
+     * finish the current compressed member, the underlying stream is kept open
+     * 
+     * @throws IOException
+     */
+    private void closeMember() throws IOException {
+        if (memberOutput == null) {
+            return;
+        }
+        try {
+            memberOutput.close();
+        } finally {
+            CodecPool.returnCompressor(compressor);
+            this.memberOutput = null;
+            this.compressor = null;
+            this.memberBytes = 0;
+        }
+    }
+
+    /**
+     * close
+     * 
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        try {
+            this.closeMember();
+        } finally {
+            countingOutput.close();
+        }
+    }
+
+    /**
+     * get the file size, the uncompressed bytes still in the compressor are counted as they are,
+     * so the size is never less than the size of the file after the next flush.
+     * 
+     * @return file size
+     */
+    public long getFileSize() {
+        return countingOutput.getCount() + memberBytes;
+    }
+
+    /**
+     * get fileRows
+     * 
+     * @return the fileRows
+     */
+    public long getFileRows() {
+        return fileRows;
+    }
+
+    /**
+     * isRollRequired
+     * 
+     * @param  maxFileSize
+     * @param  maxFileRows
+     * @return             true if the file exceeds max size or max rows
+     */
+    public boolean isRollRequired(long maxFileSize, long maxFileRows) {
+        return getFileSize() >= maxFileSize || fileRows >= maxFileRows;
+    }
+
+    /**
+     * 
+     * NonClosingOutputStream, closing a compressed member does not close the file
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * 
+     * CountingOutputStream
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private volatile long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
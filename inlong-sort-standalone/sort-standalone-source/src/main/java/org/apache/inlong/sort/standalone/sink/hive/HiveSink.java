@@ -81,9 +81,13 @@ public class HiveSink extends AbstractSink implements Configurable {
             this.scheduledPool.scheduleWithFixedDelay(new Runnable() {
 
                 public void run() {
-                    dispatchManager.setNeedOutputOvertimeData();
+                    try {
+                        dispatchManager.outputOvertimeData();
+                    } catch (Throwable t) {
+                        LOG.error(t.getMessage(), t);
+                    }
                 }
-            }, this.dispatchManager.getDispatchTimeout(), this.dispatchManager.getDispatchTimeout(),
+            }, this.dispatchManager.getTickInterval(), this.dispatchManager.getTickInterval(),
                     TimeUnit.MILLISECONDS);
             // partition leader election runnable
             this.scheduledPool.scheduleWithFixedDelay(new PartitionLeaderElectionRunnable(context),
@@ -95,6 +99,7 @@ public class HiveSink extends AbstractSink implements Configurable {
                 public void run() {
                     try {
                         writeHdfsFile();
+                        checkpointFiles();
                     } catch (Exception e) {
                         LOG.error(e.getMessage(), e);
                     }
@@ -119,8 +124,14 @@ public class HiveSink extends AbstractSink implements Configurable {
     @Override
     public void stop() {
         try {
-            this.context.close();
             this.scheduledPool.shutdown();
+            // flush and ack the pending profiles before the retry queue is closed by the context,
+            // the profiles of a failed file are offered to the retry queue
+            for (HdfsIdFile idFile : this.hdfsIdFileMap.values()) {
+                idFile.close();
+            }
+            this.hdfsIdFileMap.clear();
+            this.context.close();
             super.stop();
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
@@ -185,7 +196,7 @@ public class HiveSink extends AbstractSink implements Configurable {
      */
     private void writeHdfsFile() throws JsonProcessingException {
         // write file
-        DispatchProfile dispatchProfile = this.dispatchQueue.poll();
+        DispatchProfile dispatchProfile = this.pollDispatchProfile();
         while (dispatchProfile != null) {
             String uid = dispatchProfile.getUid();
             HdfsIdConfig idConfig = context.getIdConfigMap().get(uid);
@@ -195,15 +206,22 @@ public class HiveSink extends AbstractSink implements Configurable {
                         new ObjectMapper().writeValueAsString(context.getIdConfigMap()));
                 this.context.addSendResultMetric(dispatchProfile, uid, false, 0);
                 dispatchProfile.ack();
-                dispatchProfile = this.dispatchQueue.poll();
+                dispatchProfile = this.pollDispatchProfile();
                 continue;
             }
             String strIdRootPath = idConfig.parsePartitionPath(dispatchProfile.getDispatchTime());
             HdfsIdFile idFile = this.hdfsIdFileMap.get(strIdRootPath);
+            long currentTime = System.currentTimeMillis();
             if (idFile != null && !idFile.isOpen()) {
                 this.hdfsIdFileMap.remove(strIdRootPath);
                 idFile = null;
             }
+            // roll file by size, rows and open time
+            if (idFile != null && idFile.isRollRequired(currentTime)) {
+                this.hdfsIdFileMap.remove(strIdRootPath);
+                context.getOutputPool().execute(idFile::close);
+                idFile = null;
+            }
             if (idFile == null) {
                 try {
                     idFile = new HdfsIdFile(context, idConfig, strIdRootPath);
@@ -212,19 +230,43 @@ public class HiveSink extends AbstractSink implements Configurable {
                     LOG.error(String.format("can not connect to hdfsPath:%s,write file:%s,error:%s",
                             context.getHdfsPath(), strIdRootPath, e.getMessage()), e);
                     this.context.addSendResultMetric(dispatchProfile, uid, false, 0);
-                    this.dispatchQueue.offer(dispatchProfile);
-                    dispatchProfile = this.dispatchQueue.poll();
+                    this.context.getRetryQueue().offer(dispatchProfile);
+                    dispatchProfile = this.pollDispatchProfile();
                     continue;
                 }
                 this.hdfsIdFileMap.put(strIdRootPath, idFile);
             }
-            long currentTime = System.currentTimeMillis();
             idFile.setModifiedTime(currentTime);
             // new runnable
             WriteHdfsFileRunnable writeTask = new WriteHdfsFileRunnable(context, idFile, dispatchProfile);
             context.getOutputPool().execute(writeTask);
             context.addSendMetric(dispatchProfile, context.getTaskName());
-            dispatchProfile = this.dispatchQueue.poll();
+            dispatchProfile = this.pollDispatchProfile();
+        }
+    }
+
+    /**
+     * pollDispatchProfile, the failed profiles whose backoff is expired first
+     * 
+     * @return null if there is no profile
+     */
+    private DispatchProfile pollDispatchProfile() {
+        DispatchProfile dispatchProfile = this.context.getRetryQueue().poll();
+        if (dispatchProfile != null) {
+            return dispatchProfile;
+        }
+        return this.dispatchQueue.poll();
+    }
+
+    /**
+     * checkpointFiles, checkpoint the files that have pending data over flush interval
+     */
+    private void checkpointFiles() {
+        long currentTime = System.currentTimeMillis();
+        for (HdfsIdFile idFile : this.hdfsIdFileMap.values()) {
+            if (idFile.isCheckpointRequired(currentTime)) {
+                context.getOutputPool().execute(idFile::checkpoint);
+            }
         }
     }
 
@@ -239,13 +281,12 @@ public class HiveSink extends AbstractSink implements Configurable {
         for (Entry<String, HdfsIdFile> entry : this.hdfsIdFileMap.entrySet()) {
             if (entry.getValue().getModifiedTime() < overtime) {
                 overtimePathSet.add(entry.getKey());
-                entry.getValue().close();
             }
         }
         // remove key
         for (String key : overtimePathSet) {
             HdfsIdFile idFile = this.hdfsIdFileMap.remove(key);
-            synchronized (idFile) {
+            if (idFile != null) {
                 idFile.close();
             }
         }
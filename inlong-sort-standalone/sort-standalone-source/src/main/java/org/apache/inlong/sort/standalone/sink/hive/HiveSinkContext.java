@@ -23,6 +23,7 @@ import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
 import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigHolder;
 import org.apache.inlong.sort.standalone.config.pojo.InlongId;
 import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.dispatch.DispatchRetryQueue;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
 import org.apache.inlong.sort.standalone.metrics.audit.AuditUtils;
 import org.apache.inlong.sort.standalone.sink.SinkContext;
@@ -35,6 +36,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.flume.Channel;
 import org.apache.flume.Context;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.slf4j.Logger;
 
 import java.sql.Connection;
@@ -66,8 +70,21 @@ public class HiveSinkContext extends SinkContext {
     public static final long DEFAULT_TOKEN_OVERTIME = 60L;
     public static final String KEY_MAX_OUTPUT_FILE_SIZE = "maxOutputFileSizeGb";
     public static final long DEFAULT_MAX_OUTPUT_FILE_SIZE = 2L;
+    public static final String KEY_COMPRESSION_CODEC = "compressionCodec";
+    public static final String DEFAULT_COMPRESSION_CODEC = "none";
+    public static final String KEY_MAX_FILE_SIZE = "maxFileSizeMb";
+    public static final long DEFAULT_MAX_FILE_SIZE = 512L;
+    public static final String KEY_MAX_FILE_ROWS = "maxFileRows";
+    public static final long DEFAULT_MAX_FILE_ROWS = 10000000L;
+    public static final String KEY_FLUSH_SIZE = "flushSizeKb";
+    public static final long DEFAULT_FLUSH_SIZE = 4096L;
+    public static final String KEY_FLUSH_INTERVAL = "flushIntervalMs";
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+    public static final String KEY_WRITE_BUFFER_SIZE = "writeBufferSizeKb";
+    public static final int DEFAULT_WRITE_BUFFER_SIZE = 64;
     public static final long MINUTE_MS = 60L * 1000;
     public static final long GB_BYTES = 1024L * 1024 * 1024;
+    public static final long MB_BYTES = 1024L * 1024;
     public static final long KB_BYTES = 1024L;
 
     // hive config
@@ -80,12 +97,20 @@ public class HiveSinkContext extends SinkContext {
     private String nodeId;
     private Map<String, HdfsIdConfig> idConfigMap = new ConcurrentHashMap<>();
     private LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
+    private final DispatchRetryQueue retryQueue;
     // hdfs config
     private String hdfsPath;
     private long maxFileOpenDelayMinute = DEFAULT_MAX_FILE_OPEN_DELAY;
     private long fileArchiveDelayMinute = 2 * maxFileOpenDelayMinute;
     private long tokenOvertimeMinute = DEFAULT_TOKEN_OVERTIME;
     private long maxOutputFileSizeGb = DEFAULT_MAX_OUTPUT_FILE_SIZE;
+    // intmp file config
+    private CompressionCodec compressionCodec;
+    private long maxFileSize = DEFAULT_MAX_FILE_SIZE * MB_BYTES;
+    private long maxFileRows = DEFAULT_MAX_FILE_ROWS;
+    private long flushSize = DEFAULT_FLUSH_SIZE * KB_BYTES;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private int writeBufferSize = (int) (DEFAULT_WRITE_BUFFER_SIZE * KB_BYTES);
     // hive config
     private String hiveJdbcUrl;
     private String hiveDatabase;
@@ -110,6 +135,7 @@ public class HiveSinkContext extends SinkContext {
         super(sinkName, context, channel);
         this.parentContext = context;
         this.dispatchQueue = dispatchQueue;
+        this.retryQueue = new DispatchRetryQueue(context, sinkName);
         this.nodeId = CommonPropertiesHolder.getString(KEY_NODE_ID, NetworkUtils.getLocalIp());
         this.outputPool = Executors.newFixedThreadPool(this.getMaxThreads());
         this.partitionCreatePool = Executors.newFixedThreadPool(this.getMaxThreads());
@@ -127,11 +153,21 @@ public class HiveSinkContext extends SinkContext {
         }
     }
 
+    /**
+     * close
+     */
+    @Override
+    public void close() {
+        super.close();
+        this.retryQueue.close();
+    }
+
     /**
      * reload
      */
     public void reload() {
         try {
+            this.addSpillMetric(retryQueue);
             SortTaskConfig newSortTaskConfig = SortClusterConfigHolder.getTaskConfig(taskName);
             LOG.info("start to get SortTaskConfig:taskName:{}:config:{}", taskName,
                     new ObjectMapper().writeValueAsString(newSortTaskConfig));
@@ -160,6 +196,15 @@ public class HiveSinkContext extends SinkContext {
             this.fileArchiveDelayMinute = maxFileOpenDelayMinute + 1;
             this.tokenOvertimeMinute = parentContext.getLong(KEY_TOKEN_OVERTIME, DEFAULT_TOKEN_OVERTIME);
             this.maxOutputFileSizeGb = parentContext.getLong(KEY_MAX_OUTPUT_FILE_SIZE, DEFAULT_MAX_OUTPUT_FILE_SIZE);
+            // intmp file config
+            this.compressionCodec = this.createCompressionCodec(
+                    parentContext.getString(KEY_COMPRESSION_CODEC, DEFAULT_COMPRESSION_CODEC));
+            this.maxFileSize = parentContext.getLong(KEY_MAX_FILE_SIZE, DEFAULT_MAX_FILE_SIZE) * MB_BYTES;
+            this.maxFileRows = parentContext.getLong(KEY_MAX_FILE_ROWS, DEFAULT_MAX_FILE_ROWS);
+            this.flushSize = parentContext.getLong(KEY_FLUSH_SIZE, DEFAULT_FLUSH_SIZE) * KB_BYTES;
+            this.flushInterval = parentContext.getLong(KEY_FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+            this.writeBufferSize = (int) (parentContext.getInteger(KEY_WRITE_BUFFER_SIZE, DEFAULT_WRITE_BUFFER_SIZE)
+                    * KB_BYTES);
             // hive config
             this.hiveJdbcUrl = parentContext.getString(KEY_HIVE_JDBC_URL);
             this.hiveDatabase = parentContext.getString(KEY_HIVE_DATABASE);
@@ -173,6 +218,23 @@ public class HiveSinkContext extends SinkContext {
         }
     }
 
+    /**
+     * createCompressionCodec
+     * 
+     * @param  codecName gzip, bzip2, snappy, zstd, lz4, or none for plain text
+     * @return           CompressionCodec, null if no compression
+     */
+    private CompressionCodec createCompressionCodec(String codecName) {
+        if (StringUtils.isBlank(codecName) || DEFAULT_COMPRESSION_CODEC.equalsIgnoreCase(codecName)) {
+            return null;
+        }
+        CompressionCodec codec = new CompressionCodecFactory(new Configuration()).getCodecByName(codecName);
+        if (codec == null) {
+            LOG.error("unknown compression codec:{}, write plain text file.", codecName);
+        }
+        return codec;
+    }
+
     /**
      * addSendMetric
      * 
@@ -319,6 +381,15 @@ public class HiveSinkContext extends SinkContext {
         return dispatchQueue;
     }
 
+    /**
+     * get retryQueue
+     * 
+     * @return the retryQueue
+     */
+    public DispatchRetryQueue getRetryQueue() {
+        return retryQueue;
+    }
+
     /**
      * getTopic
      * 
@@ -392,6 +463,60 @@ public class HiveSinkContext extends SinkContext {
         return idConfigMap;
     }
 
+    /**
+     * get compressionCodec
+     * 
+     * @return the compressionCodec, null if no compression
+     */
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * get maxFileSize
+     * 
+     * @return the maxFileSize in bytes
+     */
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    /**
+     * get maxFileRows
+     * 
+     * @return the maxFileRows
+     */
+    public long getMaxFileRows() {
+        return maxFileRows;
+    }
+
+    /**
+     * get flushSize
+     * 
+     * @return the flushSize in bytes
+     */
+    public long getFlushSize() {
+        return flushSize;
+    }
+
+    /**
+     * get flushInterval
+     * 
+     * @return the flushInterval in milliseconds
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * get writeBufferSize
+     * 
+     * @return the writeBufferSize in bytes
+     */
+    public int getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
     /**
      * get outputPool
      * 
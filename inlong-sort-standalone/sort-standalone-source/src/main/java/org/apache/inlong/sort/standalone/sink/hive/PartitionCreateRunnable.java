@@ -24,6 +24,7 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hdfs.DistributedFileSystem;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.slf4j.Logger;
 
 import java.io.FileNotFoundException;
@@ -246,8 +247,12 @@ public class PartitionCreateRunnable implements Runnable {
      */
     private void concatInFiles2OuttmpFile(HdfsIdFile idFile, List<Path> concatInFiles, DistributedFileSystem fs)
             throws IOException {
+        // keep the extension of compression codec, so that hive can decompress the out file
+        CompressionCodec codec = context.getCompressionCodec();
+        String extension = codec == null ? "" : codec.getDefaultExtension();
         Path outtmpFilePath = new Path(idFile.getInPath(),
-                HdfsIdFile.getFileName(context, System.currentTimeMillis()) + HdfsIdFile.OUTTMP_FILE_POSTFIX);
+                HdfsIdFile.getFileName(context, System.currentTimeMillis()) + extension
+                        + HdfsIdFile.OUTTMP_FILE_POSTFIX);
         LOG.info("start to concat outtmp file:{},inFiles:{}", outtmpFilePath, concatInFiles);
         FSDataOutputStream outputFileStream = fs.create(outtmpFilePath, true);
         outputFileStream.flush();
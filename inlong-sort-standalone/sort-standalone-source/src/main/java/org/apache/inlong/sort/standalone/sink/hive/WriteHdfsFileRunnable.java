@@ -21,9 +21,10 @@ import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
-import org.apache.hadoop.fs.FSDataOutputStream;
 import org.slf4j.Logger;
 
+import java.io.ByteArrayOutputStream;
+
 /**
  * 
  * WriteHdfsFileRunnable
@@ -56,28 +57,41 @@ public class WriteHdfsFileRunnable implements Runnable {
      */
     @Override
     public void run() {
-        synchronized (idFile) {
-            if (!idFile.isOpen()) {
-                context.addSendResultMetric(profile, context.getTaskName(), false, sendTime);
-                context.getDispatchQueue().offer(profile);
-                return;
+        if (!idFile.isOpen()) {
+            context.addSendResultMetric(profile, context.getTaskName(), false, sendTime);
+            context.getDispatchQueue().offer(profile);
+            return;
+        }
+        // format events out of the file lock
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try {
+            IEventFormatHandler handler = context.getEventFormatHandler();
+            for (ProfileEvent event : profile.getEvents()) {
+                data.write(handler.format(event, idFile.getIdConfig()));
+                data.write(HdfsIdFile.SEPARATOR_MESSAGE);
             }
-            try {
-                IEventFormatHandler handler = context.getEventFormatHandler();
-                FSDataOutputStream output = idFile.getIntmpOutput();
-                for (ProfileEvent event : profile.getEvents()) {
-                    byte[] formatBytes = handler.format(event, idFile.getIdConfig());
-                    output.write(formatBytes);
-                    output.writeByte(HdfsIdFile.SEPARATOR_MESSAGE);
-                }
-                output.flush();
-                context.addSendResultMetric(profile, context.getTaskName(), true, sendTime);
-                profile.ack();
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+            context.addSendResultMetric(profile, context.getTaskName(), false, sendTime);
+            context.getRetryQueue().offer(profile);
+            return;
+        }
+        try {
+            // the profile is acked when the file is checkpointed
+            if (!idFile.write(data, profile.getCount(), profile, sendTime)) {
                 context.addSendResultMetric(profile, context.getTaskName(), false, sendTime);
                 context.getDispatchQueue().offer(profile);
+                return;
             }
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+            context.addSendResultMetric(profile, context.getTaskName(), false, sendTime);
+            context.getRetryQueue().offer(profile);
+            idFile.abort();
+            return;
+        }
+        if (idFile.isCheckpointRequired(System.currentTimeMillis())) {
+            idFile.checkpoint();
         }
     }
 }
@@ -93,11 +93,11 @@ public class DefaultEvent2KafkaRecordHandler implements IEvent2KafkaRecordHandle
      * @return
      */
     public String getExtInfo(ProfileEvent event) {
-        String extinfoValue = event.getHeaders().get(KEY_EXTINFO);
+        String extinfoValue = event.getHeader(KEY_EXTINFO);
         if (extinfoValue != null) {
             return KEY_EXTINFO + "=" + extinfoValue;
         }
-        extinfoValue = KEY_EXTINFO + "=" + event.getHeaders().get(EventConstants.HEADER_KEY_SOURCE_IP);
+        extinfoValue = KEY_EXTINFO + "=" + event.getHeader(EventConstants.HEADER_KEY_SOURCE_IP);
         return extinfoValue;
     }
 }
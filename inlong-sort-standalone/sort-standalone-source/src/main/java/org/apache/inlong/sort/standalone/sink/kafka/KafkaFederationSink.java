@@ -42,7 +42,7 @@ public class KafkaFederationSink extends AbstractSink implements Configurable {
         this.context = new KafkaFederationSinkContext(sinkName, parentContext, getChannel());
         this.context.start();
         // create worker
-        for (int i = 0; i < context.getMaxThreads(); i++) {
+        for (int i = 0; i < context.getWorkerThreads(); i++) {
             KafkaFederationWorker worker = new KafkaFederationWorker(sinkName, i, context);
             LOG.info("new kafka worker, the context is {}", context.toString());
             worker.start();
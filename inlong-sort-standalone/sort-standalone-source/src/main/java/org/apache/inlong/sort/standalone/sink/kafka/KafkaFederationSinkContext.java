@@ -18,6 +18,7 @@
 package org.apache.inlong.sort.standalone.sink.kafka;
 
 import org.apache.inlong.common.pojo.sortstandalone.SortTaskConfig;
+import org.apache.inlong.common.util.NetworkUtils;
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
 import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigHolder;
@@ -44,13 +45,35 @@ public class KafkaFederationSinkContext extends SinkContext {
 
     public static final Logger LOG = InlongLoggerFactory.getLogger(KafkaFederationSinkContext.class);
     public static final String KEY_EVENT_HANDLER = "eventHandler";
+    public static final String KEY_NODE_ID = "nodeId";
+    // transactional mode, the profiles are acked after the kafka transaction is committed
+    public static final String KEY_TRANSACTIONAL = "transactional";
+    public static final String KEY_TRANSACTIONAL_ID_PREFIX = "transactionalIdPrefix";
+    public static final String KEY_TRANSACTION_MAX_RECORDS = "transactionMaxRecords";
+    public static final String KEY_TRANSACTION_MAX_INTERVAL = "transactionMaxIntervalMs";
+    public static final String KEY_TRANSACTION_MAX_OPEN_BATCHES = "transactionMaxOpenBatches";
+    public static final boolean DEFAULT_TRANSACTIONAL = false;
+    public static final int DEFAULT_TRANSACTION_MAX_RECORDS = 5000;
+    public static final long DEFAULT_TRANSACTION_MAX_INTERVAL = 200L;
+    public static final int DEFAULT_TRANSACTION_MAX_OPEN_BATCHES = 4;
 
+    private final String nodeId;
     private Context producerContext;
     private Map<String, KafkaIdConfig> idConfigMap = new ConcurrentHashMap<>();
     private List<CacheClusterConfig> clusterConfigList = new ArrayList<>();
 
     public KafkaFederationSinkContext(String sinkName, Context context, Channel channel) {
         super(sinkName, context, channel);
+        this.nodeId = CommonPropertiesHolder.getString(KEY_NODE_ID, NetworkUtils.getLocalIp());
+    }
+
+    /**
+     * get nodeId
+     *
+     * @return the nodeId
+     */
+    public String getNodeId() {
+        return nodeId;
     }
 
     /** reload context */
@@ -19,6 +19,7 @@ package org.apache.inlong.sort.standalone.sink.kafka;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
+import org.apache.inlong.sort.standalone.sink.AbstractChannelWorker;
 import org.apache.inlong.sort.standalone.utils.Constants;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
@@ -27,23 +28,20 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.flume.Channel;
 import org.apache.flume.Event;
 import org.apache.flume.Transaction;
-import org.apache.flume.lifecycle.LifecycleState;
 import org.slf4j.Logger;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /** Worker of */
-public class KafkaFederationWorker extends Thread {
+public class KafkaFederationWorker extends AbstractChannelWorker {
 
     public static final Logger LOG = InlongLoggerFactory.getLogger(KafkaFederationWorker.class);
 
-    private final String workerName;
     private final KafkaFederationSinkContext context;
 
     private final KafkaProducerFederation producerFederation;
     private final Map<String, String> dimensions = new ConcurrentHashMap<>();
-    private LifecycleState status;
 
     /**
      * Constructor of KafkaFederationWorker
@@ -54,12 +52,10 @@ public class KafkaFederationWorker extends Thread {
      */
     public KafkaFederationWorker(
             String sinkName, int workerIndex, KafkaFederationSinkContext context) {
-        super();
-        this.workerName = sinkName + "-" + workerIndex;
-        this.context = Preconditions.checkNotNull(context);
+        super(Preconditions.checkNotNull(context), sinkName + "-" + workerIndex);
+        this.context = context;
         this.producerFederation =
                 new KafkaProducerFederation(String.valueOf(workerIndex), this.context);
-        this.status = LifecycleState.IDLE;
         this.dimensions.put(SortMetricItem.KEY_CLUSTER_ID, this.context.getClusterId());
         this.dimensions.put(SortMetricItem.KEY_TASK_NAME, this.context.getTaskName());
         this.dimensions.put(SortMetricItem.KEY_SINK_ID, this.context.getSinkName());
@@ -70,7 +66,6 @@ public class KafkaFederationWorker extends Thread {
     public void start() {
         LOG.info("start a new kafka worker {}", this.workerName);
         this.producerFederation.start();
-        this.status = LifecycleState.START;
         super.start();
     }
 
@@ -79,67 +74,56 @@ public class KafkaFederationWorker extends Thread {
         // close all producers
         LOG.info("close a kafka worker {}", this.workerName);
         this.producerFederation.close();
-        this.status = LifecycleState.STOP;
+        super.close();
     }
 
+    /** Process one event of channel */
     @Override
-    public void run() {
-        LOG.info("worker {} start to run, the state is {}", this.workerName, status.name());
-        while (status != LifecycleState.STOP) {
-            Transaction tx = null;
-            try {
-                Channel channel = context.getChannel();
-                tx = channel.getTransaction();
-                tx.begin();
-                Event rowEvent = channel.take();
-
-                // if event is null, close tx and sleep for a while.
-                if (rowEvent == null) {
-                    tx.commit();
-                    tx.close();
-                    sleepOneInterval();
-                    continue;
-                }
-                if (!(rowEvent instanceof ProfileEvent)) {
-                    tx.commit();
-                    tx.close();
-                    LOG.error("The type of row event is not compatible with ProfileEvent");
-                    continue;
-                }
+    protected void doRun() {
+        Transaction tx = null;
+        try {
+            Channel channel = context.getChannel();
+            tx = channel.getTransaction();
+            tx.begin();
+            Event rowEvent = this.takeEvent(channel);
 
-                ProfileEvent profileEvent = (ProfileEvent) rowEvent;
-                String topic = this.context.getTopic(profileEvent.getUid());
-                if (StringUtils.isBlank(topic)) {
-                    this.context.addSendResultMetric(profileEvent, profileEvent.getUid(),
-                            false, System.currentTimeMillis());
-                    profileEvent.ack();
-                    tx.commit();
-                    tx.close();
-                }
-                profileEvent.getHeaders().put(Constants.TOPIC, topic);
-                this.context.addSendMetric(profileEvent, topic);
-                this.producerFederation.send(profileEvent, tx);
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
-                if (tx != null) {
-                    tx.rollback();
-                    tx.close();
-                }
-                // metric
-                SortMetricItem metricItem =
-                        this.context.getMetricItemSet().findMetricItem(dimensions);
-                metricItem.sendFailCount.incrementAndGet();
-                sleepOneInterval();
+            // if event is null, close tx, the take has waited for a while.
+            if (rowEvent == null) {
+                tx.commit();
+                tx.close();
+                return;
+            }
+            if (!(rowEvent instanceof ProfileEvent)) {
+                tx.commit();
+                tx.close();
+                LOG.error("The type of row event is not compatible with ProfileEvent");
+                return;
             }
-        }
-    }
 
-    /** sleepOneInterval */
-    private void sleepOneInterval() {
-        try {
-            Thread.sleep(context.getProcessInterval());
-        } catch (InterruptedException e1) {
-            LOG.error(e1.getMessage(), e1);
+            ProfileEvent profileEvent = (ProfileEvent) rowEvent;
+            String topic = this.context.getTopic(profileEvent.getUid());
+            if (StringUtils.isBlank(topic)) {
+                this.context.addSendResultMetric(profileEvent, profileEvent.getUid(),
+                        false, System.currentTimeMillis());
+                profileEvent.ack();
+                tx.commit();
+                tx.close();
+                return;
+            }
+            profileEvent.getHeaders().put(Constants.TOPIC, topic);
+            this.context.addSendMetric(profileEvent, topic);
+            this.producerFederation.send(profileEvent, tx);
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+            if (tx != null) {
+                tx.rollback();
+                tx.close();
+            }
+            // metric
+            SortMetricItem metricItem =
+                    this.context.getMetricItemSet().findMetricItem(dimensions);
+            metricItem.sendFailCount.incrementAndGet();
+            sleepOneInterval();
         }
     }
 }
@@ -52,6 +52,8 @@ public class KafkaProducerCluster implements LifecycleAware {
     private IEvent2KafkaRecordHandler handler;
 
     private KafkaProducer<String, byte[]> producer;
+    // sender of transactional mode
+    private KafkaTransactionalSender transactionalSender;
 
     /**
      * constructor of KafkaProducerCluster
@@ -88,6 +90,11 @@ public class KafkaProducerCluster implements LifecycleAware {
                     context.getString(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
             props.put(ProducerConfig.CLIENT_ID_CONFIG,
                     context.getString(ProducerConfig.CLIENT_ID_CONFIG, cacheClusterName) + "-" + workerName);
+            if (context.getBoolean(KafkaFederationSinkContext.KEY_TRANSACTIONAL,
+                    KafkaFederationSinkContext.DEFAULT_TRANSACTIONAL)) {
+                this.startTransactionalSender(props);
+                return;
+            }
             LOG.info("init kafka client info: " + props);
             producer = new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer());
             Preconditions.checkNotNull(producer);
@@ -96,12 +103,56 @@ public class KafkaProducerCluster implements LifecycleAware {
         }
     }
 
+    /**
+     * getTransactionalId, the transactional.id must be unique for each producer of the sort cluster,
+     * or the producers fence each other, so it contains the node, task, sink, cache cluster and worker.
+     *
+     * @param sinkContext      sink context
+     * @param cacheClusterName cache cluster name
+     * @param workerName       worker name
+     * @return transactional.id
+     */
+    public static String getTransactionalId(KafkaFederationSinkContext sinkContext, String cacheClusterName,
+            String workerName) {
+        String prefix = sinkContext.getProducerContext().getString(
+                KafkaFederationSinkContext.KEY_TRANSACTIONAL_ID_PREFIX, sinkContext.getClusterId());
+        return String.join("-", prefix, sinkContext.getNodeId(), sinkContext.getTaskName(),
+                sinkContext.getSinkName(), cacheClusterName, workerName);
+    }
+
+    /**
+     * startTransactionalSender, the transactional.id is unique for each worker of a cluster
+     *
+     * @param props producer properties
+     */
+    private void startTransactionalSender(Properties props) {
+        String transactionalId = getTransactionalId(sinkContext, cacheClusterName, workerName);
+        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        LOG.info("init transactional kafka client info: " + props);
+        this.transactionalSender = new KafkaTransactionalSender(sinkContext,
+                () -> new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer()),
+                context.getInteger(KafkaFederationSinkContext.KEY_TRANSACTION_MAX_RECORDS,
+                        KafkaFederationSinkContext.DEFAULT_TRANSACTION_MAX_RECORDS),
+                context.getLong(KafkaFederationSinkContext.KEY_TRANSACTION_MAX_INTERVAL,
+                        KafkaFederationSinkContext.DEFAULT_TRANSACTION_MAX_INTERVAL),
+                context.getInteger(KafkaFederationSinkContext.KEY_TRANSACTION_MAX_OPEN_BATCHES,
+                        KafkaFederationSinkContext.DEFAULT_TRANSACTION_MAX_OPEN_BATCHES),
+                transactionalId);
+        this.transactionalSender.start();
+    }
+
     /** stop and close kafka producer */
     @Override
     public void stop() {
         this.state = LifecycleState.STOP;
         try {
             LOG.info("stop kafka producer");
+            if (transactionalSender != null) {
+                transactionalSender.close();
+                return;
+            }
             producer.close();
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
@@ -137,6 +188,15 @@ public class KafkaProducerCluster implements LifecycleAware {
             sinkContext.addSendResultMetric(profileEvent, topic, false, sendTime);
             return true;
         }
+        if (transactionalSender != null) {
+            if (transactionalSender.send(profileEvent, record, tx, topic, sendTime)) {
+                return true;
+            }
+            tx.rollback();
+            tx.close();
+            sinkContext.addSendResultMetric(profileEvent, topic, false, sendTime);
+            return false;
+        }
         try {
             producer.send(record,
                     (metadata, ex) -> {
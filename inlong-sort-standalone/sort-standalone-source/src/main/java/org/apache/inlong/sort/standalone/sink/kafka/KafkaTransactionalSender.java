@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.inlong.sort.standalone.sink.kafka;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.apache.flume.Transaction;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 
+ * KafkaTransactionalSender
+ * <p>
+ * Send records of a producer cluster in kafka transactions. The records are batched by count and interval,
+ * and the channel transactions and the profiles are committed and acked only after the kafka transaction
+ * is committed, so a consumer with read_committed isolation never sees a record twice because of a retry.
+ * The queue holds several batches, so the workers keep parsing and enqueueing while a commit is in flight.
+ */
+public class KafkaTransactionalSender extends Thread {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(KafkaTransactionalSender.class);
+
+    private final KafkaFederationSinkContext sinkContext;
+    private final Supplier<Producer<String, byte[]>> producerFactory;
+    private final int maxRecords;
+    private final long maxIntervalMs;
+    private final LinkedBlockingQueue<PendingRecord> pendingQueue;
+    private Producer<String, byte[]> producer;
+    private volatile boolean running = false;
+
+    /**
+     * Constructor
+     * 
+     * @param sinkContext
+     * @param producerFactory create a producer with transactional.id
+     * @param maxRecords      max records of a kafka transaction
+     * @param maxIntervalMs   max interval of a kafka transaction
+     * @param maxOpenBatches  max batches waiting in queue
+     * @param name            thread name
+     */
+    public KafkaTransactionalSender(KafkaFederationSinkContext sinkContext,
+            Supplier<Producer<String, byte[]>> producerFactory, int maxRecords, long maxIntervalMs,
+            int maxOpenBatches, String name) {
+        super(name);
+        this.sinkContext = sinkContext;
+        this.producerFactory = producerFactory;
+        this.maxRecords = Math.max(1, maxRecords);
+        this.maxIntervalMs = Math.max(1L, maxIntervalMs);
+        this.pendingQueue = new LinkedBlockingQueue<>(this.maxRecords * Math.max(1, maxOpenBatches));
+    }
+
+    /**
+     * start, init the transactional producer
+     */
+    @Override
+    public void start() {
+        this.producer = this.createProducer();
+        this.running = true;
+        super.start();
+    }
+
+    /**
+     * close, commit the queued records and close the producer
+     */
+    public void close() {
+        this.running = false;
+        try {
+            this.join(maxIntervalMs * 10);
+        } catch (InterruptedException e) {
+            LOG.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+        }
+        // the thread is stopped or timeout, roll back all the records left
+        List<PendingRecord> records = new ArrayList<>();
+        this.pendingQueue.drainTo(records);
+        this.rollback(records);
+        try {
+            this.producer.close();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * send, wait when the queue is full
+     * 
+     * @param  profileEvent
+     * @param  record
+     * @param  tx           channel transaction, committed or rolled back after the kafka transaction
+     * @param  topic
+     * @param  sendTime
+     * @return              false if the sender is closed, the channel transaction is not changed
+     */
+    public boolean send(ProfileEvent profileEvent, ProducerRecord<String, byte[]> record, Transaction tx,
+            String topic, long sendTime) {
+        PendingRecord pendingRecord = new PendingRecord(profileEvent, record, tx, topic, sendTime);
+        try {
+            while (running) {
+                if (this.pendingQueue.offer(pendingRecord, maxIntervalMs, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            LOG.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * run
+     */
+    @Override
+    public void run() {
+        LOG.info("start to run KafkaTransactionalSender:{}", getName());
+        List<PendingRecord> batch = new ArrayList<>(maxRecords);
+        while (running || !pendingQueue.isEmpty()) {
+            try {
+                PendingRecord first = this.pendingQueue.poll(maxIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.sendBatch(batch);
+            } catch (InterruptedException e) {
+                LOG.error(e.getMessage(), e);
+                break;
+            } catch (Throwable t) {
+                LOG.error(t.getMessage(), t);
+            } finally {
+                batch.clear();
+            }
+        }
+        LOG.info("end to run KafkaTransactionalSender:{}", getName());
+    }
+
+    /**
+     * sendBatch, send the records until max records or max interval in a kafka transaction
+     * 
+     * @param  batch                contains the first record
+     * @throws InterruptedException
+     */
+    private void sendBatch(List<PendingRecord> batch) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + maxIntervalMs;
+        try {
+            producer.beginTransaction();
+            producer.send(batch.get(0).record);
+            while (batch.size() < maxRecords) {
+                long waitMs = deadline - System.currentTimeMillis();
+                PendingRecord pendingRecord = waitMs > 0
+                        ? this.pendingQueue.poll(waitMs, TimeUnit.MILLISECONDS)
+                        : this.pendingQueue.poll();
+                if (pendingRecord == null) {
+                    break;
+                }
+                batch.add(pendingRecord);
+                producer.send(pendingRecord.record);
+            }
+            // commit flushes the records, and fails if any record is failed
+            producer.commitTransaction();
+        } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+            // fatal error, the producer can not abort and has to be recreated
+            LOG.error(String.format("fatal error of kafka transaction, recreate producer:%s", getName()), e);
+            this.rollback(batch);
+            this.recreateProducer();
+            return;
+        } catch (KafkaException e) {
+            LOG.error(String.format("fail to commit kafka transaction:%s, records:%d", getName(), batch.size()), e);
+            this.abort();
+            this.rollback(batch);
+            return;
+        }
+        for (PendingRecord pendingRecord : batch) {
+            try {
+                pendingRecord.tx.commit();
+                sinkContext.addSendResultMetric(pendingRecord.profileEvent, pendingRecord.topic, true,
+                        pendingRecord.sendTime);
+                pendingRecord.profileEvent.ack();
+            } catch (Throwable t) {
+                LOG.error(t.getMessage(), t);
+            } finally {
+                pendingRecord.tx.close();
+            }
+        }
+    }
+
+    /**
+     * rollback the channel transactions
+     * 
+     * @param records
+     */
+    private void rollback(List<PendingRecord> records) {
+        for (PendingRecord pendingRecord : records) {
+            try {
+                pendingRecord.tx.rollback();
+                sinkContext.addSendResultMetric(pendingRecord.profileEvent, pendingRecord.topic, false,
+                        pendingRecord.sendTime);
+            } catch (Throwable t) {
+                LOG.error(t.getMessage(), t);
+            } finally {
+                pendingRecord.tx.close();
+            }
+        }
+    }
+
+    /**
+     * abort the kafka transaction, recreate the producer if abort is failed
+     */
+    private void abort() {
+        try {
+            producer.abortTransaction();
+        } catch (Exception e) {
+            LOG.error(String.format("fail to abort kafka transaction, recreate producer:%s", getName()), e);
+            this.recreateProducer();
+        }
+    }
+
+    /**
+     * recreateProducer
+     */
+    private void recreateProducer() {
+        try {
+            producer.close();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+        this.producer = this.createProducer();
+    }
+
+    /**
+     * createProducer
+     * 
+     * @return producer after initTransactions
+     */
+    private Producer<String, byte[]> createProducer() {
+        Producer<String, byte[]> newProducer = producerFactory.get();
+        newProducer.initTransactions();
+        return newProducer;
+    }
+
+    /**
+     * get pending record count
+     * 
+     * @return
+     */
+    public int getPendingSize() {
+        return pendingQueue.size();
+    }
+
+    /**
+     * 
+     * PendingRecord
+     */
+    private static class PendingRecord {
+
+        private final ProfileEvent profileEvent;
+        private final ProducerRecord<String, byte[]> record;
+        private final Transaction tx;
+        private final String topic;
+        private final long sendTime;
+
+        PendingRecord(ProfileEvent profileEvent, ProducerRecord<String, byte[]> record, Transaction tx,
+                String topic, long sendTime) {
+            this.profileEvent = profileEvent;
+            this.record = record;
+            this.tx = tx;
+            this.topic = topic;
+            this.sendTime = sendTime;
+        }
+    }
+}
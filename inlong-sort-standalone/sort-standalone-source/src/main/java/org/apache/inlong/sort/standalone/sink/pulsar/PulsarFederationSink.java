@@ -49,7 +49,7 @@ public class PulsarFederationSink extends AbstractSink implements Configurable {
         this.context = new PulsarFederationSinkContext(sinkName, parentContext, getChannel());
         this.context.start();
         // create worker
-        for (int i = 0; i < context.getMaxThreads(); i++) {
+        for (int i = 0; i < context.getWorkerThreads(); i++) {
             PulsarFederationWorker worker = new PulsarFederationWorker(sinkName, i, context);
             worker.start();
             this.workers.add(worker);
@@ -19,6 +19,7 @@ package org.apache.inlong.sort.standalone.sink.pulsar;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.config.pojo.InlongId;
+import org.apache.inlong.sort.standalone.sink.AbstractChannelWorker;
 import org.apache.inlong.sort.standalone.utils.Constants;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
@@ -26,7 +27,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.flume.Channel;
 import org.apache.flume.Event;
 import org.apache.flume.Transaction;
-import org.apache.flume.lifecycle.LifecycleState;
 import org.slf4j.Logger;
 
 import java.util.Map;
@@ -35,15 +35,13 @@ import java.util.Map;
  * 
  * PulsarFederationWorker
  */
-public class PulsarFederationWorker extends Thread {
+public class PulsarFederationWorker extends AbstractChannelWorker {
 
     public static final Logger LOG = InlongLoggerFactory.getLogger(PulsarFederationWorker.class);
 
-    private final String workerName;
     private final PulsarFederationSinkContext context;
 
     private PulsarProducerFederation producerFederation;
-    private LifecycleState status;
 
     /**
      * Constructor
@@ -53,11 +51,9 @@ public class PulsarFederationWorker extends Thread {
      * @param context
      */
     public PulsarFederationWorker(String sinkName, int workerIndex, PulsarFederationSinkContext context) {
-        super();
-        this.workerName = sinkName + "-worker-" + workerIndex;
+        super(context, sinkName + "-worker-" + workerIndex);
         this.context = context;
         this.producerFederation = new PulsarProducerFederation(workerName, this.context);
-        this.status = LifecycleState.IDLE;
     }
 
     /**
@@ -66,7 +62,6 @@ public class PulsarFederationWorker extends Thread {
     @Override
     public void start() {
         this.producerFederation.start();
-        this.status = LifecycleState.START;
         super.start();
     }
 
@@ -77,51 +72,46 @@ public class PulsarFederationWorker extends Thread {
     public void close() {
         // close all producers
         this.producerFederation.close();
-        this.status = LifecycleState.STOP;
+        super.close();
     }
 
     /**
-     * run
+     * doRun
      */
     @Override
-    public void run() {
-        LOG.info(String.format("start PulsarSetWorker:%s", this.workerName));
-        while (status != LifecycleState.STOP) {
-            Channel channel = context.getChannel();
-            Transaction tx = channel.getTransaction();
-            tx.begin();
+    protected void doRun() {
+        Channel channel = context.getChannel();
+        Transaction tx = channel.getTransaction();
+        tx.begin();
+        try {
+            Event event = this.takeEvent(channel);
+            if (event == null) {
+                tx.commit();
+                return;
+            }
+            if (!(event instanceof ProfileEvent)) {
+                tx.commit();
+                this.context.addSendFailMetric();
+                return;
+            }
+            // to profileEvent
+            ProfileEvent profileEvent = (ProfileEvent) event;
+            // fill topic
+            String topic = this.fillTopic(profileEvent);
+            // metric
+            this.context.addSendMetric(profileEvent, topic);
+            // send
+            this.producerFederation.send(profileEvent, tx);
+        } catch (Throwable t) {
+            LOG.error("Process event failed!" + this.getName(), t);
             try {
-                Event event = channel.take();
-                if (event == null) {
-                    tx.commit();
-                    sleepOneInterval();
-                    continue;
-                }
-                if (!(event instanceof ProfileEvent)) {
-                    tx.commit();
-                    this.context.addSendFailMetric();
-                    Thread.sleep(context.getProcessInterval());
-                    return;
-                }
-                // to profileEvent
-                ProfileEvent profileEvent = (ProfileEvent) event;
-                // fill topic
-                String topic = this.fillTopic(profileEvent);
+                tx.rollback();
+                tx.close();
                 // metric
-                this.context.addSendMetric(profileEvent, topic);
-                // send
-                this.producerFederation.send(profileEvent, tx);
-            } catch (Throwable t) {
-                LOG.error("Process event failed!" + this.getName(), t);
-                try {
-                    tx.rollback();
-                    tx.close();
-                    // metric
-                    context.addSendFailMetric();
-                    sleepOneInterval();
-                } catch (Throwable e) {
-                    LOG.error("Channel take transaction rollback exception:" + getName(), e);
-                }
+                context.addSendFailMetric();
+                sleepOneInterval();
+            } catch (Throwable e) {
+                LOG.error("Channel take transaction rollback exception:" + getName(), e);
             }
         }
     }
@@ -143,15 +133,4 @@ public class PulsarFederationWorker extends Thread {
         }
         return "-";
     }
-
-    /**
-     * sleepOneInterval
-     */
-    private void sleepOneInterval() {
-        try {
-            Thread.sleep(context.getProcessInterval());
-        } catch (InterruptedException e1) {
-            LOG.error(e1.getMessage(), e1);
-        }
-    }
 }
@@ -33,7 +33,7 @@ public class PulsarIdConfig {
     public static final String KEY_SEPARATOR = "separator";
     public static final String DEFAULT_SEPARATOR = "|";
 
-    private static final String DEFAULT_INLONG_STREAM = "1";
+    public static final String DEFAULT_INLONG_STREAM = "1";
 
     private String inlongGroupId;
     private String inlongStreamId;
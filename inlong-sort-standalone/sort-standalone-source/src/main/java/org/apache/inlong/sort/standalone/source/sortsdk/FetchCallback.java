@@ -98,9 +98,23 @@ public class FetchCallback implements ReadCallback {
     public void onFinished(final MessageRecord messageRecord) {
         try {
             Preconditions.checkState(messageRecord != null, "Fetched msg is null.");
-            CacheMessageRecord cacheRecord = new CacheMessageRecord(messageRecord, client,
+            // the messages of the other sort tasks are not put into channel
+            List<InLongMessage> msgs = messageRecord.getMsgs();
+            SortTaskRouteIndex routeIndex = context.getRouteIndex(sortTaskName);
+            if (routeIndex != null) {
+                msgs = routeIndex.filter(msgs);
+                int filtered = messageRecord.getMsgs().size() - msgs.size();
+                if (filtered > 0) {
+                    context.reportFilterMetric(sortTaskName, filtered);
+                }
+            }
+            if (msgs.isEmpty()) {
+                client.ack(messageRecord);
+                return;
+            }
+            CacheMessageRecord cacheRecord = new CacheMessageRecord(messageRecord, msgs.size(), client,
                     CommonPropertiesHolder.getAckPolicy());
-            for (InLongMessage inLongMessage : messageRecord.getMsgs()) {
+            for (InLongMessage inLongMessage : msgs) {
                 final ProfileEvent profileEvent = new ProfileEvent(inLongMessage, cacheRecord);
                 channelProcessor.processEvent(profileEvent);
                 context.reportToMetric(profileEvent, sortTaskName, "-", SortSdkSourceContext.FetchResult.SUCCESS);
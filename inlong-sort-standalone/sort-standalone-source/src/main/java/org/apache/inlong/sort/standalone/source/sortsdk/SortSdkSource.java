@@ -140,6 +140,7 @@ public final class SortSdkSource extends AbstractSource
         for (SortClient sortClient : sortClients) {
             sortClient.getConfig().setManagerApiUrl(ManagerUrlHandler.getSortSourceConfigUrl());
         }
+        this.context.reloadRouteIndex(taskName);
     }
 
     /**
@@ -153,6 +154,7 @@ public final class SortSdkSource extends AbstractSource
         this.context = new SortSdkSourceContext(getName(), context);
         this.sortClusterName = SortClusterConfigHolder.getClusterConfig().getClusterName();
         this.reloadInterval = this.context.getReloadInterval();
+        this.context.reloadRouteIndex(taskName);
         this.initReloadExecutor();
         // register
         AdminServiceRegister.register(ConsumerServiceMBean.MBEAN_TYPE, taskName, this);
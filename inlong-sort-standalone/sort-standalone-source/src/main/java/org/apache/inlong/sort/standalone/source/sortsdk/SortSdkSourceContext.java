@@ -18,14 +18,18 @@
 package org.apache.inlong.sort.standalone.source.sortsdk;
 
 import org.apache.inlong.common.metric.MetricRegister;
+import org.apache.inlong.common.pojo.sortstandalone.SortTaskConfig;
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
+import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigHolder;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItemSet;
 import org.apache.inlong.sort.standalone.metrics.audit.AuditUtils;
 import org.apache.inlong.sort.standalone.source.SourceContext;
 
 import org.apache.flume.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotBlank;
@@ -40,9 +44,16 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public final class SortSdkSourceContext extends SourceContext {
 
+    // Log of {@link SortSdkSourceContext}.
+    private static final Logger LOG = LoggerFactory.getLogger(SortSdkSourceContext.class);
+
     // Metric item set of Sort to create and maintain specific metric group.
     private final SortMetricItemSet metricItemSet;
 
+    // Index of the inlong ids owned by the sort task, null means that all messages are accepted.
+    private volatile SortTaskRouteIndex routeIndex;
+    private volatile SortTaskConfig lastTaskConfig;
+
     /**
      * Type of metrics to report.
      *
@@ -68,6 +79,39 @@ public final class SortSdkSourceContext extends SourceContext {
         MetricRegister.register(metricItemSet);
     }
 
+    /**
+     * Rebuild the route index when the config of sort task is changed.
+     *
+     * @param sortTaskName Name of sort task.
+     */
+    public void reloadRouteIndex(final String sortTaskName) {
+        this.getRouteIndex(sortTaskName);
+    }
+
+    /**
+     * Obtain the route index of sort task, it is rebuilt at once when the config of sort task is changed.
+     *
+     * @param  sortTaskName Name of sort task.
+     * @return              The route index, null if the config of sort task is not loaded.
+     */
+    public SortTaskRouteIndex getRouteIndex(final String sortTaskName) {
+        SortTaskConfig taskConfig = SortClusterConfigHolder.getTaskConfig(sortTaskName);
+        // the config object is replaced only when the config is reloaded
+        if (taskConfig == null || taskConfig == this.lastTaskConfig) {
+            return this.routeIndex;
+        }
+        synchronized (this) {
+            SortTaskRouteIndex currentIndex = this.routeIndex;
+            if (currentIndex == null || !currentIndex.isSameConfig(taskConfig)) {
+                currentIndex = SortTaskRouteIndex.create(taskConfig);
+                this.routeIndex = currentIndex;
+                LOG.info("reload route index of sort task:{},id count:{}", sortTaskName, currentIndex.size());
+            }
+            this.lastTaskConfig = taskConfig;
+            return currentIndex;
+        }
+    }
+
     /**
      * Entrance to report fetch metrics.
      *
@@ -84,10 +128,21 @@ public final class SortSdkSourceContext extends SourceContext {
 
         final Map<String, String> dimensions = this.createSortSdkSourceDimensionMap(event, sortId, topic);
         final SortMetricItem metricItem = metricItemSet.findMetricItem(dimensions);
-        final int msgSize = event != null ? event.getBody().length : -1;
+        final int msgSize = event != null ? event.getBodyLength() : -1;
         this.reportToMetric(event, metricItem, fetchResult, msgSize);
     }
 
+    /**
+     * Report the count of the fetched messages which are not owned by the sort task.
+     *
+     * @param sortId Sort id of the messages.
+     * @param count Count of the discarded messages.
+     */
+    public void reportFilterMetric(final String sortId, final int count) {
+        final Map<String, String> dimensions = this.createSortSdkSourceDimensionMap(null, sortId, "-");
+        metricItemSet.findMetricItem(dimensions).readFilterCount.addAndGet(count);
+    }
+
     /**
      * Selector of metric report flow.
      *
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.source.sortsdk;
+
+import org.apache.inlong.common.pojo.sortstandalone.SortTaskConfig;
+import org.apache.inlong.sdk.sort.entity.InLongMessage;
+import org.apache.inlong.sort.standalone.config.pojo.InlongId;
+import org.apache.inlong.sort.standalone.sink.pulsar.PulsarIdConfig;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable index of the inlong ids owned by the sink of a sort task.
+ *
+ * <p>
+ * The index is built once per config change, and the fetched messages are filtered by it before they are put
+ * into the channel, so that the messages of the other sort tasks never occupy the channel capacity.
+ * The index is keyed by the uid generated with the same rules as the id config of the sink, and the uid is
+ * generated once per run of the messages with the same group id and stream id.
+ * </p>
+ */
+public final class SortTaskRouteIndex {
+
+    public static final String SINK_TYPE_PULSAR = "PULSAR";
+
+    private final SortTaskConfig taskConfig;
+    // uid -> idParam
+    private final Map<String, Map<String, String>> uidIndex;
+    private final int size;
+
+    /**
+     * Constructor of {@link SortTaskRouteIndex}.
+     *
+     * @param taskConfig Config of sort task.
+     */
+    private SortTaskRouteIndex(SortTaskConfig taskConfig) {
+        this.taskConfig = taskConfig;
+        Map<String, Map<String, String>> newIndex = new HashMap<>();
+        int count = 0;
+        if (taskConfig.getIdParams() != null) {
+            for (Map<String, String> idParam : taskConfig.getIdParams()) {
+                Map<String, String> unmodifiableIdParam = Collections.unmodifiableMap(idParam);
+                String uid = InlongId.generateUid(idParam.get(Constants.INLONG_GROUP_ID),
+                        idParam.get(Constants.INLONG_STREAM_ID));
+                if (newIndex.put(uid, unmodifiableIdParam) == null) {
+                    count++;
+                }
+                // PulsarIdConfig defaults a missing stream id, the uid of the sink is indexed too
+                if (!idParam.containsKey(Constants.INLONG_STREAM_ID) && isPulsarSink(taskConfig.getType())) {
+                    newIndex.putIfAbsent(InlongId.generateUid(idParam.get(Constants.INLONG_GROUP_ID),
+                            PulsarIdConfig.DEFAULT_INLONG_STREAM), unmodifiableIdParam);
+                }
+            }
+        }
+        this.uidIndex = Collections.unmodifiableMap(newIndex);
+        this.size = count;
+    }
+
+    /**
+     * Create the index of a sort task.
+     *
+     * @param  taskConfig Config of sort task, may be null when the config is not loaded.
+     * @return            The index, null if the task config is null.
+     */
+    public static SortTaskRouteIndex create(SortTaskConfig taskConfig) {
+        if (taskConfig == null) {
+            return null;
+        }
+        return new SortTaskRouteIndex(taskConfig);
+    }
+
+    /**
+     * Check whether the index is built from the same config.
+     *
+     * @param  newTaskConfig New config of sort task.
+     * @return               True if the config is not changed.
+     */
+    public boolean isSameConfig(SortTaskConfig newTaskConfig) {
+        return Objects.equals(this.taskConfig, newTaskConfig);
+    }
+
+    /**
+     * Route an inlong id to the id params of the sort task.
+     *
+     * @param  inlongGroupId  Group id of message.
+     * @param  inlongStreamId Stream id of message.
+     * @return                The id params, null if the id is not owned by the sort task.
+     */
+    public Map<String, String> route(String inlongGroupId, String inlongStreamId) {
+        return uidIndex.get(InlongId.generateUid(inlongGroupId, inlongStreamId));
+    }
+
+    /**
+     * Filter a batch of messages, the consecutive messages of the same id are routed once.
+     *
+     * @param  msgs Fetched messages.
+     * @return      The messages owned by the sort task, the same list if all messages are owned.
+     */
+    public List<InLongMessage> filter(List<InLongMessage> msgs) {
+        List<InLongMessage> result = null;
+        String lastGroupId = null;
+        String lastStreamId = null;
+        boolean lastAccepted = false;
+        for (int i = 0; i < msgs.size(); i++) {
+            InLongMessage msg = msgs.get(i);
+            String inlongGroupId = msg.getInlongGroupId();
+            String inlongStreamId = msg.getInlongStreamId();
+            if (i == 0 || !StringUtils.equals(inlongGroupId, lastGroupId)
+                    || !StringUtils.equals(inlongStreamId, lastStreamId)) {
+                lastGroupId = inlongGroupId;
+                lastStreamId = inlongStreamId;
+                lastAccepted = this.route(inlongGroupId, inlongStreamId) != null;
+            }
+            if (lastAccepted) {
+                if (result != null) {
+                    result.add(msg);
+                }
+            } else if (result == null) {
+                // copy the accepted messages before the first discarded one
+                result = new ArrayList<>(msgs.subList(0, i));
+            }
+        }
+        return result == null ? msgs : result;
+    }
+
+    /**
+     * Get the count of inlong ids.
+     *
+     * @return The count of inlong ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the sink of the task may be a pulsar sink, the unknown type is treated as pulsar,
+     * so that the messages of the defaulted uid are never discarded.
+     *
+     * @param  sinkType Type of the sink.
+     * @return          True if the sink may be a pulsar sink.
+     */
+    private static boolean isPulsarSink(String sinkType) {
+        return StringUtils.isBlank(sinkType) || SINK_TYPE_PULSAR.equalsIgnoreCase(sinkType);
+    }
+}
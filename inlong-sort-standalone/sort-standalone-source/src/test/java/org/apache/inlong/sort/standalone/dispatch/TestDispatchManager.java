@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.dispatch;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.apache.flume.Context;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 
+ * TestDispatchManager
+ */
+public class TestDispatchManager {
+
+    /**
+     * mockProfileEvent
+     * 
+     * @param  inlongStreamId
+     * @param  logTime
+     * @return
+     */
+    private static ProfileEvent mockProfileEvent(String inlongStreamId, long logTime) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroupId");
+        headers.put(Constants.INLONG_STREAM_ID, inlongStreamId);
+        headers.put(Constants.HEADER_KEY_MSG_TIME, String.valueOf(logTime));
+        return new ProfileEvent(headers, "testContent".getBytes());
+    }
+
+    /**
+     * currentMinute, the events are dispatched by the minute of the log time,
+     * so the log time is fixed to avoid the events of a test falling into two minutes
+     * 
+     * @return
+     */
+    private static long currentMinute() {
+        long now = System.currentTimeMillis();
+        return now - now % DispatchManager.MINUTE_MS;
+    }
+
+    /**
+     * mockDispatchManager
+     * 
+     * @param  dispatchQueue
+     * @return
+     */
+    private static DispatchManager mockDispatchManager(LinkedBlockingQueue<DispatchProfile> dispatchQueue) {
+        Context context = new Context();
+        context.put(DispatchManager.KEY_DISPATCH_TIMEOUT, "100");
+        context.put(DispatchManager.KEY_DISPATCH_MAX_PACKCOUNT, "2");
+        return new DispatchManager(context, dispatchQueue);
+    }
+
+    /**
+     * testAddEvent
+     * 
+     * @throws InterruptedException
+     */
+    @Test
+    public void testAddEvent() throws InterruptedException {
+        LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
+        DispatchManager dispatchManager = mockDispatchManager(dispatchQueue);
+        long logTime = currentMinute();
+        for (int i = 0; i < 3; i++) {
+            dispatchManager.addEvent(mockProfileEvent("testStreamId", logTime));
+        }
+        dispatchManager.addEvent(mockProfileEvent("otherStreamId", logTime));
+        // the full profile is dispatched at once
+        assertEquals(1, dispatchQueue.size());
+        assertEquals(2, dispatchQueue.poll().getCount());
+        assertEquals(2, dispatchManager.getProfileCacheSize());
+        // not expired
+        dispatchManager.outputOvertimeData();
+        assertEquals(0, dispatchQueue.size());
+        // expired
+        Thread.sleep(dispatchManager.getDispatchTimeout() + 2 * dispatchManager.getTickInterval());
+        dispatchManager.outputOvertimeData();
+        assertEquals(2, dispatchQueue.size());
+        assertEquals(0, dispatchManager.getProfileCacheSize());
+    }
+
+    /**
+     * testConcurrentAddEvent
+     * 
+     * @throws InterruptedException
+     */
+    @Test
+    public void testConcurrentAddEvent() throws InterruptedException {
+        LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
+        DispatchManager dispatchManager = mockDispatchManager(dispatchQueue);
+        int threadCount = 4;
+        int eventCount = 10000;
+        long logTime = currentMinute();
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < eventCount; j++) {
+                    dispatchManager.addEvent(mockProfileEvent("testStreamId" + (j % 3), logTime));
+                    dispatchManager.outputOvertimeData();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Thread.sleep(dispatchManager.getDispatchTimeout() + 2 * dispatchManager.getTickInterval());
+        dispatchManager.outputOvertimeData();
+        // no event is lost or dispatched twice
+        long total = 0;
+        for (DispatchProfile dispatchProfile : dispatchQueue) {
+            total += dispatchProfile.getCount();
+        }
+        assertEquals((long) threadCount * eventCount, total);
+        assertEquals(0, dispatchManager.getProfileCacheSize());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.dispatch;
+
+import org.apache.inlong.sort.standalone.rollback.RollbackSpillStore;
+
+import org.apache.flume.Context;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 
+ * TestDispatchRetryQueue
+ */
+public class TestDispatchRetryQueue {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testBackoff
+     */
+    @Test
+    public void testBackoff() {
+        DispatchRetryQueue queue = new DispatchRetryQueue(100, 1000);
+        assertEquals(100, queue.getBackoff(1));
+        assertEquals(200, queue.getBackoff(2));
+        assertEquals(800, queue.getBackoff(4));
+        assertEquals(1000, queue.getBackoff(5));
+        assertEquals(1000, queue.getBackoff(Integer.MAX_VALUE));
+    }
+
+    /**
+     * testPoll
+     * 
+     * @throws InterruptedException
+     */
+    @Test
+    public void testPoll() throws InterruptedException {
+        DispatchRetryQueue queue = new DispatchRetryQueue(0, 0);
+        DispatchProfile first = new DispatchProfile("uid", "groupId", "streamId", 0);
+        DispatchProfile second = new DispatchProfile("uid", "groupId", "streamId", 0);
+        queue.offer(first);
+        Thread.sleep(1);
+        queue.offer(second);
+        assertEquals(1, first.getRetryTimes());
+        assertEquals(2, queue.size());
+        Thread.sleep(1);
+        assertSame(first, queue.poll());
+        assertSame(second, queue.poll());
+        assertNull(queue.poll());
+
+        // the profile is not available before its backoff
+        queue = new DispatchRetryQueue(60000, 60000);
+        queue.offer(first);
+        assertEquals(2, first.getRetryTimes());
+        assertNull(queue.poll());
+        assertEquals(1, queue.size());
+    }
+
+    /**
+     * testSpillOnClose, the profiles waiting in memory are spilled on close
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSpillOnClose() throws Exception {
+        Context context = new Context();
+        context.put(DispatchRetryQueue.KEY_RETRY_INTERVAL, "60000");
+        context.put(DispatchRetryQueue.KEY_ROLLBACK_DIR, folder.getRoot().getAbsolutePath());
+        DispatchRetryQueue queue = new DispatchRetryQueue(context, "testSink");
+        queue.offer(new DispatchProfile("uid", "groupId", "streamId", 0));
+        assertEquals(1, queue.size());
+        assertEquals(0, queue.getSpillBytes());
+        queue.close();
+        assertEquals(0, queue.size());
+
+        RollbackSpillStore store = new RollbackSpillStore(new File(folder.getRoot(), "testSink"), 1024, 1024);
+        assertEquals("uid", store.replay().getUid());
+        assertNull(store.replay());
+        store.close();
+    }
+}
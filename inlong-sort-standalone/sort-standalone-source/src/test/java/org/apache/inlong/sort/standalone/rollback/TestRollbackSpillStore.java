@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.inlong.sort.standalone.rollback;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 
+ * TestRollbackSpillStore
+ */
+public class TestRollbackSpillStore {
+
+    private static final long SEGMENT_SIZE = 256;
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * testSpillAndReplay
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSpillAndReplay() throws Exception {
+        RollbackSpillStore store = new RollbackSpillStore(folder.getRoot(), SEGMENT_SIZE, MAX_SIZE);
+        assertNull(store.replay());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.spill(mockProfile(i)));
+        }
+        assertTrue(store.getSpillBytes() > 0);
+        assertTrue(store.getOldestSpillTime() > 0);
+        for (int i = 0; i < 10; i++) {
+            DispatchProfile profile = store.replay();
+            assertNotNull(profile);
+            assertEquals("testGroup.stream" + i, profile.getUid());
+            assertEquals(1000L * i, profile.getDispatchTime());
+            assertEquals(2, profile.getCount());
+            ProfileEvent event = profile.getEvents().get(0);
+            assertEquals("body" + i, new String(event.getBody()));
+            assertEquals("v" + i, event.getHeaders().get("k"));
+            assertEquals(5000L + i, event.getRawLogTime());
+            // the inlong id is restored without the headers
+            assertEquals("stream" + i, profile.getEvents().get(1).getInlongStreamId());
+            profile.ack();
+        }
+        assertNull(store.replay());
+        assertEquals(0, store.getSpillBytes());
+        assertEquals(0, store.getOldestSpillTime());
+        // the replayed segments are deleted
+        assertEquals(1, folder.getRoot().list().length);
+        store.close();
+    }
+
+    /**
+     * testReopen, replay from the checkpoint
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testReopen() throws Exception {
+        RollbackSpillStore store = new RollbackSpillStore(folder.getRoot(), SEGMENT_SIZE, MAX_SIZE);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.spill(mockProfile(i)));
+        }
+        for (int i = 0; i < 4; i++) {
+            store.replay().ack();
+        }
+        long spillBytes = store.getSpillBytes();
+        store.close();
+        store = new RollbackSpillStore(folder.getRoot(), SEGMENT_SIZE, MAX_SIZE);
+        assertEquals(spillBytes, store.getSpillBytes());
+        assertTrue(store.spill(mockProfile(10)));
+        for (int i = 4; i <= 10; i++) {
+            DispatchProfile profile = store.replay();
+            assertEquals("testGroup.stream" + i, profile.getUid());
+            profile.ack();
+        }
+        assertNull(store.replay());
+        store.close();
+    }
+
+    /**
+     * testReplayBeforeAck, the checkpoint stays at the earliest profile not acked
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testReplayBeforeAck() throws Exception {
+        RollbackSpillStore store = new RollbackSpillStore(folder.getRoot(), SEGMENT_SIZE, MAX_SIZE);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.spill(mockProfile(i)));
+        }
+        long spillBytes = store.getSpillBytes();
+        DispatchProfile first = store.replay();
+        DispatchProfile second = store.replay();
+        // the profile is acked out of order
+        second.ack();
+        assertEquals(spillBytes, store.getSpillBytes());
+        assertFalse(store.isEmpty());
+        store.close();
+
+        // the profiles not acked are replayed again
+        store = new RollbackSpillStore(folder.getRoot(), SEGMENT_SIZE, MAX_SIZE);
+        assertEquals(spillBytes, store.getSpillBytes());
+        assertEquals(first.getUid(), store.replay().getUid());
+        assertEquals(second.getUid(), store.replay().getUid());
+        store.close();
+    }
+
+    /**
+     * testMaxSize
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testMaxSize() throws Exception {
+        long recordSize = 8 + RollbackSpillStore.encode(mockProfile(0), 0).length;
+        RollbackSpillStore store = new RollbackSpillStore(folder.getRoot(), SEGMENT_SIZE, recordSize * 3 / 2);
+        assertTrue(store.spill(mockProfile(0)));
+        assertFalse(store.spill(mockProfile(1)));
+        store.close();
+    }
+
+    /**
+     * testBrokenTail, the broken record is skipped
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testBrokenTail() throws Exception {
+        RollbackSpillStore store = new RollbackSpillStore(folder.getRoot(), MAX_SIZE, MAX_SIZE);
+        assertTrue(store.spill(mockProfile(0)));
+        assertTrue(store.spill(mockProfile(1)));
+        store.close();
+        File[] segments = folder.getRoot()
+                .listFiles((dir, name) -> name.startsWith(RollbackSpillStore.SEGMENT_PREFIX));
+        assertEquals(1, segments.length);
+        try (RandomAccessFile file = new RandomAccessFile(segments[0], "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        store = new RollbackSpillStore(folder.getRoot(), MAX_SIZE, MAX_SIZE);
+        DispatchProfile profile = store.replay();
+        assertEquals("testGroup.stream0", profile.getUid());
+        assertNull(store.replay());
+        profile.ack();
+        assertEquals(0, store.getSpillBytes());
+        assertEquals(Arrays.asList(RollbackSpillStore.CHECKPOINT_FILE), Arrays.asList(folder.getRoot().list()));
+        store.close();
+    }
+
+    /**
+     * mockProfile
+     * 
+     * @param  index
+     * @return
+     */
+    private static DispatchProfile mockProfile(int index) {
+        String streamId = "stream" + index;
+        DispatchProfile profile = new DispatchProfile("testGroup." + streamId, "testGroup", streamId, 1000L * index);
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, streamId);
+        headers.put(Constants.HEADER_KEY_MSG_TIME, String.valueOf(5000L + index));
+        headers.put("k", "v" + index);
+        profile.addEvent(new ProfileEvent(headers, ("body" + index).getBytes()), 100, MAX_SIZE);
+        profile.addEvent(new ProfileEvent(new HashMap<>(), new byte[0]), 100, MAX_SIZE);
+        return profile;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRowBinaryColumn {
+
+    private static String encode(String typeName, String value) {
+        RowBinaryBuffer buffer = new RowBinaryBuffer(16);
+        RowBinaryColumn.create(typeName).write(value, buffer);
+        StringBuilder builder = new StringBuilder();
+        for (byte b : buffer.toByteArray()) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void testNumber() {
+        Assert.assertEquals("feffffff", encode("Int32", "-2"));
+        Assert.assertEquals("ffff", encode("UInt16", "65535"));
+        Assert.assertEquals("ffffffffffffffff", encode("UInt64", "18446744073709551615"));
+        Assert.assertEquals("00000000", encode("Int32", "abc"));
+        Assert.assertEquals("000000000000f83f", encode("Float64", "1.5"));
+        Assert.assertEquals("6500000000000000", encode("Decimal(18, 2)", "1.005"));
+        Assert.assertEquals("9cffffffffffffffffffffffffffffff", encode("Decimal128(2)", "-1"));
+    }
+
+    @Test
+    public void testString() {
+        Assert.assertEquals("026162", encode("String", "ab"));
+        Assert.assertEquals("610000", encode("FixedString(3)", "a"));
+        Assert.assertEquals("01", encode("Nullable(String)", null));
+        Assert.assertEquals("000178", encode("LowCardinality(Nullable(String))", "x"));
+        // 300 bytes, length is encoded as varint
+        Assert.assertTrue(encode("String", new String(new char[300]).replace('\0', 'a')).startsWith("ac02"));
+    }
+
+    @Test
+    public void testTime() {
+        Assert.assertEquals("0100", encode("Date", "1970-01-02"));
+        Assert.assertEquals(1_500_000_000L, RowBinaryColumn.parseEpochNano("1970-01-01 00:00:01.5")
+                - RowBinaryColumn.parseEpochNano("1970-01-01 00:00:00"));
+        Assert.assertEquals(0L, RowBinaryColumn.parseEpochNano("invalid"));
+    }
+
+    @Test
+    public void testTimeZone() {
+        // the value is the local time of the timezone of the column
+        Assert.assertEquals("01000000", encode("DateTime('UTC')", "1970-01-01 00:00:01"));
+        Assert.assertEquals("01000000", encode("DateTime('Asia/Shanghai')", "1970-01-01 08:00:01"));
+        Assert.assertEquals("dc05000000000000", encode("DateTime64(3, 'UTC')", "1970-01-01 00:00:01.5"));
+        Assert.assertNull(RowBinaryColumn.create("DateTime('Unknown/Zone')"));
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertNull(RowBinaryColumn.create("Array(String)"));
+        Assert.assertNull(RowBinaryColumn.create("Nullable(Enum8('a' = 1))"));
+    }
+}
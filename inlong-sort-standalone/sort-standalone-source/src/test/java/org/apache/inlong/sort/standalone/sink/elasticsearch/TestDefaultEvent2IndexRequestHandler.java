@@ -28,6 +28,9 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -55,5 +58,31 @@ public class TestDefaultEvent2IndexRequestHandler {
         DefaultEvent2IndexRequestHandler handler = new DefaultEvent2IndexRequestHandler();
         EsIndexRequest indexRequest = handler.parse(context, event);
         assertEquals(indexName, indexRequest.index());
+        Map<String, Object> source = indexRequest.sourceAsMap();
+        assertEquals(handler.formatFtime(event.getRawLogTime()),
+                source.get(DefaultEvent2IndexRequestHandler.KEY_FTIME));
+        assertEquals(DefaultEvent2IndexRequestHandler.getExtInfo(event),
+                source.get(DefaultEvent2IndexRequestHandler.KEY_EXTINFO));
+    }
+
+    /**
+     * test that a repeated field name is written once with its last value
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testRepeatedField() throws Exception {
+        BufferQueue<EsIndexRequest> dispatchQueue = SinkContext.createBufferQueue();
+        EsSinkContext context = TestEsSinkContext.mock(dispatchQueue);
+        ProfileEvent event = TestEsSinkContext.mockProfileEvent();
+        EsIdConfig idConfig = context.getIdConfig(event.getUid());
+        idConfig.setFieldList(Arrays.asList("ftime", "extinfo", "t1", "t2", "t1", "t3"));
+        EsIndexRequest indexRequest = new DefaultEvent2IndexRequestHandler().parse(context, event);
+        String source = indexRequest.source().utf8ToString();
+        assertEquals(source.indexOf("\"t1\""), source.lastIndexOf("\"t1\""));
+        Map<String, Object> sourceMap = indexRequest.sourceAsMap();
+        assertEquals("field3", sourceMap.get("t1"));
+        assertEquals("field2", sourceMap.get("t2"));
+        assertEquals("field4", sourceMap.get("t3"));
     }
 }
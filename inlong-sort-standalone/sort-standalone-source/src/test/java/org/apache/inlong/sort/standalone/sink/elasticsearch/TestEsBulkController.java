@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 
+ * TestEsBulkController
+ */
+public class TestEsBulkController {
+
+    /**
+     * test that rejection decreases concurrent requests before bulk size
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testDecrease() throws Exception {
+        EsBulkController controller = new EsBulkController(true, 100, 1000, 1000L * 1024, 4, 1000L);
+        assertEquals(4, controller.getConcurrentRequests());
+        assertEquals(1000, controller.getBulkAction());
+        // one decrease per window of inflight bulks
+        for (int i = 0; i < 4; i++) {
+            assertTrue(controller.acquire(0));
+        }
+        assertFalse(controller.acquire(0));
+        for (int i = 0; i < 4; i++) {
+            controller.onBulkResponse(1000, 10, 100L);
+            controller.release();
+        }
+        assertEquals(2, controller.getConcurrentRequests());
+        assertEquals(1000, controller.getBulkAction());
+        controller.onBulkFailure();
+        assertEquals(1, controller.getConcurrentRequests());
+        controller.onBulkResponse(1000, 0, 2000L);
+        assertEquals(1, controller.getConcurrentRequests());
+        assertEquals(500, controller.getBulkAction());
+        assertEquals(500L * 1024, controller.getBulkSizeBytes());
+    }
+
+    /**
+     * test that healthy bulks increase concurrent requests, then bulk size of full bulks
+     */
+    @Test
+    public void testIncrease() {
+        EsBulkController controller = new EsBulkController(true, 100, 1000, 1000L * 1024, 2, 1000L);
+        controller.onBulkFailure();
+        controller.onBulkFailure();
+        assertEquals(1, controller.getConcurrentRequests());
+        assertEquals(500, controller.getBulkAction());
+        controller.onBulkResponse(500, 0, 100L);
+        assertEquals(2, controller.getConcurrentRequests());
+        // bulks not full
+        controller.onBulkResponse(10, 0, 100L);
+        controller.onBulkResponse(10, 0, 100L);
+        assertEquals(500, controller.getBulkAction());
+        controller.onBulkResponse(500, 0, 100L);
+        controller.onBulkResponse(500, 0, 100L);
+        assertEquals(600, controller.getBulkAction());
+        assertEquals(2, controller.getConcurrentRequests());
+    }
+
+    /**
+     * test that nothing changes without adaptive control
+     */
+    @Test
+    public void testNotAdaptive() {
+        EsBulkController controller = new EsBulkController(false, 100, 1000, 1000L * 1024, 4, 1000L);
+        controller.onBulkFailure();
+        controller.onBulkResponse(1000, 10, 5000L);
+        assertEquals(4, controller.getConcurrentRequests());
+        assertEquals(1000, controller.getBulkAction());
+        assertEquals(5000L, controller.getLastLatencyMs());
+    }
+}
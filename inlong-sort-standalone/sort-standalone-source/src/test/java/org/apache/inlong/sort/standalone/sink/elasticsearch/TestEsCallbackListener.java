@@ -27,6 +27,7 @@ import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexResponse;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -106,4 +107,26 @@ public class TestEsCallbackListener {
         responses[0] = failNullResponse;
         listener.afterBulk(executionId, bulkRequest, bulkResponse);
     }
+
+    /**
+     * testClientLatency
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testClientLatency() throws Exception {
+        ProfileEvent event = TestEsSinkContext.mockProfileEvent();
+        EsIndexRequest indexRequest = context.createIndexRequestHandler().parse(context, event);
+        EsBulkController controller = new EsBulkController(context);
+        EsCallbackListener listener = new EsCallbackListener(context, controller);
+        BulkRequest bulkRequest = new BulkRequest();
+        bulkRequest.add(indexRequest);
+        BulkItemResponse[] responses = new BulkItemResponse[]{
+                new BulkItemResponse(0, OpType.INDEX, new IndexResponse())};
+        // the server side took is 0, the wall time of the bulk is used
+        listener.beforeBulk(1, bulkRequest);
+        Thread.sleep(50);
+        listener.afterBulk(1, bulkRequest, new BulkResponse(responses, 0));
+        Assert.assertTrue(controller.getLastLatencyMs() >= 50);
+    }
 }
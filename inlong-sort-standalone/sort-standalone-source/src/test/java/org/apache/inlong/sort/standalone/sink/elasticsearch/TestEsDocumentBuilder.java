@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 
+ * TestEsDocumentBuilder
+ */
+public class TestEsDocumentBuilder {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * test that special chars are escaped
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testEscape() throws Exception {
+        String value = "a\"b\\c\nd\te\u0001f\u4e2d\ud83d\ude00";
+        byte[] bytes = new EsDocumentBuilder().begin()
+                .field("k\"1", value, Integer.MAX_VALUE)
+                .field("k2", "", Integer.MAX_VALUE)
+                .end();
+        Map<String, String> doc = OBJECT_MAPPER.readValue(bytes, new TypeReference<Map<String, String>>() {
+        });
+        assertEquals(2, doc.size());
+        assertEquals(value, doc.get("k\"1"));
+        assertEquals("", doc.get("k2"));
+    }
+
+    /**
+     * test that values are truncated by utf-8 bytes at char boundary
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testTruncate() throws Exception {
+        EsDocumentBuilder builder = new EsDocumentBuilder();
+        String value = "\u4e2d\u6587abc";
+        for (int maxBytes = 0; maxBytes <= 10; maxBytes++) {
+            byte[] bytes = builder.begin().field("k", value, maxBytes).end();
+            Map<String, String> doc = OBJECT_MAPPER.readValue(bytes, new TypeReference<Map<String, String>>() {
+            });
+            String truncated = doc.get("k");
+            int truncatedBytes = truncated.getBytes(StandardCharsets.UTF_8).length;
+            assertEquals(Math.min(maxBytes, 9) - (maxBytes < 6 ? maxBytes % 3 : 0), truncatedBytes);
+            assertEquals(value.substring(0, truncated.length()), truncated);
+        }
+    }
+
+    /**
+     * test that utf-8 byte fields are the same as string fields
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testByteField() throws Exception {
+        String value = "a\"b\\c\nd\u4e2d\ud83d\ude00";
+        byte[] valueBytes = ("xx" + value).getBytes(StandardCharsets.UTF_8);
+        EsDocumentBuilder byteBuilder = new EsDocumentBuilder();
+        EsDocumentBuilder stringBuilder = new EsDocumentBuilder();
+        for (int maxBytes = 0; maxBytes <= valueBytes.length; maxBytes++) {
+            byte[] expected = stringBuilder.begin().field("k", value, maxBytes).end();
+            byte[] bytes = byteBuilder.begin().field("k", valueBytes, 2, valueBytes.length, maxBytes).end();
+            assertEquals(new String(expected, StandardCharsets.UTF_8), new String(bytes, StandardCharsets.UTF_8));
+        }
+        // malformed utf-8 is decoded with replacement
+        byte[] malformed = new byte[]{'a', (byte) 0xE4, 'b'};
+        byte[] bytes = byteBuilder.begin().field("k", malformed, 0, malformed.length, Integer.MAX_VALUE).end();
+        Map<String, String> doc = OBJECT_MAPPER.readValue(bytes, new TypeReference<Map<String, String>>() {
+        });
+        assertEquals(new String(malformed, StandardCharsets.UTF_8), doc.get("k"));
+    }
+}
@@ -26,7 +26,6 @@ import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsRequest;
 import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsResponse;
 import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
-import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.client.ClusterClient;
@@ -65,9 +64,8 @@ public class TestEsOutputChannel {
         PowerMockito.when(EsSinkFactory.class, "createEsOutputChannel", any()).thenReturn(output);
         PowerMockito.doNothing().when(output, "close");
         //
-        BulkProcessor bulkProcessor = PowerMockito.mock(BulkProcessor.class);
-        PowerMockito.when(bulkProcessor, "add", any()).thenReturn(bulkProcessor);
-        PowerMockito.when(output, "getBulkProcessor").thenReturn(bulkProcessor);
+        RestHighLevelClient esClient = PowerMockito.mock(RestHighLevelClient.class);
+        PowerMockito.when(output, "getEsClient").thenReturn(esClient);
         PowerMockito.when(output, "initEsclient").thenReturn(true);
         return output;
     }
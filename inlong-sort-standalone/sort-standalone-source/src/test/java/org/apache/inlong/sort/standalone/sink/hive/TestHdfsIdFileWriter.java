@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.GzipCodec;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 
+ * TestHdfsIdFileWriter
+ */
+public class TestHdfsIdFileWriter {
+
+    private static ByteArrayOutputStream createData(String line, int rows) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < rows; i++) {
+            data.write((line + i + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return data;
+    }
+
+    private static String decompress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = input.read(buffer)) > 0) {
+                result.write(buffer, 0, len);
+            }
+        }
+        return new String(result.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * testCompressedMembers
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testCompressedMembers() throws IOException {
+        CompressionCodec codec = ReflectionUtils.newInstance(GzipCodec.class, new Configuration());
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        HdfsIdFileWriter writer = new HdfsIdFileWriter(file, codec, 1024);
+        ByteArrayOutputStream first = createData("first", 10);
+        ByteArrayOutputStream second = createData("second", 10);
+
+        writer.write(first, 10);
+        // the data is still in the buffer and the compressor, but it is counted
+        assertEquals(0, file.size());
+        assertTrue(writer.getFileSize() >= first.size());
+        writer.flush();
+        assertEquals(file.size(), writer.getFileSize());
+        int firstMemberSize = file.size();
+
+        writer.write(second, 10);
+        assertTrue(writer.getFileSize() >= firstMemberSize + second.size());
+        writer.flush();
+        assertEquals(file.size(), writer.getFileSize());
+        writer.close();
+        assertEquals(20, writer.getFileRows());
+
+        // the file is a sequence of members, it can be read as a whole
+        assertEquals(first.toString("UTF-8") + second.toString("UTF-8"), decompress(file.toByteArray()));
+    }
+
+    /**
+     * testRoll
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void testRoll() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        HdfsIdFileWriter writer = new HdfsIdFileWriter(file, null, 1024 * 1024);
+        ByteArrayOutputStream data = createData("line", 10);
+        long maxFileSize = data.size() * 3L;
+
+        writer.write(data, 10);
+        writer.write(data, 10);
+        assertFalse(writer.isRollRequired(maxFileSize, 100));
+        // the file size includes the buffered bytes, not only the bytes reached the file
+        writer.write(data, 10);
+        assertEquals(0, file.size());
+        assertTrue(writer.isRollRequired(maxFileSize, 100));
+        assertTrue(writer.isRollRequired(Long.MAX_VALUE, 30));
+        assertFalse(writer.isRollRequired(Long.MAX_VALUE, 31));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.inlong.sort.standalone.sink.kafka;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+
+import org.apache.flume.Context;
+import org.apache.flume.Transaction;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 
+ * TestKafkaTransactionalSender
+ */
+public class TestKafkaTransactionalSender {
+
+    private static final String TOPIC = "topic";
+
+    /**
+     * testCommitBatch
+     */
+    @Test
+    public void testCommitBatch() {
+        KafkaFederationSinkContext sinkContext = mock(KafkaFederationSinkContext.class);
+        List<MockProducer<String, byte[]>> producers = new ArrayList<>();
+        KafkaTransactionalSender sender = createSender(sinkContext, producers);
+        sender.start();
+        int count = 5;
+        List<ProfileEvent> events = new ArrayList<>();
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProfileEvent event = mock(ProfileEvent.class);
+            Transaction tx = mock(Transaction.class);
+            events.add(event);
+            txs.add(tx);
+            assertTrue(sender.send(event, new ProducerRecord<>(TOPIC, new byte[]{(byte) i}), tx, TOPIC, 0));
+        }
+        sender.close();
+        assertEquals(1, producers.size());
+        MockProducer<String, byte[]> producer = producers.get(0);
+        assertTrue(producer.transactionCommitted());
+        assertEquals(count, producer.history().size());
+        for (int i = 0; i < count; i++) {
+            verify(txs.get(i)).commit();
+            verify(txs.get(i), never()).rollback();
+            verify(txs.get(i)).close();
+            verify(events.get(i)).ack();
+        }
+        verify(sinkContext, times(count)).addSendResultMetric(any(), eq(TOPIC), eq(true), anyLong());
+    }
+
+    /**
+     * testFencedProducer
+     */
+    @Test
+    public void testFencedProducer() {
+        KafkaFederationSinkContext sinkContext = mock(KafkaFederationSinkContext.class);
+        List<MockProducer<String, byte[]>> producers = new ArrayList<>();
+        KafkaTransactionalSender sender = createSender(sinkContext, producers);
+        sender.start();
+        producers.get(0).fenceProducer();
+        ProfileEvent event = mock(ProfileEvent.class);
+        Transaction tx = mock(Transaction.class);
+        assertTrue(sender.send(event, new ProducerRecord<>(TOPIC, new byte[]{1}), tx, TOPIC, 0));
+        sender.close();
+        // the channel transaction is rolled back, and the producer is recreated
+        verify(tx).rollback();
+        verify(tx, never()).commit();
+        verify(event, never()).ack();
+        assertEquals(2, producers.size());
+    }
+
+    /**
+     * testSendAfterClose
+     */
+    @Test
+    public void testSendAfterClose() {
+        KafkaFederationSinkContext sinkContext = mock(KafkaFederationSinkContext.class);
+        KafkaTransactionalSender sender = createSender(sinkContext, new ArrayList<>());
+        sender.start();
+        sender.close();
+        Transaction tx = mock(Transaction.class);
+        assertFalse(sender.send(mock(ProfileEvent.class),
+                new ProducerRecord<>(TOPIC, new byte[]{1}), tx, TOPIC, 0));
+        verify(tx, never()).commit();
+    }
+
+    /**
+     * testTransactionalId, the senders of different nodes or sinks must not share the transactional.id
+     */
+    @Test
+    public void testTransactionalId() {
+        KafkaFederationSinkContext node1 = mockSinkContext("node1", "task", "sink");
+        KafkaFederationSinkContext node2 = mockSinkContext("node2", "task", "sink");
+        KafkaFederationSinkContext otherSink = mockSinkContext("node1", "task", "sink2");
+        KafkaFederationSinkContext otherTask = mockSinkContext("node1", "task2", "sink");
+        String id = KafkaProducerCluster.getTransactionalId(node1, "cache", "0");
+        assertEquals("cluster-node1-task-sink-cache-0", id);
+        assertNotEquals(id, KafkaProducerCluster.getTransactionalId(node2, "cache", "0"));
+        assertNotEquals(id, KafkaProducerCluster.getTransactionalId(otherSink, "cache", "0"));
+        assertNotEquals(id, KafkaProducerCluster.getTransactionalId(otherTask, "cache", "0"));
+        assertNotEquals(id, KafkaProducerCluster.getTransactionalId(node1, "cache", "1"));
+    }
+
+    private static KafkaFederationSinkContext mockSinkContext(String nodeId, String taskName, String sinkName) {
+        KafkaFederationSinkContext sinkContext = mock(KafkaFederationSinkContext.class);
+        when(sinkContext.getProducerContext()).thenReturn(new Context());
+        when(sinkContext.getClusterId()).thenReturn("cluster");
+        when(sinkContext.getNodeId()).thenReturn(nodeId);
+        when(sinkContext.getTaskName()).thenReturn(taskName);
+        when(sinkContext.getSinkName()).thenReturn(sinkName);
+        return sinkContext;
+    }
+
+    /**
+     * createSender
+     * 
+     * @param  sinkContext
+     * @param  producers   the created producers
+     * @return
+     */
+    private static KafkaTransactionalSender createSender(KafkaFederationSinkContext sinkContext,
+            List<MockProducer<String, byte[]>> producers) {
+        return new KafkaTransactionalSender(sinkContext, () -> {
+            MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(),
+                    new ByteArraySerializer());
+            producers.add(producer);
+            return (Producer<String, byte[]>) producer;
+        }, 100, 50L, 2, "testSender");
+    }
+}
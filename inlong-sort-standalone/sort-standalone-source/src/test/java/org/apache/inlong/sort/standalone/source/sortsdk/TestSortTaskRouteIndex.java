@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.source.sortsdk;
+
+import org.apache.inlong.common.pojo.sortstandalone.SortTaskConfig;
+import org.apache.inlong.sdk.sort.entity.InLongMessage;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestSortTaskRouteIndex {
+
+    private static Map<String, String> idParam(String inlongGroupId, String inlongStreamId) {
+        Map<String, String> idParam = new HashMap<>();
+        idParam.put(Constants.INLONG_GROUP_ID, inlongGroupId);
+        idParam.put(Constants.INLONG_STREAM_ID, inlongStreamId);
+        return idParam;
+    }
+
+    private static InLongMessage message(String inlongGroupId, String inlongStreamId) {
+        return new InLongMessage(inlongGroupId, inlongStreamId, System.currentTimeMillis(), "127.0.0.1",
+                new byte[0], new HashMap<>());
+    }
+
+    private static SortTaskConfig prepareTaskConfig() {
+        List<Map<String, String>> idParams = new ArrayList<>();
+        idParams.add(idParam("group1", "stream1"));
+        idParams.add(idParam("group1", "stream2"));
+        idParams.add(idParam("group2", ""));
+        return SortTaskConfig.builder().name("testTask").idParams(idParams).build();
+    }
+
+    @Test
+    public void testRoute() {
+        Assert.assertNull(SortTaskRouteIndex.create(null));
+        SortTaskRouteIndex index = SortTaskRouteIndex.create(prepareTaskConfig());
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals("stream2", index.route("group1", "stream2").get(Constants.INLONG_STREAM_ID));
+        Assert.assertNotNull(index.route("group2", null));
+        Assert.assertNull(index.route("group1", "stream3"));
+        Assert.assertNull(index.route("group3", "stream1"));
+        Assert.assertTrue(index.isSameConfig(prepareTaskConfig()));
+        Assert.assertFalse(index.isSameConfig(SortTaskConfig.builder().name("testTask").build()));
+    }
+
+    @Test
+    public void testFilter() {
+        SortTaskRouteIndex index = SortTaskRouteIndex.create(prepareTaskConfig());
+        List<InLongMessage> owned = Arrays.asList(message("group1", "stream1"), message("group1", "stream1"),
+                message("group2", null));
+        Assert.assertSame(owned, index.filter(owned));
+
+        List<InLongMessage> mixed = Arrays.asList(message("group1", "stream1"), message("group3", "stream1"),
+                message("group3", "stream1"), message("group1", "stream2"));
+        List<InLongMessage> result = index.filter(mixed);
+        Assert.assertEquals(2, result.size());
+        Assert.assertSame(mixed.get(0), result.get(0));
+        Assert.assertSame(mixed.get(3), result.get(1));
+
+        Assert.assertTrue(index.filter(Arrays.asList(message("group3", "stream1"))).isEmpty());
+    }
+
+    @Test
+    public void testDefaultStreamId() {
+        Map<String, String> idParam = new HashMap<>();
+        idParam.put(Constants.INLONG_GROUP_ID, "group4");
+        // the pulsar sink defaults the missing stream id to 1
+        SortTaskRouteIndex pulsarIndex = SortTaskRouteIndex.create(SortTaskConfig.builder().name("testTask")
+                .type("PULSAR").idParams(Arrays.asList(idParam)).build());
+        Assert.assertEquals(1, pulsarIndex.size());
+        Assert.assertNotNull(pulsarIndex.route("group4", "1"));
+        Assert.assertNotNull(pulsarIndex.route("group4", null));
+
+        SortTaskRouteIndex kafkaIndex = SortTaskRouteIndex.create(SortTaskConfig.builder().name("testTask")
+                .type("KAFKA").idParams(Arrays.asList(idParam)).build());
+        Assert.assertNull(kafkaIndex.route("group4", "1"));
+        Assert.assertNotNull(kafkaIndex.route("group4", ""));
+    }
+}